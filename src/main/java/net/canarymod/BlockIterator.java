@@ -75,7 +75,7 @@ public class BlockIterator implements Iterator<Block> {
      * @param in_range
      *         the maximum range to check
      * @param in_step
-     *         the stepping value, the amount Y to increase/decrease the further away the checks get
+     *         no longer used, every block along the line is visited
      */
     public BlockIterator(Player in_player, int in_range, double in_step) {
         this.tracer = new LineTracer(in_player, in_range, in_step);
@@ -90,7 +90,7 @@ public class BlockIterator implements Iterator<Block> {
      * @param in_range
      *         the maximum range to check
      * @param in_step
-     *         the stepping value, the amount Y to increase/decrease the further away the checks get
+     *         no longer used, every block along the line is visited
      * @param doAir
      *         set to {@code true} to include Air blocks
      */
@@ -108,7 +108,7 @@ public class BlockIterator implements Iterator<Block> {
      * @param in_range
      *         the maximum range to check
      * @param in_step
-     *         the stepping value, the amount Y to increase/decrease the further away the checks get
+     *         no longer used, every block along the line is visited
      */
     public BlockIterator(Location in_location, int in_range, double in_step) {
         this.tracer = new LineTracer(in_location, in_range, in_step);
@@ -123,13 +123,13 @@ public class BlockIterator implements Iterator<Block> {
      * @param in_range
      *         the maximum range to check
      * @param in_step
-     *         the stepping value, the amount Y to increase/decrease the further away the checks get
+     *         no longer used, every block along the line is visited
      * @param doAir
      *         set to {@code true} to include Air blocks
      */
     public BlockIterator(Location in_location, int in_range, double in_step, boolean doAir) {
         this.tracer = new LineTracer(in_location, in_range, in_step);
-        this.doAir = false;
+        this.doAir = doAir;
     }
 
     /**
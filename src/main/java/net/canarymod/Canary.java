@@ -14,13 +14,17 @@ import net.canarymod.help.HelpManager;
 import net.canarymod.hook.HookExecutor;
 import net.canarymod.kit.KitProvider;
 import net.canarymod.logger.Logman;
+import net.canarymod.metrics.Gauge;
+import net.canarymod.metrics.MetricsRegistry;
 import net.canarymod.motd.MessageOfTheDay;
 import net.canarymod.permissionsystem.PermissionManager;
 import net.canarymod.plugin.PluginManager;
 import net.canarymod.plugin.lifecycle.InvalidPluginLifecycleException;
 import net.canarymod.plugin.lifecycle.JavaPluginLifecycle;
 import net.canarymod.plugin.lifecycle.PluginLifecycleFactory;
+import net.canarymod.profiler.TickProfiler;
 import net.canarymod.serialize.Serializer;
+import net.canarymod.tasks.ServerTaskManager;
 import net.canarymod.tasks.TaskOwner;
 import net.canarymod.user.OperatorsProvider;
 import net.canarymod.user.ReservelistProvider;
@@ -67,6 +71,8 @@ public abstract class Canary implements TaskOwner {
     protected MessageOfTheDay motd;
     protected PlayerSelector playerSelector;
     protected JsonNBTUtility jsonNBT;
+    protected final TickProfiler tickProfiler = new TickProfiler();
+    protected final MetricsRegistry metrics = new MetricsRegistry();
 
     // Serializer Cache
     HashMap<Class<?>, Serializer<?>> serializers = new HashMap<Class<?>, Serializer<?>>();
@@ -243,6 +249,24 @@ public abstract class Canary implements TaskOwner {
         return instance.motd;
     }
 
+    /**
+     * Gets the {@link TickProfiler}
+     *
+     * @return {@link TickProfiler}
+     */
+    public static TickProfiler profiler() {
+        return instance.tickProfiler;
+    }
+
+    /**
+     * Gets the {@link MetricsRegistry}
+     *
+     * @return {@link MetricsRegistry}
+     */
+    public static MetricsRegistry metrics() {
+        return instance.metrics;
+    }
+
     /**
      * Gets the {@link PlayerSelector}
      *
@@ -270,6 +294,8 @@ public abstract class Canary implements TaskOwner {
     public static void setCanary(Canary canary) {
         if (instance == null) {
             instance = canary;
+            Logman.setAsync(Configuration.getServerConfig().isLoggerAsync());
+            Configuration.setWatchInterval(Configuration.getServerConfig().getConfigWatchInterval());
         }
     }
 
@@ -281,6 +307,19 @@ public abstract class Canary implements TaskOwner {
      */
     public static void setServer(Server server) {
         instance.server = server;
+        instance.metrics.gauge("canary_players_online", "Players currently online", new Gauge() {
+            @Override
+            public double getValue() {
+                return instance.server == null ? 0 : instance.server.getNumPlayersOnline();
+            }
+        });
+        instance.metrics.gauge("canary_players_max", "Maximum number of players", new Gauge() {
+            @Override
+            public double getValue() {
+                return instance.server == null ? 0 : instance.server.getMaxPlayers();
+            }
+        });
+        instance.metrics.reload();
     }
 
 
@@ -392,6 +431,9 @@ public abstract class Canary implements TaskOwner {
         instance.reservelist.reload();
         instance.ops.reload();
         instance.motd.reload();
+        Translator.reload();
+        applyServerConfiguration();
+        instance.helpManager.invalidate();
 
         // Reload Player permissions and groups data
         for (Player p : getServer().getPlayerList()) {
@@ -399,6 +441,24 @@ public abstract class Canary implements TaskOwner {
         }
     }
 
+    /**
+     * Applies the server configuration to the subsystems that read it once rather than on every use,
+     * such as the logger, task manager, profiler and metrics.
+     * <p/>
+     * It is called after the server configuration is reloaded, whether by {@link #reload()} or because the file changed,
+     * and must be called on the main thread.
+     */
+    public void applyServerConfiguration() {
+        Logman.setAsync(Configuration.getServerConfig().isLoggerAsync());
+        Configuration.setWatchInterval(Configuration.getServerConfig().getConfigWatchInterval());
+        ServerTaskManager.setTickBudget(Configuration.getServerConfig().getTaskTickBudget());
+        tickProfiler.reload();
+        metrics.reload();
+        if (commandManager != null) {
+            commandManager.getStatistics().reload();
+        }
+    }
+
     /**
      * Sets the Specification Version
      *
@@ -1,6 +1,7 @@
 package net.canarymod;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Collection;
@@ -16,6 +17,17 @@ import java.util.jar.JarFile;
 public final class CanaryClassLoader extends URLClassLoader {
     private final static CanaryClassWatcher ccw = new CanaryClassWatcher();
 
+    static {
+        try { // Java 7 loaders can load classes in parallel if they say so; since we compile with Java 6 it has to be invoked
+            Method register = ClassLoader.class.getDeclaredMethod("registerAsParallelCapable");
+            register.setAccessible(true);
+            register.invoke(null);
+        }
+        catch (Exception ex) {
+            // Java 6, loading is synchronized on the loader
+        }
+    }
+
     /**
      * Constructs a new CanaryClassLoader
      *
@@ -25,7 +37,22 @@ public final class CanaryClassLoader extends URLClassLoader {
      *         the {@link ClassLoader} parent
      */
     public CanaryClassLoader(URL url, ClassLoader loader) {
+        this(url, loader, null);
+    }
+
+    /**
+     * Constructs a new CanaryClassLoader
+     *
+     * @param url
+     *         the {@link URL} to the jar file to be opened in this loader
+     * @param loader
+     *         the {@link ClassLoader} parent
+     * @param classNames
+     *         the names of the classes in the jar, so other loaders can find them without searching; {@code null} if not known
+     */
+    public CanaryClassLoader(URL url, ClassLoader loader, Collection<String> classNames) {
         super(new URL[]{ url }, loader);
+        ccw.addLoader(this, classNames);
     }
 
     /** {@inheritDoc} */
@@ -1,19 +1,77 @@
 package net.canarymod;
 
-import com.google.common.collect.ArrayListMultimap;
 import net.canarymod.plugin.Plugin;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
 /**
  * Canary Class Watcher
  * <p/>
  * Designed to allow plugins to share classes between each other.<br>
  * NOTE: If a class isn't loaded, this will load the class from the first ClassLoader that has the class.<br>
  * It could be an incorrect class or improperly initialized. Plugin devs should program with this in mind.
+ * <p/>
+ * Loaded classes are kept by name, and the classes each jar contains are indexed when its loader is registered,
+ * so finding a class is a lookup rather than a search. Only loaders whose jar could not be listed are probed for the class.<br>
+ * The index keeps every loader having a class, so removing a loader only touches the classes of its own jar.
  *
  * @author Jason (darkdiplomat)
  */
 final class CanaryClassWatcher {
-    private final ArrayListMultimap<CanaryClassLoader, Class<?>> loadedClasses = ArrayListMultimap.create();
+    private final ConcurrentMap<String, Class<?>> loadedClasses = new ConcurrentHashMap<String, Class<?>>();
+    private final ConcurrentMap<CanaryClassLoader, List<Class<?>>> loaderClasses = new ConcurrentHashMap<CanaryClassLoader, List<Class<?>>>();
+    private final ConcurrentMap<String, CanaryClassLoader[]> classIndex = new ConcurrentHashMap<String, CanaryClassLoader[]>(); // The loaders having a class, first registered first
+    private final ConcurrentMap<CanaryClassLoader, Collection<String>> listings = new ConcurrentHashMap<CanaryClassLoader, Collection<String>>();
+    private final Set<CanaryClassLoader> unlisted = new CopyOnWriteArraySet<CanaryClassLoader>();
+
+    /**
+     * Registers a {@link CanaryClassLoader} along with the classes its jar contains
+     *
+     * @param loader
+     *         the {@link CanaryClassLoader}
+     * @param classNames
+     *         the names of the classes in the jar; {@code null} if not known
+     */
+    final void addLoader(CanaryClassLoader loader, Collection<String> classNames) {
+        if (classNames == null) {
+            unlisted.add(loader);
+            return;
+        }
+        synchronized (classIndex) {
+            listings.put(loader, classNames);
+            for (String name : classNames) {
+                CanaryClassLoader[] providers = classIndex.get(name);
+                if (providers == null) {
+                    classIndex.put(name, new CanaryClassLoader[]{ loader });
+                }
+                else { // The first jar to have a class provides it, the others are kept in case it is removed
+                    providers = Arrays.copyOf(providers, providers.length + 1);
+                    providers[providers.length - 1] = loader;
+                    classIndex.put(name, providers);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the {@link CanaryClassLoader} that provides a class to the other loaders
+     *
+     * @param name
+     *         the name of the {@link Class}
+     *
+     * @return the first registered loader whose jar contains the class; {@code null} if there is none
+     */
+    final CanaryClassLoader getProvider(String name) {
+        CanaryClassLoader[] providers = classIndex.get(name);
+        return providers == null ? null : providers[0];
+    }
 
     /**
      * Finds a loaded {@link Class} from any of the {@link Plugin}'s {@link CanaryClassLoader}
@@ -25,17 +83,17 @@ final class CanaryClassWatcher {
      *
      * @return the {@link Class} if found; {@code null} otherwise
      */
-    synchronized final Class<?> findLoadedClass(CanaryClassLoader looking, String name) {
-        for (Class<?> cls : loadedClasses.values()) {
-            if (cls.getName().equals(name)) {
-                return cls;
-            }
+    final Class<?> findLoadedClass(CanaryClassLoader looking, String name) {
+        Class<?> cls = loadedClasses.get(name);
+        if (cls != null) {
+            return cls;
         }
         return loadClass(looking, name); // ClassNotFound, attempt to load it
     }
 
     /**
-     * Loads a {@link Class} from the first loader that contains the class
+     * Loads a {@link Class} from the loader whose jar contains the class.<br>
+     * Loaders that couldn't list their jar are asked in turn.
      *
      * @param looking
      *         the {@link net.canarymod.CanaryClassLoader} looking for a {@link java.lang.Class}
@@ -44,37 +102,68 @@ final class CanaryClassWatcher {
      *
      * @return the {@link Class} if found; {@code null} otherwise
      */
-    private synchronized Class<?> loadClass(CanaryClassLoader looking, String name) {
+    private Class<?> loadClass(CanaryClassLoader looking, String name) {
+        CanaryClassLoader owner = getProvider(name);
+        if (owner != null && owner != looking) {
+            Class<?> cls = loadFrom(owner, name);
+            if (cls != null) {
+                return cls;
+            }
+        }
+        if (unlisted.isEmpty()) {
+            return null;
+        }
         String nameTemp = name.replace('.', '/').concat(".class");
-        for (CanaryClassLoader loader : loadedClasses.keySet()) {
+        for (CanaryClassLoader loader : unlisted) {
             if (loader == looking) {
                 continue; // We already know that this loader has failed
             }
             if (loader.getResource(nameTemp) != null) {
-                try {
-                    Class<?> cls = loader.loadClass(name);
-                    addClass(loader, cls);
+                Class<?> cls = loadFrom(loader, name);
+                if (cls != null) {
                     return cls;
                 }
-                catch (ClassNotFoundException e) {
-                    // Realistically this shouldn't happen here since we pre-checked if the jar has the resource
-                    // But then again it is Java
-                }
             }
         }
         return null;
     }
 
+    private Class<?> loadFrom(CanaryClassLoader loader, String name) {
+        try {
+            Class<?> cls = loader.loadClass(name);
+            addClass(loader, cls);
+            return cls;
+        }
+        catch (ClassNotFoundException e) {
+            // Realistically this shouldn't happen here since we know the jar has the class
+            // But then again it is Java
+            return null;
+        }
+    }
+
     /**
-     * Adds a {@link Class} to the list of loaded classes
+     * Adds a {@link Class} to the loaded classes
      *
      * @param loader
      *         the {@link CanaryClassLoader} the {@link Class} is from
      * @param cls
      *         the {@link Class} to be added
      */
-    synchronized final void addClass(CanaryClassLoader loader, Class<?> cls) {
-        loadedClasses.put(loader, cls);
+    final void addClass(CanaryClassLoader loader, Class<?> cls) {
+        if (loadedClasses.putIfAbsent(cls.getName(), cls) != null) {
+            return;
+        }
+        List<Class<?>> classes = loaderClasses.get(loader);
+        if (classes == null) {
+            List<Class<?>> created = new ArrayList<Class<?>>();
+            classes = loaderClasses.putIfAbsent(loader, created);
+            if (classes == null) {
+                classes = created;
+            }
+        }
+        synchronized (classes) {
+            classes.add(cls);
+        }
     }
 
     /**
@@ -83,9 +172,44 @@ final class CanaryClassWatcher {
      * @param loader
      *         the {@link CanaryClassLoader} to remove
      */
-    synchronized final void removeLoader(CanaryClassLoader loader) {
-        if (loadedClasses.containsKey(loader)) {
-            loadedClasses.asMap().remove(loader);
+    final void removeLoader(CanaryClassLoader loader) {
+        unlisted.remove(loader);
+        synchronized (classIndex) {
+            Collection<String> listing = listings.remove(loader);
+            if (listing != null) {
+                for (String name : listing) {
+                    removeProvider(name, loader);
+                }
+            }
+        }
+        List<Class<?>> classes = loaderClasses.remove(loader);
+        if (classes != null) {
+            synchronized (classes) {
+                for (Class<?> cls : classes) {
+                    loadedClasses.remove(cls.getName(), cls);
+                }
+            }
+        }
+    }
+
+    /** Removes a loader from the loaders having a class, so the next one provides it. Called while holding the index. */
+    private void removeProvider(String name, CanaryClassLoader loader) {
+        CanaryClassLoader[] providers = classIndex.get(name);
+        if (providers == null) {
+            return;
+        }
+        for (int index = 0; index < providers.length; index++) {
+            if (providers[index] == loader) {
+                if (providers.length == 1) {
+                    classIndex.remove(name);
+                    return;
+                }
+                CanaryClassLoader[] remaining = new CanaryClassLoader[providers.length - 1];
+                System.arraycopy(providers, 0, remaining, 0, index);
+                System.arraycopy(providers, index + 1, remaining, index, remaining.length - index);
+                classIndex.put(name, remaining);
+                return;
+            }
         }
     }
 }
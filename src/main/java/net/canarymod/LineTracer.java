@@ -1,6 +1,8 @@
 package net.canarymod;
 
 import net.canarymod.api.entity.living.humanoid.Player;
+import net.canarymod.api.world.Chunk;
+import net.canarymod.api.world.World;
 import net.canarymod.api.world.blocks.Block;
 import net.canarymod.api.world.position.Location;
 
@@ -8,18 +10,30 @@ import net.canarymod.api.world.position.Location;
  * Traces the line of sight of an entity.
  * You can retrieve any blocks along the Line of Sight or simply the last block
  * there is within a specified range. Range defaults to 200 blocks
+ * <p/>
+ * The line is walked from block to block (Amanatides and Woo's voxel traversal), so every block the line passes through
+ * is visited exactly once, including those it only clips at a corner. Air is recognized by the block id in the chunk,
+ * so a {@link Block} is only created for the blocks that are returned.
  *
  * @author Ho0ber
  */
 public class LineTracer {
     private Location playerLoc;
+    private World world;
     private Block currentBlock, lastBlock, targetBlock;
-    private double rotX, rotY, viewHeight;
-    private double length, step;
+    private double viewHeight;
+    private double length;
     private int range;
-    private double xOffset, yOffset, zOffset;
-    private double last_x, last_y, last_z;
-    private double currentX, currentY, currentZ;
+    private boolean started, finished;
+    /* the block the line is in, and the direction it moves through the blocks */
+    private int blockX, blockY, blockZ;
+    private int stepX, stepY, stepZ;
+    /* the length along the line at which it crosses into the next block on each axis, and the length to cross a whole block */
+    private double nextX, nextY, nextZ;
+    private double deltaX, deltaY, deltaZ;
+    /* the chunk the last air check was made in */
+    private Chunk chunk;
+    private int chunkX, chunkZ;
 
     /**
      * Constructor requiring player, uses default values
@@ -51,7 +65,7 @@ public class LineTracer {
      * @param in_range
      *         the maximum range to check
      * @param in_step
-     *         the stepping value, the amount Y to increase/decrease the further away the checks get
+     *         no longer used, every block along the line is visited
      */
     public LineTracer(Player in_player, int in_range, double in_step) {
         Location loc = in_player.getLocation();
@@ -67,7 +81,7 @@ public class LineTracer {
      * @param in_range
      *         the maximum range to check
      * @param in_step
-     *         the stepping value, the amount Y to increase/decrease the further away the checks get
+     *         no longer used, every block along the line is visited
      */
     public LineTracer(Location in_location, int in_range, double in_step) {
         init(in_location, in_range, in_step, 0);
@@ -81,31 +95,56 @@ public class LineTracer {
      * @param in_range
      *         the maximum range to check
      * @param in_step
-     *         the stepping value, the amount Y to increase/decrease the further away the checks get
+     *         no longer used, every block along the line is visited
      * @param in_view_height
      *         the View Height to use, a {@link Player}'s view height is typically 1.62
      */
     public void init(Location in_location, int in_range, double in_step, double in_view_height) {
         playerLoc = in_location;
+        world = playerLoc.getWorld();
         viewHeight = in_view_height;
         range = in_range;
-        step = in_step;
         length = 0;
+        started = finished = false;
+        currentBlock = lastBlock = targetBlock = null;
+        chunk = null;
         /* Convert these to real world math numbers */
-        
+
         /* convert negative rotation values to positive */
-        rotX = playerLoc.getRotation();
-        rotX = rotX < 0 ? Math.abs(rotX) : 360 - rotX;
+        double rotX = playerLoc.getRotation();
+        rotX = Math.toRadians(rotX < 0 ? Math.abs(rotX) : 360 - rotX);
         /* convert minecraft pitch to degree pitch */
-        rotY = 90 + playerLoc.getPitch();
-                
-        currentX = playerLoc.getX();
+        double rotY = Math.toRadians(90 + playerLoc.getPitch());
+        /* the direction only has to be worked out once */
+        double common = Math.sin(rotY);
+        double dirX = common * Math.sin(rotX);
+        double dirY = Math.cos(rotY);
+        double dirZ = common * Math.cos(rotX);
+
+        double x = playerLoc.getX();
         /* Add Eye Height to the Y */
-        currentY = playerLoc.getY() + viewHeight;
-        currentZ = playerLoc.getZ();
-        last_x = currentX;
-        last_y = currentY;
-        last_z = currentZ;
+        double y = playerLoc.getY() + viewHeight;
+        double z = playerLoc.getZ();
+        blockX = ToolBox.floorToBlock(x);
+        blockY = ToolBox.floorToBlock(y);
+        blockZ = ToolBox.floorToBlock(z);
+        stepX = dirX < 0 ? -1 : 1;
+        stepY = dirY < 0 ? -1 : 1;
+        stepZ = dirZ < 0 ? -1 : 1;
+        deltaX = Math.abs(1 / dirX);
+        deltaY = Math.abs(1 / dirY);
+        deltaZ = Math.abs(1 / dirZ);
+        nextX = boundary(x, blockX, dirX);
+        nextY = boundary(y, blockY, dirY);
+        nextZ = boundary(z, blockZ, dirZ);
+    }
+
+    /* the length along the line until it first crosses a block boundary on an axis */
+    private static double boundary(double position, int block, double direction) {
+        if (direction == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (direction > 0 ? block + 1 - position : position - block) / Math.abs(direction);
     }
 
     /**
@@ -114,7 +153,7 @@ public class LineTracer {
      * @return the Target {@link Block}
      */
     public Block getTargetBlock() {
-        while ((length <= range) && targetBlock == null) {
+        while (!finished && targetBlock == null) {
             /* do nothing, just keep looping til we get out of range of have a block */
             getNextBlock();
         }
@@ -135,7 +174,7 @@ public class LineTracer {
     }
 
     /**
-     * Returns STEPS forward along line of vision and returns block.
+     * Moves forward along line of vision to the next block and returns it.
      * This method skips all Air Blocks.
      *
      * @return the next {@link Block} or null if none exists
@@ -145,7 +184,7 @@ public class LineTracer {
     }
 
     /**
-     * Returns STEPS forward along line of vision and returns block.
+     * Moves forward along line of vision to the next block and returns it.
      *
      * @param doAir
      *         set to {@code true} to check air; {@code false} otherwise
@@ -155,44 +194,25 @@ public class LineTracer {
     public Block getNextBlock(boolean doAir) {
         Block block = null;
 
-        while ((length <= range) && continueLoop(block)) {
-            length += step;
-            /* common is the first half of the equation, prevents us from calculating twice */
-            double common = (step * Math.sin(Math.toRadians(rotY)));
-            /* calculate the offsets */
-            yOffset = (step * Math.cos(Math.toRadians(rotY)));
-            zOffset = (common * Math.cos(Math.toRadians(rotX)));
-            xOffset = (common * Math.sin(Math.toRadians(rotX)));
-            /* Apply offset to current coordinates */
-            currentX = xOffset + currentX;
-            currentY = yOffset + currentY;
-            currentZ = zOffset + currentZ;
-
-            if (outOfWorld(currentX, currentY, currentZ)) {
-                currentBlock = block = null;
-                break;
+        while (block == null && advance()) {
+            if (!doAir && isAir(blockX, blockY, blockZ)) {
+                continue;
             }
-
-            block = playerLoc.getWorld().getBlockAt(ToolBox.floorToBlock(currentX),ToolBox.floorToBlock(currentY), ToolBox.floorToBlock(currentZ));
-
-            if (block != null && !block.equals(currentBlock)) {
-                if (block.isAir() && !doAir) {
-                    continue;
-                }
-                /* set last values to current values */
-                lastBlock = currentBlock;
-                currentBlock = block;
-                last_x = currentX;
-                last_y = currentY;
-                last_z = currentZ;
-                break;
+            block = world.getBlockAt(blockX, blockY, blockZ);
+            /* The chunk may not have been loaded for the check above */
+            if (block != null && block.isAir() && !doAir) {
+                block = null;
             }
         }
 
-        /* Reset block to null if the block was air and not tracking air */
-        if (block != null && block.isAir() && !doAir) {
-            block = null;
+        if (block == null) {
+            /* out of range or out of the world */
+            currentBlock = null;
+            return null;
         }
+        /* set last values to current values */
+        lastBlock = currentBlock;
+        currentBlock = block;
 
         /* set target block for later */
         if (targetBlock == null) {
@@ -202,16 +222,46 @@ public class LineTracer {
         return block;
     }
 
-    /* Checks if loop can continue above */
-    private boolean continueLoop(Block block) {
-        if (block == null) return true;
-        if (currentBlock != null && currentBlock.equals(block)) return true;
-        if (block.isAir()) return true;
-        return false;
+    /* Moves into the next block along the line, the first call stays in the block the line starts in */
+    private boolean advance() {
+        if (finished) {
+            return false;
+        }
+        if (!started) {
+            started = true;
+        }
+        else if (nextX < nextY && nextX < nextZ) {
+            blockX += stepX;
+            length = nextX;
+            nextX += deltaX;
+        }
+        else if (nextY < nextZ) {
+            blockY += stepY;
+            length = nextY;
+            nextY += deltaY;
+        }
+        else {
+            blockZ += stepZ;
+            length = nextZ;
+            nextZ += deltaZ;
+        }
+        finished = length > range || outOfWorld(blockX, blockY, blockZ);
+        return !finished;
+    }
+
+    /* Checks the block id, without creating a Block, if the chunk is loaded */
+    private boolean isAir(int x, int y, int z) {
+        int cx = x >> 4, cz = z >> 4;
+        if (chunk == null || chunkX != cx || chunkZ != cz) {
+            chunk = world.isChunkLoaded(cx, cz) ? world.getChunk(cx, cz) : null;
+            chunkX = cx;
+            chunkZ = cz;
+        }
+        return chunk != null && chunk.getBlockTypeAt(x & 15, y, z & 15) == 0;
     }
 
-    private boolean outOfWorld(double x, double y, double z) {
-        return ToolBox.floorToBlock(x) < -30000000 || ToolBox.floorToBlock(x) > 30000000 || ToolBox.floorToBlock(y) < 0 || ToolBox.floorToBlock(y) > 256 || ToolBox.floorToBlock(z) < -30000000 || ToolBox.floorToBlock(z) > 30000000;
+    private boolean outOfWorld(int x, int y, int z) {
+        return x < -30000000 || x > 30000000 || y < 0 || y > 255 || z < -30000000 || z > 30000000;
     }
 
     /**
@@ -0,0 +1,61 @@
+package net.canarymod;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves the locale codes clients send, such as {@code en_us} or {@code de-DE}, to the language files in a directory.
+ * <p/>
+ * The language files are listed once per {@link #reload()}, so only codes there is a file for are ever kept,
+ * however many different codes clients send.
+ */
+final class LocaleResolver {
+    private static final String EXTENSION = ".lang";
+
+    private final File directory;
+    private volatile Map<String, String> languages = Collections.emptyMap();
+
+    LocaleResolver(File directory) {
+        this.directory = directory;
+        reload();
+    }
+
+    /** Lists the language files again */
+    void reload() {
+        Map<String, String> found = new HashMap<String, String>();
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.endsWith(EXTENSION) && new File(directory, name).isFile()) {
+                    String code = name.substring(0, name.length() - EXTENSION.length());
+                    found.put(normalize(code), code);
+                }
+            }
+        }
+        languages = found;
+    }
+
+    /**
+     * Gets the code of the language file for a locale code
+     *
+     * @param locale
+     *         the locale code, in any case and with {@code _} or {@code -}
+     * @param fallback
+     *         the code to use if there is no language file for the locale
+     *
+     * @return the code of the language file, such as {@code en_US}; the fallback if there is none
+     */
+    String resolve(String locale, String fallback) {
+        if (locale == null || locale.isEmpty()) {
+            return fallback;
+        }
+        String code = languages.get(normalize(locale));
+        return code == null ? fallback : code;
+    }
+
+    private static String normalize(String locale) {
+        return locale.toLowerCase().replace('-', '_');
+    }
+}
@@ -1,5 +1,6 @@
 package net.canarymod;
 
+import net.canarymod.chat.MessageReceiver;
 import net.canarymod.config.Configuration;
 import net.visualillusionsent.utils.FileUtils;
 import net.visualillusionsent.utils.LocaleHelper;
@@ -7,14 +8,19 @@ import net.visualillusionsent.utils.LocaleHelper;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static net.canarymod.Canary.log;
 
 /**
  * This class handles internationalization (aka i18n).
  * It will look up translations from a given key to the language that is currently active.
+ * <p/>
+ * Formatted translations are compiled once per locale and key and kept until {@link #reload()}, and the locales of
+ * {@link MessageReceiver}s are resolved against the language files listed at startup and on {@link #reload()}.
  *
  * @author Chris (damagefilter)
  * @author Jason (darkdiplomat)
@@ -27,10 +33,13 @@ public class Translator extends LocaleHelper {
                                                                 "pl_PL", "en_PT", "ru_RU", "es_ES", "sv_SE"
     };
     private static final Translator instance;
+    private static final ConcurrentHashMap<String, MessageFormat> formats = new ConcurrentHashMap<String, MessageFormat>();
+    private static final LocaleResolver resolver;
 
     static {
         checkLangFiles();
         instance = new Translator();
+        resolver = new LocaleResolver(new File(canaryLang));
     }
 
     private Translator() {
@@ -66,7 +75,7 @@ public class Translator extends LocaleHelper {
      * @see java.text.MessageFormat
      */
     public static String localTranslate(String key, String locale, Object... args) {
-        return instance.localeTranslate(key, locale, args);
+        return format(resolveLocale(locale), key, args);
     }
 
     /**
@@ -94,7 +103,46 @@ public class Translator extends LocaleHelper {
      * @see java.text.MessageFormat
      */
     public static String translateAndFormat(String messageKey, Object... format) {
-        return instance.systemTranslate(messageKey, format);
+        return format(null, messageKey, format);
+    }
+
+    /**
+     * Translates the given message key into the language of a {@link MessageReceiver}, falling back to the system
+     * language if there is no language file for its locale, and applies formatting according to standard Java formatting rules
+     *
+     * @param receiver
+     *         the {@link MessageReceiver} to translate for
+     * @param key
+     *         the message key to used to get the message from the Language file
+     * @param args
+     *         the arguments used to format the message
+     *
+     * @return the translated message
+     *
+     * @see java.text.MessageFormat
+     */
+    public static String translateFor(MessageReceiver receiver, String key, Object... args) {
+        return format(resolveLocale(receiver.getLocale()), key, args);
+    }
+
+    /**
+     * Gets the language a locale code is translated into: the code itself in the form {@code en_US} if there is a
+     * language file for it, otherwise the system language
+     *
+     * @param locale
+     *         the locale code, such as {@code en_us} sent by a client
+     *
+     * @return the resolved locale code
+     */
+    public static String resolveLocale(String locale) {
+        return resolver.resolve(locale, instance.getLocaleCode());
+    }
+
+    /** Reloads the language files and drops the compiled translations */
+    public static void reload() {
+        instance.reloadLangFiles();
+        formats.clear();
+        resolver.reload();
     }
 
     /**
@@ -146,6 +194,21 @@ public class Translator extends LocaleHelper {
         return instance;
     }
 
+    private static String format(String locale, String key, Object[] args) {
+        String cacheKey = (locale == null ? "" : locale).concat("\u0000").concat(key);
+        MessageFormat format = formats.get(cacheKey);
+        if (format == null) {
+            format = new MessageFormat(locale == null ? instance.systemTranslate(key) : instance.localeTranslate(key, locale));
+            MessageFormat raced = formats.putIfAbsent(cacheKey, format);
+            if (raced != null) {
+                format = raced;
+            }
+        }
+        synchronized (format) { // MessageFormat is not thread-safe
+            return format.format(args);
+        }
+    }
+
     private static void checkLangFiles() {
         File directory = new File(canaryLang);
         String langTXT = "languages.txt";
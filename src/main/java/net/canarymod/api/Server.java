@@ -239,7 +239,8 @@ public interface Server extends MessageReceiver, CommandOwner, TaskOwner, MOTDOw
 
     /**
      * Send (broadcast) the given message to ALL players on the server,
-     * in all worlds.
+     * in all worlds.<br>
+     * The message should be compiled into one packet for all recipients, as {@link net.canarymod.api.packet.Broadcast#message(String, com.google.common.base.Predicate)} does.
      *
      * @param message
      *         the message to be broadcasted
@@ -248,7 +249,8 @@ public interface Server extends MessageReceiver, CommandOwner, TaskOwner, MOTDOw
 
     /**
      * Send (broadcast) the given message to ALL Operators on the server,
-     * in all worlds.
+     * in all worlds.<br>
+     * The message should be compiled into one packet for all recipients, as {@link net.canarymod.api.packet.Broadcast#message(String, com.google.common.base.Predicate)} does.
      *
      * @param message
      *         the message to be broadcasted
@@ -257,7 +259,8 @@ public interface Server extends MessageReceiver, CommandOwner, TaskOwner, MOTDOw
 
     /**
      * Send (broadcast) the given message to ALL Administrators on the server,
-     * in all worlds.
+     * in all worlds.<br>
+     * The message should be compiled into one packet for all recipients, as {@link net.canarymod.api.packet.Broadcast#message(String, com.google.common.base.Predicate)} does.
      *
      * @param message
      *         the message to be broadcasted
@@ -491,9 +491,11 @@ public interface PacketFactory {
      * @param chunk
      *         the {@link Chunk}
      * @param initialize
-     *         {@code true} to include initializing; {@code false}
+     *         {@code true} to send the whole chunk, biomes included, as when it is first sent; {@code false} to only send
+     *         the sections in the bitflag
      * @param bitflag
-     *         unknown function at this time, either 0x0 or 0x1 observed
+     *         the primary bit mask: a bit per 16 block high section to send, bit 0 being the lowest section;
+     *         0xFFFF for all of them
      *
      * @return new ChunkData {@link Packet} or {@code null} if an error occurred
      */
@@ -871,4 +873,16 @@ public interface PacketFactory {
      * @return new playerListItem {@link Packet}
      */
     Packet playerListItem(String name, boolean connected, int ping); // 56
+
+    /**
+     * Creates a Custom Payload {@link Packet}
+     *
+     * @param channel
+     *         the name of the channel
+     * @param data
+     *         the payload
+     *
+     * @return new Custom Payload {@link Packet}
+     */
+    Packet customPayload(String channel, byte[] data); // 250
 }
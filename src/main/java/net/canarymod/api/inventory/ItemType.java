@@ -1,8 +1,10 @@
 package net.canarymod.api.inventory;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Item Types
@@ -579,7 +581,14 @@ public final class ItemType {
     private final int data;
     private final boolean blockCreating;
     private final String machineName;
+    private static final int MAX_INDEXED_ID = 32000;
+
     private static HashMap<Entry<String, Integer>, ItemType> itemTypes;
+    // Lookup tables; entries are only ever added, and the fields are written again afterwards to publish them
+    private static volatile ItemType[] byId; // the type with the lowest data for each id
+    private static volatile ItemType[] byIdAndData; // indexed by id << 4 | data
+    private static volatile ItemType[] unindexed; // types whose id or data doesn't fit the tables
+    private static ConcurrentSkipListMap<String, Named> byName; // machine name, ignoring case, to the types with that name
 
     public ItemType(int id) {
         this(id, 0, false, "unnamed_item_" + id + "_0");
@@ -624,6 +633,123 @@ public final class ItemType {
 
         @SuppressWarnings("LeakingThisInConstructor")
         ItemType ignored = itemTypes.put(uniqueType, this);
+        index(this);
+    }
+
+    private static synchronized void index(ItemType type) {
+        if (byName == null) {
+            byName = new ConcurrentSkipListMap<String, Named>(java.lang.String.CASE_INSENSITIVE_ORDER); // String is also an ItemType here
+        }
+        byName.put(type.machineName, new Named(byName.get(type.machineName), type));
+
+        if (type.id < 0 || type.id >= MAX_INDEXED_ID) {
+            unindex(type);
+            return;
+        }
+        ItemType[] ids = grow(byId, type.id + 1);
+        if (ids[type.id] == null || type.data < ids[type.id].data) {
+            ids[type.id] = type;
+        }
+        byId = ids;
+        if (type.data < 0 || type.data > 15) {
+            unindex(type);
+            return;
+        }
+        int key = type.id << 4 | type.data;
+        ItemType[] keys = grow(byIdAndData, key + 1);
+        if (keys[key] == null) {
+            keys[key] = type; // The first type registered for an id and data keeps it
+        }
+        byIdAndData = keys;
+    }
+
+    private static void unindex(ItemType type) {
+        ItemType[] types = unindexed == null ? new ItemType[1] : Arrays.copyOf(unindexed, unindexed.length + 1);
+        types[types.length - 1] = type;
+        unindexed = types;
+    }
+
+    private static ItemType[] grow(ItemType[] table, int size) {
+        if (table == null) {
+            return new ItemType[Math.max(size, 256)];
+        }
+        return size <= table.length ? table : Arrays.copyOf(table, Math.max(size, table.length * 2));
+    }
+
+    private static ItemType searchUnindexed(int id, int data, boolean anyData) {
+        ItemType[] types = unindexed;
+        if (types == null) {
+            return null;
+        }
+        for (ItemType type : types) {
+            if (type.id == id && (anyData || type.data == data)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The types sharing a machine name, ignoring case.<br>
+     * Replaced as a whole when another type with the name registers, so readers never see it change.
+     */
+    private static final class Named {
+        final ItemType[] byData = new ItemType[16];
+        final ItemType[] all; // in the order they registered
+        final boolean irregular; // a type doesn't fit byData, or names differ in case; lookups search all of them
+
+        Named(Named previous, ItemType type) {
+            if (previous == null) {
+                all = new ItemType[]{ type };
+                irregular = type.data < 0 || type.data > 15;
+            }
+            else {
+                System.arraycopy(previous.byData, 0, byData, 0, byData.length);
+                all = Arrays.copyOf(previous.all, previous.all.length + 1);
+                all[previous.all.length] = type;
+                irregular = previous.irregular || type.data < 0 || type.data > 15 || !type.machineName.equals(previous.all[0].machineName);
+            }
+            if (type.data >= 0 && type.data <= 15 && byData[type.data] == null) {
+                byData[type.data] = type;
+            }
+        }
+
+        /** The type with the data, preferring the exact name as it always has */
+        ItemType get(String name, int data) {
+            if (!irregular) {
+                return data >= 0 && data <= 15 ? byData[data] : null;
+            }
+            for (ItemType type : all) {
+                if (type.data == data && type.machineName.equals(name)) {
+                    return type;
+                }
+            }
+            for (ItemType type : all) {
+                if (type.data == data) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        /** The type with the lowest data from 0 to 15, or else the first one */
+        ItemType first() {
+            for (ItemType type : byData) {
+                if (type != null) {
+                    return type;
+                }
+            }
+            return all[0];
+        }
+    }
+
+    /** Looks up a type by its machine name, ignoring case, and data */
+    private static ItemType named(String name, int data) {
+        if (name == null) {
+            return null;
+        }
+        Named named = byName.get(name);
+        return named != null ? named.get(name, data) : null;
     }
 
     /**
@@ -667,17 +793,7 @@ public final class ItemType {
      * @return the ItemType if found; {@code null} if the requested ItemType does not exist.
      */
     public static ItemType getCustomItemType(String name, int data) {
-        Entry<String, Integer> custom = new SimpleImmutableEntry<String, Integer>(name, data);
-        if (itemTypes.containsKey(custom)) {
-            return itemTypes.get(custom);
-        }
-
-        for (ItemType t : itemTypes.values()) {
-            if (t.data == data && t.machineName.equalsIgnoreCase(name)) {
-                return t;
-            }
-        }
-        return null;
+        return named(name, data);
     }
 
     /**
@@ -690,12 +806,11 @@ public final class ItemType {
      * @return the ItemType if found; {@code null} if not
      */
     public static ItemType fromString(String name) {
-        for (ItemType t : itemTypes.values()) {
-            if (t.machineName.equalsIgnoreCase(name)) {
-                return t;
-            }
+        if (name == null) {
+            return null;
         }
-        return null;
+        Named named = byName.get(name);
+        return named != null ? named.first() : null;
     }
 
     /**
@@ -708,12 +823,11 @@ public final class ItemType {
      * @return the ItemType if found; {@code null} if not
      */
     public static ItemType fromId(int id) {
-        for (ItemType type : itemTypes.values()) {
-            if (type.id == id) {
-                return type;
-            }
+        if (id >= 0 && id < MAX_INDEXED_ID) {
+            ItemType[] ids = byId;
+            return id < ids.length ? ids[id] : null;
         }
-        return null;
+        return searchUnindexed(id, 0, true);
     }
 
     /**
@@ -728,8 +842,15 @@ public final class ItemType {
      * @return the ItemType if found; {@code null} if not
      */
     public static ItemType fromIdAndData(int id, int data) {
-        for (ItemType type : itemTypes.values()) {
-            if (type.id == id && type.data == data) {
+        if (id >= 0 && id < MAX_INDEXED_ID && data >= 0 && data <= 15) {
+            ItemType[] keys = byIdAndData;
+            if (id < keys.length >> 4 && keys[id << 4 | data] != null) {
+                return keys[id << 4 | data];
+            }
+        }
+        else {
+            ItemType type = searchUnindexed(id, data, false);
+            if (type != null) {
                 return type;
             }
         }
@@ -748,17 +869,8 @@ public final class ItemType {
      * @return the ItemType if found; {@code null} if not
      */
     public static ItemType fromStringAndData(String machineName, int data) {
-        Entry<String, Integer> needle = new SimpleImmutableEntry<String, Integer>(machineName, data);
-        if (itemTypes.containsKey(needle)) {
-            return itemTypes.get(needle);
-        }
-
-        for (ItemType type : itemTypes.values()) {
-            if (type.data == data && type.machineName.equalsIgnoreCase(machineName)) {
-                return type;
-            }
-        }
-        return fromString(machineName);
+        ItemType type = named(machineName, data);
+        return type != null ? type : fromString(machineName);
     }
 
     /**
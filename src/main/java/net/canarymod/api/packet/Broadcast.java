@@ -0,0 +1,167 @@
+package net.canarymod.api.packet;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import net.canarymod.Canary;
+import net.canarymod.api.NetServerHandler;
+import net.canarymod.api.entity.living.humanoid.Player;
+import net.canarymod.api.world.World;
+
+import java.util.Collection;
+
+/**
+ * Broadcasts that build their {@link Packet} once and send that same packet to every recipient,
+ * rather than creating and encoding a packet for each {@link Player}.
+ * <p/>
+ * Recipients are chosen with a {@link Predicate}, which is best created once and kept, such as {@link #operators()}
+ * or {@link #permission(String)}.
+ * <p/>
+ * Packets are only wrapped by this library, so encoding them is up to the implementation. Because the same
+ * {@link Packet} instance reaches every recipient, an implementation can encode it on the first send and
+ * reuse the bytes for the rest, as {@link net.canarymod.api.Server#broadcastMessage(String)} and the other
+ * broadcasts should.
+ */
+public final class Broadcast {
+    private static final Predicate<Player> OPERATORS = new Predicate<Player>() {
+        @Override
+        public boolean apply(Player player) {
+            return Canary.ops().isOpped(player);
+        }
+    };
+
+    private Broadcast() {
+    }
+
+    /**
+     * Gets a {@link Predicate} accepting every {@link Player}
+     *
+     * @return the {@link Predicate}
+     */
+    public static Predicate<Player> everyone() {
+        return Predicates.alwaysTrue();
+    }
+
+    /**
+     * Gets a {@link Predicate} accepting Operators
+     *
+     * @return the {@link Predicate}
+     */
+    public static Predicate<Player> operators() {
+        return OPERATORS;
+    }
+
+    /**
+     * Gets a {@link Predicate} accepting players that have a permission
+     *
+     * @param node
+     *         the permission node
+     *
+     * @return the {@link Predicate}
+     */
+    public static Predicate<Player> permission(final String node) {
+        return new Predicate<Player>() {
+            @Override
+            public boolean apply(Player player) {
+                return player.hasPermission(node);
+            }
+        };
+    }
+
+    /**
+     * Gets a {@link Predicate} accepting players in a {@link World}
+     *
+     * @param world
+     *         the {@link World}
+     *
+     * @return the {@link Predicate}
+     */
+    public static Predicate<Player> world(final World world) {
+        return new Predicate<Player>() {
+            @Override
+            public boolean apply(Player player) {
+                return player.getWorld().equals(world);
+            }
+        };
+    }
+
+    /**
+     * Sends a {@link Packet} to every online {@link Player} the {@link Predicate} accepts
+     *
+     * @param packet
+     *         the {@link Packet} to send
+     * @param recipients
+     *         the {@link Predicate} choosing the recipients
+     *
+     * @return the number of players the packet was sent to
+     */
+    public static int packet(Packet packet, Predicate<? super Player> recipients) {
+        return packet(packet, Canary.getServer().getPlayerList(), recipients);
+    }
+
+    /**
+     * Sends a {@link Packet} to the players the {@link Predicate} accepts
+     *
+     * @param packet
+     *         the {@link Packet} to send
+     * @param players
+     *         the players to choose from
+     * @param recipients
+     *         the {@link Predicate} choosing the recipients
+     *
+     * @return the number of players the packet was sent to
+     */
+    public static int packet(Packet packet, Collection<Player> players, Predicate<? super Player> recipients) {
+        if (packet == null) {
+            return 0;
+        }
+        int sent = 0;
+        for (Player player : players) {
+            if (recipients.apply(player)) {
+                player.sendPacket(packet);
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Sends a {@link Packet} to the clients the {@link Predicate} accepts
+     *
+     * @param packet
+     *         the {@link Packet} to send
+     * @param handlers
+     *         the {@link NetServerHandler}s of the clients to choose from
+     * @param recipients
+     *         the {@link Predicate} choosing the recipients
+     *
+     * @return the number of clients the packet was sent to
+     */
+    public static int packetToClients(Packet packet, Collection<NetServerHandler> handlers, Predicate<? super Player> recipients) {
+        if (packet == null) {
+            return 0;
+        }
+        int sent = 0;
+        for (NetServerHandler handler : handlers) {
+            if (recipients.apply(handler.getUser())) {
+                handler.sendPacket(packet);
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Sends a message to every online {@link Player} the {@link Predicate} accepts.<br>
+     * The message is compiled into a chat packet once.
+     *
+     * @param message
+     *         the message, which may contain formatting codes
+     * @param recipients
+     *         the {@link Predicate} choosing the recipients
+     *
+     * @return the number of players the message was sent to
+     */
+    public static int message(String message, Predicate<? super Player> recipients) {
+        return packet(Canary.factory().getPacketFactory().chat(Canary.factory().getChatComponentFactory().compileChatComponent(message)), recipients);
+    }
+}
@@ -0,0 +1,281 @@
+package net.canarymod.api.world;
+
+import com.google.common.base.Predicate;
+import net.canarymod.Canary;
+import net.canarymod.api.entity.living.humanoid.Player;
+import net.canarymod.api.factory.PacketFactory;
+import net.canarymod.api.packet.Broadcast;
+import net.canarymod.api.packet.Packet;
+import net.canarymod.api.world.blocks.BlockType;
+import net.canarymod.api.world.position.Position;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Block Buffer
+ * <p/>
+ * Collects block changes for a {@link World} and applies them chunk by chunk, for editing large regions.<br>
+ * Setting a block through the {@link World} updates the light, notifies the neighbouring blocks and sends a packet to
+ * every player that can see it, for every single block. A BlockBuffer writes the blocks straight into each {@link Chunk},
+ * recalculates the sky light once per chunk and sends each player a single packet per chunk: a MultiBlockChange,
+ * or the ChunkData of the changed sections if a chunk changed a lot.
+ * <p/>
+ * Changes are applied in the order they were made, so a block set twice ends up as the last type it was set to.
+ * Neighbouring blocks are not notified unless physics is enabled, in which case blocks are set through the {@link World}.<br>
+ * Only the sky light is recalculated, as the {@link Chunk} has no way to recalculate block light. Placing or removing
+ * light sources such as torches or glowstone leaves the block light around them as it was until the blocks there are
+ * updated again; enable physics for edits where that matters.<br>
+ * A BlockBuffer is not thread-safe and should be applied from the server thread.
+ */
+public final class BlockBuffer {
+    /** The number of changes to a chunk from which the changed sections are sent whole, as the server does itself */
+    public static final int RESEND_THRESHOLD = 64;
+
+    private final World world;
+    private final LinkedHashMap<Long, ChunkEdit> chunks = new LinkedHashMap<Long, ChunkEdit>();
+    private ChunkEdit last; // Consecutive changes tend to be in the same chunk
+    private int size;
+    private boolean lighting = true;
+    private boolean physics = false;
+
+    /**
+     * Constructs a new BlockBuffer
+     *
+     * @param world
+     *         the {@link World} to change
+     */
+    public BlockBuffer(World world) {
+        if (world == null) {
+            throw new IllegalArgumentException("World cannot be null");
+        }
+        this.world = world;
+    }
+
+    /**
+     * Gets the {@link World} this buffer changes
+     *
+     * @return the {@link World}
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Sets whether the sky light of each changed chunk is recalculated once its blocks are set. Defaults to {@code true}.<br>
+     * Block light is never recalculated; see {@link #setPhysics(boolean)}.
+     *
+     * @param lighting
+     *         {@code true} to recalculate the light; {@code false} to leave it
+     */
+    public void setLighting(boolean lighting) {
+        this.lighting = lighting;
+    }
+
+    /**
+     * Sets whether the blocks are set through the {@link World}, so that the light and neighbouring blocks are updated for every block.
+     * This is as slow as setting the blocks one at a time. Defaults to {@code false}.
+     *
+     * @param physics
+     *         {@code true} to update each block; {@code false} to write them into the chunks
+     */
+    public void setPhysics(boolean physics) {
+        this.physics = physics;
+    }
+
+    /**
+     * Sets a block
+     *
+     * @param x
+     *         the block x
+     * @param y
+     *         the block y, changes outside of 0-255 are ignored
+     * @param z
+     *         the block z
+     * @param type
+     *         the {@link BlockType}
+     */
+    public void set(int x, int y, int z, BlockType type) {
+        set(x, y, z, type.getId(), type.getData());
+    }
+
+    /**
+     * Sets a block
+     *
+     * @param position
+     *         the {@link Position}, changes outside of 0-255 height are ignored
+     * @param type
+     *         the {@link BlockType}
+     */
+    public void set(Position position, BlockType type) {
+        set(position.getBlockX(), position.getBlockY(), position.getBlockZ(), type.getId(), type.getData());
+    }
+
+    /**
+     * Sets a block
+     *
+     * @param x
+     *         the block x
+     * @param y
+     *         the block y, changes outside of 0-255 are ignored
+     * @param z
+     *         the block z
+     * @param id
+     *         the block id
+     * @param data
+     *         the block data
+     */
+    public void set(int x, int y, int z, int id, int data) {
+        if (y < 0 || y > 255) {
+            return;
+        }
+        int chunkX = x >> 4, chunkZ = z >> 4;
+        ChunkEdit edit = last;
+        if (edit == null || edit.x != chunkX || edit.z != chunkZ) {
+            Long key = (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+            edit = chunks.get(key);
+            if (edit == null) {
+                edit = new ChunkEdit(chunkX, chunkZ);
+                chunks.put(key, edit);
+            }
+            last = edit;
+        }
+        edit.add((x & 15) << 12 | (z & 15) << 8 | y, (id & 0xFFF) << 4 | data & 15);
+        size++;
+    }
+
+    /**
+     * Gets the number of changes waiting to be applied
+     *
+     * @return the number of changes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of chunks the waiting changes are in
+     *
+     * @return the number of chunks
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /** Discards the waiting changes */
+    public void clear() {
+        chunks.clear();
+        last = null;
+        size = 0;
+    }
+
+    /**
+     * Applies the waiting changes, loading chunks as needed, and empties the buffer
+     *
+     * @return the number of changes applied
+     */
+    public int apply() {
+        int applied = 0;
+        List<Player> players = world.getPlayerList();
+        for (ChunkEdit edit : chunks.values()) {
+            if (physics) {
+                edit.applyToWorld(world);
+            }
+            else {
+                Chunk chunk = world.isChunkLoaded(edit.x, edit.z) ? world.getChunk(edit.x, edit.z) : world.loadChunk(edit.x, edit.z);
+                edit.applyTo(chunk);
+                if (lighting) {
+                    chunk.generateSkyLightMap();
+                }
+                if (!players.isEmpty()) {
+                    edit.send(chunk, players, world.getPlayerManager().getMaxTrackingDistance());
+                }
+            }
+            applied += edit.size;
+        }
+        clear();
+        return applied;
+    }
+
+    /**
+     * The changes to one chunk, kept as the chunk relative position and the id and data of each block
+     */
+    private static final class ChunkEdit {
+        private final int x, z;
+        private short[] positions = new short[16]; // x << 12 | z << 8 | y, as the MultiBlockChange packet has them
+        private int[] states = new int[16]; // id << 4 | data
+        private int size;
+        private int sections; // bit per changed 16 block high section
+
+        private ChunkEdit(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+
+        private void add(int position, int state) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                states = Arrays.copyOf(states, size * 2);
+            }
+            positions[size] = (short) position;
+            states[size] = state;
+            size++;
+            sections |= 1 << ((position & 255) >> 4);
+        }
+
+        private void applyTo(Chunk chunk) {
+            for (int index = 0; index < size; index++) {
+                int position = positions[index];
+                int bx = position >> 12 & 15, bz = position >> 8 & 15, by = position & 255;
+                chunk.setBlockTypeAt(bx, by, bz, states[index] >>> 4);
+                chunk.setBlockDataAt(bx, by, bz, states[index] & 15);
+            }
+        }
+
+        @SuppressWarnings("deprecation")
+        private void applyToWorld(World world) {
+            for (int index = 0; index < size; index++) {
+                int position = positions[index];
+                world.setBlockAt(x << 4 | position >> 12 & 15, position & 255, z << 4 | position >> 8 & 15, (short) (states[index] >>> 4), (short) (states[index] & 15));
+            }
+        }
+
+        private void send(Chunk chunk, List<Player> players, int distance) {
+            Predicate<Player> inRange = inRange(distance);
+            boolean anyone = false;
+            for (Player player : players) {
+                if (inRange.apply(player)) {
+                    anyone = true;
+                    break;
+                }
+            }
+            if (!anyone) {
+                return; // Nobody can see it, so there is no need to build a packet
+            }
+            PacketFactory factory = Canary.factory().getPacketFactory();
+            Packet packet;
+            if (size == 1) {
+                int position = positions[0];
+                packet = factory.blockChange(x << 4 | position >> 12 & 15, position & 255, z << 4 | position >> 8 & 15, states[0] >>> 4, states[0] & 15);
+            }
+            else if (size < RESEND_THRESHOLD) {
+                packet = factory.multiBlockChange(size, Arrays.copyOf(positions, size), chunk);
+            }
+            else {
+                packet = factory.chunkData(chunk, false, sections);
+            }
+            Broadcast.packet(packet, players, inRange);
+        }
+
+        private Predicate<Player> inRange(final int distance) {
+            final double centerX = (x << 4) + 8, centerZ = (z << 4) + 8, reach = distance + 8;
+            return new Predicate<Player>() {
+                @Override
+                public boolean apply(Player player) {
+                    return Math.abs(player.getX() - centerX) <= reach && Math.abs(player.getZ() - centerZ) <= reach;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package net.canarymod.api.world;
+
+import net.canarymod.api.entity.Entity;
+import net.canarymod.api.entity.living.humanoid.Player;
+import net.canarymod.api.world.position.BlockPosition;
+import net.canarymod.api.world.position.PackedPositionMap;
+import net.canarymod.api.world.position.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Entity Index
+ * <p/>
+ * Keeps the entities of a {@link World} in a grid of 16x16x16 block cells, so that finding the entities near a place
+ * only looks at the cells around it rather than at every entity in the world.<br>
+ * The {@link World} adds entities as they spawn, updates them as they move and removes them when they are gone.
+ * Updating an entity that stayed in its cell costs a lookup. Queries add their results to a collection given by the caller.
+ * <p/>
+ * An EntityIndex is not thread-safe and is meant to be used from the server thread.
+ */
+public final class EntityIndex {
+    private final PackedPositionMap<Cell> cells = new PackedPositionMap<Cell>(256);
+    private final IdentityHashMap<Entity, Slot> slots = new IdentityHashMap<Entity, Slot>();
+
+    /**
+     * Adds an {@link Entity}, or moves it to the cell it is now in
+     *
+     * @param entity
+     *         the {@link Entity}
+     */
+    public void update(Entity entity) {
+        long key = cellOf(entity.getX(), entity.getY(), entity.getZ());
+        Slot slot = slots.get(entity);
+        if (slot == null) {
+            slot = new Slot(entity);
+            slots.put(entity, slot);
+        }
+        else if (slot.cell.key == key) {
+            return;
+        }
+        else {
+            slot.cell.remove(slot);
+        }
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            cell = new Cell(key);
+            cells.put(key, cell);
+        }
+        cell.add(slot);
+    }
+
+    /**
+     * Removes an {@link Entity}
+     *
+     * @param entity
+     *         the {@link Entity}
+     */
+    public void remove(Entity entity) {
+        Slot slot = slots.remove(entity);
+        if (slot != null) {
+            slot.cell.remove(slot);
+        }
+    }
+
+    /**
+     * Checks whether an {@link Entity} is in this index
+     *
+     * @param entity
+     *         the {@link Entity}
+     *
+     * @return {@code true} if it is; {@code false} if not
+     */
+    public boolean contains(Entity entity) {
+        return slots.containsKey(entity);
+    }
+
+    /**
+     * Gets the number of entities in this index
+     *
+     * @return the number of entities
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /** Removes every {@link Entity} */
+    public void clear() {
+        slots.clear();
+        cells.clear();
+    }
+
+    /**
+     * Finds the entities within a box
+     *
+     * @param min
+     *         the corner of the box with the lowest coordinates
+     * @param max
+     *         the corner of the box with the highest coordinates
+     * @param found
+     *         the collection to add the entities to
+     *
+     * @return the number of entities found
+     */
+    public int getEntitiesWithin(Position min, Position max, Collection<? super Entity> found) {
+        return getEntitiesWithin(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ(), Entity.class, found);
+    }
+
+    /**
+     * Finds the entities of a type within a box
+     *
+     * @param minX
+     *         the lowest x of the box
+     * @param minY
+     *         the lowest y of the box
+     * @param minZ
+     *         the lowest z of the box
+     * @param maxX
+     *         the highest x of the box
+     * @param maxY
+     *         the highest y of the box
+     * @param maxZ
+     *         the highest z of the box
+     * @param type
+     *         the type of {@link Entity} to find
+     * @param found
+     *         the collection to add the entities to
+     *
+     * @return the number of entities found
+     */
+    public <T extends Entity> int getEntitiesWithin(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Class<T> type, Collection<? super T> found) {
+        Query query = new Query(minX, minY, minZ, maxX, maxY, maxZ);
+        int count = 0;
+        for (Cell cell : query.cells()) {
+            for (int index = 0; index < cell.size; index++) {
+                Entity entity = cell.slots[index].entity;
+                if (type.isInstance(entity) && query.contains(entity)) {
+                    found.add(type.cast(entity));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the players within a distance of a {@link Position}
+     *
+     * @param position
+     *         the {@link Position} to search around
+     * @param radius
+     *         the distance to search within
+     * @param found
+     *         the collection to add the players to
+     *
+     * @return the number of players found
+     */
+    public int getNearbyPlayers(Position position, double radius, Collection<? super Player> found) {
+        return getNearby(position, radius, Player.class, found);
+    }
+
+    /**
+     * Finds the entities of a type within a distance of a {@link Position}
+     *
+     * @param position
+     *         the {@link Position} to search around
+     * @param radius
+     *         the distance to search within
+     * @param type
+     *         the type of {@link Entity} to find
+     * @param found
+     *         the collection to add the entities to
+     *
+     * @return the number of entities found
+     */
+    public <T extends Entity> int getNearby(Position position, double radius, Class<T> type, Collection<? super T> found) {
+        double x = position.getX(), y = position.getY(), z = position.getZ();
+        Query query = new Query(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+        double radiusSq = radius * radius;
+        int count = 0;
+        for (Cell cell : query.cells()) {
+            for (int index = 0; index < cell.size; index++) {
+                Entity entity = cell.slots[index].entity;
+                if (type.isInstance(entity) && distanceSq(entity, x, y, z) <= radiusSq) {
+                    found.add(type.cast(entity));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the entities of a type nearest to a {@link Position}, nearest first
+     *
+     * @param position
+     *         the {@link Position} to search around
+     * @param count
+     *         the most entities to find
+     * @param radius
+     *         the distance to search within
+     * @param type
+     *         the type of {@link Entity} to find
+     * @param found
+     *         the list to add the entities to
+     *
+     * @return the number of entities found
+     */
+    public <T extends Entity> int getNearest(Position position, int count, double radius, Class<T> type, List<? super T> found) {
+        if (count <= 0) {
+            return 0;
+        }
+        double x = position.getX(), y = position.getY(), z = position.getZ();
+        Query query = new Query(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+        double radiusSq = radius * radius;
+        // The nearest so far, kept sorted by distance
+        Entity[] nearest = new Entity[Math.min(count, 16)];
+        double[] distances = new double[nearest.length];
+        int size = 0;
+        for (Cell cell : query.cells()) {
+            for (int index = 0; index < cell.size; index++) {
+                Entity entity = cell.slots[index].entity;
+                if (!type.isInstance(entity)) {
+                    continue;
+                }
+                double distance = distanceSq(entity, x, y, z);
+                if (distance > radiusSq || (size == count && distance >= distances[size - 1])) {
+                    continue;
+                }
+                if (size == nearest.length && size < count) {
+                    int grown = Math.min(count, size * 2);
+                    nearest = Arrays.copyOf(nearest, grown);
+                    distances = Arrays.copyOf(distances, grown);
+                }
+                int at = size < count ? size++ : size - 1;
+                while (at > 0 && distances[at - 1] > distance) {
+                    nearest[at] = nearest[at - 1];
+                    distances[at] = distances[at - 1];
+                    at--;
+                }
+                nearest[at] = entity;
+                distances[at] = distance;
+            }
+        }
+        for (int index = 0; index < size; index++) {
+            found.add(type.cast(nearest[index]));
+        }
+        return size;
+    }
+
+    private static double distanceSq(Entity entity, double x, double y, double z) {
+        double dx = entity.getX() - x, dy = entity.getY() - y, dz = entity.getZ() - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static long cellOf(double x, double y, double z) {
+        return BlockPosition.pack(cell(x), cell(y), cell(z));
+    }
+
+    private static int cell(double ordinate) {
+        return (int) Math.floor(ordinate) >> 4;
+    }
+
+    /**
+     * The cells a box covers
+     */
+    private final class Query {
+        private final double minX, minY, minZ, maxX, maxY, maxZ;
+
+        private Query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+
+        private boolean contains(Entity entity) {
+            double x = entity.getX(), y = entity.getY(), z = entity.getZ();
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        private List<Cell> cells() {
+            int fromX = cell(minX), fromY = cell(minY), fromZ = cell(minZ);
+            int toX = cell(maxX), toY = cell(maxY), toZ = cell(maxZ);
+            int existing = cells.size();
+            long spanX = (long) toX - fromX + 1, spanY = (long) toY - fromY + 1, spanZ = (long) toZ - fromZ + 1;
+            if (spanX <= 0 || spanY <= 0 || spanZ <= 0) {
+                return new ArrayList<Cell>(0);
+            }
+            // Multiplied one axis at a time, stopping once past the number of cells, so that huge boxes can't overflow
+            long covered = spanX;
+            if (covered <= existing) {
+                covered *= spanY;
+                if (covered <= existing) {
+                    covered *= spanZ;
+                }
+            }
+            List<Cell> found;
+            if (covered > existing) {
+                // The box covers more cells than there are, so go through the ones there are
+                found = cells.values();
+                for (int index = found.size() - 1; index >= 0; index--) {
+                    Cell cell = found.get(index);
+                    int x = BlockPosition.unpackX(cell.key), y = BlockPosition.unpackY(cell.key), z = BlockPosition.unpackZ(cell.key);
+                    if (x < fromX || x > toX || y < fromY || y > toY || z < fromZ || z > toZ) {
+                        found.remove(index);
+                    }
+                }
+                return found;
+            }
+            found = new ArrayList<Cell>((int) covered);
+            for (int x = fromX; x <= toX; x++) {
+                for (int z = fromZ; z <= toZ; z++) {
+                    for (int y = fromY; y <= toY; y++) {
+                        Cell cell = EntityIndex.this.cells.get(x, y, z);
+                        if (cell != null) {
+                            found.add(cell);
+                        }
+                    }
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Where an {@link Entity} is kept
+     */
+    private static final class Slot {
+        private final Entity entity;
+        private Cell cell;
+        private int index;
+
+        private Slot(Entity entity) {
+            this.entity = entity;
+        }
+    }
+
+    /**
+     * The entities in one 16x16x16 block cell
+     */
+    private final class Cell {
+        private final long key;
+        private Slot[] slots = new Slot[4];
+        private int size;
+
+        private Cell(long key) {
+            this.key = key;
+        }
+
+        private void add(Slot slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slot.cell = this;
+            slot.index = size;
+            slots[size++] = slot;
+        }
+
+        private void remove(Slot slot) {
+            // Move the last entity into the gap
+            Slot last = slots[--size];
+            slots[slot.index] = last;
+            last.index = slot.index;
+            slots[size] = null;
+            slot.cell = null;
+            if (size == 0) {
+                cells.remove(key);
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ import net.canarymod.api.world.effects.SoundEffect;
 import net.canarymod.api.world.position.Location;
 import net.canarymod.api.world.position.Position;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -402,6 +403,57 @@ public interface World {
      */
     Player getClosestPlayer(Entity entity, int distance);
 
+    /**
+     * Gets the {@link EntityIndex} that keeps the entities of this world by where they are
+     *
+     * @return the {@link EntityIndex}
+     */
+    EntityIndex getEntityIndex();
+
+    /**
+     * Finds the entities within a box
+     *
+     * @param min
+     *         the corner of the box with the lowest coordinates
+     * @param max
+     *         the corner of the box with the highest coordinates
+     * @param found
+     *         the collection to add the entities to
+     *
+     * @return the number of entities found
+     */
+    int getEntitiesWithin(Position min, Position max, Collection<? super Entity> found);
+
+    /**
+     * Finds the players within a distance of a {@link Position}
+     *
+     * @param position
+     *         the {@link Position} to search around
+     * @param radius
+     *         the distance to search within
+     * @param found
+     *         the collection to add the players to
+     *
+     * @return the number of players found
+     */
+    int getNearbyPlayers(Position position, double radius, Collection<? super Player> found);
+
+    /**
+     * Finds the entities nearest to a {@link Position}, nearest first
+     *
+     * @param position
+     *         the {@link Position} to search around
+     * @param count
+     *         the most entities to find
+     * @param radius
+     *         the distance to search within
+     * @param found
+     *         the list to add the entities to
+     *
+     * @return the number of entities found
+     */
+    int getNearestEntities(Position position, int count, double radius, List<? super Entity> found);
+
     /**
      * Return this worlds {@link ChunkProvider}
      *
@@ -945,7 +997,8 @@ public interface World {
     void save();
 
     /**
-     * Broadcasts a message to all {@link Player}s in the world
+     * Broadcasts a message to all {@link Player}s in the world<br>
+     * The message should be compiled into one packet for all recipients, as {@link net.canarymod.api.packet.Broadcast#message(String, com.google.common.base.Predicate)} does.
      *
      * @param msg
      *         the message to broadcast
@@ -1,9 +1,11 @@
 package net.canarymod.api.world.blocks;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Static class of BlockTypes
@@ -382,7 +384,16 @@ public final class BlockType {
     private final short data;
     private final String machineName;
 
+    private static final int MAX_INDEXED_ID = 4096;
+
     private static HashMap<String, Map<Integer, BlockType>> blockTypes;
+    // Lookup tables; entries are only ever added, and the fields are written again afterwards to publish them
+    private static volatile BlockType[] byId; // the type with the lowest data for each id
+    private static volatile BlockType[] byIdAndData; // indexed by id << 4 | data
+    private static volatile BlockType[] unindexed; // types whose id or data doesn't fit the tables
+    // Full names with the data ("minecraft:stone:3"), and minecraft names without the namespace, so fromString doesn't build strings
+    private static ConcurrentHashMap<String, BlockType> byQualifiedName;
+    private static ConcurrentHashMap<String, Map<Integer, BlockType>> byShortName;
 
     public BlockType(int id, String machineName) {
         this(id, 0, "canarymod:" + machineName);
@@ -422,6 +433,66 @@ public final class BlockType {
             throw new CustomBlockTypeException("BlockType '" + machineName + ":" + data + "' already exists!");
         }
         blockTypes.get(machineName).put(data, this);
+        index(this);
+    }
+
+    private static synchronized void index(BlockType type) {
+        if (byQualifiedName == null) {
+            byQualifiedName = new ConcurrentHashMap<String, BlockType>();
+            byShortName = new ConcurrentHashMap<String, Map<Integer, BlockType>>();
+        }
+        if (!byQualifiedName.containsKey(type.machineName + ":" + type.data)) {
+            byQualifiedName.put(type.machineName + ":" + type.data, type);
+        }
+        if (type.machineName.startsWith("minecraft:")) {
+            byShortName.put(type.machineName.substring("minecraft:".length()), blockTypes.get(type.machineName));
+        }
+
+        if (type.id < 0 || type.id >= MAX_INDEXED_ID) {
+            unindex(type);
+            return;
+        }
+        BlockType[] ids = grow(byId, type.id + 1);
+        if (ids[type.id] == null || type.data < ids[type.id].data) {
+            ids[type.id] = type;
+        }
+        byId = ids;
+        if (type.data < 0 || type.data > 15) {
+            unindex(type);
+            return;
+        }
+        int key = type.id << 4 | type.data;
+        BlockType[] keys = grow(byIdAndData, key + 1);
+        if (keys[key] == null) {
+            keys[key] = type; // The first type registered for an id and data keeps it
+        }
+        byIdAndData = keys;
+    }
+
+    private static void unindex(BlockType type) {
+        BlockType[] types = unindexed == null ? new BlockType[1] : Arrays.copyOf(unindexed, unindexed.length + 1);
+        types[types.length - 1] = type;
+        unindexed = types;
+    }
+
+    private static BlockType[] grow(BlockType[] table, int size) {
+        if (table == null) {
+            return new BlockType[Math.max(size, 256)];
+        }
+        return size <= table.length ? table : Arrays.copyOf(table, Math.max(size, table.length * 2));
+    }
+
+    private static BlockType searchUnindexed(int id, int data) {
+        BlockType[] types = unindexed;
+        if (types == null) {
+            return null;
+        }
+        for (BlockType type : types) {
+            if (type.id == id && (data < 0 || type.data == data)) {
+                return type;
+            }
+        }
+        return null;
     }
 
     /**
@@ -510,9 +581,9 @@ public final class BlockType {
     /**
      * Get the BlockType according to the given ID.
      * This will return null if there is no BlockType with this id.
+     * If there are several BlockTypes with this id, the one with the lowest data is returned.
      *
-     * Warning: This operation, as of Minecraft 1.8 is very expensive and exists for
-     * backwards compatibility only!
+     * Note: As of Minecraft 1.8 this exists for backwards compatibility only!
      *
      * @param id
      *         the id
@@ -520,22 +591,19 @@ public final class BlockType {
      * @return the associated {@link BlockType} or {@code null}
      */
     public static BlockType fromId(int id) {
-        for (Map<Integer, BlockType> list : blockTypes.values()) {
-            for (BlockType t : list.values()) {
-                if (t.getId() == id) {
-                    return t;
-                }
-            }
+        if (id >= 0 && id < MAX_INDEXED_ID) {
+            BlockType[] ids = byId;
+            return id < ids.length ? ids[id] : null;
         }
-        return null;
+        return searchUnindexed(id, -1);
     }
 
     /**
      * Get the BlockType according to the given ID and Data.
      * This will return null if there is no BlockType with this id and data.
      *
-     * Warning: This operation, as of Minecraft 1.8 is very expensive and exists for
-     * backwards compatibility only!
+     * Note: As of Minecraft 1.8 this exists for backwards compatibility only!
+     *
      * @param id
      *         the id
      * @param data
@@ -544,9 +612,16 @@ public final class BlockType {
      * @return the associated {@link BlockType} or {@code null}
      */
     public static BlockType fromIdAndData(int id, int data) {
-        for (Map<Integer, BlockType> list : blockTypes.values()) {
-            if(list.get(data).getId() == id) {
-                return list.get(data);
+        if (id >= 0 && id < MAX_INDEXED_ID && data >= 0 && data <= 15) {
+            BlockType[] keys = byIdAndData;
+            if (id < keys.length >> 4 && keys[id << 4 | data] != null) {
+                return keys[id << 4 | data];
+            }
+        }
+        else if (data >= 0) {
+            BlockType t = searchUnindexed(id, data);
+            if (t != null) {
+                return t;
             }
         }
         return fromId(id); // if data has bit's set, it won't perfectly equal
@@ -562,27 +637,49 @@ public final class BlockType {
      * @return the associated {@link BlockType} or {@code null}
      */
     public static BlockType fromString(String name) {
-        String temp = name;
-        int data = 0;
-        if (!blockTypes.containsKey(name)) {
-            if (name.matches(".+:.+:\\d+")) {
-                temp = name.replaceAll(":\\d+", "");
-                try {
-                    data = Integer.parseInt(name.replaceAll(".+:.+:", ""));
-                }
-                catch (NumberFormatException nfex) {
-                    // Ignored
-                }
+        Map<Integer, BlockType> types = blockTypes.get(name);
+        if (types != null) {
+            return types.get(0);
+        }
+        int colon = name.lastIndexOf(':');
+        int namespace = colon > 0 ? name.lastIndexOf(':', colon - 1) : -1;
+        if (namespace > 0 && namespace < colon - 1 && isDigits(name, colon + 1)) {
+            // namespace:name:data
+            BlockType type = byQualifiedName.get(name);
+            if (type != null || name.charAt(colon + 1) != '0' || colon + 2 == name.length()) {
+                return type;
             }
-            else {
-                // Perhaps try by adding a namespace
-                temp = "minecraft:"+temp;
-                if (!blockTypes.containsKey(temp)) {
-                    return null;
-                }
+            // Data with leading zeros isn't in the index
+            types = blockTypes.get(name.substring(0, colon));
+            return types != null ? types.get(parseData(name, colon + 1)) : null;
+        }
+        // Perhaps it's a minecraft name without the namespace
+        types = byShortName.get(name);
+        return types != null ? types.get(0) : null;
+    }
+
+    private static boolean isDigits(String string, int start) {
+        if (start >= string.length()) {
+            return false;
+        }
+        for (int index = start; index < string.length(); index++) {
+            char c = string.charAt(index);
+            if (c < '0' || c > '9') {
+                return false;
             }
         }
-        return blockTypes.get(temp).get(data);
+        return true;
+    }
+
+    private static int parseData(String string, int start) {
+        if (string.length() - start > 9) {
+            return 0; // Too big to be data
+        }
+        int data = 0;
+        for (int index = start; index < string.length(); index++) {
+            data = data * 10 + (string.charAt(index) - '0');
+        }
+        return data;
     }
 
     /**
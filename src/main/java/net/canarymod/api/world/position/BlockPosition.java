@@ -0,0 +1,187 @@
+package net.canarymod.api.world.position;
+
+import net.canarymod.ToolBox;
+
+/**
+ * An unchanging block x, y, z triple that can be packed into a single {@code long}
+ * <p/>
+ * The packing is the same as the server uses for block positions: 26 bits of x, 12 bits of y and 26 bits of z,
+ * which covers every block inside the world border. Packed positions can be used as keys of a {@link PackedPositionMap}
+ * or in a {@link PackedPositionSet}, so that large amounts of positions can be kept without creating an object for each.
+ */
+public final class BlockPosition {
+    private static final int XZ_BITS = 26, Y_BITS = 12;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1, Y_MASK = (1L << Y_BITS) - 1;
+
+    private final int x, y, z;
+
+    public BlockPosition(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Constructs a new BlockPosition for the block a {@link Position} is in
+     *
+     * @param position
+     *         the {@link Position}
+     */
+    public BlockPosition(Position position) {
+        this(position.getBlockX(), position.getBlockY(), position.getBlockZ());
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    /**
+     * Gets the X of the chunk this block is in
+     *
+     * @return the chunk x
+     */
+    public int getChunkX() {
+        return x >> 4;
+    }
+
+    /**
+     * Gets the Z of the chunk this block is in
+     *
+     * @return the chunk z
+     */
+    public int getChunkZ() {
+        return z >> 4;
+    }
+
+    /**
+     * Gets the BlockPosition moved by the given amounts
+     *
+     * @param x
+     *         the amount to move on the x axis
+     * @param y
+     *         the amount to move on the y axis
+     * @param z
+     *         the amount to move on the z axis
+     *
+     * @return the moved BlockPosition
+     */
+    public BlockPosition offset(int x, int y, int z) {
+        return new BlockPosition(this.x + x, this.y + y, this.z + z);
+    }
+
+    /**
+     * Gets this position packed into a {@code long}
+     *
+     * @return the packed position
+     */
+    public long toLong() {
+        return pack(x, y, z);
+    }
+
+    /**
+     * Gets a {@link Position} at the corner of this block
+     *
+     * @return the {@link Position}
+     */
+    public Position toPosition() {
+        return new Position(x, y, z);
+    }
+
+    /**
+     * Unpacks a BlockPosition from a {@code long}
+     *
+     * @param packed
+     *         the packed position
+     *
+     * @return the BlockPosition
+     */
+    public static BlockPosition fromLong(long packed) {
+        return new BlockPosition(unpackX(packed), unpackY(packed), unpackZ(packed));
+    }
+
+    /**
+     * Packs block coordinates into a {@code long}.<br>
+     * X and Z are kept within -33554432 to 33554431, and Y within -2048 to 2047.
+     *
+     * @param x
+     *         the block x
+     * @param y
+     *         the block y
+     * @param z
+     *         the block z
+     *
+     * @return the packed position
+     */
+    public static long pack(int x, int y, int z) {
+        return (x & XZ_MASK) << (Y_BITS + XZ_BITS) | (y & Y_MASK) << XZ_BITS | z & XZ_MASK;
+    }
+
+    /**
+     * Packs the block a {@link Position} is in into a {@code long}
+     *
+     * @param position
+     *         the {@link Position}
+     *
+     * @return the packed position
+     */
+    public static long pack(Position position) {
+        return pack(ToolBox.floorToBlock(position.getX()), ToolBox.floorToBlock(position.getY()), ToolBox.floorToBlock(position.getZ()));
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> (Y_BITS + XZ_BITS));
+    }
+
+    public static int unpackY(long packed) {
+        return (int) (packed << XZ_BITS >> (64 - Y_BITS));
+    }
+
+    public static int unpackZ(long packed) {
+        return (int) (packed << (64 - XZ_BITS) >> (64 - XZ_BITS));
+    }
+
+    /**
+     * Spreads the bits of a value over the whole hash, so that values only differing in a few bits
+     * don't end up next to each other in a hash table (the finalizer of MurmurHash3)
+     *
+     * @param value
+     *         the value to hash
+     *
+     * @return the hash
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BlockPosition)) {
+            return false;
+        }
+        BlockPosition other = (BlockPosition) obj;
+        return other.x == x && other.y == y && other.z == z;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) mix(toLong());
+    }
+
+    @Override
+    public String toString() {
+        return x + ":" + y + ":" + z;
+    }
+}
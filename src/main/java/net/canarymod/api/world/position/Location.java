@@ -158,14 +158,16 @@ public class Location extends Vector3D {
     /** Return a hashcode for this object */
     @Override
     public int hashCode() {
-        int hash = 5;
-
-        hash = (int) (hash + x);
-        hash = (int) (hash + y);
-        hash = (int) (hash + z);
-        hash = (int) (hash + pitch);
-        hash = (int) (hash + rotation);
-        return hash;
+        long hash = 5;
+
+        // Adding 0 turns -0 into 0, which it is equal to
+        hash = 31 * hash + Double.doubleToLongBits(x + 0.0);
+        hash = 31 * hash + Double.doubleToLongBits(y + 0.0);
+        hash = 31 * hash + Double.doubleToLongBits(z + 0.0);
+        hash = 31 * hash + Float.floatToIntBits(pitch + 0.0F);
+        hash = 31 * hash + Float.floatToIntBits(rotation + 0.0F);
+        hash = 31 * hash + world.hashCode();
+        return (int) BlockPosition.mix(hash);
     }
 
     /** @return the world */
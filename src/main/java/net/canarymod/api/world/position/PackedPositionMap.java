@@ -0,0 +1,272 @@
+package net.canarymod.api.world.position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A map keyed by packed block positions (see {@link BlockPosition#pack(int, int, int)})
+ * <p/>
+ * The keys are kept as primitive {@code long}s in an open addressing table, so adding, finding and removing
+ * a position creates no objects. This suits keeping values for large amounts of blocks, such as protected regions.<br>
+ * Like {@link java.util.HashMap}, this map is not thread-safe.
+ *
+ * @param <V>
+ *         the type of the values
+ */
+public class PackedPositionMap<V> {
+    private static final float LOAD_FACTOR = 0.6F;
+    private static final long FREE = 0; // marks an empty slot, the value for the key 0 is kept on its own
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size; // excluding the key 0
+    private int resizeAt;
+    private boolean hasFreeKey;
+    private Object freeValue;
+
+    /** Constructs a new, empty PackedPositionMap */
+    public PackedPositionMap() {
+        this(16);
+    }
+
+    /**
+     * Constructs a new, empty PackedPositionMap
+     *
+     * @param expected
+     *         the number of positions expected, so the table won't have to grow until then
+     */
+    public PackedPositionMap(int expected) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expected) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(long key) {
+        return (int) BlockPosition.mix(key) & mask;
+    }
+
+    private int find(long key) {
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of positions in this map
+     *
+     * @return the number of positions
+     */
+    public int size() {
+        return hasFreeKey ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return key == FREE ? hasFreeKey : find(key) >= 0;
+    }
+
+    public boolean containsKey(int x, int y, int z) {
+        return containsKey(BlockPosition.pack(x, y, z));
+    }
+
+    public boolean containsKey(BlockPosition position) {
+        return containsKey(position.toLong());
+    }
+
+    /**
+     * Gets the value for a position
+     *
+     * @param key
+     *         the packed position
+     *
+     * @return the value; {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == FREE) {
+            return (V) freeValue;
+        }
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    public V get(int x, int y, int z) {
+        return get(BlockPosition.pack(x, y, z));
+    }
+
+    public V get(BlockPosition position) {
+        return get(position.toLong());
+    }
+
+    /**
+     * Sets the value for a position
+     *
+     * @param key
+     *         the packed position
+     * @param value
+     *         the value
+     *
+     * @return the previous value; {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == FREE) {
+            V old = (V) freeValue;
+            hasFreeKey = true;
+            freeValue = value;
+            return old;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                V old = (V) values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    public V put(int x, int y, int z, V value) {
+        return put(BlockPosition.pack(x, y, z), value);
+    }
+
+    public V put(BlockPosition position, V value) {
+        return put(position.toLong(), value);
+    }
+
+    /**
+     * Removes a position
+     *
+     * @param key
+     *         the packed position
+     *
+     * @return the value that was removed; {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == FREE) {
+            V old = (V) freeValue;
+            hasFreeKey = false;
+            freeValue = null;
+            return old;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V old = (V) values[slot];
+        size--;
+        // Move following entries back into the gap, so that no entry ends up behind a free slot from its home slot
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+        values[gap] = null;
+        return old;
+    }
+
+    public V remove(int x, int y, int z) {
+        return remove(BlockPosition.pack(x, y, z));
+    }
+
+    public V remove(BlockPosition position) {
+        return remove(position.toLong());
+    }
+
+    /** Removes every position */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, null);
+        size = 0;
+        hasFreeKey = false;
+        freeValue = null;
+    }
+
+    /**
+     * Gets the packed positions in this map
+     *
+     * @return a new array of the packed positions
+     */
+    public long[] keys() {
+        long[] found = new long[size()];
+        int index = 0;
+        if (hasFreeKey) {
+            found[index++] = FREE;
+        }
+        for (long key : keys) {
+            if (key != FREE) {
+                found[index++] = key;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets the values in this map
+     *
+     * @return a new list of the values
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> found = new ArrayList<V>(size());
+        if (hasFreeKey) {
+            found.add((V) freeValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                found.add((V) values[slot]);
+            }
+        }
+        return found;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int index = 0; index < oldKeys.length; index++) {
+            if (oldKeys[index] != FREE) {
+                int slot = slot(oldKeys[index]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[index];
+                values[slot] = oldValues[index];
+            }
+        }
+    }
+}
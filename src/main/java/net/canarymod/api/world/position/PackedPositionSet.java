@@ -0,0 +1,101 @@
+package net.canarymod.api.world.position;
+
+/**
+ * A set of packed block positions (see {@link BlockPosition#pack(int, int, int)}), kept in a {@link PackedPositionMap}
+ * <p/>
+ * Adding, finding and removing a position creates no objects. Like {@link java.util.HashSet}, this set is not thread-safe.
+ */
+public class PackedPositionSet {
+    private static final Object PRESENT = new Object();
+
+    private final PackedPositionMap<Object> map;
+
+    /** Constructs a new, empty PackedPositionSet */
+    public PackedPositionSet() {
+        map = new PackedPositionMap<Object>();
+    }
+
+    /**
+     * Constructs a new, empty PackedPositionSet
+     *
+     * @param expected
+     *         the number of positions expected, so the table won't have to grow until then
+     */
+    public PackedPositionSet(int expected) {
+        map = new PackedPositionMap<Object>(expected);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * Adds a position
+     *
+     * @param key
+     *         the packed position
+     *
+     * @return {@code true} if the position wasn't in the set yet; {@code false} if it was
+     */
+    public boolean add(long key) {
+        return map.put(key, PRESENT) == null;
+    }
+
+    public boolean add(int x, int y, int z) {
+        return add(BlockPosition.pack(x, y, z));
+    }
+
+    public boolean add(BlockPosition position) {
+        return add(position.toLong());
+    }
+
+    public boolean contains(long key) {
+        return map.containsKey(key);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return contains(BlockPosition.pack(x, y, z));
+    }
+
+    public boolean contains(BlockPosition position) {
+        return contains(position.toLong());
+    }
+
+    /**
+     * Removes a position
+     *
+     * @param key
+     *         the packed position
+     *
+     * @return {@code true} if the position was in the set; {@code false} if not
+     */
+    public boolean remove(long key) {
+        return map.remove(key) != null;
+    }
+
+    public boolean remove(int x, int y, int z) {
+        return remove(BlockPosition.pack(x, y, z));
+    }
+
+    public boolean remove(BlockPosition position) {
+        return remove(position.toLong());
+    }
+
+    /** Removes every position */
+    public void clear() {
+        map.clear();
+    }
+
+    /**
+     * Gets the packed positions in this set
+     *
+     * @return a new array of the packed positions
+     */
+    public long[] toArray() {
+        return map.keys();
+    }
+}
@@ -120,12 +120,13 @@ public class Vector3D extends Position {
     /** Return a hashcode for this object */
     @Override
     public int hashCode() {
-        int hash = 3;
+        long hash = 3;
 
-        hash = (int) (hash + x);
-        hash = (int) (hash + y);
-        hash = (int) (hash + z);
-        return hash;
+        // Adding 0.0 turns -0.0 into 0.0, which it is equal to
+        hash = 31 * hash + Double.doubleToLongBits(x + 0.0);
+        hash = 31 * hash + Double.doubleToLongBits(y + 0.0);
+        hash = 31 * hash + Double.doubleToLongBits(z + 0.0);
+        return (int) BlockPosition.mix(hash);
     }
 
     @Override
@@ -58,7 +58,7 @@ public class BackbonePermissions extends Backbone {
         }
         PermissionProvider provider = new MultiworldPermissionProvider(world, false, name);
         ArrayList<DataAccess> dataList = new ArrayList<DataAccess>();
-        log.debug("Loading permissions for " + name + ". World: " + ((world != null && !world.isEmpty()) ? world : "none"));
+        log.debug("Loading permissions for {}. World: {}", name, (world != null && !world.isEmpty()) ? world : "none");
         try {
             HashMap<String, Object> filter = new HashMap<String, Object>();
             filter.put("owner", name);
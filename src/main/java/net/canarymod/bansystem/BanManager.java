@@ -1,5 +1,6 @@
 package net.canarymod.bansystem;
 
+import net.canarymod.Canary;
 import net.canarymod.ToolBox;
 import net.canarymod.api.entity.living.humanoid.Player;
 import net.canarymod.backbone.BackboneBans;
@@ -36,6 +37,7 @@ public class BanManager {
 
         bans.add(ban);
         backbone.addBan(ban);
+        bansChanged();
     }
 
     /**
@@ -47,6 +49,7 @@ public class BanManager {
     public void issueBan(Ban ban) {
         bans.add(ban);
         backbone.addBan(ban);
+        bansChanged();
     }
 
     /**
@@ -75,6 +78,7 @@ public class BanManager {
 
         bans.add(ban);
         backbone.addBan(ban);
+        bansChanged();
     }
 
     /**
@@ -90,6 +94,7 @@ public class BanManager {
 
         bans.add(ban);
         backbone.addBan(ban);
+        bansChanged();
     }
 
     /**
@@ -117,6 +122,7 @@ public class BanManager {
 
         bans.add(ban);
         backbone.addBan(ban);
+        bansChanged();
     }
 
     public void issueIpBan(Player player, String reason, long bantime) {
@@ -125,6 +131,7 @@ public class BanManager {
 
         bans.add(ban);
         backbone.addBan(ban);
+        bansChanged();
     }
 
     /**
@@ -247,6 +254,7 @@ public class BanManager {
             backbone.liftBan(test.getUUID());
         }
         bans.remove(test);
+        bansChanged();
     }
 
     /**
@@ -271,6 +279,7 @@ public class BanManager {
         }
         backbone.liftBan(test.getUUID());
         bans.remove(test);
+        bansChanged();
     }
 
     /**
@@ -321,5 +330,12 @@ public class BanManager {
     public void reload() {
         bans.clear();
         bans = backbone.loadBans();
+        bansChanged();
+    }
+
+    private void bansChanged() {
+        if (Canary.commands() != null) {
+            Canary.commands().getTabCompleteEngine().bansChanged();
+        }
     }
 }
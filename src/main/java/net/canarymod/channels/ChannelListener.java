@@ -2,6 +2,8 @@ package net.canarymod.channels;
 
 import net.canarymod.api.entity.living.humanoid.Player;
 
+import java.nio.ByteBuffer;
+
 /** @author Somners */
 public abstract class ChannelListener {
 
@@ -16,4 +18,23 @@ public abstract class ChannelListener {
      *         The data send by the client.
      */
     public abstract void onChannelInput(String channel, Player player, byte[] byteStream);
+
+    /**
+     * Receives the input from Packet250CustomPayload on the registered channels as a read-only buffer.<br>
+     * Override this to read large payloads without them being copied; once overridden, this is called instead of
+     * {@link #onChannelInput(String, Player, byte[])}.<br>
+     * It has its own name, rather than overloading onChannelInput, so calls that pass {@code null} stay unambiguous.
+     *
+     * @param channel
+     *         The name of the channel.
+     * @param player
+     *         The client who sent this byte stream.
+     * @param payload
+     *         The data sent by the client, from the buffer's position to its limit.
+     */
+    public void onChannelPayload(String channel, Player player, ByteBuffer payload) {
+        byte[] byteStream = new byte[payload.remaining()];
+        payload.get(byteStream);
+        onChannelInput(channel, player, byteStream);
+    }
 }
@@ -1,11 +1,28 @@
 package net.canarymod.channels;
 
+import com.google.common.base.Predicate;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
+import net.canarymod.Canary;
 import net.canarymod.api.NetServerHandler;
 import net.canarymod.api.entity.living.humanoid.Player;
+import net.canarymod.api.packet.Broadcast;
 import net.canarymod.plugin.Plugin;
+import net.canarymod.profiler.ProfilerSection;
+import net.canarymod.profiler.TickProfiler;
 
-import java.util.Iterator;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import static net.canarymod.Canary.log;
 
@@ -22,13 +39,18 @@ import static net.canarymod.Canary.log;
  * - To register and unregister the client, send packets with the names 'REGISTER'
  * and 'UNREGISTER' respectively, with a message of the actual channel name to
  * register/unregister.<br>
+ * <br>
+ * Payloads arrive on the network threads, so the listeners of each channel are kept in an array that is replaced
+ * rather than changed, and dispatching is a plain walk over it.
  *
  * @author Somners
  */
 public abstract class ChannelManager implements ChannelManagerInterface {
+    private static final RegisteredChannelListener[] NO_LISTENERS = new RegisteredChannelListener[0];
 
-    private ArrayListMultimap<String, RegisteredChannelListener> listeners = ArrayListMultimap.create();
-    protected ArrayListMultimap<String, NetServerHandler> clients = ArrayListMultimap.create();
+    private final ConcurrentMap<String, RegisteredChannelListener[]> listeners = new ConcurrentHashMap<String, RegisteredChannelListener[]>();
+    private final ConcurrentMap<String, CopyOnWriteArrayList<NetServerHandler>> clients = new ConcurrentHashMap<String, CopyOnWriteArrayList<NetServerHandler>>();
+    private final ConcurrentMap<NetServerHandler, Set<String>> clientChannels = new ConcurrentHashMap<NetServerHandler, Set<String>>();
 
     /** {@inheritDoc} */
     @Override
@@ -47,8 +69,14 @@ public abstract class ChannelManager implements ChannelManagerInterface {
                 throw new CustomPayloadChannelException("Invalid Registered Listener: Channel Listener is null.");
             }
 
-            synchronized (listener) {
-                listeners.put(channel, new RegisteredChannelListener(plugin, listener));
+            synchronized (listeners) {
+                RegisteredChannelListener[] current = listeners.get(channel);
+                if (current == null) {
+                    current = NO_LISTENERS;
+                }
+                RegisteredChannelListener[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = new RegisteredChannelListener(plugin, listener);
+                listeners.put(channel, updated);
             }
         }
         catch (CustomPayloadChannelException ex) {
@@ -61,11 +89,23 @@ public abstract class ChannelManager implements ChannelManagerInterface {
     public boolean unregisterListeners(Plugin plugin) {
         boolean toRet = false;
         synchronized (listeners) {
-            Iterator<RegisteredChannelListener> itr = listeners.values().iterator();
-            while (itr.hasNext()) {
-                if (itr.next().getPlugin().equals(plugin)) {
-                    itr.remove();
-                    toRet = true;
+            for (String channel : listeners.keySet()) {
+                RegisteredChannelListener[] current = listeners.get(channel);
+                ArrayList<RegisteredChannelListener> kept = new ArrayList<RegisteredChannelListener>(current.length);
+                for (RegisteredChannelListener listener : current) {
+                    if (!listener.getPlugin().equals(plugin)) {
+                        kept.add(listener);
+                    }
+                }
+                if (kept.size() == current.length) {
+                    continue;
+                }
+                toRet = true;
+                if (kept.isEmpty()) {
+                    listeners.remove(channel);
+                }
+                else {
+                    listeners.put(channel, kept.toArray(new RegisteredChannelListener[kept.size()]));
                 }
             }
         }
@@ -74,7 +114,30 @@ public abstract class ChannelManager implements ChannelManagerInterface {
 
     /** {@inheritDoc} */
     @Override
-    public abstract boolean sendCustomPayloadToAllPlayers(String channel, byte[] bytestream);
+    public boolean sendCustomPayloadToAllPlayers(String channel, byte[] bytestream) {
+        return sendCustomPayloadToAllPlayers(channel, bytestream, Broadcast.everyone());
+    }
+
+    /**
+     * Send a Custom Payload packet to the players listening on the given channel that the {@link Predicate} accepts.<br>
+     * The packet is created once and shared by all of them.
+     *
+     * @param channel
+     *         the channel to send messages on.
+     * @param bytestream
+     *         the message to be sent.
+     * @param recipients
+     *         the {@link Predicate} choosing the recipients
+     *
+     * @return true if any packets were sent, false otherwise.
+     */
+    public boolean sendCustomPayloadToAllPlayers(String channel, byte[] bytestream, Predicate<? super Player> recipients) {
+        List<NetServerHandler> handlers = getClients(channel);
+        if (handlers.isEmpty()) {
+            return false;
+        }
+        return Broadcast.packetToClients(Canary.factory().getPacketFactory().customPayload(channel, bytestream), handlers, recipients) > 0;
+    }
 
     /** {@inheritDoc} */
     @Override
@@ -83,13 +146,62 @@ public abstract class ChannelManager implements ChannelManagerInterface {
     /** {@inheritDoc} */
     @Override
     public void sendCustomPayloadToListeners(String channel, byte[] byteStream, Player player) {
-        if (listeners.containsKey(channel)) {
-            for (RegisteredChannelListener listener : listeners.get(channel)) {
-                listener.getChannelListener().onChannelInput(channel, player, byteStream);
+        dispatch(channel, player, byteStream, null);
+    }
+
+    /**
+     * Send an input Custom Payload packet to the listeners listening on the given channel, without copying it for listeners
+     * that take a {@link ByteBuffer}.<br>
+     * Subclasses that receive payloads as buffers should call this rather than
+     * {@link #sendCustomPayloadToListeners(String, byte[], Player)}; it is not part of {@link ChannelManagerInterface},
+     * so other implementations of the interface don't have to provide it.
+     *
+     * @param channel
+     *         the channel the Custom Payload was sent on.
+     * @param payload
+     *         the message being sent, from its position to its limit.
+     * @param player
+     *         the player who sent the Custom Payload.
+     */
+    public void sendCustomPayloadToListeners(String channel, ByteBuffer payload, Player player) {
+        dispatch(channel, player, null, payload);
+    }
+
+    private void dispatch(String channel, Player player, byte[] bytes, ByteBuffer buffer) {
+        RegisteredChannelListener[] registered = listeners.get(channel);
+        if (registered == null) {
+            return;
+        }
+        TickProfiler profiler = Canary.profiler();
+        for (RegisteredChannelListener listener : registered) {
+            long start = profiler.begin();
+            try {
+                if (listener.takesBuffer()) {
+                    // Every listener gets its own view, so reading it doesn't move the others along
+                    listener.getChannelListener().onChannelPayload(channel, player, buffer != null ? buffer.asReadOnlyBuffer() : ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+                }
+                else {
+                    if (bytes == null) {
+                        bytes = toBytes(buffer); // Copied once for all of the byte[] listeners
+                    }
+                    listener.getChannelListener().onChannelInput(channel, player, bytes);
+                }
+            }
+            finally {
+                profiler.end(ProfilerSection.PACKETS, start, listener.getPlugin(), channel);
             }
         }
     }
 
+    private static byte[] toBytes(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void registerClient(String channel, NetServerHandler handler) {
@@ -98,7 +210,18 @@ public abstract class ChannelManager implements ChannelManagerInterface {
                 throw new CustomPayloadChannelException("Invalid Registered Client: NetServerHandler is null.");
             }
             synchronized (clients) {
-                clients.put(channel, handler);
+                CopyOnWriteArrayList<NetServerHandler> handlers = clients.get(channel);
+                if (handlers == null) {
+                    handlers = new CopyOnWriteArrayList<NetServerHandler>();
+                    clients.put(channel, handlers);
+                }
+                handlers.addIfAbsent(handler);
+                Set<String> channels = clientChannels.get(handler);
+                if (channels == null) {
+                    channels = new CopyOnWriteArraySet<String>();
+                    clientChannels.put(handler, channels);
+                }
+                channels.add(channel);
             }
         }
         catch (CustomPayloadChannelException ex) {
@@ -106,11 +229,53 @@ public abstract class ChannelManager implements ChannelManagerInterface {
         }
     }
 
+    /**
+     * Gets the clients registered to a channel.<br>
+     * Iterating the list is safe while clients register and unregister; it goes over the clients registered when it began.
+     *
+     * @param channel
+     *         the name of the channel
+     *
+     * @return an unmodifiable list of the clients; empty if none
+     */
+    protected List<NetServerHandler> getClients(String channel) {
+        List<NetServerHandler> handlers = clients.get(channel);
+        return handlers != null ? Collections.unmodifiableList(handlers) : Collections.<NetServerHandler>emptyList();
+    }
+
+    /**
+     * Gets the clients of every channel
+     *
+     * @return a copy of the channels and the clients registered to each; changing it has no effect
+     *
+     * @deprecated the clients used to be a protected multimap subclasses could read directly; use {@link #getClients(String)},
+     * which doesn't copy
+     */
+    @Deprecated
+    protected ListMultimap<String, NetServerHandler> getClients() {
+        ArrayListMultimap<String, NetServerHandler> copy = ArrayListMultimap.create();
+        for (Map.Entry<String, CopyOnWriteArrayList<NetServerHandler>> entry : clients.entrySet()) {
+            copy.putAll(entry.getKey(), entry.getValue());
+        }
+        return Multimaps.unmodifiableListMultimap(copy);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean unregisterClient(String channel, NetServerHandler handler) {
         synchronized (clients) {
-            if (clients.containsKey(channel) && clients.get(channel).remove(handler)) {
+            CopyOnWriteArrayList<NetServerHandler> handlers = clients.get(channel);
+            if (handlers != null && handlers.remove(handler)) {
+                if (handlers.isEmpty()) {
+                    clients.remove(channel);
+                }
+                Set<String> channels = clientChannels.get(handler);
+                if (channels != null) {
+                    channels.remove(channel);
+                    if (channels.isEmpty()) {
+                        clientChannels.remove(handler);
+                    }
+                }
                 log.info(String.format("Client Custom Payload channel '%s' has been unregistered for client '%s'", channel, handler.getUser().getName()));
                 return true;
             }
@@ -121,8 +286,11 @@ public abstract class ChannelManager implements ChannelManagerInterface {
     /** {@inheritDoc} */
     @Override
     public boolean unregisterClientAll(NetServerHandler handler) {
+        Set<String> channels = clientChannels.get(handler);
+        if (channels == null) {
+            return true; // Nothing to unregister from, as before
+        }
         boolean toRet = true;
-        String[] channels = clients.keySet().toArray(new String[clients.keySet().size()]);
         for (String channel : channels) {
             toRet &= unregisterClient(channel, handler);
         }
@@ -1,16 +1,26 @@
 package net.canarymod.channels;
 
+import net.canarymod.api.entity.living.humanoid.Player;
 import net.canarymod.plugin.Plugin;
 
+import java.nio.ByteBuffer;
+
 /** @author Somners */
 public class RegisteredChannelListener {
 
     private Plugin plugin;
     private ChannelListener listener;
+    private boolean takesBuffer;
 
     public RegisteredChannelListener(Plugin plugin, ChannelListener listener) {
         this.plugin = plugin;
         this.listener = listener;
+        try {
+            takesBuffer = listener.getClass().getMethod("onChannelPayload", String.class, Player.class, ByteBuffer.class).getDeclaringClass() != ChannelListener.class;
+        }
+        catch (NoSuchMethodException nsmex) {
+            takesBuffer = false; // Can't happen, it is public
+        }
     }
 
     /**
@@ -30,4 +40,13 @@ public class RegisteredChannelListener {
     public ChannelListener getChannelListener() {
         return this.listener;
     }
+
+    /**
+     * Checks whether the listener reads payloads from a {@link ByteBuffer} rather than a byte[]
+     *
+     * @return {@code true} if the listener overrides {@link ChannelListener#onChannelPayload(String, Player, ByteBuffer)}
+     */
+    boolean takesBuffer() {
+        return takesBuffer;
+    }
 }
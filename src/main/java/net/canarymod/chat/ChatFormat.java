@@ -133,7 +133,7 @@ public enum ChatFormat {
      * @return str with formatting removed
      */
     public static String removeFormatting(String str) {
-        return str.replaceAll("(?i)\u00A7[a-fk-nr0-9]", "");
+        return FormatCodes.strip(str);
     }
 
     /**
@@ -146,8 +146,7 @@ public enum ChatFormat {
      * @return the formatted {@link String}
      */
     public static String formatString(String str, String marker) {
-        marker = marker.replaceAll("(\\$|\\^|\\.|\\*|\\?|\\+)", "\\\\$1");// Clean the string of anything that could disrupt the regex
-        return str.replaceAll("(?i)" + marker + "([a-fk-nr0-9])", MARKER.concat("$1"));
+        return FormatCodes.translate(str, marker);
     }
     
     /**
@@ -159,6 +158,6 @@ public enum ChatFormat {
      * @return the formatted text
      */
     public static final String consoleFormat(String text) {
-        return text.replaceAll("\u00A7([A-FK-NRa-fk-nr0-9])", "&$1");
+        return FormatCodes.translate(text, MARKER.charValue(), '&');
     }
 }
\ No newline at end of file
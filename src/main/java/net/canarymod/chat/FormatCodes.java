@@ -0,0 +1,192 @@
+package net.canarymod.chat;
+
+/**
+ * Single pass processing of formatting codes, the {@link ChatFormat#MARKER} followed by one of
+ * {@code 0-9 a-f k-o r} in either case.
+ * <p/>
+ * Chat messages and broadcasts go through here, so nothing is compiled or matched with regular expressions:
+ * each method scans the text once, writes into a buffer kept per thread and only allocates the resulting {@link String}.
+ * Text without anything to change is returned as it is.
+ */
+public final class FormatCodes {
+    private static final int MAX_BUFFER = 8192; // longer texts get a buffer of their own rather than one kept around
+    private static final char MARKER = '\u00A7';
+    private static final boolean[] CODES = new boolean[128];
+    private static final String[] PAIRS = new String[128];
+    private static final ThreadLocal<char[]> buffers = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[256];
+        }
+    };
+
+    static {
+        String codes = "0123456789abcdefklmnorABCDEFKLMNOR";
+        for (int index = 0; index < codes.length(); index++) {
+            char code = codes.charAt(index);
+            CODES[code] = true;
+            PAIRS[code] = new String(new char[]{ MARKER, code });
+        }
+    }
+
+    private FormatCodes() {
+    }
+
+    /**
+     * Checks whether a character is a formatting code
+     *
+     * @param code
+     *         the character following a marker
+     *
+     * @return {@code true} if a formatting code; {@code false} if not
+     */
+    public static boolean isCode(char code) {
+        return code < 128 && CODES[code];
+    }
+
+    /**
+     * Removes all formatting codes
+     *
+     * @param text
+     *         the text to strip
+     *
+     * @return the text without formatting codes
+     */
+    public static String strip(String text) {
+        int first = firstCode(text, MARKER);
+        if (first < 0) {
+            return text;
+        }
+        int length = text.length();
+        char[] out = buffer(length);
+        text.getChars(0, first, out, 0);
+        int written = first;
+        for (int index = first; index < length; index++) {
+            char current = text.charAt(index);
+            if (current == MARKER && index + 1 < length && isCode(text.charAt(index + 1))) {
+                index++;
+                continue;
+            }
+            out[written++] = current;
+        }
+        return new String(out, 0, written);
+    }
+
+    /**
+     * Replaces the marker of every formatting code, such as turning {@code &} codes into {@link ChatFormat#MARKER} codes and back
+     *
+     * @param text
+     *         the text to translate
+     * @param from
+     *         the marker to look for
+     * @param to
+     *         the marker to put in its place
+     *
+     * @return the translated text
+     */
+    public static String translate(String text, char from, char to) {
+        int first = firstCode(text, from);
+        if (first < 0) {
+            return text;
+        }
+        int length = text.length();
+        char[] out = buffer(length);
+        text.getChars(0, length, out, 0);
+        for (int index = first; index < length - 1; index++) {
+            if (out[index] == from && isCode(out[index + 1])) {
+                out[index] = to;
+                index++;
+            }
+        }
+        return new String(out, 0, length);
+    }
+
+    /**
+     * Replaces a marker of any length, matched regardless of case, followed by a formatting code with the {@link ChatFormat#MARKER}
+     *
+     * @param text
+     *         the text to translate
+     * @param marker
+     *         the marker to look for
+     *
+     * @return the translated text
+     */
+    public static String translate(String text, String marker) {
+        if (marker.length() == 1) {
+            char single = marker.charAt(0);
+            if (Character.toLowerCase(single) == Character.toUpperCase(single)) {
+                return translate(text, single, MARKER);
+            }
+        }
+        int length = text.length();
+        int markerLength = marker.length();
+        if (markerLength == 0 || length <= markerLength) {
+            return text;
+        }
+        char[] out = null;
+        int written = 0;
+        int copied = 0; // text before this index has been handled
+        for (int index = 0; index + markerLength < length; index++) {
+            if (text.regionMatches(true, index, marker, 0, markerLength) && isCode(text.charAt(index + markerLength))) {
+                if (out == null) {
+                    out = buffer(length);
+                }
+                text.getChars(copied, index, out, written);
+                written += index - copied;
+                out[written++] = MARKER;
+                index += markerLength;
+                out[written++] = text.charAt(index);
+                copied = index + 1;
+            }
+        }
+        if (out == null) {
+            return text;
+        }
+        text.getChars(copied, length, out, written);
+        written += length - copied;
+        return new String(out, 0, written);
+    }
+
+    /**
+     * Gets the last formatting code
+     *
+     * @param text
+     *         the text to look through
+     *
+     * @return the marker and code, or {@code null} if the text has none
+     */
+    public static String lastCode(String text) {
+        for (int index = text.length() - 2; index >= 0; index--) {
+            if (text.charAt(index) == MARKER) {
+                char code = text.charAt(index + 1);
+                if (isCode(code)) {
+                    return PAIRS[code];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int firstCode(String text, char marker) {
+        int index = text.indexOf(marker);
+        while (index >= 0 && index + 1 < text.length()) {
+            if (isCode(text.charAt(index + 1))) {
+                return index;
+            }
+            index = text.indexOf(marker, index + 1);
+        }
+        return -1;
+    }
+
+    private static char[] buffer(int length) {
+        if (length > MAX_BUFFER) {
+            return new char[length];
+        }
+        char[] buffer = buffers.get();
+        if (buffer.length < length) {
+            buffer = new char[Math.min(MAX_BUFFER, Math.max(length, buffer.length * 2))];
+            buffers.set(buffer);
+        }
+        return buffer;
+    }
+}
@@ -41,7 +41,7 @@ public class TextFormat extends Colors {
      * @return <tt>text</tt> with all color/style tags stripped.
      */
     public static final String removeFormatting(String text) {
-        return text.replaceAll("\u00A7[A-FK-NRa-fk-nr0-9]", "");
+        return FormatCodes.strip(text);
     }
 
     /**
@@ -53,7 +53,7 @@ public class TextFormat extends Colors {
      * @return the formatted text
      */
     public static final String consoleFormat(String text) {
-        return text.replaceAll("\u00A7([A-FK-NRa-fk-nr0-9])", "&$1");
+        return FormatCodes.translate(text, '\u00A7', '&');
     }
 
     /**
@@ -65,16 +65,7 @@ public class TextFormat extends Colors {
      * @return the last Color
      */
     public static String getLastColor(String input) {
-        if (input.contains(MARKER)) {
-            int mark = input.lastIndexOf(MARKER);
-            if (mark == input.length()) {
-                return getLastColor(input.substring(0, mark));
-            }
-            else {
-                return input.substring(mark, mark + 2);
-            }
-        }
-        return null;
+        return FormatCodes.lastCode(input);
     }
 
 }
@@ -8,6 +8,7 @@ import net.canarymod.config.Configuration;
 import net.visualillusionsent.utils.LocaleHelper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 import static net.canarymod.Canary.log;
@@ -26,6 +27,8 @@ public abstract class CanaryCommand implements Comparable<CanaryCommand> {
     private final TabCompleteDispatch tabComplete;
 
     private List<CanaryCommand> subcommands = new ArrayList<CanaryCommand>();
+    // Lower case alias to sub command, the first sub command added wins should aliases collide
+    private HashMap<String, CanaryCommand> subcommandAliases = new HashMap<String, CanaryCommand>();
 
     private CanaryCommand parent;
 
@@ -129,14 +132,7 @@ public abstract class CanaryCommand implements Comparable<CanaryCommand> {
     }
 
     public CanaryCommand getSubCommand(String alias) {
-        for (CanaryCommand cmd : subcommands) {
-            for (String cmdalias : cmd.meta.aliases()) {
-                if (alias.equalsIgnoreCase(cmdalias)) {
-                    return cmd;
-                }
-            }
-        }
-        return null;
+        return subcommandAliases.get(alias.toLowerCase());
     }
 
     /**
@@ -167,14 +163,7 @@ public abstract class CanaryCommand implements Comparable<CanaryCommand> {
     }
 
     public boolean hasSubCommand(String alias) {
-        for (CanaryCommand cmd : subcommands) {
-            for (String cmdalias : cmd.meta.aliases()) {
-                if (alias.equalsIgnoreCase(cmdalias)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return subcommandAliases.containsKey(alias.toLowerCase());
     }
 
     public boolean hasAlias(String alias) {
@@ -191,7 +180,8 @@ public abstract class CanaryCommand implements Comparable<CanaryCommand> {
             addSubCommand(command);
             return true;
         }
-        return hasSubCommand(path[index]) && getSubCommand(path[index]).addSubCommand(path, ++index, command);
+        CanaryCommand next = getSubCommand(path[index]);
+        return next != null && next.addSubCommand(path, ++index, command);
     }
 
     /**
@@ -226,7 +216,23 @@ public abstract class CanaryCommand implements Comparable<CanaryCommand> {
      *         the sub command to remove
      */
     protected void removeSubCommand(CanaryCommand cmd) {
-        subcommands.remove(cmd);
+        if (!subcommands.remove(cmd)) {
+            return;
+        }
+        for (String alias : cmd.meta.aliases()) {
+            String key = alias.toLowerCase();
+            if (subcommandAliases.get(key) != cmd) {
+                continue;
+            }
+            subcommandAliases.remove(key);
+            // Fall back to the next sub command with the alias
+            for (CanaryCommand other : subcommands) {
+                if (other.hasAliasIgnoreCase(key)) {
+                    subcommandAliases.put(key, other);
+                    break;
+                }
+            }
+        }
     }
 
     /**
@@ -236,7 +242,25 @@ public abstract class CanaryCommand implements Comparable<CanaryCommand> {
      *         the sub command to add
      */
     protected void addSubCommand(CanaryCommand cmd) {
+        if (subcommands.contains(cmd)) {
+            return;
+        }
         subcommands.add(cmd);
+        for (String alias : cmd.meta.aliases()) {
+            String key = alias.toLowerCase();
+            if (!subcommandAliases.containsKey(key)) {
+                subcommandAliases.put(key, cmd);
+            }
+        }
+    }
+
+    private boolean hasAliasIgnoreCase(String alias) {
+        for (String cmdalias : meta.aliases()) {
+            if (alias.equalsIgnoreCase(cmdalias)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
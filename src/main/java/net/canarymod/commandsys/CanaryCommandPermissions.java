@@ -48,6 +48,7 @@ public enum CanaryCommandPermissions {
             PLAYERMOD$GROUP$REMOVE = "canary.command.playermod.group.remove",
             BAN = "canary.command.ban",
             CANARYMOD = "canary.command.canarymod",
+            CMDSTATS = "canary.command.cmdstats",
             CREATEVANILLA = "canary.command.createvanilla",
             HELP = "canary.command.help",
             IPBAN = "canary.command.ipban",
@@ -66,10 +67,12 @@ public enum CanaryCommandPermissions {
             PLUGIN$ENABLE = "canary.command.plugin.enable",
             PLUGIN$DISABLE = "canary.command.plugin.disable",
             PLUGIN$RELOAD = "canary.command.plugin.reload",
+            PROFILER = "canary.command.profiler",
             RELOAD = "canary.command.reload",
             RESERVELIST = "canary.command.reservelist",
             STOP = "canary.command.stop",
             SYSINFO = "canary.command.sysinfo",
+            TASKSTATS = "canary.command.taskstats",
             UNBAN = "canary.command.unban",
             UPTIME = "canary.command.uptime",
             WHITELIST = "canary.command.whitelist", // add remove list
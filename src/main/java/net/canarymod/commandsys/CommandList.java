@@ -32,6 +32,7 @@ import net.canarymod.commandsys.commands.playermod.PlayerRemove;
 import net.canarymod.commandsys.commands.playermod.PlayermodBase;
 import net.canarymod.commandsys.commands.system.BanCommand;
 import net.canarymod.commandsys.commands.system.CanaryModCommand;
+import net.canarymod.commandsys.commands.system.CommandStatisticsCommand;
 import net.canarymod.commandsys.commands.system.CreateVanilla;
 import net.canarymod.commandsys.commands.system.DeOp;
 import net.canarymod.commandsys.commands.system.HelpCommand;
@@ -45,10 +46,12 @@ import net.canarymod.commandsys.commands.system.OpList;
 import net.canarymod.commandsys.commands.system.PlayerInformation;
 import net.canarymod.commandsys.commands.system.PlayerList;
 import net.canarymod.commandsys.commands.system.PluginCommand;
+import net.canarymod.commandsys.commands.system.ProfilerCommand;
 import net.canarymod.commandsys.commands.system.ReloadCommand;
 import net.canarymod.commandsys.commands.system.ReservelistCommand;
 import net.canarymod.commandsys.commands.system.StopServer;
 import net.canarymod.commandsys.commands.system.SystemInformation;
+import net.canarymod.commandsys.commands.system.TaskStatistics;
 import net.canarymod.commandsys.commands.system.UnbanCommand;
 import net.canarymod.commandsys.commands.system.Uptime;
 import net.canarymod.commandsys.commands.system.kits.KitCreate;
@@ -130,6 +133,7 @@ import static net.canarymod.commandsys.CanaryCommandPermissions.BAN;
 import static net.canarymod.commandsys.CanaryCommandPermissions.BLOCKDATA;
 import static net.canarymod.commandsys.CanaryCommandPermissions.BROADCAST;
 import static net.canarymod.commandsys.CanaryCommandPermissions.CANARYMOD;
+import static net.canarymod.commandsys.CanaryCommandPermissions.CMDSTATS;
 import static net.canarymod.commandsys.CanaryCommandPermissions.CLEAR;
 import static net.canarymod.commandsys.CanaryCommandPermissions.CLONE;
 import static net.canarymod.commandsys.CanaryCommandPermissions.COMPASS;
@@ -207,6 +211,7 @@ import static net.canarymod.commandsys.CanaryCommandPermissions.PLUGIN$DISABLE;
 import static net.canarymod.commandsys.CanaryCommandPermissions.PLUGIN$ENABLE;
 import static net.canarymod.commandsys.CanaryCommandPermissions.PLUGIN$LIST;
 import static net.canarymod.commandsys.CanaryCommandPermissions.PLUGIN$RELOAD;
+import static net.canarymod.commandsys.CanaryCommandPermissions.PROFILER;
 import static net.canarymod.commandsys.CanaryCommandPermissions.RELOAD;
 import static net.canarymod.commandsys.CanaryCommandPermissions.REPLACEITEM;
 import static net.canarymod.commandsys.CanaryCommandPermissions.RESERVELIST;
@@ -223,6 +228,7 @@ import static net.canarymod.commandsys.CanaryCommandPermissions.STATS;
 import static net.canarymod.commandsys.CanaryCommandPermissions.STOP;
 import static net.canarymod.commandsys.CanaryCommandPermissions.SUMMON;
 import static net.canarymod.commandsys.CanaryCommandPermissions.SYSINFO;
+import static net.canarymod.commandsys.CanaryCommandPermissions.TASKSTATS;
 import static net.canarymod.commandsys.CanaryCommandPermissions.TELEPORT;
 import static net.canarymod.commandsys.CanaryCommandPermissions.TELEPORT$OTHER;
 import static net.canarymod.commandsys.CanaryCommandPermissions.TESTFOR;
@@ -309,6 +315,7 @@ public class CommandList implements CommandListener {
         /* system */
         temp.put("ban", new BanCommand());
         temp.put("canarymod", new CanaryModCommand());
+        temp.put("cmdstats", new CommandStatisticsCommand());
         temp.put("createvanilla", new CreateVanilla());
         temp.put("deop", new DeOp());
         temp.put("help", new HelpCommand());
@@ -328,10 +335,12 @@ public class CommandList implements CommandListener {
         temp.put("enableplugin", new PluginCommand(false, false));
         temp.put("disableplugin", new PluginCommand(true, false));
         temp.put("reloadplugin", new PluginCommand(false, true));
+        temp.put("profiler", new ProfilerCommand());
         temp.put("reload", new ReloadCommand());
         temp.put("reservelist", new ReservelistCommand());
         temp.put("stop", new StopServer());
         temp.put("sysinfo", new SystemInformation());
+        temp.put("taskstats", new TaskStatistics());
         temp.put("unban", new UnbanCommand());
         temp.put("uptime", new Uptime());
         temp.put("whitelist.add", new WhitelistAdd());
@@ -953,6 +962,22 @@ public class CommandList implements CommandListener {
         natives.get("canarymod").execute(caller, parameters);
     }
 
+    @Command(
+            aliases = { "cmdstats" },
+            description = "Command execution statistics",
+            permissions = { CMDSTATS },
+            toolTip = "/cmdstats [commands|owners|reset]",
+            max = 2
+    )
+    public void cmdstats(MessageReceiver caller, String[] parameters) {
+        natives.get("cmdstats").execute(caller, parameters);
+    }
+
+    @TabComplete(commands = { "cmdstats" })
+    public List<String> cmdstatsTabComplete(MessageReceiver caller, String[] parameters) {
+        return parameters.length == 1 ? matchTo(parameters, new String[]{ "commands", "owners", "reset" }) : null;
+    }
+
     @Command(
             aliases = { "createvanilla", "makevanilla" },
             description = "makevanilla info",
@@ -1257,6 +1282,22 @@ public class CommandList implements CommandListener {
         natives.get("stop").execute(caller, parameters);
     }
 
+    @Command(
+            aliases = { "profiler" },
+            description = "Tick profiler",
+            permissions = { PROFILER },
+            toolTip = "/profiler [start|stop|status|reset|dump]",
+            max = 2
+    )
+    public void profiler(MessageReceiver caller, String[] parameters) {
+        natives.get("profiler").execute(caller, parameters);
+    }
+
+    @TabComplete(commands = { "profiler" })
+    public List<String> profilerTabComplete(MessageReceiver caller, String[] parameters) {
+        return parameters.length == 1 ? matchTo(parameters, new String[]{ "start", "stop", "status", "reset", "dump" }) : null;
+    }
+
     @Command(
             aliases = { "sysinfo" },
             description = "System Information",
@@ -1267,6 +1308,17 @@ public class CommandList implements CommandListener {
         natives.get("sysinfo").execute(caller, parameters);
     }
 
+    @Command(
+            aliases = { "taskstats" },
+            description = "Server Task statistics",
+            permissions = { TASKSTATS },
+            toolTip = "/taskstats [reset]",
+            max = 2
+    )
+    public void taskstats(MessageReceiver caller, String[] parameters) {
+        natives.get("taskstats").execute(caller, parameters);
+    }
+
     @Command(
             aliases = { "unban" },
             description = "unban info",
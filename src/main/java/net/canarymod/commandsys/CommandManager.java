@@ -3,6 +3,9 @@ package net.canarymod.commandsys;
 import net.canarymod.Canary;
 import net.canarymod.Translator;
 import net.canarymod.chat.MessageReceiver;
+import net.canarymod.profiler.ProfilerSection;
+import net.canarymod.profiler.TickProfiler;
+import net.canarymod.util.MethodInvoker;
 import net.visualillusionsent.utils.LocaleHelper;
 
 import java.lang.reflect.Method;
@@ -11,9 +14,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import static net.canarymod.Canary.log;
 
@@ -27,6 +33,30 @@ import static net.canarymod.Canary.log;
  */
 public class CommandManager {
     HashMap<String, CanaryCommand> commands = new HashMap<String, CanaryCommand>();
+    // Name indexes for matching partial commands, kept in step with the commands map and the sub command trees
+    private final CommandTrie rootNames = new CommandTrie();
+    private final CommandTrie subCommandNames = new CommandTrie();
+    private final HashMap<CanaryCommand, Integer> rootAliasCounts = new HashMap<CanaryCommand, Integer>();
+    private final TabCompleteEngine tabCompleteEngine = new TabCompleteEngine();
+    private final CommandStatistics statistics = new CommandStatistics();
+
+    /**
+     * Gets the {@link TabCompleteEngine} holding the tab complete candidates and cached results
+     *
+     * @return the {@link TabCompleteEngine}
+     */
+    public TabCompleteEngine getTabCompleteEngine() {
+        return tabCompleteEngine;
+    }
+
+    /**
+     * Gets the {@link CommandStatistics} recording the executions of commands
+     *
+     * @return the {@link CommandStatistics}
+     */
+    public CommandStatistics getStatistics() {
+        return statistics;
+    }
 
     /**
      * Remove a command from the command list.
@@ -72,12 +102,15 @@ public class CommandManager {
                 Canary.help().unregisterCommand(temp.owner, temp.meta.aliases()[0]);
             }
             if (temp.getParent() != null) {
+                if (isIndexed(temp)) {
+                    indexSubCommands(temp, false);
+                }
                 temp.getParent().removeSubCommand(temp);
                 return true;
             }
             else {
                 for (int i = 0; i < temp.meta.aliases().length; i++) {
-                    commands.remove(temp.meta.aliases()[i].toLowerCase());
+                    removeRoot(temp.meta.aliases()[i].toLowerCase());
                 }
                 return true;
             }
@@ -94,16 +127,15 @@ public class CommandManager {
         if (owner == null) {
             return;
         }
-        Iterator<String> itr = commands.keySet().iterator();
-
-        while (itr.hasNext()) {
-            String entry = itr.next();
-            CanaryCommand cmd = commands.get(entry);
-
-            if (cmd.owner.getName().equals(owner.getName())) {
-                itr.remove();
+        ArrayList<String> owned = new ArrayList<String>();
+        for (Map.Entry<String, CanaryCommand> entry : commands.entrySet()) {
+            if (entry.getValue().owner.getName().equals(owner.getName())) {
+                owned.add(entry.getKey());
             }
         }
+        for (String alias : owned) {
+            removeRoot(alias);
+        }
         Canary.help().unregisterCommands(owner);
     }
 
@@ -141,6 +173,17 @@ public class CommandManager {
      * @return true if {@code command} executed successfully, false otherwise
      */
     public boolean parseCommand(MessageReceiver caller, String command, String[] args) {
+        TickProfiler profiler = Canary.profiler();
+        long start = profiler.begin();
+        try {
+            return dispatchCommand(caller, command, args);
+        }
+        finally {
+            profiler.end(ProfilerSection.COMMANDS, start, null, command);
+        }
+    }
+
+    private boolean dispatchCommand(MessageReceiver caller, String command, String[] args) {
         CanaryCommand baseCommand = commands.get(command.toLowerCase());
         CanaryCommand subCommand = null;
         if (baseCommand == null) {
@@ -162,8 +205,9 @@ public class CommandManager {
                 continue;
             }
             if (tmp != null) {
-                if (tmp.hasSubCommand(args[i + 1])) {
-                    tmp = tmp.getSubCommand(args[i + 1]);
+                CanaryCommand next = tmp.getSubCommand(args[i + 1]);
+                if (next != null) {
+                    tmp = next;
                     ++argumentIndex;
                 }
                 if (argumentIndex >= args.length) {
@@ -183,10 +227,10 @@ public class CommandManager {
                 return true;
             }
             else if (baseCommand.meta.version() == 1) {
-                return baseCommand.parseCommand(caller, args);
+                return execute(caller, baseCommand, args);
             }
             else {
-                return baseCommand.parseCommand(caller, Arrays.copyOfRange(args, 1, args.length));
+                return execute(caller, baseCommand, Arrays.copyOfRange(args, 1, args.length));
             }
         }
         else {
@@ -195,14 +239,27 @@ public class CommandManager {
                 return true;
             }
             else if (baseCommand.meta.version() == 1) {
-                return subCommand.parseCommand(caller, Arrays.copyOfRange(args, argumentIndex, args.length));
+                return execute(caller, subCommand, Arrays.copyOfRange(args, argumentIndex, args.length));
             }
             else {
-                return subCommand.parseCommand(caller, Arrays.copyOfRange(args, argumentIndex + 1, args.length));
+                return execute(caller, subCommand, Arrays.copyOfRange(args, argumentIndex + 1, args.length));
             }
         }
     }
 
+    private boolean execute(MessageReceiver caller, CanaryCommand command, String[] args) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean result = command.parseCommand(caller, args);
+            failed = false;
+            return result;
+        }
+        finally {
+            statistics.record(command, caller, args, System.nanoTime() - start, failed);
+        }
+    }
+
     public void registerCommands(final CommandListener listener, CommandOwner owner, boolean force) throws CommandDependencyException {
         registerCommands(listener, owner, Translator.getInstance(), force);
     }
@@ -238,7 +295,7 @@ public class CommandManager {
             }
             if (!currentIsDupe || force) {
                 if (com.meta.parent().isEmpty()) { // Only add root commands
-                    commands.put(alias.toLowerCase(), com);
+                    putRoot(alias.toLowerCase(), com);
                 }
                 if (!com.meta.helpLookup().isEmpty() && !Canary.help().hasHelp(com.meta.helpLookup())) {
                     Canary.help().registerCommand(owner, com, com.meta.helpLookup());
@@ -265,6 +322,9 @@ public class CommandManager {
             if (parent.hasAlias(cmdp[0])) {
                 // addSubCommand returns true on success.
                 depMissing = !parent.addSubCommand(cmdp, 1, cmd);
+                if (!depMissing && isIndexed(cmd)) {
+                    indexSubCommands(cmd, true);
+                }
                 break;
             }
         }
@@ -315,14 +375,16 @@ public class CommandManager {
             }
 
             Command meta = method.getAnnotation(Command.class);
+            final MethodInvoker invoker = MethodInvoker.forMethod(method);
             CanaryCommand command = new CanaryCommand(meta, owner, translator, TabCompleteHelper.findDispatcherFor(listener, meta.aliases(), meta.parent().isEmpty() ? null : meta.parent())) {
                 @Override
                 protected void execute(MessageReceiver caller, String[] parameters) {
                     try {
-                        method.invoke(listener, new Object[]{ caller, parameters });
+                        invoker.invoke(listener, caller, parameters);
                     }
                     catch (Exception ex) {
-                        log.error("Could not execute command...", ex.getCause());
+                        log.error("Could not execute command...", ex);
+                        statistics.recordFailure(this);
                     }
                 }
             };
@@ -357,57 +419,17 @@ public class CommandManager {
      * @return nullchar separated stringbuilder
      */
     public StringBuilder matchCommand(MessageReceiver caller, String command, boolean onlySubcommands) {
-        int matches = 0;
-        int maxMatches = 4;
-        StringBuilder matching = new StringBuilder();
-        command = command.toLowerCase();
-        // Match base commands
-        for (String key : commands.keySet()) {
-            if (!onlySubcommands) {
-                if (key.toLowerCase().equals(command)) {
-                    // Perfect match
-                    if (matching.indexOf("/".concat(key)) == -1) {
-                        if (commands.get(key).canUse(caller) && matches <= maxMatches) {
-                            ++matches;
-                            matching.append("/").append(key).append("\u0000");
-                        }
-                    }
-                }
-                else if (key.toLowerCase().startsWith(command)) {
-                    // Partial match
-                    if (matching.indexOf("/".concat(key)) == -1) {
-                        if (commands.get(key).canUse(caller) && matches <= maxMatches) {
-                            ++matches;
-                            matching.append("/").append(key).append("\u0000");
-                        }
-                    }
-                }
-            }
+        CommandMatcher matcher = new CommandMatcher(caller);
+        if (!onlySubcommands) {
+            // Match base commands
+            rootNames.visit(command, matcher);
+        }
+        if (!matcher.isFull()) {
             // Match sub commands
-            for (CanaryCommand cmd : commands.get(key).getSubCommands(new ArrayList<CanaryCommand>())) {
-                for (String alias : cmd.meta.aliases()) {
-                    if (alias.toLowerCase().equals(command)) {
-                        // full match
-                        if (matching.indexOf(alias) == -1) {
-                            if (cmd.canUse(caller) && matches <= maxMatches) {
-                                ++matches;
-                                matching.append(alias).append("\u0000");
-                            }
-                        }
-                    }
-                    else if (alias.toLowerCase().startsWith(command)) {
-                        // partial match
-                        if (matching.indexOf(alias) == -1) {
-                            if (cmd.canUse(caller) && matches <= maxMatches) {
-                                ++matches;
-                                matching.append(alias).append("\u0000");
-                            }
-                        }
-                    }
-                }
-            }
+            matcher.subCommands = true;
+            subCommandNames.visit(command, matcher);
         }
-        return matching;
+        return matcher.matching;
     }
 
     /**
@@ -422,17 +444,22 @@ public class CommandManager {
      *
      * @return a list of matching command names
      */
-    public List<String> matchCommandNames(MessageReceiver caller, String partial, boolean includeSubs) {
-        ArrayList<String> names = new ArrayList<String>();
-        for (Map.Entry<String, CanaryCommand> entry : commands.entrySet()) {
-            if (entry.getValue().getParent() != null && !includeSubs) {
-                continue;
-            }
-            if (entry.getValue().canUse(caller) && TabCompleteHelper.startsWith(partial, entry.getKey())) {
-                names.add(entry.getKey());
+    public List<String> matchCommandNames(final MessageReceiver caller, String partial, boolean includeSubs) {
+        final LinkedHashSet<String> names = new LinkedHashSet<String>();
+        CommandTrie.Visitor collector = new CommandTrie.Visitor() {
+            @Override
+            public boolean visit(String name, CanaryCommand command) {
+                if (command.canUse(caller)) {
+                    names.add(name);
+                }
+                return true;
             }
+        };
+        rootNames.visit(partial, collector);
+        if (includeSubs) {
+            subCommandNames.visit(partial, collector);
         }
-        return names;
+        return new ArrayList<String>(names);
     }
 
     /**
@@ -448,12 +475,61 @@ public class CommandManager {
      * @return list string of possible completion
      */
     public List<String> tabComplete(MessageReceiver msgrec, String command, String[] args) {
+        String key = TabCompleteEngine.cacheKey(msgrec, command, args);
+        TabCompleteEngine.CachedCompletion cached = tabCompleteEngine.getCached(key);
+        if (cached != null) {
+            return cached.result == null ? null : new ArrayList<String>(cached.result);
+        }
+        List<String> result = findTabComplete(msgrec, command, args);
+        tabCompleteEngine.cache(key, result == null ? null : new ArrayList<String>(result));
+        return result;
+    }
+
+    /**
+     * Gets the tabComplete for a specified Command name without doing the work on the calling thread.<br>
+     * A recently cached result is answered right away; otherwise the command is looked up and its {@link TabComplete}
+     * method called on the Server's main thread with the next tick, as commands are registered and run there.<br>
+     * The {@link Future} must not be waited for on the main thread itself, as it would never complete.
+     *
+     * @param msgrec
+     *         the caller of the tab complete
+     * @param command
+     *         the name of the command to get a tab complete for
+     * @param args
+     *         the current command arguments
+     *
+     * @return the {@link Future} list string of possible completion
+     */
+    public Future<List<String>> tabCompleteAsync(final MessageReceiver msgrec, final String command, final String[] args) {
+        TabCompleteEngine.CachedCompletion cached = tabCompleteEngine.getCached(TabCompleteEngine.cacheKey(msgrec, command, args));
+        if (cached != null) {
+            final List<String> result = cached.result == null ? null : new ArrayList<String>(cached.result);
+            FutureTask<List<String>> answered = new FutureTask<List<String>>(new Callable<List<String>>() {
+                @Override
+                public List<String> call() {
+                    return result;
+                }
+            });
+            answered.run();
+            return answered;
+        }
+        FutureTask<List<String>> completion = new FutureTask<List<String>>(new Callable<List<String>>() {
+            @Override
+            public List<String> call() {
+                return tabComplete(msgrec, command, args);
+            }
+        });
+        tabCompleteEngine.runOnMainThread(completion);
+        return completion;
+    }
+
+    private List<String> findTabComplete(MessageReceiver msgrec, String command, String[] args) {
         String[] argsClone = args.clone(); // don't mess up the original stuff
         CanaryCommand cmd = commands.get(command);
         // Recurse the sub commands
         while (cmd != null && !argsClone[0].isEmpty()) {
-            if (cmd.hasSubCommand(argsClone[0])) {
-                CanaryCommand subTest = cmd.getSubCommand(argsClone[0]);
+            CanaryCommand subTest = cmd.getSubCommand(argsClone[0]);
+            if (subTest != null) {
                 if (subTest.hasTabComplete()) { // Check for a tab complete method
                     cmd = subTest; // reset command
                     argsClone = Arrays.copyOfRange(argsClone, 1, argsClone.length);
@@ -467,4 +543,105 @@ public class CommandManager {
         }
         return null;
     }
+
+    private void putRoot(String alias, CanaryCommand command) {
+        CanaryCommand previous = commands.put(alias, command);
+        if (previous == command) {
+            return;
+        }
+        if (previous != null) {
+            rootNames.remove(alias, previous);
+            releaseRoot(previous);
+        }
+        rootNames.add(alias, command);
+        Integer count = rootAliasCounts.get(command);
+        if (count == null) {
+            // Newly reachable, so are its sub commands
+            indexSubCommands(command, true);
+            count = 0;
+        }
+        rootAliasCounts.put(command, count + 1);
+    }
+
+    private void removeRoot(String alias) {
+        CanaryCommand previous = commands.remove(alias);
+        if (previous != null) {
+            rootNames.remove(alias, previous);
+            releaseRoot(previous);
+        }
+    }
+
+    private void releaseRoot(CanaryCommand command) {
+        Integer count = rootAliasCounts.get(command);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            rootAliasCounts.put(command, count - 1);
+        }
+        else {
+            // No longer reachable, neither are its sub commands
+            rootAliasCounts.remove(command);
+            indexSubCommands(command, false);
+        }
+    }
+
+    /** Checks whether a command hangs off a registered root command, and thus its sub commands are indexed */
+    private boolean isIndexed(CanaryCommand command) {
+        while (command.getParent() != null) {
+            command = command.getParent();
+        }
+        return rootAliasCounts.containsKey(command);
+    }
+
+    /** Adds or removes a sub command (or the sub commands of a root command) and all below it to the name index */
+    private void indexSubCommands(CanaryCommand command, boolean add) {
+        for (CanaryCommand sub : command.getSubCommands(new ArrayList<CanaryCommand>())) {
+            for (String alias : sub.meta.aliases()) {
+                if (add) {
+                    subCommandNames.add(alias, sub);
+                }
+                else {
+                    subCommandNames.remove(alias, sub);
+                }
+            }
+        }
+    }
+
+    /** Collects up to five matches for {@link #matchCommand(MessageReceiver, String, boolean)} */
+    private static final class CommandMatcher implements CommandTrie.Visitor {
+        private static final int MAX_MATCHES = 5;
+        private final MessageReceiver caller;
+        private final StringBuilder matching = new StringBuilder();
+        private int matches;
+        private boolean subCommands;
+
+        CommandMatcher(MessageReceiver caller) {
+            this.caller = caller;
+        }
+
+        boolean isFull() {
+            return matches >= MAX_MATCHES;
+        }
+
+        @Override
+        public boolean visit(String name, CanaryCommand command) {
+            String match = subCommands ? aliasOf(command, name) : "/".concat(name);
+            if (matching.indexOf(match) == -1 && command.canUse(caller)) {
+                ++matches;
+                matching.append(match).append("\u0000");
+            }
+            return !isFull();
+        }
+
+        private static String aliasOf(CanaryCommand command, String name) {
+            // Report the alias as it was declared rather than lower case
+            for (String alias : command.meta.aliases()) {
+                if (alias.equalsIgnoreCase(name)) {
+                    return alias;
+                }
+            }
+            return name;
+        }
+    }
 }
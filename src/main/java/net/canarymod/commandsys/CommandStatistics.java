@@ -0,0 +1,268 @@
+package net.canarymod.commandsys;
+
+import net.canarymod.Canary;
+import net.canarymod.chat.MessageReceiver;
+import net.canarymod.config.Configuration;
+import net.canarymod.metrics.Counter;
+import net.canarymod.metrics.Histogram;
+import net.canarymod.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static net.canarymod.Canary.log;
+
+/**
+ * Command Statistics
+ * <p/>
+ * Records the invocations, failures and execution times of every {@link CanaryCommand} run through
+ * {@link CommandManager#parseCommand(MessageReceiver, String, String[])}, both per command and per {@link CommandOwner}.
+ * The numbers are kept in the {@link MetricsRegistry} as {@code canary_command_*} metrics and read out by /cmdstats.
+ * <p/>
+ * Executions taking longer than the command-slow-threshold are logged with their caller and arguments.
+ */
+public final class CommandStatistics {
+    private static final Comparator<Stats> BY_TOTAL_TIME = new Comparator<Stats>() {
+        @Override
+        public int compare(Stats a, Stats b) {
+            long timeA = a.timer.getSum(), timeB = b.timer.getSum();
+            return timeA < timeB ? 1 : timeA > timeB ? -1 : a.name.compareTo(b.name);
+        }
+    };
+
+    // Keyed by owner and command path rather than instance, so commands registered again after a plugin reload keep their numbers
+    private final ConcurrentHashMap<String, Stats> commands = new ConcurrentHashMap<String, Stats>();
+    private final ConcurrentHashMap<String, Stats> owners = new ConcurrentHashMap<String, Stats>();
+    private MetricsRegistry metrics;
+    private volatile long slowThreshold = -1; // nanoseconds, 0 disables, -1 not yet loaded
+
+    /** Creates statistics kept in the Server's {@link MetricsRegistry} */
+    public CommandStatistics() {
+        this(null);
+    }
+
+    /**
+     * Creates statistics kept in the given {@link MetricsRegistry}
+     *
+     * @param metrics
+     *         the registry, or {@code null} for the Server's
+     */
+    CommandStatistics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Records a command execution
+     *
+     * @param command
+     *         the {@link CanaryCommand} that ran
+     * @param caller
+     *         the {@link MessageReceiver} that ran it
+     * @param args
+     *         the arguments it ran with
+     * @param nanos
+     *         the time it took in nanoseconds
+     * @param failed
+     *         {@code true} if it threw an exception
+     */
+    public void record(CanaryCommand command, MessageReceiver caller, String[] args, long nanos, boolean failed) {
+        Stats stats = statsFor(command);
+        stats.record(nanos, failed);
+        stats.owner.record(nanos, failed);
+
+        long threshold = slowThreshold;
+        if (threshold < 0) {
+            reload();
+            threshold = slowThreshold;
+        }
+        if (threshold > 0 && nanos > threshold) {
+            StringBuilder line = new StringBuilder("Slow command: '/").append(stats.name);
+            // Version 1 commands get their own name as the first argument
+            for (int index = command.meta.version() == 1 ? 1 : 0; index < args.length; index++) {
+                line.append(' ').append(args[index]);
+            }
+            line.append("' by ").append(caller.getName()).append(" (").append(stats.owner.name).append(") took ")
+                .append(String.format("%.2f", nanos / 1000000.0D)).append("ms");
+            if (failed) {
+                line.append(" and failed");
+            }
+            log.warn(line.toString());
+        }
+    }
+
+    /**
+     * Records a failed execution of a command that caught its exception itself, the execution is recorded as usual
+     *
+     * @param command
+     *         the {@link CanaryCommand} that failed
+     */
+    public void recordFailure(CanaryCommand command) {
+        Stats stats = statsFor(command);
+        stats.failures.increment();
+        stats.owner.failures.increment();
+    }
+
+    /**
+     * Gets the statistics of each command, most total execution time first
+     *
+     * @return the command {@link Stats}
+     */
+    public List<Stats> getCommandStats() {
+        return sorted(commands.values());
+    }
+
+    /**
+     * Gets the statistics of each {@link CommandOwner}, most total execution time first
+     *
+     * @return the owner {@link Stats}
+     */
+    public List<Stats> getOwnerStats() {
+        return sorted(owners.values());
+    }
+
+    /** Resets all statistics */
+    public void reset() {
+        for (Stats stats : commands.values()) {
+            stats.reset();
+        }
+        for (Stats stats : owners.values()) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * Sets the duration above which executions are logged as slow
+     *
+     * @param millis
+     *         the threshold in milliseconds; 0 to disable
+     */
+    public void setSlowThreshold(int millis) {
+        slowThreshold = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    /** Reloads the slow command threshold from the server configuration */
+    public void reload() {
+        setSlowThreshold(Configuration.getServerConfig().getCommandSlowThreshold());
+    }
+
+    private Stats statsFor(CanaryCommand command) {
+        String ownerName = command.owner == null ? "unknown" : command.owner.getName();
+        String name = nameOf(command);
+        Stats stats = commands.get(ownerName + '\u0000' + name);
+        return stats != null ? stats : create(ownerName, name);
+    }
+
+    private synchronized Stats create(String ownerName, String name) {
+        String key = ownerName + '\u0000' + name;
+        Stats stats = commands.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (metrics == null) {
+            metrics = Canary.metrics();
+        }
+        Stats owner = owners.get(ownerName);
+        if (owner == null) {
+            owner = new Stats(ownerName, null,
+                    metrics.counter("canary_command_owner_failures_total", "Exceptions thrown by the commands of an owner", "owner", ownerName),
+                    metrics.timer("canary_command_owner_seconds", "Time taken to execute the commands of an owner", "owner", ownerName));
+            owners.put(ownerName, owner);
+        }
+        stats = new Stats(name, owner,
+                metrics.counter("canary_command_failures_total", "Exceptions thrown by a command", "command", name, "owner", ownerName),
+                metrics.timer("canary_command_seconds", "Time taken to execute a command", "command", name, "owner", ownerName));
+        commands.put(key, stats);
+        return stats;
+    }
+
+    private static String nameOf(CanaryCommand command) {
+        String alias = command.meta.aliases()[0];
+        return command.meta.parent().isEmpty() ? alias : command.meta.parent().replace('.', ' ') + " " + alias;
+    }
+
+    private static List<Stats> sorted(Iterable<Stats> values) {
+        ArrayList<Stats> list = new ArrayList<Stats>();
+        for (Stats stats : values) {
+            list.add(stats);
+        }
+        Collections.sort(list, BY_TOTAL_TIME);
+        return list;
+    }
+
+    /**
+     * The statistics of a single command or {@link CommandOwner}.<br>
+     * Invocations are the count of the timer, so the two always agree.
+     * <p/>
+     * The exported metrics only ever go up, so the numbers shown are kept in a timer of their own and against a failure count
+     * taken at the last reset.
+     */
+    public static final class Stats {
+        private final String name;
+        private final Stats owner;
+        private final Counter failures;
+        private final Histogram exported;
+        private final Histogram timer;
+        private volatile long failuresAtReset;
+
+        Stats(String name, Stats owner, Counter failures, Histogram exported) {
+            this.name = name;
+            this.owner = owner;
+            this.failures = failures;
+            this.exported = exported;
+            this.timer = new Histogram(exported.getName());
+        }
+
+        void record(long nanos, boolean failed) {
+            exported.record(nanos);
+            timer.record(nanos);
+            if (failed) {
+                failures.increment();
+            }
+        }
+
+        void reset() {
+            timer.reset();
+            failuresAtReset = failures.getCount();
+        }
+
+        /**
+         * Gets the command path, such as {@code warp} or {@code group add}, or the owner name
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of executions
+         *
+         * @return the invocation count
+         */
+        public long getInvocations() {
+            return timer.getCount();
+        }
+
+        /**
+         * Gets the number of executions that threw an exception
+         *
+         * @return the failure count
+         */
+        public long getFailures() {
+            return failures.getCount() - failuresAtReset;
+        }
+
+        /**
+         * Gets the execution time {@link Histogram} since the last reset, in nanoseconds
+         *
+         * @return the timer
+         */
+        public Histogram getTimer() {
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package net.canarymod.commandsys;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Case-folded prefix tree of command names, used by the {@link CommandManager} to match partially typed commands.<br>
+ * Looking up a name costs O(name length); visiting all names under a prefix costs O(prefix length + matching names),
+ * and names are visited in alphabetical order.
+ * <p/>
+ * A name can map to more than one {@link CanaryCommand}, as different parents may have sub commands with the same alias.
+ * This class is not thread-safe.
+ */
+final class CommandTrie {
+    private final Node root = new Node();
+    private int size;
+
+    /** Receives the commands found by {@link #visit(String, Visitor)} */
+    interface Visitor {
+        /**
+         * Called for every command under the prefix
+         *
+         * @param name
+         *         the lower case name the command is stored under
+         * @param command
+         *         the {@link CanaryCommand}
+         *
+         * @return {@code true} to continue; {@code false} to stop visiting
+         */
+        boolean visit(String name, CanaryCommand command);
+    }
+
+    /**
+     * Gets the number of name and command pairs stored
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Stores a command under a name, unless already stored under it
+     *
+     * @param name
+     *         the command name or alias
+     * @param command
+     *         the {@link CanaryCommand}
+     */
+    void add(String name, CanaryCommand command) {
+        String key = name.toLowerCase();
+        Node node = root;
+        for (int index = 0; index < key.length(); index++) {
+            Node child = node.child(key.charAt(index));
+            if (child == null) {
+                if (node.children == null) {
+                    node.children = new TreeMap<Character, Node>();
+                }
+                child = new Node();
+                node.children.put(key.charAt(index), child);
+            }
+            node = child;
+        }
+        if (node.commands == null) {
+            node.commands = new ArrayList<CanaryCommand>(1);
+        }
+        else if (indexOf(node.commands, command) != -1) {
+            return;
+        }
+        node.commands.add(command);
+        size++;
+    }
+
+    /**
+     * Removes a command from a name, pruning nodes that are left empty
+     *
+     * @param name
+     *         the command name or alias
+     * @param command
+     *         the {@link CanaryCommand}
+     *
+     * @return {@code true} if removed; {@code false} if not stored under the name
+     */
+    boolean remove(String name, CanaryCommand command) {
+        String key = name.toLowerCase();
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int index = 0; index < key.length(); index++) {
+            path[index + 1] = path[index].child(key.charAt(index));
+            if (path[index + 1] == null) {
+                return false;
+            }
+        }
+        Node node = path[key.length()];
+        int found = node.commands == null ? -1 : indexOf(node.commands, command);
+        if (found == -1) {
+            return false;
+        }
+        node.commands.remove(found);
+        if (node.commands.isEmpty()) {
+            node.commands = null;
+        }
+        size--;
+        for (int index = key.length(); index > 0 && path[index].isEmpty(); index--) {
+            path[index - 1].children.remove(key.charAt(index - 1));
+            if (path[index - 1].children.isEmpty()) {
+                path[index - 1].children = null;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the commands stored under a name
+     *
+     * @param name
+     *         the command name or alias
+     *
+     * @return the commands, empty if none
+     */
+    List<CanaryCommand> get(String name) {
+        Node node = find(name.toLowerCase());
+        if (node == null || node.commands == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(node.commands);
+    }
+
+    /**
+     * Visits the commands of all names starting with a prefix, in alphabetical order
+     *
+     * @param prefix
+     *         the prefix to match; empty to visit everything
+     * @param visitor
+     *         the {@link Visitor}
+     */
+    void visit(String prefix, Visitor visitor) {
+        String key = prefix.toLowerCase();
+        Node node = find(key);
+        if (node != null) {
+            visit(node, new StringBuilder(key), visitor);
+        }
+    }
+
+    private boolean visit(Node node, StringBuilder name, Visitor visitor) {
+        if (node.commands != null) {
+            String current = name.toString();
+            for (CanaryCommand command : node.commands) {
+                if (!visitor.visit(current, command)) {
+                    return false;
+                }
+            }
+        }
+        if (node.children != null) {
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                name.append(child.getKey().charValue());
+                boolean proceed = visit(child.getValue(), name, visitor);
+                name.setLength(name.length() - 1);
+                if (!proceed) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int index = 0; index < key.length() && node != null; index++) {
+            node = node.child(key.charAt(index));
+        }
+        return node;
+    }
+
+    private static int indexOf(List<CanaryCommand> commands, CanaryCommand command) {
+        for (int index = 0; index < commands.size(); index++) {
+            if (commands.get(index) == command) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Node {
+        TreeMap<Character, Node> children;
+        ArrayList<CanaryCommand> commands;
+
+        Node child(char character) {
+            return children == null ? null : children.get(character);
+        }
+
+        boolean isEmpty() {
+            return children == null && commands == null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package net.canarymod.commandsys;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * A sorted, case-insensitive set of tab complete candidates, such as player or world names.<br>
+ * Matching a prefix costs O(log n + matches) rather than a scan of every candidate, and the index can be read and
+ * updated from any thread.
+ *
+ * @see TabCompleteEngine
+ */
+public final class CompletionIndex {
+    private volatile ConcurrentSkipListSet<String> candidates = new ConcurrentSkipListSet<String>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Adds a candidate
+     *
+     * @param candidate
+     *         the candidate to add
+     */
+    public void add(String candidate) {
+        if (candidate != null) {
+            candidates.add(candidate);
+        }
+    }
+
+    /**
+     * Removes a candidate, regardless of case
+     *
+     * @param candidate
+     *         the candidate to remove
+     */
+    public void remove(String candidate) {
+        if (candidate != null) {
+            candidates.remove(candidate);
+        }
+    }
+
+    /**
+     * Replaces all candidates at once
+     *
+     * @param replacement
+     *         the new candidates
+     */
+    public void replaceAll(String[] replacement) {
+        ConcurrentSkipListSet<String> fresh = new ConcurrentSkipListSet<String>(String.CASE_INSENSITIVE_ORDER);
+        if (replacement != null) {
+            for (String candidate : replacement) {
+                if (candidate != null) {
+                    fresh.add(candidate);
+                }
+            }
+        }
+        candidates = fresh;
+    }
+
+    /**
+     * Checks whether a candidate is present, regardless of case
+     *
+     * @param candidate
+     *         the candidate to check
+     *
+     * @return {@code true} if present; {@code false} if not
+     */
+    public boolean contains(String candidate) {
+        return candidate != null && candidates.contains(candidate);
+    }
+
+    /**
+     * Gets the number of candidates
+     *
+     * @return the candidate count
+     */
+    public int size() {
+        return candidates.size();
+    }
+
+    /**
+     * Gets the candidates starting with a prefix, regardless of case, in alphabetical order
+     *
+     * @param prefix
+     *         the prefix; empty to match all
+     *
+     * @return the matching candidates
+     */
+    public List<String> match(String prefix) {
+        return match(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets up to a number of candidates starting with a prefix, regardless of case, in alphabetical order
+     *
+     * @param prefix
+     *         the prefix; empty to match all
+     * @param limit
+     *         the maximum number of candidates to return
+     *
+     * @return the matching candidates
+     */
+    public List<String> match(String prefix, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        NavigableSet<String> current = candidates;
+        NavigableSet<String> range = prefix == null || prefix.isEmpty() ? current : current.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+        ArrayList<String> matches = new ArrayList<String>();
+        for (String candidate : range) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            matches.add(candidate);
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,289 @@
+package net.canarymod.commandsys;
+
+import net.canarymod.Canary;
+import net.canarymod.api.Server;
+import net.canarymod.bansystem.Ban;
+import net.canarymod.chat.MessageReceiver;
+import net.canarymod.hook.Hook;
+import net.canarymod.hook.player.ConnectionHook;
+import net.canarymod.hook.player.DisconnectionHook;
+import net.canarymod.hook.system.LoadWorldHook;
+import net.canarymod.hook.system.UnloadWorldHook;
+import net.canarymod.tasks.ServerTask;
+import net.canarymod.tasks.ServerTaskManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Tab Complete Engine
+ * <p/>
+ * Backs tab completion with {@link CompletionIndex}es of the common candidates and a short lived cache of results.<br>
+ * For {@link CommandManager#tabCompleteAsync(MessageReceiver, String, String[])}, cached results are answered on the
+ * calling thread and everything else is handed to the Server's main thread, as commands and their {@link TabComplete}
+ * methods may only be used from there.
+ * <p/>
+ * Player names are added and removed as players connect and disconnect. World and ban lists are small and change
+ * rarely, so they are reloaded the next time they are needed after a World loads or unloads or a ban is issued or lifted.
+ * Any of these changes also clears the result cache.
+ */
+public final class TabCompleteEngine {
+    private static final long CACHE_MILLIS = 1000L;
+    private static final int CACHE_LIMIT = 512;
+
+    private final CompletionIndex onlinePlayers = new CompletionIndex();
+    private final CompletionIndex knownPlayers = new CompletionIndex();
+    private final CompletionIndex loadedWorlds = new CompletionIndex();
+    private final CompletionIndex existingWorlds = new CompletionIndex();
+    private final CompletionIndex bannedSubjects = new CompletionIndex();
+    private volatile boolean playersLoaded, worldsLoaded, bansLoaded;
+
+    private final ConcurrentHashMap<String, CachedCompletion> cache = new ConcurrentHashMap<String, CachedCompletion>();
+    private volatile Executor mainThread = new Executor() {
+        @Override
+        public void execute(final Runnable completion) {
+            ServerTaskManager.addTask(new ServerTask(Canary.instance(), 0) {
+                @Override
+                public void run() {
+                    completion.run();
+                }
+            });
+        }
+    };
+
+    /**
+     * Gets the names of the online {@link net.canarymod.api.entity.living.humanoid.Player}s
+     *
+     * @return the {@link CompletionIndex}
+     */
+    public CompletionIndex getOnlinePlayers() {
+        loadPlayers();
+        return onlinePlayers;
+    }
+
+    /**
+     * Gets the names of all known {@link net.canarymod.api.entity.living.humanoid.Player}s, including offline players
+     *
+     * @return the {@link CompletionIndex}
+     */
+    public CompletionIndex getKnownPlayers() {
+        loadPlayers();
+        return knownPlayers;
+    }
+
+    /**
+     * Gets the names of the loaded {@link net.canarymod.api.world.World}s
+     *
+     * @return the {@link CompletionIndex}
+     */
+    public CompletionIndex getLoadedWorlds() {
+        loadWorlds();
+        return loadedWorlds;
+    }
+
+    /**
+     * Gets the names of the existing {@link net.canarymod.api.world.World}s
+     *
+     * @return the {@link CompletionIndex}
+     */
+    public CompletionIndex getExistingWorlds() {
+        loadWorlds();
+        return existingWorlds;
+    }
+
+    /**
+     * Gets the subjects of all {@link Ban}s
+     *
+     * @return the {@link CompletionIndex}
+     */
+    public CompletionIndex getBannedSubjects() {
+        loadBans();
+        return bannedSubjects;
+    }
+
+    /**
+     * Internal method called by the {@link net.canarymod.hook.HookExecutor} for every Hook, to keep the indexes current
+     *
+     * @param hook
+     *         the {@link Hook} being called
+     */
+    public void hookCalled(Hook hook) {
+        if (hook instanceof ConnectionHook) {
+            synchronized (onlinePlayers) {
+                if (playersLoaded) {
+                    String name = ((ConnectionHook) hook).getPlayer().getName();
+                    onlinePlayers.add(name);
+                    knownPlayers.add(name);
+                }
+            }
+            cache.clear();
+        }
+        else if (hook instanceof DisconnectionHook) {
+            synchronized (onlinePlayers) {
+                if (playersLoaded) {
+                    onlinePlayers.remove(((DisconnectionHook) hook).getPlayer().getName());
+                }
+            }
+            cache.clear();
+        }
+        else if (hook instanceof LoadWorldHook || hook instanceof UnloadWorldHook) {
+            worldsLoaded = false;
+            cache.clear();
+        }
+    }
+
+    /** Internal method called by the {@link net.canarymod.bansystem.BanManager} when bans are issued, lifted or reloaded */
+    public void bansChanged() {
+        bansLoaded = false;
+        cache.clear();
+    }
+
+    /** Drops all indexes and cached results, to be reloaded when next needed */
+    public void invalidate() {
+        playersLoaded = false;
+        worldsLoaded = false;
+        bansLoaded = false;
+        cache.clear();
+    }
+
+    /**
+     * Runs a completion on the Server's main thread with the next tick
+     *
+     * @param completion
+     *         the completion to run
+     */
+    void runOnMainThread(Runnable completion) {
+        mainThread.execute(completion);
+    }
+
+    /**
+     * Sets what runs completions on the main thread, for running the engine without a Server
+     *
+     * @param mainThread
+     *         the {@link Executor} standing in for the main thread
+     */
+    void setMainThread(Executor mainThread) {
+        this.mainThread = mainThread;
+    }
+
+    /**
+     * Gets a cached completion
+     *
+     * @param key
+     *         the key from {@link #cacheKey(MessageReceiver, String, String[])}
+     *
+     * @return the {@link CachedCompletion} or {@code null} if not cached or expired
+     */
+    CachedCompletion getCached(String key) {
+        CachedCompletion cached = cache.get(key);
+        if (cached != null && cached.expires < System.currentTimeMillis()) {
+            cache.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Caches a completion result
+     *
+     * @param key
+     *         the key from {@link #cacheKey(MessageReceiver, String, String[])}
+     * @param result
+     *         the completion result; may be null
+     */
+    void cache(String key, List<String> result) {
+        long now = System.currentTimeMillis();
+        if (cache.size() >= CACHE_LIMIT) {
+            Iterator<CachedCompletion> iterator = cache.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expires < now) {
+                    iterator.remove();
+                }
+            }
+            if (cache.size() >= CACHE_LIMIT) {
+                cache.clear();
+            }
+        }
+        cache.put(key, new CachedCompletion(result, now + CACHE_MILLIS));
+    }
+
+    /**
+     * Builds the cache key of a completion. Completions depend on permissions, so each caller gets its own entries.
+     *
+     * @param caller
+     *         the {@link MessageReceiver} asking for completion
+     * @param command
+     *         the command name
+     * @param args
+     *         the current arguments
+     *
+     * @return the key
+     */
+    static String cacheKey(MessageReceiver caller, String command, String[] args) {
+        StringBuilder key = new StringBuilder(64);
+        key.append(caller.getName()).append('\u0000').append(command);
+        for (String arg : args) {
+            key.append('\u0000').append(arg);
+        }
+        return key.toString();
+    }
+
+    private void loadPlayers() {
+        if (playersLoaded) {
+            return;
+        }
+        synchronized (onlinePlayers) {
+            Server server = Canary.getServer();
+            if (!playersLoaded && server != null) {
+                onlinePlayers.replaceAll(server.getPlayerNameList());
+                knownPlayers.replaceAll(server.getKnownPlayerNames());
+                playersLoaded = true;
+            }
+        }
+    }
+
+    private void loadWorlds() {
+        if (worldsLoaded) {
+            return;
+        }
+        synchronized (loadedWorlds) {
+            Server server = Canary.getServer();
+            if (!worldsLoaded && server != null) {
+                worldsLoaded = true;
+                loadedWorlds.replaceAll(server.getWorldManager().getLoadedWorldsNames());
+                existingWorlds.replaceAll(server.getWorldManager().getExistingWorldsArray());
+            }
+        }
+    }
+
+    private void loadBans() {
+        if (bansLoaded) {
+            return;
+        }
+        synchronized (bannedSubjects) {
+            if (!bansLoaded && Canary.instance() != null && Canary.bans() != null) {
+                bansLoaded = true;
+                Ban[] bans = Canary.bans().getAllBans();
+                ArrayList<String> subjects = new ArrayList<String>(bans.length);
+                for (Ban ban : bans) {
+                    subjects.add(ban.getSubject());
+                }
+                bannedSubjects.replaceAll(subjects.toArray(new String[subjects.size()]));
+            }
+        }
+    }
+
+    /** A completion result and when it expires */
+    static final class CachedCompletion {
+        final List<String> result;
+        final long expires;
+
+        CachedCompletion(List<String> result, long expires) {
+            this.result = result;
+            this.expires = expires;
+        }
+    }
+}
@@ -7,10 +7,10 @@ import net.canarymod.api.entity.living.humanoid.Player;
 import net.canarymod.api.inventory.ItemType;
 import net.canarymod.api.world.DimensionType;
 import net.canarymod.api.world.WorldType;
-import net.canarymod.bansystem.Ban;
 import net.canarymod.chat.MessageReceiver;
 import net.canarymod.kit.Kit;
 import net.canarymod.permissionsystem.PermissionNode;
+import net.canarymod.util.MethodInvoker;
 import net.canarymod.warp.Warp;
 
 import java.lang.reflect.Method;
@@ -108,7 +108,7 @@ public final class TabCompleteHelper {
      * @return list of matching online {@link net.canarymod.api.entity.living.humanoid.Player} names found
      */
     public static List<String> matchToOnlinePlayer(String arg) {
-        return matchTo(arg, Canary.getServer().getPlayerNameList());
+        return engine().getOnlinePlayers().match(arg);
     }
 
     /**
@@ -120,7 +120,7 @@ public final class TabCompleteHelper {
      * @return a list of matching online {@link net.canarymod.api.entity.living.humanoid.Player} names found
      */
     public static List<String> matchToOnlinePlayer(String[] args) {
-        return matchTo(args, Canary.getServer().getPlayerNameList());
+        return engine().getOnlinePlayers().match(args[args.length - 1]);
     }
 
     /**
@@ -132,7 +132,7 @@ public final class TabCompleteHelper {
      * @return list of matching {@link net.canarymod.api.entity.living.humanoid.Player} names found
      */
     public static List<String> matchToKnownPlayer(String arg) {
-        return matchTo(arg, Canary.getServer().getKnownPlayerNames());
+        return engine().getKnownPlayers().match(arg);
     }
 
     /**
@@ -144,7 +144,7 @@ public final class TabCompleteHelper {
      * @return a list of matching {@link net.canarymod.api.entity.living.humanoid.Player} names found
      */
     public static List<String> matchToKnownPlayer(String[] args) {
-        return matchTo(args, Canary.getServer().getKnownPlayerNames());
+        return engine().getKnownPlayers().match(args[args.length - 1]);
     }
 
     /**
@@ -156,7 +156,7 @@ public final class TabCompleteHelper {
      * @return list of matching loaded {@link net.canarymod.api.world.World} names found
      */
     public static List<String> matchToLoadedWorld(String arg) {
-        return matchTo(arg, Canary.getServer().getWorldManager().getLoadedWorldsNames());
+        return engine().getLoadedWorlds().match(arg);
     }
 
     /**
@@ -168,7 +168,7 @@ public final class TabCompleteHelper {
      * @return a list of matching loaded {@link net.canarymod.api.world.World} names found
      */
     public static List<String> matchToLoadedWorld(String[] args) {
-        return matchTo(args, Canary.getServer().getWorldManager().getLoadedWorldsNames());
+        return engine().getLoadedWorlds().match(args[args.length - 1]);
     }
 
     /**
@@ -232,7 +232,7 @@ public final class TabCompleteHelper {
      * @return a list of matching existing {@link net.canarymod.api.world.World} names
      */
     public static List<String> matchToKnownWorld(String[] args) {
-        return matchTo(args, Canary.getServer().getWorldManager().getExistingWorldsArray());
+        return engine().getExistingWorlds().match(args[args.length - 1]);
     }
 
     /**
@@ -244,7 +244,7 @@ public final class TabCompleteHelper {
      * @return list of matching existing {@link net.canarymod.api.world.World} names found
      */
     public static List<String> matchToKnownWorld(String arg) {
-        return matchTo(arg, Canary.getServer().getWorldManager().getExistingWorldsArray());
+        return engine().getExistingWorlds().match(arg);
     }
 
     /**
@@ -280,11 +280,7 @@ public final class TabCompleteHelper {
      * @return list of matching banned subjects found
      */
     public static List<String> matchToBannedSubject(String arg) {
-        ArrayList<String> banned = new ArrayList<String>();
-        for (Ban ban : Canary.bans().getAllBans()) {
-            banned.add(ban.getSubject());
-        }
-        return matchTo(arg, banned.toArray(new String[banned.size()]));
+        return engine().getBannedSubjects().match(arg);
     }
 
     /**
@@ -296,11 +292,7 @@ public final class TabCompleteHelper {
      * @return a list of matching banned subjects found
      */
     public static List<String> matchToBannedSubject(String[] args) {
-        ArrayList<String> banned = new ArrayList<String>();
-        for (Ban ban : Canary.bans().getAllBans()) {
-            banned.add(ban.getSubject());
-        }
-        return matchTo(args, banned.toArray(new String[banned.size()]));
+        return engine().getBannedSubjects().match(args[args.length - 1]);
     }
 
     /**
@@ -519,11 +511,12 @@ public final class TabCompleteHelper {
             TabComplete tabInfo = method.getAnnotation(TabComplete.class);
             for (String alias : aliases) {
                 if (ToolBox.arrayContains(tabInfo.commands(), String.format(full, alias).replaceAll("\\.", " "))) {
+                    final MethodInvoker invoker = MethodInvoker.forMethod(method);
                     return new TabCompleteDispatch() {
                         @Override
                         public List<String> complete(MessageReceiver msgrec, String[] args) throws TabCompleteException {
                             try {
-                                return (List<String>)method.invoke(listener, msgrec, args);
+                                return (List<String>) invoker.invoke(listener, msgrec, args);
                             }
                             catch (Exception e) {
                                 throw new TabCompleteException("Failed to execute tab completion ...", e);
@@ -536,6 +529,10 @@ public final class TabCompleteHelper {
         return null;
     }
 
+    private static TabCompleteEngine engine() {
+        return Canary.commands().getTabCompleteEngine();
+    }
+
     private static String[] itemTypeNames(boolean appendData) {
         ItemType[] types = ItemType.values();
         ArrayList<String> names = new ArrayList<String>();
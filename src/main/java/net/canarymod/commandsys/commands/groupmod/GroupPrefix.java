@@ -24,7 +24,7 @@ public class GroupPrefix implements NativeCommand {
         }
         String prefix = null;
         if (args.length >= 2) {
-            prefix = StringUtils.joinString(args, " ", 1).replaceAll("&([A-FK-Oa-fk-oRr0-9])", "\u00A7$1");
+            prefix = ChatFormat.formatString(StringUtils.joinString(args, " ", 1), "&");
         }
         group.setPrefix(prefix);
         Canary.usersAndGroups().updateGroup(group, false);
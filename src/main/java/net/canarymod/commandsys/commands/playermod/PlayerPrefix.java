@@ -19,7 +19,7 @@ public class PlayerPrefix extends PlayermodBase {
 
         String prefix = null;
         if (args.length >= 2) {
-            prefix = StringUtils.joinString(args, " ", 1).replaceAll("&([A-FK-Oa-fk-oRr0-9])", "\u00A7$1");
+            prefix = ChatFormat.formatString(StringUtils.joinString(args, " ", 1), "&");
         }
 
         Player[] selection = selection(caller, args, 0);
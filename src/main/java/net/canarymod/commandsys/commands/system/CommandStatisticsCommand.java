@@ -0,0 +1,49 @@
+package net.canarymod.commandsys.commands.system;
+
+import net.canarymod.Canary;
+import net.canarymod.chat.ChatFormat;
+import net.canarymod.chat.MessageReceiver;
+import net.canarymod.commandsys.CommandStatistics;
+import net.canarymod.commandsys.NativeCommand;
+import net.canarymod.metrics.Histogram;
+
+import java.util.List;
+
+/**
+ * Command execution statistics read-out command
+ */
+public class CommandStatisticsCommand implements NativeCommand {
+    private static final int SHOWN = 10;
+    private static final String SEPARATOR = ChatFormat.GOLD + " | " + ChatFormat.WHITE;
+
+    @Override
+    public void execute(MessageReceiver caller, String[] parameters) {
+        CommandStatistics statistics = Canary.commands().getStatistics();
+        String action = parameters.length > 1 ? parameters[1].toLowerCase() : "commands";
+
+        if (action.equals("reset")) {
+            statistics.reset();
+            caller.notice("Command statistics reset.");
+            return;
+        }
+        boolean owners = action.equals("owners");
+        List<CommandStatistics.Stats> stats = owners ? statistics.getOwnerStats() : statistics.getCommandStats();
+
+        caller.message(ChatFormat.GOLD + "   *** " + ChatFormat.RED + (owners ? "COMMAND OWNER STATISTICS" : "COMMAND STATISTICS") + ChatFormat.GOLD + " ***");
+        for (int index = 0; index < stats.size() && index < SHOWN; index++) {
+            CommandStatistics.Stats stat = stats.get(index);
+            Histogram timer = stat.getTimer();
+            caller.message(ChatFormat.GOLD + (owners ? stat.getName() : "/" + stat.getName())
+                    + (stat.getFailures() > 0 ? ChatFormat.RED + " (" + stat.getFailures() + " failed)" : ""));
+            caller.message(ChatFormat.WHITE + "  " + stat.getInvocations() + " runs"
+                    + SEPARATOR + millis(timer.getSum()) + " total"
+                    + SEPARATOR + "avg " + millis(timer.getMean())
+                    + SEPARATOR + "p99 " + millis(timer.getPercentile(99))
+                    + SEPARATOR + "max " + millis(timer.getMax()));
+        }
+    }
+
+    private static String millis(double nanos) {
+        return String.format("%.3fms", nanos / 1000000.0D);
+    }
+}
@@ -3,6 +3,7 @@ package net.canarymod.commandsys.commands.system;
 import net.canarymod.Canary;
 import net.canarymod.ToolBox;
 import net.canarymod.api.entity.living.humanoid.Player;
+import net.canarymod.api.packet.Broadcast;
 import net.canarymod.chat.ChatFormat;
 import net.canarymod.chat.MessageReceiver;
 import net.canarymod.commandsys.NativeCommand;
@@ -33,7 +34,7 @@ public final class DeOp implements NativeCommand {
         if (opPro.isOpped(opUUID)) {
             opPro.removePlayer(opUUID);
             if (!opPro.isOpped(opUUID)) {
-                Canary.getServer().broadcastMessageToOps(ChatFormat.GRAY + "[SERVER] De-opped " + args[0]);
+                Broadcast.message(ChatFormat.GRAY + "[SERVER] De-opped " + args[0], Broadcast.operators());
             }
             else {
                 caller.notice("Failed to deop " + args[0]);
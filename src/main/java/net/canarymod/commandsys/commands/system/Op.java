@@ -3,6 +3,7 @@ package net.canarymod.commandsys.commands.system;
 import net.canarymod.Canary;
 import net.canarymod.ToolBox;
 import net.canarymod.api.entity.living.humanoid.Player;
+import net.canarymod.api.packet.Broadcast;
 import net.canarymod.chat.ChatFormat;
 import net.canarymod.chat.MessageReceiver;
 import net.canarymod.commandsys.NativeCommand;
@@ -33,7 +34,7 @@ public final class Op implements NativeCommand {
         if (!opPro.isOpped(opUUID)) {
             opPro.addPlayer(opUUID);
             if (opPro.isOpped(opUUID)) { // Double check that is worked
-                Canary.getServer().broadcastMessageToOps(ChatFormat.GRAY + "[SERVER] Opped " + args[0]);
+                Broadcast.message(ChatFormat.GRAY + "[SERVER] Opped " + args[0], Broadcast.operators());
             }
             else {
                 caller.notice("Failed to op " + args[0]);
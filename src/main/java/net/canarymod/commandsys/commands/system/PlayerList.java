@@ -27,11 +27,11 @@ public class PlayerList implements NativeCommand {
                 world += "_NORMAL"; // Append a dimension
             }
             if (!Canary.getServer().getWorldManager().worldExists(world)) {
-                caller.notice(Translator.localTranslate("unknown world", caller.getLocale(), world));
+                caller.notice(Translator.translateFor(caller, "unknown world", world));
                 return;
             }
             else if (!Canary.getServer().getWorldManager().worldIsLoaded(world)) {
-                caller.notice(Translator.localTranslate("unknown world", caller.getLocale(), world));
+                caller.notice(Translator.translateFor(caller, "unknown world", world));
                 return;
             }
         }
@@ -0,0 +1,68 @@
+package net.canarymod.commandsys.commands.system;
+
+import net.canarymod.Canary;
+import net.canarymod.chat.ChatFormat;
+import net.canarymod.chat.MessageReceiver;
+import net.canarymod.commandsys.NativeCommand;
+import net.canarymod.profiler.TickProfiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Tick Profiler control and read-out command
+ */
+public class ProfilerCommand implements NativeCommand {
+    private static final String SEPARATOR = ChatFormat.GOLD + " | " + ChatFormat.WHITE;
+
+    @Override
+    public void execute(MessageReceiver caller, String[] parameters) {
+        TickProfiler profiler = Canary.profiler();
+        String action = parameters.length > 1 ? parameters[1].toLowerCase() : "status";
+
+        if (action.equals("start")) {
+            profiler.start();
+            caller.notice("Tick profiler started.");
+        }
+        else if (action.equals("stop")) {
+            profiler.stop();
+            caller.notice("Tick profiler stopped.");
+        }
+        else if (action.equals("reset")) {
+            profiler.reset();
+            caller.notice("Tick profiler data reset.");
+        }
+        else if (action.equals("dump")) {
+            File file = new File("logs", "tickprofile-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt");
+            try {
+                profiler.dump(file);
+                caller.notice("Tick profile written to " + file.getPath());
+            }
+            catch (IOException ioex) {
+                Canary.log.error("Failed to write the tick profile", ioex);
+                caller.notice(ChatFormat.RED + "Failed to write the tick profile: " + ioex.getMessage());
+            }
+        }
+        else {
+            caller.message(ChatFormat.GOLD + "   *** " + ChatFormat.RED + "TICK PROFILER" + ChatFormat.GOLD + " ***");
+            caller.message(ChatFormat.GOLD + "Running: " + ChatFormat.WHITE + profiler.isEnabled()
+                    + ChatFormat.GOLD + " | Ticks: " + ChatFormat.WHITE + profiler.getProfiledTicks()
+                    + ChatFormat.GOLD + " | Spikes (>" + profiler.getSpikeThreshold() + "ms): " + ChatFormat.WHITE + profiler.getSpikeCount());
+            caller.message(ChatFormat.GOLD + "Server MSPT:" + ChatFormat.WHITE + " avg " + millis(profiler.getTickAverage())
+                    + SEPARATOR + "p50 " + millis(profiler.getTickPercentile(50))
+                    + SEPARATOR + "p95 " + millis(profiler.getTickPercentile(95))
+                    + SEPARATOR + "p99 " + millis(profiler.getTickPercentile(99)));
+            for (String world : profiler.getProfiledWorlds()) {
+                caller.message(ChatFormat.GOLD + world + ":" + ChatFormat.WHITE + " p50 " + millis(profiler.getWorldTickPercentile(world, 50))
+                        + SEPARATOR + "p95 " + millis(profiler.getWorldTickPercentile(world, 95))
+                        + SEPARATOR + "p99 " + millis(profiler.getWorldTickPercentile(world, 99)));
+            }
+        }
+    }
+
+    private static String millis(double nanos) {
+        return String.format("%.2f", nanos / 1000000.0D);
+    }
+}
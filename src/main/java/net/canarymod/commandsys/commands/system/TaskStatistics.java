@@ -0,0 +1,55 @@
+package net.canarymod.commandsys.commands.system;
+
+import net.canarymod.chat.ChatFormat;
+import net.canarymod.chat.MessageReceiver;
+import net.canarymod.commandsys.NativeCommand;
+import net.canarymod.tasks.ServerTaskManager;
+import net.canarymod.tasks.TaskTimings;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Server Task statistics read-out command
+ */
+public class TaskStatistics implements NativeCommand {
+    private static final int SHOWN = 10;
+    private static final String SEPARATOR = ChatFormat.GOLD + " | " + ChatFormat.WHITE;
+
+    @Override
+    public void execute(MessageReceiver caller, String[] parameters) {
+        if (parameters.length > 1 && parameters[1].equalsIgnoreCase("reset")) {
+            ServerTaskManager.resetTaskTimings();
+            caller.notice("Task timings reset.");
+            return;
+        }
+        List<TaskTimings> timings = ServerTaskManager.getTaskTimings();
+        Collections.sort(timings, new Comparator<TaskTimings>() {
+            @Override
+            public int compare(TaskTimings first, TaskTimings second) {
+                long diff = second.getTotalNanos() - first.getTotalNanos();
+                return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+            }
+        });
+
+        long budget = ServerTaskManager.getTickBudget();
+        caller.message(ChatFormat.GOLD + "   *** " + ChatFormat.RED + "TASK STATISTICS" + ChatFormat.GOLD + " ***");
+        caller.message(ChatFormat.GOLD + "Tick Budget: " + ChatFormat.WHITE + (budget > 0 ? millis(budget) : "none"));
+        caller.message(ChatFormat.GOLD + "Budget Overruns: " + ChatFormat.WHITE + ServerTaskManager.getBudgetOverruns()
+                + ChatFormat.GOLD + " | Deferred Tasks: " + ChatFormat.WHITE + ServerTaskManager.getDeferredTasks());
+        for (int index = 0; index < timings.size() && index < SHOWN; index++) {
+            TaskTimings timing = timings.get(index);
+            caller.message(ChatFormat.GOLD + timing.getName());
+            caller.message(ChatFormat.WHITE + "  " + timing.getCount() + " runs"
+                    + SEPARATOR + millis(timing.getTotalNanos()) + " total"
+                    + SEPARATOR + "avg " + millis(timing.getAverageNanos())
+                    + SEPARATOR + "p95 " + millis(timing.getPercentileNanos(95))
+                    + SEPARATOR + "max " + millis(timing.getMaxNanos()));
+        }
+    }
+
+    private static String millis(double nanos) {
+        return String.format("%.3fms", nanos / 1000000.0D);
+    }
+}
@@ -17,6 +17,6 @@ public class WhitelistAdd implements NativeCommand {
     @Override
     public void execute(MessageReceiver receiver, String[] args) {
         whitelist().addPlayer(args[0]);
-        receiver.message(ChatFormat.YELLOW + Translator.localTranslate("whitelist player added", receiver.getLocale(), args[0]));
+        receiver.message(ChatFormat.YELLOW + Translator.translateFor(receiver, "whitelist player added", args[0]));
     }
 }
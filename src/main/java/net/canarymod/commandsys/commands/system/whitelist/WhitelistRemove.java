@@ -17,6 +17,6 @@ public class WhitelistRemove implements NativeCommand {
     @Override
     public void execute(MessageReceiver receiver, String[] args) {
         whitelist().removePlayer(args[0]);
-        receiver.message(ChatFormat.YELLOW + Translator.localTranslate("whitelist player removed", receiver.getLocale(), args[0]));
+        receiver.message(ChatFormat.YELLOW + Translator.translateFor(receiver, "whitelist player removed", args[0]));
     }
 }
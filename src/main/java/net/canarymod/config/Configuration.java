@@ -1,51 +1,105 @@
 package net.canarymod.config;
 
+import net.canarymod.Canary;
 import net.canarymod.api.world.World;
+import net.canarymod.hook.system.ConfigurationReloadHook;
 import net.canarymod.plugin.Plugin;
 import net.visualillusionsent.utils.PropertiesFile;
 
 import java.io.File;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A caching configuration provider.
  * This class performs file lookup and caching. Use this class to get access to
  * a configuration file.
+ * <p/>
+ * The server, database and world configurations can be watched for changes on disk (see {@link #setWatchInterval(int)}),
+ * in which case changed files are reloaded on the main thread; plugins can follow reloads with the {@link ConfigurationReloadHook}.
  *
  * @author Jos Kuijpers
  */
 public class Configuration {
 
-    private static HashMap<Plugin, HashMap<String, PropertiesFile>> plugin_cfg_cache = new HashMap<Plugin, HashMap<String, PropertiesFile>>();
+    private static ConcurrentHashMap<Plugin, ConcurrentHashMap<String, PropertiesFile>> plugin_cfg_cache = new ConcurrentHashMap<Plugin, ConcurrentHashMap<String, PropertiesFile>>();
     private static ServerConfiguration serverConfig = new ServerConfiguration("config" + File.separatorChar + "server.cfg");
     private static DatabaseConfiguration dbConfig = new DatabaseConfiguration("config" + File.separatorChar + "db.cfg");
-    private static HashMap<String, WorldConfiguration> worldConfigs = new HashMap<String, WorldConfiguration>();
+    private static ConcurrentHashMap<String, WorldConfiguration> worldConfigs = new ConcurrentHashMap<String, WorldConfiguration>();
 
     /** Reload all configuration from disk */
     public static void reload() {
-        serverConfig.reload();
-        dbConfig.reload();
+        reload(serverConfig);
+        reload(dbConfig);
 
         // Reload world configurations
         for (WorldConfiguration wc : worldConfigs.values()) {
-            wc.reload();
+            reload(wc);
         }
 
         // Clear the cache
         plugin_cfg_cache.clear();
     }
 
-    private static PropertiesFile getPluginCachedConfig(Plugin plugin, String filepath) {
-        if (!plugin_cfg_cache.containsKey(plugin)) {
-            plugin_cfg_cache.put(plugin, new HashMap<String, PropertiesFile>());
+    /**
+     * Reloads a configuration and calls the {@link ConfigurationReloadHook} if any of its values changed
+     *
+     * @param config
+     *         the configuration to reload
+     */
+    static void reload(ConfigurationContainer config) {
+        Set<String> changed;
+        synchronized (config) {
+            ConfigurationSnapshot before = ConfigurationContainerBase.snapshotOf(config);
+            config.reload();
+            changed = ConfigurationContainerBase.snapshotOf(config).getChangedKeys(before);
+        }
+        if (!changed.isEmpty() && Canary.instance() != null) {
+            Canary.hooks().callHook(new ConfigurationReloadHook(config, changed));
         }
-        if (!plugin_cfg_cache.get(plugin).containsKey(filepath)) {
-            PropertiesFile file = new PropertiesFile(filepath);
-            file.save();
+    }
 
-            plugin_cfg_cache.get(plugin).put(filepath, file);
+    /**
+     * Sets how often the server, database and world configuration files are checked for changes
+     *
+     * @param seconds
+     *         the number of seconds between checks; 0 or less to stop checking
+     */
+    public static void setWatchInterval(int seconds) {
+        ConfigurationWatcher.setInterval(seconds);
+    }
+
+    static List<ConfigurationContainer> getWatchedConfigs() {
+        List<ConfigurationContainer> configs = new ArrayList<ConfigurationContainer>(worldConfigs.size() + 2);
+        configs.add(serverConfig);
+        configs.add(dbConfig);
+        configs.addAll(worldConfigs.values());
+        return configs;
+    }
+
+    private static PropertiesFile getPluginCachedConfig(Plugin plugin, String filepath) {
+        ConcurrentHashMap<String, PropertiesFile> files = plugin_cfg_cache.get(plugin);
+        if (files == null) {
+            ConcurrentHashMap<String, PropertiesFile> created = new ConcurrentHashMap<String, PropertiesFile>();
+            files = plugin_cfg_cache.putIfAbsent(plugin, created);
+            if (files == null) {
+                files = created;
+            }
         }
-        return plugin_cfg_cache.get(plugin).get(filepath);
+        PropertiesFile file = files.get(filepath);
+        if (file == null) {
+            synchronized (files) { // Only one thread creates the file
+                file = files.get(filepath);
+                if (file == null) {
+                    file = new PropertiesFile(filepath);
+                    file.save();
+                    files.put(filepath, file);
+                }
+            }
+        }
+        return file;
     }
 
     /**
@@ -79,11 +133,17 @@ public class Configuration {
         if (r != null) {
             return r;
         }
-        String[] split = world.split("_");
-        WorldConfiguration config = new WorldConfiguration("config" + File.separatorChar + "worlds" + File.separatorChar + split[0], world);
-
-        worldConfigs.put(world, config);
-        return config;
+        synchronized (worldConfigs) {
+            r = worldConfigs.get(world);
+            if (r != null) {
+                return r;
+            }
+            String[] split = world.split("_");
+            WorldConfiguration config = new WorldConfiguration("config" + File.separatorChar + "worlds" + File.separatorChar + split[0], world);
+
+            worldConfigs.put(world, config);
+            return config;
+        }
     }
 
     /**
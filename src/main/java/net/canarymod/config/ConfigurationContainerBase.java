@@ -0,0 +1,34 @@
+package net.canarymod.config;
+
+/**
+ * Base for {@link ConfigurationContainer}s that keep a {@link ConfigurationSnapshot} of their values
+ * <p/>
+ * Containers that only implement {@link ConfigurationContainer} are still supported; a snapshot is then taken from
+ * their file whenever one is needed.
+ */
+public abstract class ConfigurationContainerBase implements ConfigurationContainer {
+
+    /**
+     * Get the values of the configuration as of when it was last loaded
+     * <p/>
+     * By default a new snapshot is taken from {@link #getFile()} on each call; subclasses should keep the snapshot
+     * they take when loading instead.
+     *
+     * @return the {@link ConfigurationSnapshot}
+     */
+    public ConfigurationSnapshot getSnapshot() {
+        return ConfigurationSnapshot.of(getFile());
+    }
+
+    /**
+     * Gets the snapshot of any configuration container
+     *
+     * @param config
+     *         the configuration container
+     *
+     * @return its {@link ConfigurationSnapshot}
+     */
+    static ConfigurationSnapshot snapshotOf(ConfigurationContainer config) {
+        return config instanceof ConfigurationContainerBase ? ((ConfigurationContainerBase) config).getSnapshot() : ConfigurationSnapshot.of(config.getFile());
+    }
+}
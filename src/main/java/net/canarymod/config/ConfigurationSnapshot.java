@@ -0,0 +1,240 @@
+package net.canarymod.config;
+
+import net.visualillusionsent.utils.BooleanUtils;
+import net.visualillusionsent.utils.PropertiesFile;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * An unchanging copy of the values of a configuration file, taken when the file is loaded.
+ * <p/>
+ * Every value is parsed into each type it can be read as while the snapshot is taken, so reading a value afterwards
+ * is only a map lookup; it doesn't touch the file or modify it with defaults. Configuration containers replace their
+ * snapshot as a whole when they are reloaded, so a snapshot that is held on to stays consistent.
+ */
+public final class ConfigurationSnapshot {
+    private static final Pattern COMMA = Pattern.compile(",");
+
+    private final Map<String, String> raw;
+    private final Map<String, Value> values;
+
+    ConfigurationSnapshot(Map<String, String> values) {
+        HashMap<String, Value> parsed = new HashMap<String, Value>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            parsed.put(entry.getKey(), new Value(entry.getValue().trim()));
+        }
+        this.raw = Collections.unmodifiableMap(new HashMap<String, String>(values));
+        this.values = parsed;
+    }
+
+    /**
+     * Takes a snapshot of a {@link PropertiesFile}
+     *
+     * @param file
+     *         the {@link PropertiesFile}
+     *
+     * @return the snapshot
+     */
+    public static ConfigurationSnapshot of(PropertiesFile file) {
+        Map<String, String> values = file.getPropertiesMap();
+        return new ConfigurationSnapshot(values != null ? values : Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Checks whether there is a value for a key
+     *
+     * @param key
+     *         the key
+     *
+     * @return {@code true} if there is a value; {@code false} if not
+     */
+    public boolean containsKey(String key) {
+        return raw.containsKey(key);
+    }
+
+    /**
+     * Gets all values
+     *
+     * @return the keys and their unparsed values
+     */
+    public Map<String, String> asMap() {
+        return raw;
+    }
+
+    /**
+     * Gets the keys whose values differ between two snapshots, including keys only one of them has
+     *
+     * @param other
+     *         the snapshot to compare with
+     *
+     * @return the differing keys
+     */
+    public Set<String> getChangedKeys(ConfigurationSnapshot other) {
+        HashSet<String> changed = new HashSet<String>();
+        for (Map.Entry<String, String> entry : raw.entrySet()) {
+            if (!entry.getValue().equals(other.raw.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String key : other.raw.keySet()) {
+            if (!raw.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    public String getString(String key) {
+        return raw.get(key);
+    }
+
+    public String getString(String key, String def) {
+        String value = raw.get(key);
+        return value != null ? value : def;
+    }
+
+    public boolean getBoolean(String key) {
+        return getBoolean(key, false);
+    }
+
+    public boolean getBoolean(String key, boolean def) {
+        Value value = values.get(key);
+        return value != null && value.bool != null ? value.bool : def;
+    }
+
+    public int getInt(String key) {
+        return getInt(key, 0);
+    }
+
+    public int getInt(String key, int def) {
+        Value value = values.get(key);
+        return value != null && value.integer != null ? value.integer : def;
+    }
+
+    public long getLong(String key) {
+        return getLong(key, 0L);
+    }
+
+    public long getLong(String key, long def) {
+        Value value = values.get(key);
+        return value != null && value.longValue != null ? value.longValue : def;
+    }
+
+    public float getFloat(String key, float def) {
+        Value value = values.get(key);
+        return value != null && value.doubleValue != null ? value.doubleValue.floatValue() : def;
+    }
+
+    public double getDouble(String key, double def) {
+        Value value = values.get(key);
+        return value != null && value.doubleValue != null ? value.doubleValue : def;
+    }
+
+    public String[] getStringArray(String key) {
+        return getStringArray(key, new String[0]);
+    }
+
+    public String[] getStringArray(String key, String[] def) {
+        Value value = values.get(key);
+        return value != null ? value.strings.clone() : def;
+    }
+
+    public int[] getIntArray(String key, int[] def) {
+        Value value = values.get(key);
+        return value != null && value.ints != null ? value.ints.clone() : def;
+    }
+
+    /** A value parsed as every type it can be read as; {@code null} for the types it isn't */
+    private static final class Value {
+        final Boolean bool;
+        final Integer integer;
+        final Long longValue;
+        final Double doubleValue;
+        final String[] strings;
+        final int[] ints;
+
+        Value(String raw) {
+            bool = parseBoolean(raw);
+            longValue = parseLong(raw);
+            integer = longValue != null && longValue == longValue.intValue() ? Integer.valueOf(longValue.intValue()) : null;
+            doubleValue = parseDouble(raw);
+            strings = split(raw);
+            ints = parseInts(strings);
+        }
+    }
+
+    private static Boolean parseBoolean(String raw) {
+        try {
+            return BooleanUtils.parseBoolean(raw);
+        }
+        catch (RuntimeException rex) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(String raw) {
+        if (!isInteger(raw)) {
+            return null; // Saves throwing for all the values that aren't numbers
+        }
+        try {
+            return Long.valueOf(raw);
+        }
+        catch (NumberFormatException nfex) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(String raw) {
+        try {
+            return Double.valueOf(raw);
+        }
+        catch (NumberFormatException nfex) {
+            return null;
+        }
+    }
+
+    private static int[] parseInts(String[] split) {
+        int[] ints = new int[split.length];
+        for (int index = 0; index < split.length; index++) {
+            if (!isInteger(split[index])) {
+                return null;
+            }
+            try {
+                ints[index] = Integer.parseInt(split[index]);
+            }
+            catch (NumberFormatException nfex) {
+                return null;
+            }
+        }
+        return ints;
+    }
+
+    private static boolean isInteger(String raw) {
+        int start = raw.startsWith("-") || raw.startsWith("+") ? 1 : 0;
+        if (raw.length() == start) {
+            return false;
+        }
+        for (int index = start; index < raw.length(); index++) {
+            if (!Character.isDigit(raw.charAt(index))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] split(String raw) {
+        if (raw.isEmpty()) {
+            return new String[0];
+        }
+        String[] split = COMMA.split(raw);
+        for (int index = 0; index < split.length; index++) {
+            split[index] = split[index].trim();
+        }
+        return split;
+    }
+}
@@ -0,0 +1,100 @@
+package net.canarymod.config;
+
+import net.canarymod.Canary;
+import net.canarymod.tasks.ServerTask;
+import net.canarymod.tasks.ServerTaskManager;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static net.canarymod.Canary.log;
+
+/**
+ * Configuration Watcher
+ * <p/>
+ * Checks the modification times of the watched configuration files and reloads those that changed.
+ * The files are polled, as the server still runs on Java 6. Only the polling happens on the watcher thread;
+ * the reload, and the hook it calls, run on the main thread as a {@link ServerTask}.
+ * <p/>
+ * *INTERNAL USE*
+ */
+final class ConfigurationWatcher implements Runnable {
+    private static ScheduledExecutorService executor;
+    private static ScheduledFuture<?> watch;
+    private static int interval;
+
+    private final ConcurrentHashMap<ConfigurationContainer, Long> modified = new ConcurrentHashMap<ConfigurationContainer, Long>();
+
+    private ConfigurationWatcher() {
+    }
+
+    static synchronized void setInterval(int seconds) {
+        seconds = Math.max(seconds, 0);
+        if (seconds == interval) {
+            return;
+        }
+        interval = seconds;
+        if (watch != null) {
+            watch.cancel(false);
+            watch = null;
+        }
+        if (seconds == 0) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "Canary Configuration Watcher");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        watch = executor.scheduleWithFixedDelay(new ConfigurationWatcher(), seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void run() {
+        for (ConfigurationContainer config : Configuration.getWatchedConfigs()) {
+            File file = new File(config.getFile().getFilePath());
+            long lastModified = file.lastModified();
+            Long known = modified.put(config, lastModified);
+            if (known == null || known == lastModified) {
+                continue;
+            }
+            final ConfigurationContainer changed = config;
+            if (Canary.instance() == null) { // No server to run tasks yet
+                reload(changed);
+                continue;
+            }
+            ServerTaskManager.addTask(new ServerTask(Canary.instance(), 0) {
+                @Override
+                public void run() {
+                    reload(changed);
+                }
+            });
+        }
+    }
+
+    private void reload(ConfigurationContainer config) {
+        File file = new File(config.getFile().getFilePath());
+        log.info("Reloading changed configuration " + file.getPath());
+        try {
+            Configuration.reload(config);
+            if (config == Configuration.getServerConfig() && Canary.instance() != null) {
+                Canary.instance().applyServerConfiguration();
+            }
+        }
+        catch (Exception ex) {
+            log.error("Failed to reload configuration " + file.getPath(), ex);
+        }
+        // Reloading writes the file back, which shouldn't count as another change
+        modified.put(config, file.lastModified());
+    }
+}
@@ -13,8 +13,9 @@ import static net.canarymod.Canary.log;
  * @author Jos Kuijpers
  * @author Jason (darkdiplomat)
  */
-public class DatabaseConfiguration implements ConfigurationContainer {
+public class DatabaseConfiguration extends ConfigurationContainerBase {
     private PropertiesFile cfg;
+    private volatile ConfigurationSnapshot values;
 
     public DatabaseConfiguration(String path) {
         File test = new File(path);
@@ -39,6 +40,14 @@ public class DatabaseConfiguration implements ConfigurationContainer {
         return cfg;
     }
 
+    /**
+     * Gets the values of the configuration as they were when it was last loaded
+     */
+    @Override
+    public ConfigurationSnapshot getSnapshot() {
+        return values;
+    }
+
     /** Creates the default configuration */
     private void verifyConfig() {
         cfg.clearHeader();
@@ -119,6 +128,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
         //
 
         cfg.save();
+        values = ConfigurationSnapshot.of(cfg);
     }
 
     /**
@@ -147,7 +157,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return database host
      */
     public String getDatabaseHost() {
-        return cfg.getString("host", "localhost");
+        return values.getString("host", "localhost");
     }
 
     /**
@@ -156,7 +166,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return The configured port or 0
      */
     public int getDatabasePort() {
-        return cfg.getInt("port", 0);
+        return values.getInt("port", 0);
     }
 
     /**
@@ -165,7 +175,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return database name
      */
     public String getDatabaseName() {
-        return cfg.getString("name", "canarymod");
+        return values.getString("name", "canarymod");
     }
 
     /**
@@ -175,7 +185,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return database username
      */
     public String getDatabaseUser() {
-        return cfg.getString("username");
+        return values.getString("username");
     }
 
     /**
@@ -185,7 +195,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return database password
      */
     public String getDatabasePassword() {
-        return cfg.getString("password");
+        return values.getString("password");
     }
 
     /**
@@ -195,7 +205,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return database maximum connections
      */
     public int getDatabaseMaxConnections() {
-        return cfg.getInt("maxConnections");
+        return values.getInt("maxConnections");
     }
 
     /**
@@ -205,7 +215,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return config for max cached statements
      */
     public int getMaxCachedStatements() {
-        return cfg.getInt("max-cached-statements", 50);
+        return values.getInt("max-cached-statements", 50);
     }
 
     /**
@@ -216,7 +226,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return config for max num of pooled statements per connection
      */
     public int getMaxCachedStatementsPerConnection() {
-        return cfg.getInt("max-statements-per-connection", 5);
+        return values.getInt("max-statements-per-connection", 5);
     }
 
     /**
@@ -226,7 +236,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return config num of threads used to defer closing statements
      */
     public int getNumStatementCloseThreads() {
-        return cfg.getInt("statement-cache-close-threads", 1);
+        return values.getInt("statement-cache-close-threads", 1);
     }
 
     /**
@@ -235,7 +245,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return connection re-check interval
      */
     public int getConnectionTestFrequency() {
-        return cfg.getInt("connection-test-frequency", 3600);
+        return values.getInt("connection-test-frequency", 3600);
     }
 
     /**
@@ -244,7 +254,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return num of seconds a connection can stay checked out
      */
     public int getReturnConnectionTimeout() {
-        return cfg.getInt("return-connection-timeout", 900);
+        return values.getInt("return-connection-timeout", 900);
     }
 
     /**
@@ -254,7 +264,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return num of threads to use for heavy JDBC operations
      */
     public int getNumHelperThreads() {
-        return cfg.getInt("num-helper-threads", 4);
+        return values.getInt("num-helper-threads", 4);
     }
 
     /**
@@ -263,7 +273,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return min amount of connections
      */
     public int getMinPoolSize() {
-        return cfg.getInt("min-connection-pool-size", 3);
+        return values.getInt("min-connection-pool-size", 3);
     }
 
     /**
@@ -272,7 +282,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return max allowed connections in pool
      */
     public int getMaxPoolSize() {
-        return cfg.getInt("max-connection-pool-size", 10);
+        return values.getInt("max-connection-pool-size", 10);
     }
 
     /**
@@ -283,7 +293,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return seconds to keep excess connections
      */
     public int getMaxExcessConnectionsIdleTime() {
-        return cfg.getInt("max-excess-connections-idle-time", 1800);
+        return values.getInt("max-excess-connections-idle-time", 1800);
     }
 
     /**
@@ -292,7 +302,7 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return connections to acquire
      */
     public int getAcquireIncrement() {
-        return cfg.getInt("acquire-increment", 5);
+        return values.getInt("acquire-increment", 5);
     }
 
     /**
@@ -301,43 +311,43 @@ public class DatabaseConfiguration implements ConfigurationContainer {
      * @return keep-alive time of connections in pool
      */
     public int getMaxConnectionIdleTime() {
-        return cfg.getInt("max-connection-idle-time", 900);
+        return values.getInt("max-connection-idle-time", 900);
     }
 
     public String getBansTableName() {
-        return cfg.getString("bans-table-name", "ban");
+        return values.getString("bans-table-name", "ban");
     }
 
     public String getGroupsTableName() {
-        return cfg.getString("groups-table-name", "group");
+        return values.getString("groups-table-name", "group");
     }
 
     public String getKitsTableName() {
-        return cfg.getString("kits-table-name", "kit");
+        return values.getString("kits-table-name", "kit");
     }
 
     public String getOpertatorsTableName() {
-        return cfg.getString("operators-table-name", "operators");
+        return values.getString("operators-table-name", "operators");
     }
 
     public String getPermissionsTableName() {
-        return cfg.getString("permissions-table-name", "permission");
+        return values.getString("permissions-table-name", "permission");
     }
 
     public String getPlayersTableName() {
-        return cfg.getString("players-table-name", "player");
+        return values.getString("players-table-name", "player");
     }
 
     public String getReservelistTableName() {
-        return cfg.getString("reservelist-table-name", "reservelist");
+        return values.getString("reservelist-table-name", "reservelist");
     }
 
     public String getWarpsTableName() {
-        return cfg.getString("warps-table-name", "warp");
+        return values.getString("warps-table-name", "warp");
     }
 
     public String getWhitelistTableName() {
-        return cfg.getString("whitelist-table-name", "whitelist");
+        return values.getString("whitelist-table-name", "whitelist");
     }
 
 }
@@ -14,8 +14,9 @@ import static net.canarymod.Canary.log;
  * @author Jos Kuijpers
  * @author Jason (darkdiplomat)
  */
-public class ServerConfiguration implements ConfigurationContainer {
+public class ServerConfiguration extends ConfigurationContainerBase {
     private final PropertiesFile cfg;
+    private volatile ConfigurationSnapshot values;
     private final PropertiesFile servCfg; // Panel support
     private final boolean panelSupport = BooleanUtils.parseBoolean(System.getProperty("panel.support", "off"));
 
@@ -56,6 +57,14 @@ public class ServerConfiguration implements ConfigurationContainer {
         return cfg;
     }
 
+    /**
+     * Gets the values of the configuration as they were when it was last loaded
+     */
+    @Override
+    public ConfigurationSnapshot getSnapshot() {
+        return values;
+    }
+
     /**
      * Creates the default configuration
      */
@@ -64,6 +73,8 @@ public class ServerConfiguration implements ConfigurationContainer {
         cfg.setComments("announce-player-achievements", "Sets whether to inform all of a Player's Achievement");
         cfg.getBoolean("allow-enchantment-stacking", false);
         cfg.setComments("allow-enchantment-stacking", "Sets whether to allow items with enchantments to stack with non-enchanted items");
+        cfg.getInt("async-task-threads", 4);
+        cfg.setComments("async-task-threads", "The number of threads shared by plugins to run asynchronous tasks (Minimum: 1)");
         cfg.getString("ban-default-message", "You are banned from this server.");
         cfg.setComments("ban-default-message", "The default message to use for user bans");
         cfg.getString("ban-expiration-date-message", "Your Ban will be lifted at ");
@@ -82,6 +93,10 @@ public class ServerConfiguration implements ConfigurationContainer {
         cfg.setComments("command-block-op", "Sets whether the Command Block is considered Operator or not (Vanilla command use)");
         cfg.getBoolean("command-block-silent", false);
         cfg.setComments("command-block-silent", "Sets whether the Command Block logs command output (set to true to 'silence' CommandBlocks)");
+        cfg.getInt("command-slow-threshold", 50);
+        cfg.setComments("command-slow-threshold", "The number of milliseconds a command may take before it is logged as slow, with its caller and arguments (0 disables)");
+        cfg.getInt("config-watch-interval", 0);
+        cfg.setComments("config-watch-interval", "The number of seconds between checks for changes to the server, database and world configuration files, which are reloaded when changed (0 to only reload with the reload command)");
         cfg.getString("data-source", "xml");
         cfg.setComments("data-source", "The Datasource type to use (Default available: xml, mysql, sqlite");
         cfg.getString("date-format", "yyyy.MM.dd, hh:mm:ss");
@@ -101,6 +116,8 @@ public class ServerConfiguration implements ConfigurationContainer {
         if (cfg.containsKey("logging")) { // Remove old key
             cfg.removeKey("logging");
         }
+        cfg.getBoolean("logger-async", false);
+        cfg.setComments("logger-async", "Sets whether messages with the PLUGINDEBUG and NOTICE markers are written on a separate thread, so they can't hold up the server");
         cfg.getString("logger-level", "INFO");
         cfg.setComments("logger-level", "Sets the level of logging.", "Acceptable Values: OFF FATAL ERROR WARN INFO DEBUG TRACE ALL");
 
@@ -109,6 +126,14 @@ public class ServerConfiguration implements ConfigurationContainer {
         cfg.setComments("max-players", "The maximum allowed players online (Does not count ReserveList users connecting after server is full)");
         cfg.getInt("max-tick-time", 60000);
         cfg.setComments("max-tick-time", "The maximum number of milliseconds a single tick may take before the server watchdog stops the server. Setting to -1 disables WatchDog.");
+        cfg.getString("metrics-http-bind", "127.0.0.1");
+        cfg.setComments("metrics-http-bind", "The address the metrics endpoint listens on. Keep this local unless the port is firewalled.");
+        cfg.getBoolean("metrics-http-enabled", false);
+        cfg.setComments("metrics-http-enabled", "Sets whether to serve metrics in the Prometheus text format on http://<metrics-http-bind>:<metrics-http-port>/metrics");
+        cfg.getInt("metrics-http-port", 9225);
+        cfg.setComments("metrics-http-port", "The port the metrics endpoint listens on");
+        cfg.getBoolean("metrics-jmx-enabled", false);
+        cfg.setComments("metrics-jmx-enabled", "Sets whether to expose metrics over JMX as net.canarymod:type=Metrics");
         cfg.getString("motd", "CanaryMod Minecraft Server");
         cfg.setComments("motd", "The Server list Message of the Day");
         cfg.getInt("network-compression-threshold", 256);
@@ -128,7 +153,13 @@ public class ServerConfiguration implements ConfigurationContainer {
         cfg.getInt("playerlist-ticks", 500);
         cfg.getBoolean("plugin-dev-mode", false);
         cfg.setComments("plugin-dev-mode", "Setting this to true will enable loading plugins from folders; intended for Lua plugin developers");
+        cfg.getBoolean("plugin-parallel-loading", true);
+        cfg.setComments("plugin-parallel-loading", "Sets whether plugin jars are scanned and Java plugin classes preloaded on several threads at startup (plugins are still constructed and enabled on the main thread)");
         // RESERVED SPACE
+        cfg.getBoolean("profiler-enabled", false);
+        cfg.setComments("profiler-enabled", "Sets whether the tick profiler records tick times from startup (it can also be started with /profiler)");
+        cfg.getInt("profiler-spike-threshold", 100);
+        cfg.setComments("profiler-spike-threshold", "The number of milliseconds a tick may take before the tick profiler captures it as a spike");
         cfg.getBoolean("query-enabled", false);
         cfg.setComments("query-enabled", "Enables GameSpy4 protocol server listener. Used to get information about server.");
         cfg.getInt("query-port", 25565);
@@ -160,6 +191,8 @@ public class ServerConfiguration implements ConfigurationContainer {
         cfg.setComments("spam-protection", "Level of protection against Spam. Options: default - on for all but ignorerestiction users; off - no protections; all - on for all");
         cfg.getBoolean("strict-sign-characters", true);
         cfg.setComments("strict-sign-characters", "Sets whether to strictly check characters on signs for invalid chat characters. Set to false to disable (and allow more characters)");
+        cfg.getLong("task-tick-budget", 0);
+        cfg.setComments("task-tick-budget", "The maximum number of nanoseconds Server Tasks may run for in a single tick before the rest are deferred to the next tick. Set to 0 to disable.");
         cfg.getString("texture-pack", "");
         cfg.setComments("texture-pack", "The name of the Server's texture/resource pack");
         cfg.getBoolean("update-lang-files", true);
@@ -178,10 +211,11 @@ public class ServerConfiguration implements ConfigurationContainer {
         cfg.setComments("bungeecord", "If you want to enable Bungeecord support. REQUIRES THAT ONLINE MODE IS DISABLED (false)");
 
         cfg.save();
+        values = ConfigurationSnapshot.of(cfg);
     }
 
     public boolean getAnnounceAchievements() {
-        return cfg.getBoolean("announce-player-achievements", true);
+        return values.getBoolean("announce-player-achievements", true);
     }
 
     /**
@@ -190,7 +224,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if allowed; {@code false} if not
      */
     public boolean allowEnchantmentStacking() {
-        return cfg.getBoolean("alllow-enchantment-stacking", false);
+        return values.getBoolean("alllow-enchantment-stacking", false);
     }
 
     /**
@@ -199,7 +233,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return ban default message
      */
     public String getDefaultBannedMessage() {
-        return cfg.getString("ban-default-message", "You are banned from this server.");
+        return values.getString("ban-default-message", "You are banned from this server.");
     }
 
     /**
@@ -208,7 +242,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return ban expiration date message
      */
     public String getBanExpireDateMessage() {
-        return cfg.getString("ban-expiration-date-message", "Your ban will be lifted at ");
+        return values.getString("ban-expiration-date-message", "Your ban will be lifted at ");
     }
 
     /**
@@ -217,7 +251,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return chat format
      */
     public String getChatFormat() {
-        return cfg.getString("chat-format", "<%prefix%name&f> %message");
+        return values.getString("chat-format", "<%prefix%name&f> %message");
     }
 
     /**
@@ -226,7 +260,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if enabled; {@code false} if not
      */
     public boolean isCommandBlockEnabled() {
-        return cfg.getBoolean("command-block-enabled", false);
+        return values.getBoolean("command-block-enabled", false);
     }
 
     /**
@@ -235,7 +269,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return command block group name
      */
     public String getCommandBlockGroupName() {
-        return cfg.getString("command-block-group", "admins");
+        return values.getString("command-block-group", "admins");
     }
 
     /**
@@ -244,7 +278,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if opped; {@code false} otherwise
      */
     public boolean isCommandBlockOpped() {
-        return cfg.getBoolean("command-block-op", false);
+        return values.getBoolean("command-block-op", false);
     }
 
     /**
@@ -253,7 +287,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if silent; {@code false} otherwise
      */
     public boolean isCommandBlockSilent() {
-        return cfg.getBoolean("command-block-silent", false);
+        return values.getBoolean("command-block-silent", false);
     }
 
     /**
@@ -262,7 +296,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return datasource type
      */
     public String getDatasourceType() {
-        return cfg.getString("data-source", "xml");
+        return values.getString("data-source", "xml");
     }
 
     /**
@@ -271,7 +305,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return timestamp date format
      */
     public String getDateFormat() {
-        return cfg.getString("date-format", "yyyy.MM.dd, hh:mm:ss");
+        return values.getString("date-format", "yyyy.MM.dd, hh:mm:ss");
     }
 
     /**
@@ -280,7 +314,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return default world name
      */
     public String getDefaultWorldName() {
-        return cfg.getString("default-world-name", "default");
+        return values.getString("default-world-name", "default");
     }
 
     /**
@@ -289,7 +323,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return true when enabled; false otherwise
      */
     public boolean isDeathMessageEnabled() {
-        return cfg.getBoolean("death-message", true);
+        return values.getBoolean("death-message", true);
     }
 
     /**
@@ -308,7 +342,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return logger level
      */
     public Level getLoggerLevel() {
-        return Level.toLevel(cfg.getString("logger-level", "INFO"), Level.INFO);
+        return Level.toLevel(values.getString("logger-level", "INFO"), Level.INFO);
     }
 
     /**
@@ -320,7 +354,7 @@ public class ServerConfiguration implements ConfigurationContainer {
         if(panelSupport){
             return servCfg.getInt("max-players", 20);
         }
-        return cfg.getInt("max-players", 20);
+        return values.getInt("max-players", 20);
     }
 
     /**
@@ -329,7 +363,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return A string containing the message
      */
     public String getMotd() {
-        return cfg.getString("motd", "Canary Minecraft Server");
+        return values.getString("motd", "Canary Minecraft Server");
     }
 
     /**
@@ -344,7 +378,7 @@ public class ServerConfiguration implements ConfigurationContainer {
         if(panelSupport){
             return servCfg.getBoolean("online-mode", true);
         }
-        return cfg.getBoolean("online-mode", true);
+        return values.getBoolean("online-mode", true);
     }
 
     /**
@@ -353,7 +387,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return player idle timeout
      */
     public int getPlayerIdleTimeout() {
-        return cfg.getInt("player-idle-timeout", 1);
+        return values.getInt("player-idle-timeout", 1);
     }
 
     /**
@@ -364,6 +398,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      */
     public void setPlayerIdleTimeout(int timeout) {
         cfg.setInt("player-idle-timeout", timeout);
+        values = ConfigurationSnapshot.of(cfg);
     }
 
     /**
@@ -372,7 +407,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return true when enabled, false otherwise. Default is true.
      */
     public boolean isPlayerListEnabled() {
-        return cfg.getBoolean("playerlist-enabled", true);
+        return values.getBoolean("playerlist-enabled", true);
     }
 
     /**
@@ -381,7 +416,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return true if auto-updated, false otherwise. Default is false.
      */
     public boolean getPlayerlistAutoUpdate() {
-        return cfg.getBoolean("playerlist-autoupdate", false);
+        return values.getBoolean("playerlist-autoupdate", false);
     }
 
     /**
@@ -391,7 +426,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return true when enabled, false otherwise. Default is true.
      */
     public boolean isPlayerlistColorsEnabled() {
-        return cfg.getBoolean("playerlist-usecolors", true);
+        return values.getBoolean("playerlist-usecolors", true);
     }
 
     /**
@@ -400,7 +435,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return playerlist ticks
      */
     public int getPlayerlistTicks() {
-        return cfg.getInt("playerlist-ticks", 500);
+        return values.getInt("playerlist-ticks", 500);
     }
 
     /**
@@ -412,7 +447,7 @@ public class ServerConfiguration implements ConfigurationContainer {
         if(panelSupport){
             return servCfg.getBoolean("enable-query", false);
         }
-        return cfg.getBoolean("query-enabled", false);
+        return values.getBoolean("query-enabled", false);
     }
 
     /**
@@ -424,7 +459,7 @@ public class ServerConfiguration implements ConfigurationContainer {
         if(panelSupport){
             return servCfg.getInt("query.port", 25570);
         }
-        return cfg.getInt("query-port", 25565);
+        return values.getInt("query-port", 25565);
     }
 
     /**
@@ -433,7 +468,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if enabled; {@code false} if not
      */
     public boolean isRconEnabled() {
-        return cfg.getBoolean("enable-rcon", false);
+        return values.getBoolean("enable-rcon", false);
     }
 
     /**
@@ -442,7 +477,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return RCON port
      */
     public int getRconPort() {
-        return cfg.getInt("rcon-port", 0);
+        return values.getInt("rcon-port", 0);
     }
 
     /**
@@ -451,7 +486,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return RCON password
      */
     public String getRconPassword() {
-        return cfg.getString("rcon-password", "");
+        return values.getString("rcon-password", "");
     }
 
     /**
@@ -460,7 +495,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return true when enabled, false otherwise. Default is false.
      */
     public boolean isReservelistEnabled() {
-        return cfg.getBoolean("reservelist-enabled", false);
+        return values.getBoolean("reservelist-enabled", false);
     }
 
     /**
@@ -469,7 +504,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return A string containing the message.
      */
     public String getReservelistMessage() {
-        return cfg.getString("reservelist-message", "Not on reserve list.");
+        return values.getString("reservelist-message", "Not on reserve list.");
     }
 
     /**
@@ -478,7 +513,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return true when enabled, false otherwise. Default is true.
      */
     public boolean isSaveHomesEnabled() {
-        return cfg.getBoolean("save-homes", true);
+        return values.getBoolean("save-homes", true);
     }
 
     /**
@@ -487,7 +522,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return server full message
      */
     public String getServerFullMessage() {
-        return cfg.getString("server-full-message", "The server is full.");
+        return values.getString("server-full-message", "The server is full.");
     }
 
     /**
@@ -499,7 +534,7 @@ public class ServerConfiguration implements ConfigurationContainer {
         if(panelSupport){
             return servCfg.getString("server-ip", "");
         }
-        return cfg.getString("server-ip", "");
+        return values.getString("server-ip", "");
     }
 
     /**
@@ -511,7 +546,7 @@ public class ServerConfiguration implements ConfigurationContainer {
         if(panelSupport){
             return servCfg.getInt("server-port", 25565);
         }
-        return cfg.getInt("server-port", 25565);
+        return values.getInt("server-port", 25565);
     }
 
     /**
@@ -520,7 +555,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return default server locale
      */
     public String getServerLocale() {
-        return cfg.getString("server-locale", "en_US");
+        return values.getString("server-locale", "en_US");
     }
 
     /**
@@ -529,7 +564,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return True when enabled, false otherwise. Default is true.
      */
     public boolean getShowUnknownCommand() {
-        return cfg.getBoolean("show-unknown-command", true);
+        return values.getBoolean("show-unknown-command", true);
     }
 
     /**
@@ -538,7 +573,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if enabled; {@code false} if not
      */
     public boolean isSnooperEnabled() {
-        return cfg.getBoolean("snooper-enabled", true);
+        return values.getBoolean("snooper-enabled", true);
     }
 
     /**
@@ -548,7 +583,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return the spam protection level
      */
     public String getSpamProtectionLevel() {
-        return cfg.getString("spam-protection", "default");
+        return values.getString("spam-protection", "default");
     }
 
     /**
@@ -557,7 +592,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if strict checks are preformed; {@code false} if not
      */
     public boolean getStrictSignCharacterChecks() {
-        return cfg.getBoolean("strict-sign-characters");
+        return values.getBoolean("strict-sign-characters");
     }
 
     /**
@@ -566,7 +601,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return the server texture/resource pack name
      */
     public String getTexturePack() {
-        return cfg.getString("texture-pack", "");
+        return values.getString("texture-pack", "");
     }
 
     /**
@@ -575,7 +610,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} to update; {@code false} if not
      */
     public boolean updateLang() {
-        return cfg.getBoolean("update-lang-files", true);
+        return values.getBoolean("update-lang-files", true);
     }
 
     /**
@@ -584,7 +619,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return view distance
      */
     public int getViewDistance() {
-        return cfg.getInt("view-distance", 10);
+        return values.getInt("view-distance", 10);
     }
 
     /**
@@ -593,7 +628,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return True when enabled, false otherwise. Default is false.
      */
     public boolean isWhitelistEnabled() {
-        return cfg.getBoolean("whitelist-enabled", false);
+        return values.getBoolean("whitelist-enabled", false);
     }
 
     /**
@@ -602,7 +637,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return A string containing the message.
      */
     public String getWhitelistMessage() {
-        return cfg.getString("whitelist-message", "Not on whitelist.");
+        return values.getString("whitelist-message", "Not on whitelist.");
     }
 
     /**
@@ -611,7 +646,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if enabled; {@code false} if not
      */
     public boolean isWorldCacheTimerEnabled() {
-        return cfg.getBoolean("world-cache-timer-enabled", true);
+        return values.getBoolean("world-cache-timer-enabled", true);
     }
 
     /**
@@ -620,7 +655,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return world cache timeout
      */
     public long getWorldCacheTimeout() {
-        return cfg.getLong("world-cache-timeout", 60);
+        return values.getLong("world-cache-timeout", 60);
     }
 
     /**
@@ -629,7 +664,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return network compression threshold
      */
     public int getNetworkCompressionThreshold() {
-        return cfg.getInt("network-compression-threshold", 256);
+        return values.getInt("network-compression-threshold", 256);
     }
 
     /**
@@ -638,7 +673,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return default max world size
      */
     public int getDefaultMaxWorldSize() {
-        return cfg.getInt("default-world-size", 29999984);
+        return values.getInt("default-world-size", 29999984);
     }
 
     /**
@@ -647,7 +682,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return max tick time
      */
     public int getMaxTickTime() {
-        return cfg.getInt("max-tick-time", 60000);
+        return values.getInt("max-tick-time", 60000);
     }
 
     /**
@@ -656,7 +691,7 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if enabled; {@code false} if not
      */
     public boolean getBungeecordSupport() {
-        return cfg.getBoolean("bungeecord", false);
+        return values.getBoolean("bungeecord", false);
     }
 
     /**
@@ -665,6 +700,114 @@ public class ServerConfiguration implements ConfigurationContainer {
      * @return {@code true} if enabled; {@code false} if not
      */
     public boolean getPluginDevModeEnabled() {
-        return cfg.getBoolean("plugin-dev-mode", false);
+        return values.getBoolean("plugin-dev-mode", false);
+    }
+
+    /**
+     * Gets the number of threads in the shared asynchronous task pool
+     *
+     * @return async task thread count
+     */
+    public int getAsyncTaskThreads() {
+        return Math.max(1, values.getInt("async-task-threads", 4));
+    }
+
+    /**
+     * Gets the time budget for running Server Tasks in a single tick
+     *
+     * @return task tick budget in nanoseconds; 0 for no budget
+     */
+    public long getTaskTickBudget() {
+        return values.getLong("task-tick-budget", 0);
+    }
+
+    /**
+     * Checks if the tick profiler is enabled from startup
+     *
+     * @return {@code true} if enabled; {@code false} if not
+     */
+    public boolean isProfilerEnabled() {
+        return values.getBoolean("profiler-enabled", false);
+    }
+
+    /**
+     * Gets the duration above which the tick profiler captures a tick as a spike
+     *
+     * @return profiler spike threshold in milliseconds
+     */
+    public int getProfilerSpikeThreshold() {
+        return Math.max(1, values.getInt("profiler-spike-threshold", 100));
+    }
+
+    /**
+     * Checks if the metrics HTTP endpoint is enabled
+     *
+     * @return {@code true} if enabled; {@code false} if not
+     */
+    public boolean isMetricsHttpEnabled() {
+        return values.getBoolean("metrics-http-enabled", false);
+    }
+
+    /**
+     * Gets the address the metrics HTTP endpoint listens on
+     *
+     * @return metrics bind address
+     */
+    public String getMetricsHttpBind() {
+        return values.getString("metrics-http-bind", "127.0.0.1");
+    }
+
+    /**
+     * Gets the port the metrics HTTP endpoint listens on
+     *
+     * @return metrics port
+     */
+    public int getMetricsHttpPort() {
+        return values.getInt("metrics-http-port", 9225);
+    }
+
+    /**
+     * Checks if metrics are exposed over JMX
+     *
+     * @return {@code true} if enabled; {@code false} if not
+     */
+    public boolean isMetricsJmxEnabled() {
+        return values.getBoolean("metrics-jmx-enabled", false);
+    }
+
+    /**
+     * Gets the duration above which a command execution is logged as slow
+     *
+     * @return slow command threshold in milliseconds; 0 if disabled
+     */
+    public int getCommandSlowThreshold() {
+        return Math.max(0, values.getInt("command-slow-threshold", 50));
+    }
+
+    /**
+     * Checks if plugin jars are scanned and plugin classes preloaded on several threads
+     *
+     * @return {@code true} if enabled; {@code false} if not
+     */
+    public boolean isPluginParallelLoadingEnabled() {
+        return values.getBoolean("plugin-parallel-loading", true);
+    }
+
+    /**
+     * Gets whether messages with the PLUGINDEBUG and NOTICE markers are logged asynchronously
+     *
+     * @return {@code true} if enabled; {@code false} if not
+     */
+    public boolean isLoggerAsync() {
+        return values.getBoolean("logger-async", false);
+    }
+
+    /**
+     * Gets the number of seconds between checks for changed configuration files
+     *
+     * @return the interval in seconds; 0 if files aren't watched
+     */
+    public int getConfigWatchInterval() {
+        return Math.max(0, values.getInt("config-watch-interval", 0));
     }
 }
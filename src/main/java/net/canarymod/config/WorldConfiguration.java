@@ -9,7 +9,6 @@ import net.visualillusionsent.utils.PropertiesFile;
 
 import java.io.File;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -19,10 +18,10 @@ import static net.canarymod.Canary.log;
  * @author Jason (darkdiplomat)
  * @author Jos Kuijpers
  */
-public class WorldConfiguration implements ConfigurationContainer {
+public class WorldConfiguration extends ConfigurationContainerBase {
     private PropertiesFile cfg;
+    private volatile ConfigurationSnapshot values;
     private String worldname;
-    private HashMap<String, Boolean> boolCache = new HashMap<String, Boolean>();
 
     /* Arrays of default mobs, leave static */
     private final static String[]
@@ -67,6 +66,14 @@ public class WorldConfiguration implements ConfigurationContainer {
         return cfg;
     }
 
+    /**
+     * Gets the values of the configuration as they were when it was last loaded
+     */
+    @Override
+    public ConfigurationSnapshot getSnapshot() {
+        return values;
+    }
+
     /**
      * Verifies the world configuration file
      */
@@ -109,16 +116,11 @@ public class WorldConfiguration implements ConfigurationContainer {
         cfg.getIntArray("disallowed-blocks", disallowedblocks);
 
         cfg.save();
+        values = ConfigurationSnapshot.of(cfg);
     }
 
     private boolean getBoolean(String key, boolean def) {
-        Boolean r = boolCache.get(key);
-        if (r != null) {
-            return r;
-        }
-        r = cfg.getBoolean(key, def);
-        boolCache.put(key, r);
-        return r;
+        return values.getBoolean(key, def);
     }
 
     /**
@@ -127,7 +129,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return an integer between 0 and INTMAX, 16 on failure.
      */
     public int getSpawnProtectionSize() {
-        return cfg.getInt("spawn-protection", 16);
+        return values.getInt("spawn-protection", 16);
     }
 
     /**
@@ -136,7 +138,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return true or false. Returns value of canSpawnMonsters() if auto-heal is 'default'
      */
     public boolean isAutoHealEnabled() {
-        if (cfg.getString("auto-heal", "default").equals("default")) {
+        if (values.getString("auto-heal", "default").equals("default")) {
             return this.canSpawnMonsters();
         }
         return getBoolean("auto-heal", false);
@@ -202,7 +204,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return An integer array containing the block types.
      */
     public int[] getEnderBlocks() {
-        return cfg.getIntArray("ender-blocks", enderblocks);
+        return values.getIntArray("ender-blocks", enderblocks);
     }
 
     /**
@@ -211,7 +213,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return An integer array containing the block types.
      */
     public int[] getBannedBlocks() {
-        return cfg.getIntArray("disallowed-blocks", disallowedblocks);
+        return values.getIntArray("disallowed-blocks", disallowedblocks);
     }
 
     /**
@@ -224,12 +226,12 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return true or false
      */
     public boolean isAnimalSpawnable(String name) {
-        for (String animal : cfg.getStringArray("natural-animals")) {
+        for (String animal : values.getStringArray("natural-animals")) {
             if (name.equals(animal)) {
                 return true;
             }
         }
-        for (String animal : cfg.getStringArray("natural-wateranimals")) {
+        for (String animal : values.getStringArray("natural-wateranimals")) {
             if (name.equals(animal)) {
                 return true;
             }
@@ -246,7 +248,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return true or false
      */
     public boolean isMobSpawnable(String name) {
-        for (String mob : cfg.getStringArray("natural-monsters")) {
+        for (String mob : values.getStringArray("natural-monsters")) {
             if (name.equals(mob)) {
                 return true;
             }
@@ -260,7 +262,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return a string with the world name
      */
     public String getWorldName() {
-        return cfg.getString("world-name", worldname);
+        return values.getString("world-name", worldname);
     }
 
     /**
@@ -269,7 +271,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return a String with the world type. Default is DEFAULT
      */
     public WorldType getWorldType() {
-        return WorldType.fromString(cfg.getString("world-type", "DEFAULT"));
+        return WorldType.fromString(values.getString("world-type", "DEFAULT"));
     }
 
     /**
@@ -278,7 +280,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return a string containing the world seed
      */
     public String getWorldSeed() {
-        return cfg.getString("world-seed", "");
+        return values.getString("world-seed", "");
     }
 
     /**
@@ -359,7 +361,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return an integer, defaulting to 256
      */
     public int getMaxBuildHeight() {
-        return MathHelp.setInRange(cfg.getInt("max-build-height", 256), 1, 256);
+        return MathHelp.setInRange(values.getInt("max-build-height", 256), 1, 256);
     }
 
     /**
@@ -377,7 +379,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return difficulty
      */
     public World.Difficulty getDifficulty() {
-        return World.Difficulty.fromId(cfg.getInt("difficulty", 1));
+        return World.Difficulty.fromId(values.getInt("difficulty", 1));
     }
 
     /**
@@ -386,7 +388,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return game mode
      */
     public GameMode getGameMode() {
-        return GameMode.fromId(cfg.getInt("gamemode", 0));
+        return GameMode.fromId(values.getInt("gamemode", 0));
     }
 
     /**
@@ -395,7 +397,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return A value from 0 to 100, default is 100.
      */
     public int getNaturalSpawnRate() {
-        return MathHelp.setInRange(cfg.getInt("natural-spawn-rate", 100), 0, 100);
+        return MathHelp.setInRange(values.getInt("natural-spawn-rate", 100), 0, 100);
     }
 
     /**
@@ -404,7 +406,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return world generator settings
      */
     public String getGeneratorSettings() {
-        return cfg.getString("generator-settings", "");
+        return values.getString("generator-settings", "");
     }
 
     /**
@@ -413,7 +415,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return {@code true} if force
      */
     public boolean forceDefaultGamemode() {
-        return cfg.getBoolean("forceDefaultGameMode", true);
+        return values.getBoolean("forceDefaultGameMode", true);
     }
 
     /**
@@ -422,11 +424,11 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return {@code true} if force
      */
     public boolean forceDefaultGamemodeDimensional() {
-        return cfg.getBoolean("forceDefaultGameModeDimensional", false);
+        return values.getBoolean("forceDefaultGameModeDimensional", false);
     }
 
     public boolean startupAutoLoadEnabled() {
-        return cfg.getBoolean("startup-autoload", false);
+        return values.getBoolean("startup-autoload", false);
     }
 
     /**
@@ -435,7 +437,7 @@ public class WorldConfiguration implements ConfigurationContainer {
      * @return {@code true} if loading allowed
      */
     public boolean allowWarpAutoLoad() {
-        return cfg.getBoolean("warp-autoload", false);
+        return values.getBoolean("warp-autoload", false);
     }
 
     /**
@@ -1,9 +1,12 @@
 package net.canarymod.database;
 
 import com.mchange.v2.c3p0.ComboPooledDataSource;
+import net.canarymod.Canary;
 import net.canarymod.config.Configuration;
 import net.canarymod.config.DatabaseConfiguration;
 import net.canarymod.database.exceptions.DatabaseAccessException;
+import net.canarymod.metrics.Gauge;
+import net.canarymod.metrics.Histogram;
 
 import java.beans.PropertyVetoException;
 import java.sql.Connection;
@@ -61,6 +64,7 @@ public class JdbcConnectionManager {
     private Connection sqliteConnection;
 
     private Type type;
+    private volatile Histogram acquireTimer;
 
     private static JdbcConnectionManager instance;
 
@@ -111,6 +115,45 @@ public class JdbcConnectionManager {
         c.close();
     }
 
+    /**
+     * Registers the pool statistics with the {@link net.canarymod.metrics.MetricsRegistry}.<br>
+     * The database can be set up before Canary is, so this is done when the first Connection is taken.
+     *
+     * @return the timer of taking Connections; {@code null} if Canary is not set up yet
+     */
+    private Histogram registerMetrics() {
+        if (Canary.instance() == null) {
+            return null;
+        }
+        Histogram timer = Canary.metrics().timer("canary_db_connection_acquire_seconds", "Time taken to get a Connection from the pool");
+        Canary.metrics().gauge("canary_db_pool_connections", "Connections held by the pool", new PoolGauge() {
+            @Override
+            int read(ComboPooledDataSource pool) throws SQLException {
+                return pool.getNumConnectionsDefaultUser();
+            }
+        });
+        Canary.metrics().gauge("canary_db_pool_busy_connections", "Connections checked out of the pool", new PoolGauge() {
+            @Override
+            int read(ComboPooledDataSource pool) throws SQLException {
+                return pool.getNumBusyConnectionsDefaultUser();
+            }
+        });
+        Canary.metrics().gauge("canary_db_pool_idle_connections", "Connections idle in the pool", new PoolGauge() {
+            @Override
+            int read(ComboPooledDataSource pool) throws SQLException {
+                return pool.getNumIdleConnectionsDefaultUser();
+            }
+        });
+        Canary.metrics().gauge("canary_db_pool_waiting_threads", "Threads waiting for a Connection from the pool", new PoolGauge() {
+            @Override
+            int read(ComboPooledDataSource pool) throws SQLException {
+                return pool.getNumThreadsAwaitingCheckoutDefaultUser();
+            }
+        });
+        acquireTimer = timer;
+        return timer;
+    }
+
     /**
      * Get the Database type.
      *
@@ -159,10 +202,10 @@ public class JdbcConnectionManager {
                     }
 //                    cman.sqliteConnection.close();
                 }
-                cman.sqliteConnection = cman.cpds.getConnection();
+                cman.sqliteConnection = cman.acquire();
                 return cman.sqliteConnection;
             }
-            return cman.cpds.getConnection();
+            return cman.acquire();
         }
         catch (SQLException e) {
             log.error("Couldn't get a Connection from pool!", e);
@@ -174,6 +217,22 @@ public class JdbcConnectionManager {
         }
     }
 
+    private Connection acquire() throws SQLException {
+        Histogram timer = acquireTimer;
+        if (timer == null) {
+            timer = registerMetrics();
+        }
+        long start = System.nanoTime();
+        try {
+            return cpds.getConnection();
+        }
+        finally {
+            if (timer != null) {
+                timer.record(System.nanoTime() - start);
+            }
+        }
+    }
+
     /**
      * Shut down the connection pool.
      * Should be called when the system is reloaded or goes down to prevent data loss.
@@ -194,4 +253,23 @@ public class JdbcConnectionManager {
         }
         instance = null;
     }
+
+    /** Reads a statistic of the current pool, 0 while there is no pool */
+    private static abstract class PoolGauge implements Gauge {
+        @Override
+        public double getValue() {
+            JdbcConnectionManager cman = instance;
+            if (cman == null) {
+                return 0;
+            }
+            try {
+                return read(cman.cpds);
+            }
+            catch (SQLException e) {
+                return Double.NaN;
+            }
+        }
+
+        abstract int read(ComboPooledDataSource pool) throws SQLException;
+    }
 }
@@ -0,0 +1,166 @@
+package net.canarymod.help;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Inverted index of the {@link HelpNode}s, mapping the words of their descriptions, their aliases and their keywords
+ * to the keys the nodes are registered with.<br>
+ * A search term matches every indexed word it is a prefix of, so a search costs O(log n + matches) rather than a scan of
+ * every node. The index is not thread-safe; the {@link HelpManager} guards it with its node map.
+ */
+final class HelpIndex {
+    private final TreeMap<String, TreeSet<String>> words = new TreeMap<String, TreeSet<String>>();
+    private final HashMap<String, TreeSet<String>> aliases = new HashMap<String, TreeSet<String>>();
+
+    /**
+     * Indexes a node
+     *
+     * @param key
+     *         the key the node is registered with
+     * @param node
+     *         the {@link HelpNode}
+     */
+    void add(String key, HelpNode node) {
+        for (String word : wordsOf(node)) {
+            put(words, word, key);
+        }
+        for (String alias : node.getAliases()) {
+            put(aliases, alias, key);
+        }
+    }
+
+    /**
+     * Removes a node from the index
+     *
+     * @param key
+     *         the key the node was registered with
+     * @param node
+     *         the {@link HelpNode}
+     */
+    void remove(String key, HelpNode node) {
+        for (String word : wordsOf(node)) {
+            take(words, word, key);
+        }
+        for (String alias : node.getAliases()) {
+            take(aliases, alias, key);
+        }
+    }
+
+    /** Empties the index */
+    void clear() {
+        words.clear();
+        aliases.clear();
+    }
+
+    /**
+     * Gets the first key, in key order, of the nodes having an alias
+     *
+     * @param alias
+     *         the alias, matched exactly
+     *
+     * @return the key, or {@code null} if no node has the alias
+     */
+    String keyOfAlias(String alias) {
+        TreeSet<String> keys = aliases.get(alias);
+        return keys == null ? null : keys.first();
+    }
+
+    /**
+     * Gets the keys of all nodes having an alias
+     *
+     * @param alias
+     *         the alias, matched exactly
+     *
+     * @return the keys, in key order
+     */
+    List<String> keysOfAlias(String alias) {
+        TreeSet<String> keys = aliases.get(alias);
+        return keys == null ? new ArrayList<String>(0) : new ArrayList<String>(keys);
+    }
+
+    /**
+     * Searches the index
+     *
+     * @param terms
+     *         the search terms; a node matches if any of them is the prefix of one of its words, regardless of case
+     *
+     * @return the keys of the matching nodes, in key order
+     */
+    Set<String> search(String[] terms) {
+        TreeSet<String> found = new TreeSet<String>();
+        for (String term : terms) {
+            String prefix = term.toLowerCase();
+            if (prefix.isEmpty()) {
+                continue;
+            }
+            SortedMap<String, TreeSet<String>> range = words.subMap(prefix, prefix + Character.MAX_VALUE);
+            for (TreeSet<String> keys : range.values()) {
+                found.addAll(keys);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets the number of distinct words indexed
+     *
+     * @return the word count
+     */
+    int size() {
+        return words.size();
+    }
+
+    private static Set<String> wordsOf(HelpNode node) {
+        HashSet<String> found = new HashSet<String>();
+        for (String alias : node.getAliases()) {
+            found.add(alias.toLowerCase());
+        }
+        if (node.getKeywords() != null) {
+            for (String keyword : node.getKeywords()) {
+                String word = keyword.trim().toLowerCase();
+                if (!word.isEmpty()) {
+                    found.add(word);
+                }
+            }
+        }
+        String description = node.getDescription();
+        if (description != null) {
+            int start = -1;
+            for (int index = 0; index <= description.length(); index++) {
+                boolean letter = index < description.length() && Character.isLetterOrDigit(description.charAt(index));
+                if (letter && start < 0) {
+                    start = index;
+                }
+                else if (!letter && start >= 0) {
+                    found.add(description.substring(start, index).toLowerCase());
+                    start = -1;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static void put(Map<String, TreeSet<String>> map, String word, String key) {
+        TreeSet<String> keys = map.get(word);
+        if (keys == null) {
+            keys = new TreeSet<String>();
+            map.put(word, keys);
+        }
+        keys.add(key);
+    }
+
+    private static void take(Map<String, TreeSet<String>> map, String word, String key) {
+        TreeSet<String> keys = map.get(word);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            map.remove(word);
+        }
+    }
+}
@@ -1,21 +1,34 @@
 package net.canarymod.help;
 
 import net.canarymod.Translator;
+import net.canarymod.api.PlayerReference;
 import net.canarymod.api.Server;
 import net.canarymod.api.entity.living.humanoid.Player;
 import net.canarymod.chat.ChatFormat;
 import net.canarymod.chat.MessageReceiver;
 import net.canarymod.commandsys.CanaryCommand;
 import net.canarymod.commandsys.CommandOwner;
+import net.canarymod.permissionsystem.PermissionProvider;
+import net.canarymod.user.Group;
+
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Help searches go through a {@link HelpIndex} of the nodes' words, and the permission filtered help lines are cached
+ * for a short while per permission fingerprint (groups, world and operator status), so that paging through help is a
+ * slice of a ready list. Players with permissions of their own get lines of their own.
+ *
  * @author Jos (Jarvix)
  * @author Chris (damagefilter)
  */
 public class HelpManager {
+    private static final long CACHE_MILLIS = 10000L;
+    private static final int CACHE_LIMIT = 256;
 
     private Map<String, HelpNode> nodes;
+    private final HelpIndex index = new HelpIndex();
+    private final ConcurrentHashMap<String, HelpLines> cache = new ConcurrentHashMap<String, HelpLines>();
     private int pageSize = 13;
 
     public HelpManager() {
@@ -38,7 +51,7 @@ public class HelpManager {
             return false;
         }
         synchronized (nodes) {
-            nodes.put(basename, new HelpNode(owner, command));
+            putNode(basename, new HelpNode(owner, command));
             return true;
         }
     }
@@ -48,7 +61,7 @@ public class HelpManager {
             return false;
         }
         synchronized (nodes) {
-            nodes.put(lookup, new HelpNode(owner, command));
+            putNode(lookup, new HelpNode(owner, command));
             return true;
         }
     }
@@ -81,13 +94,15 @@ public class HelpManager {
      */
     public void unregisterCommands(CommandOwner owner) {
         synchronized (nodes) {
-            Iterator<HelpNode> itr = nodes.values().iterator();
+            Iterator<Map.Entry<String, HelpNode>> itr = nodes.entrySet().iterator();
             while (itr.hasNext()) {
-                HelpNode node = itr.next();
-                if (node.getOwner() == owner) {
+                Map.Entry<String, HelpNode> entry = itr.next();
+                if (entry.getValue().getOwner() == owner) {
                     itr.remove();
+                    index.remove(entry.getKey(), entry.getValue());
                 }
             }
+            invalidate();
         }
     }
 
@@ -120,35 +135,7 @@ public class HelpManager {
      * @return
      */
     public List<String> getHelp(Player player, int page) {
-        List<String> lines = new ArrayList<String>();
-
-        if (page < 1) {
-            page = 1;
-        }
-        // Get all nodes
-        synchronized (nodes) {
-            for (HelpNode node : this.nodes.values()) {
-                if (node.canUse(player)) {
-                    addHelpContext(player, node, lines, false, true);
-                }
-            }
-        }
-        int pageNum = (int) Math.ceil((double) lines.size() / (double) pageSize);
-
-        if (page > pageNum) {
-            page = 1;
-        }
-        int amount = (page - 1) * pageSize;
-        // Header
-        ArrayList<String> out = new ArrayList<String>(2);
-        out.add(ChatFormat.AQUA + Translator.translateAndFormat("help title", page, pageNum));
-        for (int i = amount; i < (amount + pageSize); i++) {
-            if (lines.size() <= i) {
-                break;
-            }
-            out.add(lines.get(i));
-        }
-        return out;
+        return page(helpLines(player, null), page);
     }
 
     /**
@@ -162,46 +149,29 @@ public class HelpManager {
      * @return
      */
     public List<String> getHelp(Player player, String[] terms, int page) {
-        List<String> hits = new ArrayList<String>();
-        for (String key : nodes.keySet()) {
-            HelpNode node = nodes.get(key);
-            for (String word : terms) {
-                if (node.getDescription() != null) {
-                    if (node.getDescription().toLowerCase().contains(word.toLowerCase()) || node.hasAlias(word.toLowerCase())) {
-                        if (node.canUse(player)) {
-                            addHelpContext(player, node, hits, false, true);
-                        }
-                        break;
-                    }
-                }
-                if (node.getKeywords() != null) {
-                    for (String nodeTerm : node.getKeywords()) {
-                        if (nodeTerm.equalsIgnoreCase(word)) {
-                            if (node.canUse(player)) {
-                                addHelpContext(player, node, hits, false, true);
-                            }
-                            break;
-                        }
-                    }
-                }
-            }
-        }
-        ArrayList<String> lines = new ArrayList<String>();
+        return page(helpLines(player, terms), page);
+    }
 
-        int pageNum = (int) Math.ceil((double) hits.size() / (double) pageSize);
-        if (page > pageNum) {
-            page = 1;
-        }
-        int amount = (page - 1) * pageSize;
-        // Header
-        lines.add(ChatFormat.AQUA + Translator.translateAndFormat("help title", page, pageNum));
-        for (int i = amount; i < (amount + pageSize); i++) {
-            if (hits.size() <= i) {
-                break;
+    /** Drops the cached help lines, so they are built again with current permissions when next asked for */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * Drops the cached help lines of a player who has permissions of their own.<br>
+     * Players without permissions of their own share the help of their groups, which changes along with their groups.
+     *
+     * @param uuid
+     *         the UUID of the player
+     */
+    public void invalidate(String uuid) {
+        String prefix = "U" + uuid;
+        Iterator<String> itr = cache.keySet().iterator();
+        while (itr.hasNext()) {
+            if (itr.next().startsWith(prefix)) {
+                itr.remove();
             }
-            lines.add(hits.get(i));
         }
-        return lines;
     }
 
     /**
@@ -345,27 +315,154 @@ public class HelpManager {
             if (nodes.containsKey(name)) {
                 return nodes.get(name);
             }
-            for (HelpNode n : nodes.values()) {
-                if (n.hasAlias(name)) {
-                    return n;
-                }
-            }
-            return null;
+            String key = index.keyOfAlias(name);
+            return key == null ? null : nodes.get(key);
         }
     }
 
     private void removeCommand(String name) {
-        if (nodes.containsKey(name)) {
-            nodes.remove(name);
+        synchronized (nodes) {
+            HelpNode node = nodes.remove(name);
+            if (node != null) {
+                index.remove(name, node);
+            }
+            for (String key : index.keysOfAlias(name)) {
+                index.remove(key, nodes.remove(key));
+            }
+            invalidate();
+        }
+    }
+
+    private void putNode(String key, HelpNode node) {
+        HelpNode old = nodes.put(key, node);
+        if (old != null) {
+            index.remove(key, old);
         }
+        index.add(key, node);
+        invalidate();
+    }
+
+    /**
+     * Gets the help lines a caller may see, from the cache if possible
+     *
+     * @param caller
+     *         the caller
+     * @param terms
+     *         the search terms, or {@code null} for all help
+     *
+     * @return the help lines
+     */
+    private List<String> helpLines(MessageReceiver caller, String[] terms) {
+        String fingerprint = fingerprint(caller);
+        String key = null;
+        if (fingerprint != null) {
+            StringBuilder builder = new StringBuilder(fingerprint);
+            if (terms != null) {
+                builder.append('\u0001');
+                for (String term : terms) {
+                    builder.append('\u0000').append(term.toLowerCase());
+                }
+            }
+            key = builder.toString();
+            HelpLines cached = cache.get(key);
+            if (cached != null && cached.expires >= System.currentTimeMillis()) {
+                return cached.lines;
+            }
+        }
+
+        List<String> lines = new ArrayList<String>();
         synchronized (nodes) {
-            Iterator<HelpNode> itr = nodes.values().iterator();
-            while (itr.hasNext()) {
-                HelpNode n = itr.next();
-                if (n.hasAlias(name)) {
-                    itr.remove();
+            if (terms == null) {
+                for (HelpNode node : nodes.values()) {
+                    if (node.canUse(caller)) {
+                        addHelpContext(caller, node, lines, false, true);
+                    }
                 }
             }
+            else {
+                for (String found : index.search(terms)) {
+                    HelpNode node = nodes.get(found);
+                    if (node.canUse(caller)) {
+                        addHelpContext(caller, node, lines, false, true);
+                    }
+                }
+            }
+        }
+        if (key != null) {
+            if (cache.size() >= CACHE_LIMIT) {
+                cache.clear();
+            }
+            cache.put(key, new HelpLines(Collections.unmodifiableList(lines), System.currentTimeMillis() + CACHE_MILLIS));
+        }
+        return lines;
+    }
+
+    /**
+     * Slices a page out of help lines and puts the title in front
+     *
+     * @param lines
+     *         all help lines
+     * @param page
+     *         the page number, starting at 1
+     *
+     * @return the page
+     */
+    private List<String> page(List<String> lines, int page) {
+        if (page < 1) {
+            page = 1;
+        }
+        int pageNum = (int) Math.ceil((double) lines.size() / (double) pageSize);
+        if (page > pageNum) {
+            page = 1;
+        }
+        int amount = (page - 1) * pageSize;
+        ArrayList<String> out = new ArrayList<String>(pageSize + 1);
+        // Header
+        out.add(ChatFormat.AQUA + Translator.translateAndFormat("help title", page, pageNum));
+        out.addAll(lines.subList(Math.min(amount, lines.size()), Math.min(amount + pageSize, lines.size())));
+        return out;
+    }
+
+    /**
+     * Gets what decides which help a caller may see. Callers with the same fingerprint see the same help.
+     *
+     * @param caller
+     *         the caller
+     *
+     * @return the fingerprint, or {@code null} if the help of this caller should not be cached
+     */
+    private static String fingerprint(MessageReceiver caller) {
+        if (caller instanceof Server) {
+            return "S";
+        }
+        if (!(caller instanceof PlayerReference)) {
+            return null;
+        }
+        PlayerReference player = (PlayerReference) caller;
+        PermissionProvider provider = player.getPermissionProvider();
+        if (provider != null && !provider.getPermissionMap().isEmpty()) {
+            // Permissions of their own
+            return "U" + player.getUUIDString();
+        }
+        StringBuilder fingerprint = new StringBuilder("G");
+        fingerprint.append(player.isOperator() ? '*' : '-');
+        if (provider != null) {
+            fingerprint.append(provider.getWorld());
+        }
+        for (Group group : player.getPlayerGroups()) {
+            fingerprint.append('\u0000').append(group.getName());
+        }
+        return fingerprint.toString();
+    }
+
+    /** Help lines and when they expire */
+    private static final class HelpLines {
+        final List<String> lines;
+        final long expires;
+
+        HelpLines(List<String> lines, long expires) {
+            this.lines = lines;
+            this.expires = expires;
         }
     }
 }
@@ -45,6 +45,15 @@ public class HelpNode {
         return command.meta.aliases()[0];
     }
 
+    /**
+     * Gets all aliases for this command
+     *
+     * @return
+     */
+    public String[] getAliases() {
+        return command.meta.aliases();
+    }
+
     /**
      * Returns a coloured string that displays all command aliases in the specified color
      *
@@ -1,16 +1,24 @@
 package net.canarymod.hook;
 
 import com.google.common.collect.ArrayListMultimap;
+import net.canarymod.Canary;
 import net.canarymod.ToolBox;
+import net.canarymod.hook.system.ServerTickHook;
+import net.canarymod.metrics.Counter;
+import net.canarymod.metrics.Histogram;
 import net.canarymod.plugin.Plugin;
 import net.canarymod.plugin.PluginListener;
 import net.canarymod.plugin.Priority;
 import net.canarymod.plugin.RegisteredPluginListener;
+import net.canarymod.profiler.ProfilerSection;
+import net.canarymod.profiler.TickProfiler;
+import net.canarymod.util.MethodInvoker;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static net.canarymod.Canary.log;
 
@@ -24,6 +32,8 @@ import static net.canarymod.Canary.log;
 public class HookExecutor implements HookExecutorInterface {
     private final PluginComparator listener_comp = new PluginComparator();
     final ArrayListMultimap<Class<? extends Hook>, RegisteredPluginListener> listeners = ArrayListMultimap.create();
+    private final ConcurrentHashMap<Class<? extends Hook>, Histogram> dispatchTimers = new ConcurrentHashMap<Class<? extends Hook>, Histogram>();
+    private Counter errorCounter;
 
     /**
      * Register a {@link PluginListener} for a system hook
@@ -51,12 +61,13 @@ public class HookExecutor implements HookExecutorInterface {
                 throw new HookConsistencyException("Hook is not assignable from " + hookCls.getName());
             }
 
+            final MethodInvoker invoker = MethodInvoker.forMethod(method);
             Dispatcher dispatcher = new Dispatcher() {
 
                 @Override
                 public void execute(PluginListener listener, Hook hook) {
                     try {
-                        method.invoke(listener, hook);
+                        invoker.invoke(listener, hook, null);
                     } catch (Exception ex) {
                         throw new HookExecutionException(ex.getMessage(), ex);
                     }
@@ -113,19 +124,48 @@ public class HookExecutor implements HookExecutorInterface {
             return;
         }
         hook.hasExecuted();
+        TickProfiler profiler = Canary.profiler();
+        if (hook instanceof ServerTickHook) {
+            profiler.tickStarted();
+        }
+        else if (Canary.commands() != null) {
+            Canary.commands().getTabCompleteEngine().hookCalled(hook);
+        }
         if (!this.listeners.containsKey(hook.getClass())) {
             return;
         }
+        long dispatchStart = System.nanoTime();
         Iterator<RegisteredPluginListener> iter = this.listeners.get(hook.getClass()).iterator();
         while (iter.hasNext()) {
             RegisteredPluginListener listener = iter.next();
+            long start = profiler.begin();
             try {
                 listener.execute(hook);
             } catch (HookExecutionException hexex) {
+                errorCounter().increment();
                 log.error("Exception while executing Hook: " + hook.getHookName() + " in PluginListener: " +
                         listener.getListener().getClass().getSimpleName() + " (Plugin: " + listener.getPlugin().getName() + ")", hexex.getCause());
+            } finally {
+                profiler.end(ProfilerSection.HOOKS, start, listener.getPlugin(), hook.getClass());
             }
         }
+        dispatchTimer(hook.getClass()).record(System.nanoTime() - dispatchStart);
+    }
+
+    private Histogram dispatchTimer(Class<? extends Hook> hookCls) {
+        Histogram timer = dispatchTimers.get(hookCls);
+        if (timer == null) {
+            timer = Canary.metrics().timer("canary_hook_dispatch_seconds", "Time taken to pass a Hook to all its listeners", "hook", hookCls.getSimpleName());
+            dispatchTimers.put(hookCls, timer);
+        }
+        return timer;
+    }
+
+    private Counter errorCounter() {
+        if (errorCounter == null) {
+            errorCounter = Canary.metrics().counter("canary_hook_errors_total", "Exceptions thrown by hook listeners");
+        }
+        return errorCounter;
     }
 
     class PluginComparator implements Comparator<RegisteredPluginListener> {
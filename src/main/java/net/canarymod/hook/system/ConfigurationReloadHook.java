@@ -0,0 +1,45 @@
+package net.canarymod.hook.system;
+
+import net.canarymod.config.ConfigurationContainer;
+import net.canarymod.hook.Hook;
+
+import java.util.Set;
+
+/**
+ * Called when a configuration has been reloaded and some of its values changed,
+ * either by the reload command or because the file was changed on disk.
+ * <p/>
+ * NOTE: Reloads of changed files happen on the configuration watcher thread, not the server thread.
+ */
+public class ConfigurationReloadHook extends Hook {
+
+    private ConfigurationContainer configuration;
+    private Set<String> changedKeys;
+
+    public ConfigurationReloadHook(ConfigurationContainer configuration, Set<String> changedKeys) {
+        this.configuration = configuration;
+        this.changedKeys = changedKeys;
+    }
+
+    /**
+     * Gets the configuration that was reloaded
+     *
+     * @return the {@link ConfigurationContainer}
+     */
+    public ConfigurationContainer getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Gets the keys whose values changed, were added or were removed
+     *
+     * @return the changed keys
+     */
+    public Set<String> getChangedKeys() {
+        return changedKeys;
+    }
+
+    public final String toString() {
+        return String.format("%s[Configuration=%s, Changed=%s]", getHookName(), configuration.getFile().getFilePath(), changedKeys);
+    }
+}
@@ -7,13 +7,20 @@ import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * CanaryMod Log manager.
  * <p/>
  * You can get an appropriate logger for your plugin here.
+ * <p/>
+ * Messages logged with the {@link #PLUGINDEBUG} and {@link #NOTICE} markers can be written on a thread of their own,
+ * so that plugins logging heavily don't hold up the server thread on console output. See {@link #setAsync(boolean)}.
  *
  * @author Chris (damagefilter)
  * @author Jos Kuijpers
@@ -24,6 +31,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class Logman implements Logger {
     private final static ConcurrentHashMap<String, Logman> loggers = new ConcurrentHashMap<String, Logman>();
     private final Logger logger;
+    private static volatile boolean async;
 
     public static final Marker NOTICE = MarkerManager.getMarker("NOTICE");
     public static final Marker MESSAGE = MarkerManager.getMarker("MESSAGE");
@@ -35,6 +43,11 @@ public class Logman implements Logger {
         loggers.putIfAbsent(name, this);
     }
 
+    /** Wraps a {@link Logger} without registering it under a name */
+    Logman(Logger logger) {
+        this.logger = logger;
+    }
+
     /**
      * Get a Logman for the name given
      *
@@ -44,7 +57,53 @@ public class Logman implements Logger {
      * @return the Logman instance
      */
     public static Logman getLogman(String name) {
-        return loggers.containsKey(name) ? loggers.get(name) : new Logman(name);
+        Logman logman = loggers.get(name);
+        if (logman != null) {
+            return logman;
+        }
+        Logman created = new Logman(name);
+        Logman registered = loggers.putIfAbsent(name, created);
+        return registered != null ? registered : created; // Another thread may have registered one first
+    }
+
+    /**
+     * Sets whether messages with the {@link #PLUGINDEBUG} and {@link #NOTICE} markers are handed to a writer thread
+     * rather than being logged on the calling thread.<br>
+     * Messages wait in a bounded ring buffer; when it is full, they are logged on the calling thread as usual.
+     * Parameterized messages are formatted on the writer thread, so parameters should not be changed after they are logged.
+     *
+     * @param async
+     *         {@code true} to log those markers asynchronously; {@code false} to log everything on the calling thread
+     */
+    public static void setAsync(boolean async) {
+        if (async) {
+            AsyncWriter.start();
+        }
+        Logman.async = async;
+    }
+
+    /**
+     * Checks whether messages with the {@link #PLUGINDEBUG} and {@link #NOTICE} markers are logged asynchronously
+     *
+     * @return {@code true} if asynchronous; {@code false} if not
+     */
+    public static boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Waits until the messages handed to the writer thread so far have been written
+     */
+    public static void flush() {
+        AsyncWriter.flush();
+    }
+
+    private boolean deferred(Level level, Marker marker, Object message, Object[] params, Throwable t) {
+        if (!async || (marker != PLUGINDEBUG && marker != NOTICE)) {
+            return false;
+        }
+        // Disabled messages are dropped here rather than queued
+        return !logger.isEnabled(level, marker) || AsyncWriter.offer(new AsyncEntry(logger, level, marker, message, params, t));
     }
 
     /**
@@ -90,7 +149,9 @@ public class Logman implements Logger {
      */
     @Override
     public void debug(Marker marker, Message msg) {
-        logger.debug(marker, msg);
+        if (!deferred(Level.DEBUG, marker, msg, null, null)) {
+            logger.debug(marker, msg);
+        }
     }
 
     /**
@@ -98,7 +159,9 @@ public class Logman implements Logger {
      */
     @Override
     public void debug(Marker marker, Message msg, Throwable t) {
-        logger.debug(marker, msg, t);
+        if (!deferred(Level.DEBUG, marker, msg, null, t)) {
+            logger.debug(marker, msg, t);
+        }
     }
 
     /**
@@ -106,7 +169,9 @@ public class Logman implements Logger {
      */
     @Override
     public void debug(Marker marker, Object message) {
-        logger.debug(marker, message);
+        if (!deferred(Level.DEBUG, marker, message, null, null)) {
+            logger.debug(marker, message);
+        }
     }
 
     /**
@@ -114,7 +179,9 @@ public class Logman implements Logger {
      */
     @Override
     public void debug(Marker marker, Object message, Throwable t) {
-        logger.debug(marker, message, t);
+        if (!deferred(Level.DEBUG, marker, message, null, t)) {
+            logger.debug(marker, message, t);
+        }
     }
 
     /**
@@ -122,7 +189,9 @@ public class Logman implements Logger {
      */
     @Override
     public void debug(Marker marker, String message) {
-        logger.debug(marker, message);
+        if (!deferred(Level.DEBUG, marker, message, null, null)) {
+            logger.debug(marker, message);
+        }
     }
 
     /**
@@ -130,7 +199,9 @@ public class Logman implements Logger {
      */
     @Override
     public void debug(Marker marker, String message, Object... params) {
-        logger.debug(marker, message, params);
+        if (!deferred(Level.DEBUG, marker, message, params, null)) {
+            logger.debug(marker, message, params);
+        }
     }
 
     /**
@@ -138,7 +209,9 @@ public class Logman implements Logger {
      */
     @Override
     public void debug(Marker marker, String message, Throwable t) {
-        logger.debug(marker, message, t);
+        if (!deferred(Level.DEBUG, marker, message, null, t)) {
+            logger.debug(marker, message, t);
+        }
     }
 
     /**
@@ -218,7 +291,9 @@ public class Logman implements Logger {
      */
     @Override
     public void error(Marker marker, Message msg) {
-        logger.error(marker, msg);
+        if (!deferred(Level.ERROR, marker, msg, null, null)) {
+            logger.error(marker, msg);
+        }
     }
 
     /**
@@ -226,7 +301,9 @@ public class Logman implements Logger {
      */
     @Override
     public void error(Marker marker, Message msg, Throwable t) {
-        logger.error(marker, msg, t);
+        if (!deferred(Level.ERROR, marker, msg, null, t)) {
+            logger.error(marker, msg, t);
+        }
     }
 
     /**
@@ -234,7 +311,9 @@ public class Logman implements Logger {
      */
     @Override
     public void error(Marker marker, Object message) {
-        logger.error(marker, message);
+        if (!deferred(Level.ERROR, marker, message, null, null)) {
+            logger.error(marker, message);
+        }
     }
 
     /**
@@ -242,7 +321,9 @@ public class Logman implements Logger {
      */
     @Override
     public void error(Marker marker, Object message, Throwable t) {
-        logger.error(marker, message, t);
+        if (!deferred(Level.ERROR, marker, message, null, t)) {
+            logger.error(marker, message, t);
+        }
     }
 
     /**
@@ -250,7 +331,9 @@ public class Logman implements Logger {
      */
     @Override
     public void error(Marker marker, String message) {
-        logger.error(marker, message);
+        if (!deferred(Level.ERROR, marker, message, null, null)) {
+            logger.error(marker, message);
+        }
     }
 
     /**
@@ -258,7 +341,9 @@ public class Logman implements Logger {
      */
     @Override
     public void error(Marker marker, String message, Object... params) {
-        logger.error(marker, message, params);
+        if (!deferred(Level.ERROR, marker, message, params, null)) {
+            logger.error(marker, message, params);
+        }
     }
 
     /**
@@ -266,7 +351,9 @@ public class Logman implements Logger {
      */
     @Override
     public void error(Marker marker, String message, Throwable t) {
-        logger.error(marker, message, t);
+        if (!deferred(Level.ERROR, marker, message, null, t)) {
+            logger.error(marker, message, t);
+        }
     }
 
     /**
@@ -346,7 +433,9 @@ public class Logman implements Logger {
      */
     @Override
     public void fatal(Marker marker, Message msg) {
-        logger.fatal(marker, msg);
+        if (!deferred(Level.FATAL, marker, msg, null, null)) {
+            logger.fatal(marker, msg);
+        }
     }
 
     /**
@@ -354,7 +443,9 @@ public class Logman implements Logger {
      */
     @Override
     public void fatal(Marker marker, Message msg, Throwable t) {
-        logger.fatal(marker, msg, t);
+        if (!deferred(Level.FATAL, marker, msg, null, t)) {
+            logger.fatal(marker, msg, t);
+        }
     }
 
     /**
@@ -362,7 +453,9 @@ public class Logman implements Logger {
      */
     @Override
     public void fatal(Marker marker, Object message) {
-        logger.fatal(marker, message);
+        if (!deferred(Level.FATAL, marker, message, null, null)) {
+            logger.fatal(marker, message);
+        }
     }
 
     /**
@@ -370,7 +463,9 @@ public class Logman implements Logger {
      */
     @Override
     public void fatal(Marker marker, Object message, Throwable t) {
-        logger.fatal(marker, message, t);
+        if (!deferred(Level.FATAL, marker, message, null, t)) {
+            logger.fatal(marker, message, t);
+        }
     }
 
     /**
@@ -378,7 +473,9 @@ public class Logman implements Logger {
      */
     @Override
     public void fatal(Marker marker, String message) {
-        logger.fatal(marker, message);
+        if (!deferred(Level.FATAL, marker, message, null, null)) {
+            logger.fatal(marker, message);
+        }
     }
 
     /**
@@ -386,7 +483,9 @@ public class Logman implements Logger {
      */
     @Override
     public void fatal(Marker marker, String message, Object... params) {
-        logger.fatal(marker, message, params);
+        if (!deferred(Level.FATAL, marker, message, params, null)) {
+            logger.fatal(marker, message, params);
+        }
     }
 
     /**
@@ -394,7 +493,9 @@ public class Logman implements Logger {
      */
     @Override
     public void fatal(Marker marker, String message, Throwable t) {
-        logger.fatal(marker, message, t);
+        if (!deferred(Level.FATAL, marker, message, null, t)) {
+            logger.fatal(marker, message, t);
+        }
     }
 
     /**
@@ -474,7 +575,9 @@ public class Logman implements Logger {
      */
     @Override
     public void info(Marker marker, Message msg) {
-        logger.info(marker, msg);
+        if (!deferred(Level.INFO, marker, msg, null, null)) {
+            logger.info(marker, msg);
+        }
     }
 
     /**
@@ -482,7 +585,9 @@ public class Logman implements Logger {
      */
     @Override
     public void info(Marker marker, Message msg, Throwable t) {
-        logger.info(marker, msg, t);
+        if (!deferred(Level.INFO, marker, msg, null, t)) {
+            logger.info(marker, msg, t);
+        }
     }
 
     /**
@@ -490,7 +595,9 @@ public class Logman implements Logger {
      */
     @Override
     public void info(Marker marker, Object message) {
-        logger.info(marker, message);
+        if (!deferred(Level.INFO, marker, message, null, null)) {
+            logger.info(marker, message);
+        }
     }
 
     /**
@@ -498,7 +605,9 @@ public class Logman implements Logger {
      */
     @Override
     public void info(Marker marker, Object message, Throwable t) {
-        logger.info(marker, message, t);
+        if (!deferred(Level.INFO, marker, message, null, t)) {
+            logger.info(marker, message, t);
+        }
     }
 
     /**
@@ -506,7 +615,9 @@ public class Logman implements Logger {
      */
     @Override
     public void info(Marker marker, String message) {
-        logger.info(marker, message);
+        if (!deferred(Level.INFO, marker, message, null, null)) {
+            logger.info(marker, message);
+        }
     }
 
     /**
@@ -514,7 +625,9 @@ public class Logman implements Logger {
      */
     @Override
     public void info(Marker marker, String message, Object... params) {
-        logger.info(marker, message, params);
+        if (!deferred(Level.INFO, marker, message, params, null)) {
+            logger.info(marker, message, params);
+        }
     }
 
     /**
@@ -522,7 +635,9 @@ public class Logman implements Logger {
      */
     @Override
     public void info(Marker marker, String message, Throwable t) {
-        logger.info(marker, message, t);
+        if (!deferred(Level.INFO, marker, message, null, t)) {
+            logger.info(marker, message, t);
+        }
     }
 
     /**
@@ -698,7 +813,9 @@ public class Logman implements Logger {
      */
     @Override
     public void log(Level level, Marker marker, Message msg) {
-        logger.log(level, marker, msg);
+        if (!deferred(level, marker, msg, null, null)) {
+            logger.log(level, marker, msg);
+        }
     }
 
     /**
@@ -706,7 +823,9 @@ public class Logman implements Logger {
      */
     @Override
     public void log(Level level, Marker marker, Message msg, Throwable t) {
-        logger.log(level, marker, msg, t);
+        if (!deferred(level, marker, msg, null, t)) {
+            logger.log(level, marker, msg, t);
+        }
     }
 
     /**
@@ -714,7 +833,9 @@ public class Logman implements Logger {
      */
     @Override
     public void log(Level level, Marker marker, Object message) {
-        logger.log(level, marker, message);
+        if (!deferred(level, marker, message, null, null)) {
+            logger.log(level, marker, message);
+        }
     }
 
     /**
@@ -722,7 +843,9 @@ public class Logman implements Logger {
      */
     @Override
     public void log(Level level, Marker marker, Object message, Throwable t) {
-        logger.log(level, marker, message, t);
+        if (!deferred(level, marker, message, null, t)) {
+            logger.log(level, marker, message, t);
+        }
     }
 
     /**
@@ -730,7 +853,9 @@ public class Logman implements Logger {
      */
     @Override
     public void log(Level level, Marker marker, String message) {
-        logger.log(level, marker, message);
+        if (!deferred(level, marker, message, null, null)) {
+            logger.log(level, marker, message);
+        }
     }
 
     /**
@@ -738,7 +863,9 @@ public class Logman implements Logger {
      */
     @Override
     public void log(Level level, Marker marker, String message, Object... params) {
-        logger.log(level, marker, message, params);
+        if (!deferred(level, marker, message, params, null)) {
+            logger.log(level, marker, message, params);
+        }
     }
 
     /**
@@ -746,7 +873,9 @@ public class Logman implements Logger {
      */
     @Override
     public void log(Level level, Marker marker, String message, Throwable t) {
-        logger.log(level, marker, message, t);
+        if (!deferred(level, marker, message, null, t)) {
+            logger.log(level, marker, message, t);
+        }
     }
 
     /**
@@ -843,7 +972,9 @@ public class Logman implements Logger {
      */
     @Override
     public void trace(Marker marker, Message msg) {
-        logger.trace(marker, msg);
+        if (!deferred(Level.TRACE, marker, msg, null, null)) {
+            logger.trace(marker, msg);
+        }
     }
 
     /**
@@ -851,7 +982,9 @@ public class Logman implements Logger {
      */
     @Override
     public void trace(Marker marker, Message msg, Throwable t) {
-        logger.trace(marker, msg, t);
+        if (!deferred(Level.TRACE, marker, msg, null, t)) {
+            logger.trace(marker, msg, t);
+        }
     }
 
     /**
@@ -859,7 +992,9 @@ public class Logman implements Logger {
      */
     @Override
     public void trace(Marker marker, Object message) {
-        logger.trace(marker, message);
+        if (!deferred(Level.TRACE, marker, message, null, null)) {
+            logger.trace(marker, message);
+        }
     }
 
     /**
@@ -867,7 +1002,9 @@ public class Logman implements Logger {
      */
     @Override
     public void trace(Marker marker, Object message, Throwable t) {
-        logger.trace(marker, message, t);
+        if (!deferred(Level.TRACE, marker, message, null, t)) {
+            logger.trace(marker, message, t);
+        }
     }
 
     /**
@@ -875,7 +1012,9 @@ public class Logman implements Logger {
      */
     @Override
     public void trace(Marker marker, String message) {
-        logger.trace(marker, message);
+        if (!deferred(Level.TRACE, marker, message, null, null)) {
+            logger.trace(marker, message);
+        }
     }
 
     /**
@@ -883,7 +1022,9 @@ public class Logman implements Logger {
      */
     @Override
     public void trace(Marker marker, String message, Object... params) {
-        logger.trace(marker, message, params);
+        if (!deferred(Level.TRACE, marker, message, params, null)) {
+            logger.trace(marker, message, params);
+        }
     }
 
     /**
@@ -891,7 +1032,9 @@ public class Logman implements Logger {
      */
     @Override
     public void trace(Marker marker, String message, Throwable t) {
-        logger.trace(marker, message, t);
+        if (!deferred(Level.TRACE, marker, message, null, t)) {
+            logger.trace(marker, message, t);
+        }
     }
 
     /**
@@ -955,7 +1098,9 @@ public class Logman implements Logger {
      */
     @Override
     public void warn(Marker marker, Message msg) {
-        logger.warn(marker, msg);
+        if (!deferred(Level.WARN, marker, msg, null, null)) {
+            logger.warn(marker, msg);
+        }
     }
 
     /**
@@ -963,7 +1108,9 @@ public class Logman implements Logger {
      */
     @Override
     public void warn(Marker marker, Message msg, Throwable t) {
-        logger.warn(marker, msg, t);
+        if (!deferred(Level.WARN, marker, msg, null, t)) {
+            logger.warn(marker, msg, t);
+        }
     }
 
     /**
@@ -971,7 +1118,9 @@ public class Logman implements Logger {
      */
     @Override
     public void warn(Marker marker, Object message) {
-        logger.warn(marker, message);
+        if (!deferred(Level.WARN, marker, message, null, null)) {
+            logger.warn(marker, message);
+        }
     }
 
     /**
@@ -979,7 +1128,9 @@ public class Logman implements Logger {
      */
     @Override
     public void warn(Marker marker, Object message, Throwable t) {
-        logger.warn(marker, message, t);
+        if (!deferred(Level.WARN, marker, message, null, t)) {
+            logger.warn(marker, message, t);
+        }
     }
 
     /**
@@ -987,7 +1138,9 @@ public class Logman implements Logger {
      */
     @Override
     public void warn(Marker marker, String message) {
-        logger.warn(marker, message);
+        if (!deferred(Level.WARN, marker, message, null, null)) {
+            logger.warn(marker, message);
+        }
     }
 
     /**
@@ -995,7 +1148,9 @@ public class Logman implements Logger {
      */
     @Override
     public void warn(Marker marker, String message, Object... params) {
-        logger.warn(marker, message, params);
+        if (!deferred(Level.WARN, marker, message, params, null)) {
+            logger.warn(marker, message, params);
+        }
     }
 
     /**
@@ -1003,7 +1158,9 @@ public class Logman implements Logger {
      */
     @Override
     public void warn(Marker marker, String message, Throwable t) {
-        logger.warn(marker, message, t);
+        if (!deferred(Level.WARN, marker, message, null, t)) {
+            logger.warn(marker, message, t);
+        }
     }
 
     /**
@@ -1062,4 +1219,187 @@ public class Logman implements Logger {
         logger.warn(message, t);
     }
 
+    /**
+     * Logs a message with one parameter at the debug level, without creating the parameter array unless the level is enabled
+     *
+     * @param message
+     *         the message pattern, with {} where the parameter goes
+     * @param p0
+     *         the parameter
+     */
+    public void debug(String message, Object p0) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(message, p0);
+        }
+    }
+
+    /**
+     * Logs a message with two parameters at the debug level, without creating the parameter array unless the level is enabled
+     *
+     * @param message
+     *         the message pattern, with {} where the parameters go
+     * @param p0
+     *         the first parameter
+     * @param p1
+     *         the second parameter
+     */
+    public void debug(String message, Object p0, Object p1) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(message, p0, p1);
+        }
+    }
+
+    /**
+     * Logs a message with one parameter at the trace level, without creating the parameter array unless the level is enabled
+     *
+     * @param message
+     *         the message pattern, with {} where the parameter goes
+     * @param p0
+     *         the parameter
+     */
+    public void trace(String message, Object p0) {
+        if (logger.isTraceEnabled()) {
+            logger.trace(message, p0);
+        }
+    }
+
+    /**
+     * Logs a message with two parameters at the trace level, without creating the parameter array unless the level is enabled
+     *
+     * @param message
+     *         the message pattern, with {} where the parameters go
+     * @param p0
+     *         the first parameter
+     * @param p1
+     *         the second parameter
+     */
+    public void trace(String message, Object p0, Object p1) {
+        if (logger.isTraceEnabled()) {
+            logger.trace(message, p0, p1);
+        }
+    }
+
+    /**
+     * A message waiting for the {@link AsyncWriter}
+     */
+    private static final class AsyncEntry {
+        private final Logger logger;
+        private final Level level;
+        private final Marker marker;
+        private final Object message;
+        private final Object[] params;
+        private final Throwable thrown;
+        private final CountDownLatch flushed; // only for the entries marking a flush
+
+        AsyncEntry(Logger logger, Level level, Marker marker, Object message, Object[] params, Throwable thrown) {
+            this.logger = logger;
+            this.level = level;
+            this.marker = marker;
+            this.message = message;
+            this.params = params != null ? params.clone() : null; // The caller may reuse the array
+            this.thrown = thrown;
+            this.flushed = null;
+        }
+
+        AsyncEntry(CountDownLatch flushed) {
+            this.logger = null;
+            this.level = null;
+            this.marker = null;
+            this.message = null;
+            this.params = null;
+            this.thrown = null;
+            this.flushed = flushed;
+        }
+
+        void log() {
+            if (flushed != null) {
+                flushed.countDown();
+            }
+            else if (params != null) {
+                // Formatted here rather than on the thread that logged it
+                ParameterizedMessage parameterized = new ParameterizedMessage(String.valueOf(message), params);
+                logger.log(level, marker, parameterized, parameterized.getThrowable());
+            }
+            else if (message instanceof Message) {
+                logger.log(level, marker, (Message) message, thrown);
+            }
+            else if (message instanceof String) {
+                logger.log(level, marker, (String) message, thrown);
+            }
+            else {
+                logger.log(level, marker, message, thrown);
+            }
+        }
+    }
+
+    /**
+     * Writes queued messages on a thread of its own
+     */
+    private static final class AsyncWriter implements Runnable {
+        private static final BlockingQueue<AsyncEntry> queue = new ArrayBlockingQueue<AsyncEntry>(4096);
+        private static volatile Thread thread;
+
+        static synchronized void start() {
+            if (thread != null) {
+                return;
+            }
+            thread = new Thread(new AsyncWriter(), "Canary Log Writer");
+            thread.setDaemon(true);
+            thread.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    drain();
+                }
+            }, "Canary Log Flush"));
+        }
+
+        static boolean offer(AsyncEntry entry) {
+            return queue.offer(entry);
+        }
+
+        static void drain() {
+            AsyncEntry entry;
+            while ((entry = queue.poll()) != null) {
+                entry.log();
+            }
+        }
+
+        static void flush() {
+            if (thread == null) {
+                drain();
+                return;
+            }
+            // The queue is written in order, so once the writer reaches this entry everything before it is written
+            CountDownLatch flushed = new CountDownLatch(1);
+            AsyncEntry marker = new AsyncEntry(flushed);
+            while (!queue.offer(marker)) {
+                AsyncEntry entry = queue.poll(); // Full; help write it out
+                if (entry != null) {
+                    entry.log();
+                }
+            }
+            try {
+                flushed.await();
+            }
+            catch (InterruptedException iex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    queue.take().log();
+                }
+                catch (InterruptedException iex) {
+                    return;
+                }
+                catch (Throwable thrown) {
+                    // A failing appender shouldn't stop the writer
+                }
+            }
+        }
+    }
 }
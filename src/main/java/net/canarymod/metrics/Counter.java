@@ -0,0 +1,52 @@
+package net.canarymod.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Metric} counting events. The count only ever goes up.
+ *
+ * @see MetricsRegistry#counter(String, String, String...)
+ */
+public final class Counter extends Metric {
+    private final AtomicLong count = new AtomicLong();
+
+    Counter(String name, String help, String[] labels) {
+        super(name, help, labels);
+    }
+
+    /** Adds one to the count */
+    public void increment() {
+        count.incrementAndGet();
+    }
+
+    /**
+     * Adds to the count
+     *
+     * @param amount
+     *         the amount to add; negative amounts are ignored
+     */
+    public void increment(long amount) {
+        if (amount > 0) {
+            count.addAndGet(amount);
+        }
+    }
+
+    /**
+     * Gets the count
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public MetricType getType() {
+        return MetricType.COUNTER;
+    }
+
+    @Override
+    public double getValue() {
+        return count.get();
+    }
+}
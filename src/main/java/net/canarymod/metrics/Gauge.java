@@ -0,0 +1,15 @@
+package net.canarymod.metrics;
+
+/**
+ * Supplies the current value of a gauge registered with the {@link MetricsRegistry}.<br>
+ * The value is read whenever metrics are exported, which can happen on any thread.
+ */
+public interface Gauge {
+
+    /**
+     * Gets the current value
+     *
+     * @return the value
+     */
+    double getValue();
+}
@@ -0,0 +1,42 @@
+package net.canarymod.metrics;
+
+import static net.canarymod.Canary.log;
+
+/**
+ * A {@link Metric} wrapping a registered {@link Gauge}
+ *
+ * @see MetricsRegistry#gauge(String, String, Gauge, String...)
+ */
+public final class GaugeMetric extends Metric {
+    private final Gauge gauge;
+
+    GaugeMetric(String name, String help, Gauge gauge, String[] labels) {
+        super(name, help, labels);
+        this.gauge = gauge;
+    }
+
+    /**
+     * Gets the {@link Gauge} supplying the value
+     *
+     * @return the gauge
+     */
+    public Gauge getGauge() {
+        return gauge;
+    }
+
+    @Override
+    public MetricType getType() {
+        return MetricType.GAUGE;
+    }
+
+    @Override
+    public double getValue() {
+        try {
+            return gauge.getValue();
+        }
+        catch (Throwable thrown) {
+            log.debug("Failed to read gauge " + getId(), thrown);
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package net.canarymod.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link Metric} recording the distribution of values, such as durations in nanoseconds.
+ * <p/>
+ * Values are counted into log-linear buckets: every power of two is split into 8 equal sub-buckets,
+ * so percentiles are accurate to within 12.5% over the whole range of long, using a fixed 4KB of counters.<br>
+ * Recording is lock-free and may be done from any thread.
+ *
+ * @see MetricsRegistry#histogram(String, String, String...)
+ * @see MetricsRegistry#timer(String, String, String...)
+ */
+public final class Histogram extends Metric {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (63 - SUB_BITS + 1) * SUB_BUCKETS; // Up to Long.MAX_VALUE
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final double scale;
+
+    /**
+     * Constructs a standalone Histogram that is not part of a {@link MetricsRegistry}
+     *
+     * @param name
+     *         the name of the histogram
+     */
+    public Histogram(String name) {
+        this(name, "", 1.0D, new String[0]);
+    }
+
+    Histogram(String name, String help, double scale, String[] labels) {
+        super(name, help, labels);
+        this.scale = scale;
+    }
+
+    /**
+     * Records a value
+     *
+     * @param value
+     *         the value; negative values are recorded as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Lost the race, try again
+        }
+    }
+
+    /**
+     * Gets the number of recorded values
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the sum of the recorded values
+     *
+     * @return the sum
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values
+     *
+     * @return the mean, 0 if nothing has been recorded
+     */
+    public long getMean() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : sum.get() / recorded;
+    }
+
+    /**
+     * Gets the largest recorded value
+     *
+     * @return the maximum
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the upper bound of the bucket containing the given percentile
+     *
+     * @param percentile
+     *         the percentile (0 - 100)
+     *
+     * @return the percentile value, 0 if nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long recorded = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            counts[index] = buckets.get(index);
+            recorded += counts[index];
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long target = Math.max((long) Math.ceil(recorded * Math.min(Math.max(percentile, 0), 100) / 100.0D), 1);
+        long seen = 0;
+        long highest = max.get();
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts[index];
+            if (seen >= target) {
+                return Math.min(upperBound(index), highest);
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Gets the factor applied to recorded values when exported, such as 1e-9 for nanoseconds exported as seconds
+     *
+     * @return the export scale
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /** Clears all recorded values */
+    public void reset() {
+        for (int index = 0; index < BUCKETS; index++) {
+            buckets.set(index, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public MetricType getType() {
+        return MetricType.HISTOGRAM;
+    }
+
+    @Override
+    public double getValue() {
+        return count.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        return (1L << exponent) + (sub + 1) * (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,158 @@
+package net.canarymod.metrics;
+
+/**
+ * Base of all metrics held by the {@link MetricsRegistry}.<br>
+ * A metric is identified by its name and its labels, given as alternating key and value.
+ */
+public abstract class Metric {
+    private final String name;
+    private final String help;
+    private final String[] labels;
+    private final String id;
+
+    Metric(String name, String help, String[] labels) {
+        this.name = name;
+        this.help = help == null ? "" : help;
+        this.labels = labels.clone();
+        this.id = idOf(checkName(name), labels);
+    }
+
+    /**
+     * Gets the name of the metric
+     *
+     * @return the name
+     */
+    public final String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the description of the metric
+     *
+     * @return the help text
+     */
+    public final String getHelp() {
+        return help;
+    }
+
+    /**
+     * Gets the labels of the metric as alternating key and value
+     *
+     * @return the labels
+     */
+    public final String[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * Gets the unique id of the metric; the name followed by the labels in Prometheus notation
+     *
+     * @return the id
+     */
+    public final String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the {@link MetricType}
+     *
+     * @return the type
+     */
+    public abstract MetricType getType();
+
+    /**
+     * Gets the current value of the metric. For histograms this is the number of recorded values.
+     *
+     * @return the value
+     */
+    public abstract double getValue();
+
+    /**
+     * Appends the labels in Prometheus notation, with an optional extra label
+     *
+     * @param builder
+     *         the builder to append to
+     * @param extraKey
+     *         the extra label key, or null for none
+     * @param extraValue
+     *         the extra label value
+     */
+    final void appendLabels(StringBuilder builder, String extraKey, String extraValue) {
+        appendLabels(builder, labels, extraKey, extraValue);
+    }
+
+    /**
+     * Gets the id a metric has, without checking the name. Names are checked once, when the metric is created.
+     *
+     * @param name
+     *         the metric name
+     * @param labels
+     *         the labels as alternating key and value
+     *
+     * @return the id
+     */
+    static String idOf(String name, String[] labels) {
+        if (name == null) {
+            throw new IllegalArgumentException("Invalid metric name: null");
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Metric labels must be given as key and value pairs");
+        }
+        if (labels.length == 0) {
+            return name;
+        }
+        StringBuilder builder = new StringBuilder(name);
+        appendLabels(builder, labels, null, null);
+        return builder.toString();
+    }
+
+    private static String checkName(String name) {
+        boolean valid = name != null && !name.isEmpty();
+        for (int index = 0; valid && index < name.length(); index++) {
+            char character = name.charAt(index);
+            valid = (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z') || character == '_' || character == ':'
+                    || (index > 0 && character >= '0' && character <= '9');
+        }
+        if (!valid) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        return name;
+    }
+
+    private static void appendLabels(StringBuilder builder, String[] labels, String extraKey, String extraValue) {
+        if (labels.length == 0 && extraKey == null) {
+            return;
+        }
+        builder.append('{');
+        for (int index = 0; index < labels.length; index += 2) {
+            if (index > 0) {
+                builder.append(',');
+            }
+            appendLabel(builder, labels[index], labels[index + 1]);
+        }
+        if (extraKey != null) {
+            if (labels.length > 0) {
+                builder.append(',');
+            }
+            appendLabel(builder, extraKey, extraValue);
+        }
+        builder.append('}');
+    }
+
+    private static void appendLabel(StringBuilder builder, String key, String value) {
+        builder.append(key).append("=\"");
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            if (character == '\\' || character == '"') {
+                builder.append('\\').append(character);
+            }
+            else if (character == '\n') {
+                builder.append("\\n");
+            }
+            else {
+                builder.append(character);
+            }
+        }
+        builder.append('"');
+    }
+}
@@ -0,0 +1,18 @@
+package net.canarymod.metrics;
+
+/**
+ * The kinds of {@link Metric} held by the {@link MetricsRegistry}
+ */
+public enum MetricType {
+
+    /**
+     * A value that only goes up
+     */
+    COUNTER, /**
+     * A value sampled when read
+     */
+    GAUGE, /**
+     * A distribution of recorded values
+     */
+    HISTOGRAM
+}
@@ -0,0 +1,84 @@
+package net.canarymod.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import static net.canarymod.Canary.log;
+
+/**
+ * Serves the {@link MetricsRegistry} in the Prometheus text format on {@code /metrics}, using the HTTP server of the JDK.<br>
+ * Requests are answered on a single daemon thread so a scrape never touches the Server's main thread.
+ */
+final class MetricsHttpExporter implements HttpHandler {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String bind;
+    private final int port;
+
+    MetricsHttpExporter(MetricsRegistry registry, String bind, int port) throws IOException {
+        this.registry = registry;
+        this.bind = bind;
+        this.port = port;
+        this.server = HttpServer.create(new InetSocketAddress(bind, port), 0);
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Canary Metrics Endpoint");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        server.createContext("/metrics", this);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    boolean isBoundTo(String bind, int port) {
+        return this.bind.equals(bind) && this.port == port;
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            StringBuilder builder = new StringBuilder(8192);
+            registry.writePrometheus(builder);
+            byte[] body = builder.toString().getBytes("UTF-8");
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body);
+            out.close();
+        }
+        catch (RuntimeException rex) {
+            log.debug("Failed to serve metrics", rex);
+            exchange.sendResponseHeaders(500, -1);
+        }
+        finally {
+            exchange.close();
+        }
+    }
+}
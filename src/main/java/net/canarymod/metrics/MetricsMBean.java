@@ -0,0 +1,128 @@
+package net.canarymod.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.canarymod.Canary.log;
+
+/**
+ * Exposes the {@link MetricsRegistry} over JMX as the read-only attributes of {@code net.canarymod:type=Metrics}.<br>
+ * Counters and gauges are one attribute each; histograms are split into count, mean, max and percentile attributes.
+ * The attribute list is built on demand so metrics registered later show up as well.
+ */
+final class MetricsMBean implements DynamicMBean {
+    private static final String OBJECT_NAME = "net.canarymod:type=Metrics";
+
+    private final MetricsRegistry registry;
+    private final ObjectName name;
+
+    private MetricsMBean(MetricsRegistry registry, ObjectName name) {
+        this.registry = registry;
+        this.name = name;
+    }
+
+    static MetricsMBean register(MetricsRegistry registry) {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            MetricsMBean bean = new MetricsMBean(registry, name);
+            server.registerMBean(bean, name);
+            return bean;
+        }
+        catch (Exception ex) {
+            log.error("Failed to register the metrics MBean", ex);
+            return null;
+        }
+    }
+
+    void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+        catch (Exception ex) {
+            log.debug("Failed to unregister the metrics MBean", ex);
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = attributes().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] names) {
+        Map<String, Object> values = attributes();
+        AttributeList list = new AttributeList();
+        for (String attribute : names) {
+            if (values.containsKey(attribute)) {
+                list.add(new Attribute(attribute, values.get(attribute)));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException(actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> infos = new ArrayList<MBeanAttributeInfo>();
+        for (Map.Entry<String, Object> attribute : attributes().entrySet()) {
+            infos.add(new MBeanAttributeInfo(attribute.getKey(), attribute.getValue().getClass().getName(), attribute.getKey(), true, false, false));
+        }
+        return new MBeanInfo(getClass().getName(), "CanaryMod metrics", infos.toArray(new MBeanAttributeInfo[infos.size()]), null, new MBeanOperationInfo[0],
+                new MBeanNotificationInfo[0]
+        );
+    }
+
+    private Map<String, Object> attributes() {
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+        for (Metric metric : registry.getMetrics()) {
+            if (metric instanceof Histogram) {
+                Histogram histogram = (Histogram) metric;
+                String suffix = metric.getId().substring(metric.getName().length());
+                values.put(metric.getName() + "_count" + suffix, histogram.getCount());
+                values.put(metric.getName() + "_mean" + suffix, histogram.getMean() * histogram.getScale());
+                values.put(metric.getName() + "_max" + suffix, histogram.getMax() * histogram.getScale());
+                values.put(metric.getName() + "_p50" + suffix, histogram.getPercentile(50) * histogram.getScale());
+                values.put(metric.getName() + "_p99" + suffix, histogram.getPercentile(99) * histogram.getScale());
+            }
+            else {
+                values.put(metric.getId(), metric.getValue());
+            }
+        }
+        return values;
+    }
+}
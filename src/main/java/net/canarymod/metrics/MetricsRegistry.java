@@ -0,0 +1,299 @@
+package net.canarymod.metrics;
+
+import net.canarymod.config.Configuration;
+import net.canarymod.config.ServerConfiguration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.canarymod.Canary.log;
+
+/**
+ * Metrics Registry
+ * <p/>
+ * Central place for the counters, gauges and histograms of the Server and its plugins.<br>
+ * Metrics are identified by name and labels; asking for the same metric twice returns the same instance, so callers can
+ * either keep a reference or look it up each time.
+ * <p/>
+ * The registry can be exported in the Prometheus text format through a local HTTP endpoint and as attributes of a JMX
+ * MBean, both of which are configured in the server configuration.
+ */
+public class MetricsRegistry {
+    /** Scale to export nanosecond timers in seconds */
+    private static final double NANOS_TO_SECONDS = 1.0E-9D;
+    private static final double[] QUANTILES = new double[]{ 0.5D, 0.9D, 0.99D, 0.999D };
+
+    private final ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>();
+    private MetricsHttpExporter httpExporter;
+    private MetricsMBean mBean;
+
+    /**
+     * Gets or creates a {@link Counter}
+     *
+     * @param name
+     *         the metric name, such as {@code canary_hook_errors_total}
+     * @param help
+     *         the description of the metric
+     * @param labels
+     *         the labels as alternating key and value
+     *
+     * @return the {@link Counter}
+     *
+     * @throws IllegalArgumentException
+     *         if the name or labels are invalid or a different kind of metric is registered with them
+     */
+    public Counter counter(String name, String help, String... labels) {
+        Counter existing = registered(Metric.idOf(name, labels), Counter.class, 0);
+        return existing != null ? existing : register(new Counter(name, help, labels), Counter.class);
+    }
+
+    /**
+     * Gets or creates a {@link Histogram} of plain values
+     *
+     * @param name
+     *         the metric name
+     * @param help
+     *         the description of the metric
+     * @param labels
+     *         the labels as alternating key and value
+     *
+     * @return the {@link Histogram}
+     *
+     * @throws IllegalArgumentException
+     *         if the name or labels are invalid or a different kind of metric is registered with them
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        Histogram existing = registered(Metric.idOf(name, labels), Histogram.class, 1.0D);
+        return existing != null ? existing : register(new Histogram(name, help, 1.0D, labels), Histogram.class);
+    }
+
+    /**
+     * Gets or creates a {@link Histogram} of durations. Durations are recorded in nanoseconds and exported in seconds.
+     *
+     * @param name
+     *         the metric name, such as {@code canary_task_seconds}
+     * @param help
+     *         the description of the metric
+     * @param labels
+     *         the labels as alternating key and value
+     *
+     * @return the {@link Histogram}
+     *
+     * @throws IllegalArgumentException
+     *         if the name or labels are invalid or a different kind of metric is registered with them
+     */
+    public Histogram timer(String name, String help, String... labels) {
+        Histogram existing = registered(Metric.idOf(name, labels), Histogram.class, NANOS_TO_SECONDS);
+        return existing != null ? existing : register(new Histogram(name, help, NANOS_TO_SECONDS, labels), Histogram.class);
+    }
+
+    /**
+     * Registers a {@link Gauge}. If a gauge is already registered with the name and labels it is kept.
+     *
+     * @param name
+     *         the metric name
+     * @param help
+     *         the description of the metric
+     * @param gauge
+     *         the {@link Gauge} supplying the value
+     * @param labels
+     *         the labels as alternating key and value
+     *
+     * @return the registered {@link GaugeMetric}
+     *
+     * @throws IllegalArgumentException
+     *         if the name or labels are invalid or a different kind of metric is registered with them
+     */
+    public GaugeMetric gauge(String name, String help, Gauge gauge, String... labels) {
+        if (gauge == null) {
+            throw new IllegalArgumentException("A gauge requires a value source");
+        }
+        GaugeMetric existing = registered(Metric.idOf(name, labels), GaugeMetric.class, 0);
+        return existing != null ? existing : register(new GaugeMetric(name, help, gauge, labels), GaugeMetric.class);
+    }
+
+    /**
+     * Gets a registered {@link Metric}
+     *
+     * @param name
+     *         the metric name
+     * @param labels
+     *         the labels as alternating key and value
+     *
+     * @return the {@link Metric} or {@code null} if not registered
+     */
+    public Metric getMetric(String name, String... labels) {
+        return metrics.get(Metric.idOf(name, labels));
+    }
+
+    /**
+     * Removes a registered {@link Metric}
+     *
+     * @param name
+     *         the metric name
+     * @param labels
+     *         the labels as alternating key and value
+     *
+     * @return {@code true} if removed; {@code false} if not registered
+     */
+    public boolean remove(String name, String... labels) {
+        return metrics.remove(Metric.idOf(name, labels)) != null;
+    }
+
+    /**
+     * Gets all registered {@link Metric}s, sorted by id
+     *
+     * @return the metrics
+     */
+    public List<Metric> getMetrics() {
+        List<Metric> sorted = new ArrayList<Metric>(metrics.values());
+        Collections.sort(sorted, new Comparator<Metric>() {
+            @Override
+            public int compare(Metric a, Metric b) {
+                int byName = a.getName().compareTo(b.getName());
+                return byName != 0 ? byName : a.getId().compareTo(b.getId());
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format.<br>
+     * Histograms are written as summaries with the 50th, 90th, 99th and 99.9th percentile.
+     *
+     * @param out
+     *         the {@link Appendable} to write to
+     *
+     * @throws IOException
+     *         if writing fails
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        StringBuilder builder = new StringBuilder(128);
+        String current = null;
+        for (Metric metric : getMetrics()) {
+            if (!metric.getName().equals(current)) {
+                current = metric.getName();
+                out.append("# HELP ").append(current).append(' ').append(metric.getHelp().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+                out.append("# TYPE ").append(current).append(' ').append(prometheusType(metric.getType())).append('\n');
+            }
+            if (metric instanceof Histogram) {
+                Histogram histogram = (Histogram) metric;
+                for (double quantile : QUANTILES) {
+                    builder.setLength(0);
+                    builder.append(current);
+                    metric.appendLabels(builder, "quantile", String.valueOf(quantile));
+                    out.append(builder).append(' ').append(format(histogram.getPercentile(quantile * 100) * histogram.getScale())).append('\n');
+                }
+                builder.setLength(0);
+                builder.append(current).append("_sum");
+                metric.appendLabels(builder, null, null);
+                out.append(builder).append(' ').append(format(histogram.getSum() * histogram.getScale())).append('\n');
+                builder.setLength(0);
+                builder.append(current).append("_count");
+                metric.appendLabels(builder, null, null);
+                out.append(builder).append(' ').append(String.valueOf(histogram.getCount())).append('\n');
+            }
+            else {
+                out.append(metric.getId()).append(' ').append(format(metric.getValue())).append('\n');
+            }
+        }
+    }
+
+    /** Starts or stops the HTTP endpoint and the JMX bridge according to the server configuration */
+    public synchronized void reload() {
+        ServerConfiguration config = Configuration.getServerConfig();
+        if (httpExporter != null && !httpExporter.isBoundTo(config.getMetricsHttpBind(), config.getMetricsHttpPort())) {
+            httpExporter.stop();
+            httpExporter = null;
+        }
+        if (config.isMetricsHttpEnabled()) {
+            if (httpExporter == null) {
+                try {
+                    httpExporter = new MetricsHttpExporter(this, config.getMetricsHttpBind(), config.getMetricsHttpPort());
+                    log.info("Serving metrics on http://" + config.getMetricsHttpBind() + ":" + config.getMetricsHttpPort() + "/metrics");
+                }
+                catch (IOException ioex) {
+                    log.error("Failed to start the metrics endpoint on port " + config.getMetricsHttpPort(), ioex);
+                }
+            }
+        }
+        else if (httpExporter != null) {
+            httpExporter.stop();
+            httpExporter = null;
+        }
+
+        if (config.isMetricsJmxEnabled()) {
+            if (mBean == null) {
+                mBean = MetricsMBean.register(this);
+            }
+        }
+        else if (mBean != null) {
+            mBean.unregister();
+            mBean = null;
+        }
+    }
+
+    /** Stops the HTTP endpoint and unregisters the JMX bridge */
+    public synchronized void shutdown() {
+        if (httpExporter != null) {
+            httpExporter.stop();
+            httpExporter = null;
+        }
+        if (mBean != null) {
+            mBean.unregister();
+            mBean = null;
+        }
+    }
+
+    private <T extends Metric> T register(T metric, Class<T> type) {
+        Metric existing = metrics.putIfAbsent(metric.getId(), metric);
+        if (existing == null) {
+            return metric;
+        }
+        return checked(existing, metric.getId(), type, metric instanceof Histogram ? ((Histogram) metric).getScale() : 0);
+    }
+
+    /** Gets an already registered metric, so that asking for it again creates nothing */
+    private <T extends Metric> T registered(String id, Class<T> type, double scale) {
+        Metric existing = metrics.get(id);
+        return existing == null ? null : checked(existing, id, type, scale);
+    }
+
+    private static <T extends Metric> T checked(Metric existing, String id, Class<T> type, double scale) {
+        if (!type.isInstance(existing)) {
+            throw new IllegalArgumentException("Metric " + id + " is already registered as a " + existing.getType());
+        }
+        if (existing instanceof Histogram && ((Histogram) existing).getScale() != scale) {
+            throw new IllegalArgumentException("Metric " + id + " is already registered with a different scale");
+        }
+        return type.cast(existing);
+    }
+
+    private static String prometheusType(MetricType type) {
+        switch (type) {
+            case COUNTER:
+                return "counter";
+            case GAUGE:
+                return "gauge";
+            default:
+                return "summary";
+        }
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1.0E15D) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+}
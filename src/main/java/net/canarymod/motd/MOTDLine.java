@@ -0,0 +1,160 @@
+package net.canarymod.motd;
+
+import net.canarymod.chat.FormatCodes;
+import net.canarymod.chat.MessageReceiver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.canarymod.Canary.log;
+
+/**
+ * A line of the Message of the Day, compiled once when the MOTD is loaded or the {@link MOTDParser}s change.<br>
+ * The line is split into literal text and the variables it uses, and its permission guard is parsed up front,
+ * so rendering it for a receiver is a permission check and one pass appending the segments.
+ * <p/>
+ * *INTERNAL USE*
+ */
+final class MOTDLine {
+    private static final String GUARD = "{permissions:";
+    private static final String GUARD_SINGULAR = "{permission:";
+
+    private final String[] required;
+    private final String[] excluded;
+    private final Object[] segments; // String literals and MOTDParsers
+    private final String constant; // the whole line if it has no variables
+
+    private MOTDLine(String[] required, String[] excluded, Object[] segments) {
+        this.required = required;
+        this.excluded = excluded;
+        this.segments = segments;
+        this.constant = segments.length == 0 ? "" : segments.length == 1 && segments[0] instanceof String ? (String) segments[0] : null;
+    }
+
+    /**
+     * Compiles a line
+     *
+     * @param line
+     *         the line as written in motd.txt
+     * @param parsers
+     *         the registered {@link MOTDParser}s, in the order their keys are replaced
+     *
+     * @return the compiled line
+     */
+    static MOTDLine compile(String line, List<MOTDParser> parsers) {
+        ArrayList<String> required = new ArrayList<String>();
+        ArrayList<String> excluded = new ArrayList<String>();
+        String text = line;
+        int guardLength = line.startsWith(GUARD) ? GUARD.length() : line.startsWith(GUARD_SINGULAR) ? GUARD_SINGULAR.length() : -1;
+        int close = line.indexOf('}');
+        if (guardLength > 0 && close > guardLength && close + 1 < line.length()) {
+            for (String permission : line.substring(guardLength, close).split("&")) {
+                if (permission.startsWith("!")) {
+                    excluded.add(permission.substring(1));
+                }
+                else if (!permission.isEmpty()) {
+                    required.add(permission);
+                }
+            }
+            text = line.substring(close + 1);
+        }
+
+        // Keys are replaced in registration order, an earlier key taking precedence where keys overlap
+        ArrayList<Object> segments = new ArrayList<Object>();
+        segments.add(text);
+        for (MOTDParser parser : parsers) {
+            String key = parser.key();
+            if (key == null || key.isEmpty()) {
+                continue;
+            }
+            for (int index = 0; index < segments.size(); index++) {
+                Object segment = segments.get(index);
+                if (!(segment instanceof String)) {
+                    continue;
+                }
+                String literal = (String) segment;
+                int found = literal.indexOf(key);
+                if (found < 0) {
+                    continue;
+                }
+                segments.remove(index);
+                int start = 0;
+                int insert = index;
+                while (found >= 0) {
+                    if (found > start) {
+                        segments.add(insert++, literal.substring(start, found));
+                    }
+                    segments.add(insert++, parser);
+                    start = found + key.length();
+                    found = literal.indexOf(key, start);
+                }
+                if (start < literal.length()) {
+                    segments.add(insert++, literal.substring(start));
+                }
+                index = insert - 1;
+            }
+        }
+        if (segments.size() == 1 && segments.get(0) instanceof String) {
+            // Nothing to fill in, so the color codes can be translated right away
+            segments.set(0, FormatCodes.translate((String) segments.get(0), '&', '\u00A7'));
+        }
+        return new MOTDLine(required.toArray(new String[required.size()]), excluded.toArray(new String[excluded.size()]), segments.toArray());
+    }
+
+    /**
+     * Checks whether a receiver passes the permission guard of this line
+     *
+     * @param receiver
+     *         the {@link MessageReceiver}
+     *
+     * @return {@code true} if the line should be sent; {@code false} if not
+     */
+    boolean canReceive(MessageReceiver receiver) {
+        for (String permission : required) {
+            if (!receiver.hasPermission(permission)) {
+                return false;
+            }
+        }
+        for (String permission : excluded) {
+            if (receiver.hasPermission(permission)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renders this line for a receiver
+     *
+     * @param receiver
+     *         the {@link MessageReceiver}
+     * @param builder
+     *         a builder to render into; it is cleared first
+     *
+     * @return the rendered line
+     */
+    String render(MessageReceiver receiver, StringBuilder builder) {
+        if (constant != null) {
+            return constant;
+        }
+        builder.setLength(0);
+        for (Object segment : segments) {
+            if (segment instanceof String) {
+                builder.append((String) segment);
+                continue;
+            }
+            MOTDParser parser = (MOTDParser) segment;
+            try {
+                String value = parser.parse(receiver);
+                builder.append(value != null ? value : parser.key());
+            }
+            catch (Exception ex) {
+                // Leave the key in place, like a failed replacement would
+                builder.append(parser.key());
+                log.error("Failed to parse MessageOfTheDay Variable from MOTDOwner: " + parser.getOwner().getName(), ex);
+            }
+        }
+        // Variables may carry color codes too
+        return FormatCodes.translate(builder.toString(), '&', '\u00A7');
+    }
+}
@@ -1,6 +1,7 @@
 package net.canarymod.motd;
 
 import net.canarymod.chat.MessageReceiver;
+import net.canarymod.util.MethodInvoker;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -13,22 +14,21 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static net.canarymod.Canary.log;
 
 /**
  * Message of the Day container
  * <p/>
- * Loads and sends the Message of the Day to a player just joining.
+ * Loads and sends the Message of the Day to a player just joining.<br>
+ * Lines are compiled when loaded and whenever variables are registered or unregistered, see {@link MOTDLine}.
  *
  * @author Jason (darkdiplomat)
  */
 public class MessageOfTheDay {
     private static final List<String> motdLines;
     private static final List<MOTDParser> motdVars;
-    private static final Matcher permMatch = Pattern.compile("\\{permissions:(.)+}.+").matcher("");
+    private static volatile List<MOTDLine> compiled = Collections.emptyList();
 
     static {
         motdLines = Collections.synchronizedList(new ArrayList<String>());
@@ -76,6 +76,20 @@ public class MessageOfTheDay {
             scanner.close();
             fis.close();
         }
+        compile();
+    }
+
+    /** Compiles the lines with the current variables */
+    private void compile() {
+        ArrayList<MOTDLine> lines = new ArrayList<MOTDLine>();
+        synchronized (motdLines) {
+            synchronized (motdVars) {
+                for (String line : motdLines) {
+                    lines.add(MOTDLine.compile(line, motdVars));
+                }
+            }
+        }
+        compiled = Collections.unmodifiableList(lines);
     }
 
     /**
@@ -85,55 +99,10 @@ public class MessageOfTheDay {
      *         the {@link MessageReceiver} who will receive the MOTD
      */
     public void sendMOTD(MessageReceiver msgrec) {
-        synchronized (motdLines) {
-            for (String line : motdLines) {
-                String toSend = line;
-                if (permMatch.reset(toSend).matches()) {
-                    String perms = toSend.substring(toSend.indexOf(':') + 1, toSend.indexOf('}'));
-                    permsParse:
-                    {
-                        if (perms.contains("&")) {
-                            String[] permissions = perms.split("&");
-                            multiParse:
-                            {
-                                for (String permission : permissions) {
-                                    if (permission.charAt(0) == '!' && msgrec.hasPermission(permission.substring(1))) {
-                                        break multiParse; // No good, continue to next line
-                                    }
-                                    else if (!msgrec.hasPermission(permission)) {
-                                        break multiParse; // No good, continue to next line
-                                    }
-                                }
-                                break permsParse; // All good, continue regular parsing
-                            }
-                        }
-                        else if (perms.charAt(0) == '!') {
-                            if (!msgrec.hasPermission(perms.substring(1))) {
-                                break permsParse; // All good, continue regular parsing
-                            }
-                        }
-                        else if (msgrec.hasPermission(perms)) {
-                            break permsParse; // All good, continue regular parsing
-                        }
-                        continue; // No good, continue to next line
-                    }
-                    toSend = toSend.replace(toSend.substring(0, toSend.indexOf('}') + 1), ""); // Remove permission check substring
-                }
-                // Parse variables
-                synchronized (motdVars) {
-                    for (MOTDParser motdp : motdVars) {
-                        try {
-                            toSend = toSend.replace(motdp.key(), motdp.parse(msgrec));
-                        }
-                        catch (Exception ex) {
-                            log.error("Failed to parse MessageOfTheDay Variable from MOTDOwner: " + motdp.getOwner().getName(), ex);
-                        }
-                    }
-                }
-
-                //Replace Color codes
-                toSend = toSend.replaceAll("&([0-9A-FK-ORa-fk-or])", "\u00A7$1");
-                msgrec.message(toSend);
+        StringBuilder builder = new StringBuilder(128);
+        for (MOTDLine line : compiled) {
+            if (line.canReceive(msgrec)) {
+                msgrec.message(line.render(msgrec, builder));
             }
         }
     }
@@ -170,10 +139,11 @@ public class MessageOfTheDay {
                 continue;
             }
             MOTDKey meta = method.getAnnotation(MOTDKey.class);
+            final MethodInvoker invoker = MethodInvoker.forMethod(method);
             MOTDParser motdp = new MOTDParser(meta.key(), owner) {
                 @Override
                 String parse(MessageReceiver msgrec) throws Exception {
-                    return (String) method.invoke(listener, new Object[]{ msgrec });
+                    return (String) invoker.invoke(listener, msgrec, null);
                 }
             };
 
@@ -186,6 +156,7 @@ public class MessageOfTheDay {
             }
             motdVars.add(motdp);
         }
+        compile();
     }
 
     /**
@@ -203,6 +174,7 @@ public class MessageOfTheDay {
                 }
             }
         }
+        compile();
     }
 
     public void reload() {
@@ -199,7 +199,7 @@ public class MultiworldPermissionProvider implements PermissionProvider {
         }
         Boolean b = checkCached(permission);
         if (b != null) {
-            Canary.log.debug("Found... Returning as " + b);
+            Canary.log.debug("Found... Returning as {}", b);
             return b;
         }
         String[] path = permission.split("\\.");
@@ -222,12 +222,27 @@ public class MultiworldPermissionProvider implements PermissionProvider {
     @Override
     public void flushCache() {
         permissionCache.clear();
+        invalidateHelp();
+    }
+
+    /** Drops the cached help of the player or group, as it may now show different commands */
+    private void invalidateHelp() {
+        if (Canary.instance() == null || Canary.help() == null) {
+            return;
+        }
+        if (isPlayerProvider) {
+            Canary.help().invalidate(owner);
+        }
+        else {
+            Canary.help().invalidate();
+        }
     }
 
     @Override
     public void reload() {
         permissions.clear();
         permissionCache.clear();
+        invalidateHelp();
         if (isPlayerProvider) {
             PermissionProvider p = Canary.permissionManager().getPlayerProvider(owner, world);
             permissions = p.getPermissionMap();
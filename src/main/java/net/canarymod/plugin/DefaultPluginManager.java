@@ -7,6 +7,7 @@ import net.canarymod.exceptions.PluginLoadFailedException;
 import net.canarymod.hook.system.PluginDisableHook;
 import net.canarymod.hook.system.PluginEnableHook;
 import net.canarymod.plugin.dependencies.DependencyGraph;
+import net.canarymod.plugin.lifecycle.JavaPluginLifecycle;
 import net.visualillusionsent.utils.PropertiesFile;
 import org.apache.logging.log4j.Logger;
 
@@ -15,15 +16,29 @@ import java.io.FileFilter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static net.canarymod.Canary.log;
 
 /**
  * {@inheritDoc}
+ * <p/>
+ * Unless plugin-parallel-loading is turned off, plugin jars are scanned on several threads, and Java plugins are
+ * constructed on several threads before being enabled, following the {@link DependencyGraph} so that a plugin is only
+ * constructed once the plugins it depends on are. Enabling, which registers listeners and commands and may touch the
+ * worlds, stays on the calling thread in the usual order.
  *
  * @author Jason (darkdiplomat)
  * @author Chris (damagefilter)
@@ -35,6 +50,8 @@ public final class DefaultPluginManager implements PluginManager {
     private final Map<String, PluginDescriptor> plugins; // This is keyed to set Plugin name
     private final DependencyGraph dependencies;
     private final PropertiesFile pluginPriorities;
+    private final PluginCache cache = new PluginCache(new File("plugins", ".plugin_cache"));
+    private final Map<String, long[]> startupTimings = new LinkedHashMap<String, long[]>(); // load and enable nanoseconds
 
     public DefaultPluginManager() {
         plugins = new LinkedHashMap<String, PluginDescriptor>();
@@ -70,10 +87,14 @@ public final class DefaultPluginManager implements PluginManager {
             }
         }
         if (descriptor.getCurrentState() == PluginState.KNOWN) {
+            long loadStart = System.nanoTime();
             descriptor.getPluginLifecycle().load();
+            recordTiming(descriptor.getName(), 0, System.nanoTime() - loadStart);
         }
         log.info("Enabling plugin " + name);
+        long enableStart = System.nanoTime();
         boolean enabled = descriptor.getPluginLifecycle().enable();
+        recordTiming(descriptor.getName(), 1, System.nanoTime() - enableStart);
         if (!enabled) {
             log.warn("Unable to enable plugin " + descriptor.getName() + ". Will disable it.");
             disablePlugin(name);
@@ -102,40 +123,137 @@ public final class DefaultPluginManager implements PluginManager {
      */
     @Override
     public void enableLatePlugins() {
+        enablePlugins(false);
+    }
+
+    @Override
+    public void enableEarlyPlugins() {
+        enablePlugins(true);
+    }
+
+    private void enablePlugins(boolean early) {
         synchronized (lock) {
+            long start = System.nanoTime();
+            synchronized (startupTimings) {
+                startupTimings.clear();
+            }
+            List<String> toEnable = new ArrayList<String>();
             for (String plugin : plugins.keySet()) {
-                PluginDescriptor descriptor = plugins.get(plugin);
-                if (!descriptor.enableEarly()) {
-                    try {
-                        if (!enablePlugin(plugin)) {
-                            log.error("Failed to enable plugin: " + plugin);
-                        }
-                    }
-                    catch (Exception e) {
-                        log.error("Exception while enabling plugin: " + plugin, e);
+                if (plugins.get(plugin).enableEarly() == early) {
+                    toEnable.add(plugin);
+                }
+            }
+            if (toEnable.size() > 1 && Configuration.getServerConfig().isPluginParallelLoadingEnabled()) {
+                loadPlugins(toEnable);
+            }
+            for (String plugin : toEnable) {
+                try {
+                    if (!enablePlugin(plugin)) {
+                        log.error("Failed to enable plugin: " + plugin);
                     }
                 }
+                catch (Exception e) {
+                    log.error("Exception while enabling plugin: " + plugin, e);
+                }
             }
+            reportTimings(early ? "early" : "late", System.nanoTime() - start);
         }
     }
 
-    @Override
-    public void enableEarlyPlugins() {
-        synchronized (lock) {
-            for (String plugin : plugins.keySet()) {
-                PluginDescriptor descriptor = plugins.get(plugin);
-                if (descriptor.enableEarly()) {
-                    try {
-                        if (!enablePlugin(plugin)) {
-                            log.error("Failed to enable plugin: " + plugin);
+    /**
+     * Preloads the classes of the Java plugins among the given ones on several threads, stage by stage of the dependency graph.
+     * No plugin code runs here; the plugins are still constructed on the main thread when they are enabled.
+     *
+     * @param names
+     *         the names of the plugins to load
+     */
+    private void loadPlugins(List<String> names) {
+        ExecutorService pool = newLoaderPool(names.size());
+        try {
+            for (List<String> stage : dependencies.getSchedule(names)) {
+                List<String> loading = new ArrayList<String>();
+                List<Future<?>> futures = new ArrayList<Future<?>>();
+                for (final String name : stage) {
+                    final PluginDescriptor descriptor = plugins.get(name);
+                    if (descriptor.getCurrentState() != PluginState.KNOWN || !(descriptor.getPluginLifecycle() instanceof JavaPluginLifecycle) || !hasDependencies(name)) {
+                        continue;
+                    }
+                    loading.add(name);
+                    futures.add(pool.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            long loadStart = System.nanoTime();
+                            ((JavaPluginLifecycle) descriptor.getPluginLifecycle()).preload();
+                            recordTiming(name, 0, System.nanoTime() - loadStart);
+                            return null;
                         }
+                    }));
+                }
+                for (int index = 0; index < futures.size(); index++) {
+                    try {
+                        futures.get(index).get();
+                    }
+                    catch (ExecutionException eex) {
+                        log.warn("Failed to preload plugin " + loading.get(index) + "; its classes will be loaded when it is enabled", eex.getCause());
                     }
-                    catch (Exception e) {
-                        log.error("Exception while enabling plugin: " + plugin, e);
+                    catch (InterruptedException iex) {
+                        Thread.currentThread().interrupt();
+                        return;
                     }
                 }
             }
         }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private boolean hasDependencies(String name) {
+        for (String dependency : dependencies.getDependencies(name)) {
+            if (!plugins.containsKey(dependency)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recordTiming(String name, int phase, long nanos) {
+        synchronized (startupTimings) {
+            long[] timing = startupTimings.get(name);
+            if (timing == null) {
+                timing = new long[2];
+                startupTimings.put(name, timing);
+            }
+            timing[phase] += nanos;
+        }
+    }
+
+    private void reportTimings(String kind, long nanos) {
+        List<Map.Entry<String, long[]>> timings;
+        synchronized (startupTimings) {
+            timings = new ArrayList<Map.Entry<String, long[]>>(startupTimings.entrySet());
+        }
+        if (timings.isEmpty()) {
+            return;
+        }
+        Collections.sort(timings, new Comparator<Map.Entry<String, long[]>>() {
+            @Override
+            public int compare(Map.Entry<String, long[]> a, Map.Entry<String, long[]> b) {
+                long totalA = a.getValue()[0] + a.getValue()[1], totalB = b.getValue()[0] + b.getValue()[1];
+                return totalA < totalB ? 1 : totalA > totalB ? -1 : 0;
+            }
+        });
+        log.info(String.format("Started %d %s plugins in %.1fms", timings.size(), kind, nanos / 1000000.0D));
+        for (int index = 0; index < timings.size(); index++) {
+            Map.Entry<String, long[]> timing = timings.get(index);
+            String line = String.format("  %s: load %.1fms, enable %.1fms", timing.getKey(), timing.getValue()[0] / 1000000.0D, timing.getValue()[1] / 1000000.0D);
+            if (index < 10) {
+                log.info(line);
+            }
+            else {
+                log.debug(line);
+            }
+        }
     }
 
     /**
@@ -321,26 +439,84 @@ public final class DefaultPluginManager implements PluginManager {
             return;
         }
         File[] pluginFiles = pluginDir.listFiles(new PluginFilter());
-        int loadedDescriptors = 0;
+        Set<String> knownPaths = new HashSet<String>();
+        synchronized (lock) {
+            for (PluginDescriptor descriptor : plugins.values()) {
+                knownPaths.add(descriptor.getPath());
+            }
+        }
+        List<File> unknownFiles = new ArrayList<File>();
         for (File pluginFile : pluginFiles) {
-            try {
-                if (!loadPluginDescriptorAndInsertInGraph(pluginFile)) {
-                    continue;
-                }
-                ++loadedDescriptors;
+            if (!knownPaths.contains(pluginFile.getAbsolutePath())) {
+                unknownFiles.add(pluginFile);
             }
-            catch (InvalidPluginException e) {
-                log.warn("Found invalid plugin at " + pluginFile.getName() + ", moving on.", e);
+        }
+        PluginDescriptor[] descriptors = readDescriptors(unknownFiles);
+        int loadedDescriptors = 0;
+        for (PluginDescriptor descriptor : descriptors) {
+            if (descriptor != null && insertInGraph(descriptor)) {
+                ++loadedDescriptors;
             }
         }
         pluginPriorities.save();
+        cache.save();
         synchronized (lock) {
             log.info("Found " + loadedDescriptors + " plugins; total: " + plugins.size());
         }
     }
 
-    private boolean loadPluginDescriptorAndInsertInGraph(File pluginFile) throws InvalidPluginException {
-        PluginDescriptor desc = new PluginDescriptor(pluginFile.getAbsolutePath());
+    /**
+     * Reads the descriptors of plugin files, on several threads if enabled
+     *
+     * @param pluginFiles
+     *         the plugin jars and directories
+     *
+     * @return the descriptors in the order of the files; {@code null} for invalid plugins
+     */
+    private PluginDescriptor[] readDescriptors(List<File> pluginFiles) {
+        PluginDescriptor[] descriptors = new PluginDescriptor[pluginFiles.size()];
+        if (pluginFiles.size() < 2 || !Configuration.getServerConfig().isPluginParallelLoadingEnabled()) {
+            for (int index = 0; index < descriptors.length; index++) {
+                try {
+                    descriptors[index] = new PluginDescriptor(pluginFiles.get(index).getAbsolutePath(), cache);
+                }
+                catch (InvalidPluginException e) {
+                    log.warn("Found invalid plugin at " + pluginFiles.get(index).getName() + ", moving on.", e);
+                }
+            }
+            return descriptors;
+        }
+        ExecutorService pool = newLoaderPool(pluginFiles.size());
+        try {
+            List<Future<PluginDescriptor>> futures = new ArrayList<Future<PluginDescriptor>>(pluginFiles.size());
+            for (final File pluginFile : pluginFiles) {
+                futures.add(pool.submit(new Callable<PluginDescriptor>() {
+                    @Override
+                    public PluginDescriptor call() throws Exception {
+                        return new PluginDescriptor(pluginFile.getAbsolutePath(), cache);
+                    }
+                }));
+            }
+            for (int index = 0; index < descriptors.length; index++) {
+                try {
+                    descriptors[index] = futures.get(index).get();
+                }
+                catch (ExecutionException eex) {
+                    log.warn("Found invalid plugin at " + pluginFiles.get(index).getName() + ", moving on.", eex.getCause());
+                }
+                catch (InterruptedException iex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+        return descriptors;
+    }
+
+    private boolean insertInGraph(PluginDescriptor desc) {
         if (plugins.containsKey(desc.getName())) {
             return false;
         }
@@ -357,6 +533,20 @@ public final class DefaultPluginManager implements PluginManager {
         return true;
     }
 
+    private static ExecutorService newLoaderPool(int tasks) {
+        int threads = Math.max(1, Math.min(tasks, Math.max(2, Runtime.getRuntime().availableProcessors())));
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Canary Plugin Loader-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
     private void updateDependencies(PluginDescriptor desc) {
         dependencies.removeNode(desc.getName());
         dependencies.addDependencies(desc.getName(), desc.getDependencies());
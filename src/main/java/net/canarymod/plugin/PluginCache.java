@@ -0,0 +1,270 @@
+package net.canarymod.plugin;
+
+import net.visualillusionsent.utils.PropertiesFile;
+import net.visualillusionsent.utils.UtilityException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static net.canarymod.Canary.log;
+
+/**
+ * Plugin Cache
+ * <p/>
+ * Keeps what has been read from plugin jars between startups: the contents of their Canary.inf and the classes they contain.<br>
+ * Entries are keyed by the path of the jar and are only used while the size and modification time of the jar are the same,
+ * so a jar that has been replaced is read again. A cache file that can't be read is simply started over.
+ */
+public final class PluginCache {
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private volatile boolean dirty;
+
+    /**
+     * Constructs a new PluginCache and reads the cache file, if there is one
+     *
+     * @param file
+     *         the cache file
+     */
+    public PluginCache(File file) {
+        this.file = file;
+        read();
+    }
+
+    /**
+     * Gets the entry for a jar, reading the jar if it isn't cached or has changed since
+     *
+     * @param jar
+     *         the jar file
+     *
+     * @return the {@link Entry}
+     *
+     * @throws UtilityException
+     *         if the Canary.inf could not be found or read
+     */
+    public Entry get(File jar) throws UtilityException {
+        String path = jar.getAbsolutePath();
+        long length = jar.length();
+        long modified = jar.lastModified();
+        Entry entry = entries.get(path);
+        if (entry != null && entry.length == length && entry.modified == modified) {
+            return entry;
+        }
+        entry = new Entry(length, modified, new PropertiesFile(path, "Canary.inf").getPropertiesMap(), listClasses(jar));
+        entries.put(path, entry);
+        dirty = true;
+        return entry;
+    }
+
+    /** Writes the cache file if anything changed, leaving out jars that no longer exist */
+    public void save() {
+        for (String path : entries.keySet()) {
+            if (!new File(path).isFile()) {
+                entries.remove(path);
+                dirty = true;
+            }
+        }
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        File temp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+            out.close();
+            out = null;
+            if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+                throw new IOException("Could not replace " + file.getPath());
+            }
+        }
+        catch (IOException ioex) {
+            log.debug("Failed to write the plugin cache", ioex);
+            temp.delete();
+        }
+        finally {
+            close(out);
+        }
+    }
+
+    private void read() {
+        if (!file.isFile()) {
+            return;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != VERSION) {
+                dirty = true;
+                return;
+            }
+            for (int count = in.readInt(); count > 0; count--) {
+                String path = in.readUTF();
+                entries.put(path, Entry.read(in));
+            }
+        }
+        catch (IOException ioex) {
+            // Half written or from something else; everything will be read again
+            log.debug("Discarding unreadable plugin cache " + file.getPath(), ioex);
+            entries.clear();
+            dirty = true;
+        }
+        finally {
+            close(in);
+        }
+    }
+
+    private static String[] listClasses(File jar) {
+        ZipFile zip = null;
+        try {
+            zip = new ZipFile(jar);
+            ArrayList<String> classes = new ArrayList<String>();
+            Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+            while (zipEntries.hasMoreElements()) {
+                String name = zipEntries.nextElement().getName();
+                if (name.endsWith(".class")) {
+                    classes.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                }
+            }
+            return classes.toArray(new String[classes.size()]);
+        }
+        catch (IOException ioex) {
+            return null; // Unknown, so classes will be looked for in the jar itself
+        }
+        finally {
+            if (zip != null) {
+                try {
+                    zip.close();
+                }
+                catch (IOException ioex) {
+                    // Ignored
+                }
+            }
+        }
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            }
+            catch (IOException ioex) {
+                // Ignored
+            }
+        }
+    }
+
+    /**
+     * What is known about a jar
+     */
+    public static final class Entry {
+        private final long length;
+        private final long modified;
+        private final Map<String, String> properties;
+        private final Set<String> classes;
+        private final Set<String> packages;
+
+        private Entry(long length, long modified, Map<String, String> properties, String[] classes) {
+            this.length = length;
+            this.modified = modified;
+            this.properties = Collections.unmodifiableMap(new LinkedHashMap<String, String>(properties));
+            if (classes == null) {
+                this.classes = null;
+                this.packages = null;
+                return;
+            }
+            HashSet<String> classSet = new HashSet<String>(classes.length * 2);
+            HashSet<String> packageSet = new HashSet<String>();
+            for (String cls : classes) {
+                classSet.add(cls);
+                int dot = cls.lastIndexOf('.');
+                packageSet.add(dot < 0 ? "" : cls.substring(0, dot));
+            }
+            this.classes = Collections.unmodifiableSet(classSet);
+            this.packages = Collections.unmodifiableSet(packageSet);
+        }
+
+        /**
+         * Gets the properties of the Canary.inf
+         *
+         * @return the properties
+         */
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        /**
+         * Gets the names of the classes in the jar
+         *
+         * @return the class names; {@code null} if the jar could not be listed
+         */
+        public Set<String> getClassNames() {
+            return classes;
+        }
+
+        /**
+         * Gets the names of the packages in the jar
+         *
+         * @return the package names; {@code null} if the jar could not be listed
+         */
+        public Set<String> getPackages() {
+            return packages;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeLong(length);
+            out.writeLong(modified);
+            out.writeInt(properties.size());
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                out.writeUTF(property.getKey());
+                out.writeUTF(property.getValue());
+            }
+            out.writeInt(classes == null ? -1 : classes.size());
+            if (classes != null) {
+                for (String cls : classes) {
+                    out.writeUTF(cls);
+                }
+            }
+        }
+
+        private static Entry read(DataInputStream in) throws IOException {
+            long length = in.readLong();
+            long modified = in.readLong();
+            LinkedHashMap<String, String> properties = new LinkedHashMap<String, String>();
+            for (int count = in.readInt(); count > 0; count--) {
+                properties.put(in.readUTF(), in.readUTF());
+            }
+            int count = in.readInt();
+            String[] classes = count < 0 ? null : new String[count];
+            for (int index = 0; index < count; index++) {
+                classes[index] = in.readUTF();
+            }
+            return new Entry(length, modified, properties, classes);
+        }
+    }
+}
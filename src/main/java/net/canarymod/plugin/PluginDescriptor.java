@@ -6,6 +6,9 @@ import net.visualillusionsent.utils.PropertiesFile;
 import net.visualillusionsent.utils.UtilityException;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Describes information about a plugin, including meta information and start/stop/load information.
@@ -14,7 +17,7 @@ import java.io.File;
  * @author Pwootage
  */
 public class PluginDescriptor {
-    private PropertiesFile canaryInf;
+    private volatile PropertiesFile canaryInf;
     private String path;
     private String name;
     private String version;
@@ -26,9 +29,27 @@ public class PluginDescriptor {
     private String[] dependencies;
     private PluginState currentState;
     private int priority;
+    private PluginCache cache;
+    private PluginCache.Entry cacheEntry;
 
     public PluginDescriptor(String path) throws InvalidPluginException {
+        this(path, null);
+    }
+
+    /**
+     * Constructs a descriptor that reads jars through a {@link PluginCache}, so an unchanged jar isn't opened until the plugin is loaded
+     *
+     * @param path
+     *         the path to the plugin
+     * @param cache
+     *         the {@link PluginCache}; {@code null} to always read the jar
+     *
+     * @throws InvalidPluginException
+     *         if the Canary.inf could not be found or read
+     */
+    PluginDescriptor(String path, PluginCache cache) throws InvalidPluginException {
         this.path = path;
+        this.cache = cache;
         try {
             reloadInf();
         }
@@ -43,25 +64,61 @@ public class PluginDescriptor {
     }
 
     protected void reloadInf() throws InvalidPluginException {
-        findAndLoadCanaryInf();
-        name = canaryInf.getString("name", "");
+        canaryInf = null;
+        cacheEntry = null;
+        File pluginFile = new File(path);
+        if (cache != null && pluginFile.isFile() && pluginFile.getName().matches(".+\\.(jar|zip)$")) {
+            cacheEntry = cache.get(pluginFile);
+            reloadInf(cacheEntry.getProperties());
+        }
+        else {
+            findAndLoadCanaryInf();
+            name = canaryInf.getString("name", "");
+            if (name.equals("")) {
+                name = canaryInf.getString("main-class", "");
+            }
+            if (name.equals("")) {
+                name = pluginFile.getName();
+            }
+            version = canaryInf.getString("version", "UNKNOWN");
+            author = canaryInf.getString("author", "UNKNOWN");
+            language = canaryInf.getString("language", "java");
+            enableEarly = canaryInf.getBoolean("enable-early", false); // Enable before subsystems are initialized and before the first world gets loaded
+            if (canaryInf.containsKey("dependencies")) {
+                dependencies = canaryInf.getStringArray("dependencies", ",");
+            }
+            else {
+                dependencies = new String[0];
+            }
+        }
+        pluginLifecycle = PluginLifecycleFactory.createLifecycle(this);
+    }
+
+    private void reloadInf(Map<String, String> inf) {
+        name = value(inf, "name", "");
         if (name.equals("")) {
-            name = canaryInf.getString("main-class", "");
+            name = value(inf, "main-class", "");
         }
         if (name.equals("")) {
             name = new File(path).getName();
         }
-        version = canaryInf.getString("version", "UNKNOWN");
-        author = canaryInf.getString("author", "UNKNOWN");
-        language = canaryInf.getString("language", "java");
-        enableEarly = canaryInf.getBoolean("enable-early", false); // Enable before subsystems are initialized and before the first world gets loaded
-        if (canaryInf.containsKey("dependencies")) {
-            dependencies = canaryInf.getStringArray("dependencies", ",");
-        }
-        else {
-            dependencies = new String[0];
+        version = value(inf, "version", "UNKNOWN");
+        author = value(inf, "author", "UNKNOWN");
+        language = value(inf, "language", "java");
+        String early = value(inf, "enable-early", "false");
+        enableEarly = early.equalsIgnoreCase("true") || early.equalsIgnoreCase("yes") || early.equalsIgnoreCase("on") || early.equals("1");
+        ArrayList<String> depends = new ArrayList<String>();
+        for (String dependency : value(inf, "dependencies", "").split(",")) {
+            if (!dependency.trim().isEmpty()) {
+                depends.add(dependency.trim());
+            }
         }
-        pluginLifecycle = PluginLifecycleFactory.createLifecycle(this);
+        dependencies = depends.toArray(new String[depends.size()]);
+    }
+
+    private static String value(Map<String, String> inf, String key, String def) {
+        String value = inf.get(key);
+        return value != null ? value.trim() : def;
     }
 
     private void findAndLoadCanaryInf() throws InvalidPluginException {
@@ -80,9 +137,30 @@ public class PluginDescriptor {
 
 
     public PropertiesFile getCanaryInf() {
+        if (canaryInf == null && path != null) {
+            synchronized (this) {
+                if (canaryInf == null) {
+                    try {
+                        findAndLoadCanaryInf(); // Described from the cache until now
+                    }
+                    catch (InvalidPluginException ipex) {
+                        throw new UtilityException(ipex.getMessage());
+                    }
+                }
+            }
+        }
         return canaryInf;
     }
 
+    /**
+     * Gets the names of the classes in the plugin's jar, as known to the {@link PluginCache}
+     *
+     * @return the class names; {@code null} if not known
+     */
+    public Set<String> getClassNames() {
+        return cacheEntry != null ? cacheEntry.getClassNames() : null;
+    }
+
     public String getName() {
         return name;
     }
@@ -5,7 +5,6 @@ import net.canarymod.Canary;
 import net.canarymod.CanaryClassLoader;
 import net.canarymod.plugin.lifecycle.InvalidPluginLifecycleException;
 import net.canarymod.plugin.lifecycle.PluginLifecycleFactory;
-import net.visualillusionsent.utils.PropertiesFile;
 import net.visualillusionsent.utils.UtilityException;
 
 import java.io.File;
@@ -43,27 +42,32 @@ public final class PluginLangLoader {
 
         File[] plFiles = pldir.listFiles(new PluginLangFilter());
         if (plFiles != null) { // Make sure there are files
-            Map<File, PropertiesFile> knownLangs = Maps.newHashMap();
+            Map<File, Map<String, String>> knownLangs = Maps.newHashMap();
+            PluginCache cache = new PluginCache(new File(pldir, ".plugin_cache"));
 
             for (File plFile : plFiles) {
                 log.debug("Loading Plugin Language Library Jar: " + plFile.getName());
                 try {
-                    PropertiesFile inf = new PropertiesFile(plFile.getAbsolutePath(), "Canary.inf");
-                    inf.getString("lib-name", plFile.getName().replace(".jar", ""));
-                    inf.getString("lang-name");
-                    inf.getString("lifecycle-class");
+                    Map<String, String> inf = Maps.newHashMap(cache.get(plFile).getProperties());
+                    if (!inf.containsKey("lang-name") || !inf.containsKey("lifecycle-class")) {
+                        throw new UtilityException("lang-name and lifecycle-class are required");
+                    }
+                    if (!inf.containsKey("lib-name")) {
+                        inf.put("lib-name", plFile.getName().replace(".jar", ""));
+                    }
                     knownLangs.put(plFile, inf);
                 }
                 catch (UtilityException uex) {
                     log.warn("Could not find or load the Plugin Language Library Canary.inf for jarFile: " + plFile.getName(), uex);
                 }
             }
+            cache.save();
 
-            for (Map.Entry<File, PropertiesFile> lang : knownLangs.entrySet()) {
-                log.debug("Initializing Plugin Language Library Jar: " + lang.getValue().getString("lib-name"));
+            for (Map.Entry<File, Map<String, String>> lang : knownLangs.entrySet()) {
+                log.debug("Initializing Plugin Language Library Jar: " + lang.getValue().get("lib-name"));
                 try {
-                    String langName = lang.getValue().getString("lang-name");
-                    String lifeCycle = lang.getValue().getString("lifecycle-class");
+                    String langName = lang.getValue().get("lang-name");
+                    String lifeCycle = lang.getValue().get("lifecycle-class");
                     log.debug(langName);
 
                     CanaryClassLoader ploader = new CanaryClassLoader(lang.getKey().toURI().toURL(), PluginLangLoader.class.getClassLoader());
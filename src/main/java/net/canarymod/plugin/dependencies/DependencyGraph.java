@@ -1,8 +1,13 @@
 package net.canarymod.plugin.dependencies;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -87,4 +92,54 @@ public class DependencyGraph {
         }
     }
 
+    /**
+     * Orders nodes into stages, each holding the nodes whose dependencies are all in earlier stages.<br>
+     * The nodes of a stage don't depend on each other, so they can be worked on together.
+     * Dependencies outside the given nodes are ignored, and nodes in a dependency cycle end up together in the last stage.
+     *
+     * @param nodes
+     *         the nodes to order, in their preferred order
+     *
+     * @return the stages, keeping the preferred order within each
+     */
+    public List<List<String>> getSchedule(Collection<String> nodes) {
+        synchronized (lock) {
+            List<List<String>> stages = new ArrayList<List<String>>();
+            Set<String> all = new HashSet<String>(nodes);
+            Set<String> remaining = new LinkedHashSet<String>(nodes);
+            Set<String> scheduled = new HashSet<String>();
+            while (!remaining.isEmpty()) {
+                List<String> stage = new ArrayList<String>();
+                for (String node : remaining) {
+                    if (isReady(node, all, scheduled)) {
+                        stage.add(node);
+                    }
+                }
+                if (stage.isEmpty()) {
+                    // Only cycles left
+                    stage.addAll(remaining);
+                }
+                scheduled.addAll(stage);
+                for (Iterator<String> itr = remaining.iterator(); itr.hasNext(); ) {
+                    if (scheduled.contains(itr.next())) {
+                        itr.remove();
+                    }
+                }
+                stages.add(stage);
+            }
+            return stages;
+        }
+    }
+
+    private boolean isReady(String node, Set<String> nodes, Set<String> scheduled) {
+        Set<String> fwd = forwardDependencies.get(node);
+        if (fwd != null) {
+            for (String dependency : fwd) {
+                if (nodes.contains(dependency) && !scheduled.contains(dependency)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 }
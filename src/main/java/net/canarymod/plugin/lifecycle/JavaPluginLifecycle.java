@@ -14,16 +14,68 @@ import java.io.File;
  */
 public class JavaPluginLifecycle extends PluginLifecycleBase {
     private CanaryClassLoader ploader;
+    private CanaryClassLoader preloader;
+    private Class<?> preloaded;
 
     public JavaPluginLifecycle(PluginDescriptor desc) {
         super(desc);
     }
 
+    /**
+     * Opens the plugin jar and loads its classes without initializing them, so no plugin code runs.
+     * The next {@link #load()} constructs the plugin from these classes instead of reading the jar again.
+     * <p/>
+     * This may be called off the main thread; the plugin itself is only ever constructed by {@link #load()}.
+     *
+     * @throws PluginLoadFailedException
+     *         if the jar cannot be opened or the main class cannot be loaded
+     */
+    public synchronized void preload() throws PluginLoadFailedException {
+        if (preloaded != null) {
+            return;
+        }
+        try {
+            CanaryClassLoader loader = new CanaryClassLoader(new File(desc.getPath()).toURI().toURL(), getClass().getClassLoader(), desc.getClassNames());
+            preloader = loader;
+            preloaded = Class.forName(desc.getCanaryInf().getString("main-class"), false, loader);
+            if (desc.getClassNames() != null) {
+                for (String className : desc.getClassNames()) {
+                    try {
+                        Class.forName(className, false, loader);
+                    }
+                    catch (ClassNotFoundException cnfex) {
+                        // May need an optional dependency; left to load on use
+                    }
+                    catch (LinkageError lerr) {
+                        // Likewise
+                    }
+                }
+            }
+        }
+        catch (Throwable thrown) {
+            if (preloader != null) {
+                preloader.close();
+            }
+            preloader = null;
+            preloaded = null;
+            throw new PluginLoadFailedException("Failed to preload plugin", thrown);
+        }
+    }
+
     @Override
-    protected void _load() throws PluginLoadFailedException {
+    protected synchronized void _load() throws PluginLoadFailedException {
         try {
-            ploader = new CanaryClassLoader(new File(desc.getPath()).toURI().toURL(), getClass().getClassLoader());
-            Class<?> cls = ploader.loadClass(desc.getCanaryInf().getString("main-class"));
+            Class<?> cls;
+            if (preloaded != null) {
+                ploader = preloader;
+                cls = preloaded;
+                preloader = null;
+                preloaded = null;
+            }
+            else {
+                ploader = new CanaryClassLoader(new File(desc.getPath()).toURI().toURL(), getClass().getClassLoader(), desc.getClassNames());
+                cls = ploader.loadClass(desc.getCanaryInf().getString("main-class"));
+            }
             //A hacky way of getting the name in during the constructor/initializer
             Plugin.threadLocalName.set(desc.getName());
             Plugin p = (Plugin) cls.newInstance();
@@ -38,9 +90,10 @@ public class JavaPluginLifecycle extends PluginLifecycleBase {
     }
 
     @Override
-    protected void _unload() {
+    protected synchronized void _unload() {
         if (ploader != null) {
             ploader.close();
+            ploader = null;
         }
     }
 
@@ -0,0 +1,21 @@
+package net.canarymod.profiler;
+
+/**
+ * The parts of a tick tracked by the {@link TickProfiler}
+ */
+public enum ProfilerSection {
+
+    /**
+     * Plugin listeners handling Hooks
+     */
+    HOOKS, /**
+     * Server Tasks
+     */
+    TASKS, /**
+     * Command execution
+     */
+    COMMANDS, /**
+     * Custom payloads and packets sent or handled
+     */
+    PACKETS
+}
@@ -0,0 +1,370 @@
+package net.canarymod.profiler;
+
+import net.canarymod.Canary;
+import net.canarymod.api.Server;
+import net.canarymod.api.world.World;
+import net.canarymod.config.Configuration;
+import net.canarymod.plugin.Plugin;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tick Profiler
+ * <p/>
+ * Records the duration of each Server tick and each World's part of it, and breaks the tick down by the time spent in
+ * {@link ProfilerSection}s: hook listeners, Server Tasks, commands and packets.<br>
+ * Ticks taking longer than the spike threshold are kept as {@link TickSnapshot}s, which can be dumped to a file.
+ * <p/>
+ * Tick boundaries are taken from the {@link net.canarymod.hook.system.ServerTickHook}, the durations themselves come from
+ * {@link Server#getTickTimeArray()} and {@link World#getNanoTick(int)} for the tick that just completed.
+ * Only work done on the Server's main thread is attributed to a tick. Section times are inclusive, so a hook called from
+ * within a command counts towards both.
+ * <p/>
+ * The profiler is off unless enabled in the server configuration or started with {@link #start()}.
+ */
+public class TickProfiler {
+    private static final int WINDOW = 1200; // One minute of ticks at 20 TPS
+    private static final int SLOWEST = 5;
+    private static final int SPIKES = 64;
+
+    private volatile boolean enabled;
+    private volatile Thread mainThread;
+    private boolean configured;
+    private long spikeThreshold;
+
+    private final long[] sectionNanos = new long[ProfilerSection.values().length];
+    private final long[] slowestNanos = new long[SLOWEST];
+    private final ProfilerSection[] slowestSections = new ProfilerSection[SLOWEST];
+    private final Object[] slowestSources = new Object[SLOWEST];
+    private final Object[] slowestDetails = new Object[SLOWEST];
+
+    private final TickTimes serverTimes = new TickTimes(WINDOW);
+    private final HashMap<String, TickTimes> worldTimes = new HashMap<String, TickTimes>();
+    private final ArrayDeque<TickSnapshot> spikes = new ArrayDeque<TickSnapshot>();
+    private long spikeCount;
+
+    /**
+     * Starts profiling with the next tick
+     */
+    public synchronized void start() {
+        configured = true;
+        if (spikeThreshold == 0) {
+            spikeThreshold = Configuration.getServerConfig().getProfilerSpikeThreshold() * 1000000L;
+        }
+        enabled = true;
+    }
+
+    /**
+     * Stops profiling. Recorded data is kept until {@link #reset()}
+     */
+    public synchronized void stop() {
+        configured = true;
+        enabled = false;
+        mainThread = null;
+    }
+
+    /**
+     * Checks if the profiler is running
+     *
+     * @return {@code true} if running; {@code false} if not
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Clears all recorded ticks and spike snapshots */
+    public synchronized void reset() {
+        serverTimes.clear();
+        worldTimes.clear();
+        spikes.clear();
+        spikeCount = 0;
+    }
+
+    /** Reloads the profiler settings from the server configuration */
+    public synchronized void reload() {
+        spikeThreshold = Configuration.getServerConfig().getProfilerSpikeThreshold() * 1000000L;
+        if (Configuration.getServerConfig().isProfilerEnabled()) {
+            start();
+        }
+        else {
+            stop();
+        }
+    }
+
+    /**
+     * Sets the duration above which a tick is captured as a {@link TickSnapshot}
+     *
+     * @param millis
+     *         the threshold in milliseconds
+     */
+    public synchronized void setSpikeThreshold(long millis) {
+        spikeThreshold = Math.max(millis, 1) * 1000000L;
+    }
+
+    /**
+     * Gets the duration above which a tick is captured as a {@link TickSnapshot}
+     *
+     * @return the threshold in milliseconds
+     */
+    public synchronized long getSpikeThreshold() {
+        return spikeThreshold / 1000000L;
+    }
+
+    /**
+     * Marks the start of a profiled section.<br>
+     * Pass the result to {@link #end(ProfilerSection, long, Object, Object)} once the section is done.
+     *
+     * @return the start time, or 0 if the profiler is off or this is not the main thread
+     */
+    public long begin() {
+        if (!enabled || Thread.currentThread() != mainThread) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a profiled section.<br>
+     * The source and detail are only turned into text if the tick is captured, so pass existing objects
+     * (such as the plugin and the hook class) rather than building a String.
+     *
+     * @param section
+     *         the {@link ProfilerSection} the time counts towards
+     * @param start
+     *         the time returned by {@link #begin()}
+     * @param source
+     *         what was run, such as a plugin or task owner; may be null
+     * @param detail
+     *         what it was run for, such as a hook class or command name; may be null
+     */
+    public void end(ProfilerSection section, long start, Object source, Object detail) {
+        if (start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        sectionNanos[section.ordinal()] += nanos;
+        if (nanos <= slowestNanos[SLOWEST - 1]) {
+            return;
+        }
+        int index = SLOWEST - 1;
+        while (index > 0 && slowestNanos[index - 1] < nanos) {
+            slowestNanos[index] = slowestNanos[index - 1];
+            slowestSections[index] = slowestSections[index - 1];
+            slowestSources[index] = slowestSources[index - 1];
+            slowestDetails[index] = slowestDetails[index - 1];
+            index--;
+        }
+        slowestNanos[index] = nanos;
+        slowestSections[index] = section;
+        slowestSources[index] = source;
+        slowestDetails[index] = detail;
+    }
+
+    /**
+     * Internal method called as a new tick starts (with the ServerTickHook) to complete the previous tick
+     */
+    public void tickStarted() {
+        if (!configured) {
+            reload();
+        }
+        if (!enabled) {
+            return;
+        }
+        Server server = Canary.getServer();
+        if (server == null) {
+            return;
+        }
+        if (mainThread != Thread.currentThread()) {
+            // First profiled tick, nothing has been attributed yet
+            mainThread = Thread.currentThread();
+            clearTick();
+            return;
+        }
+        int tick = server.getCurrentTick() - 1;
+        int index = ((tick % 100) + 100) % 100;
+        long tickNanos = server.getTickTimeArray()[index];
+
+        synchronized (this) {
+            serverTimes.record(tickNanos);
+            Map<String, Long> worlds = null;
+            boolean spike = spikeThreshold > 0 && tickNanos > spikeThreshold;
+            if (spike) {
+                worlds = new LinkedHashMap<String, Long>();
+            }
+            for (World world : server.getWorldManager().getAllWorlds()) {
+                long worldNanos = world.getNanoTick(index);
+                TickTimes times = worldTimes.get(world.getFqName());
+                if (times == null) {
+                    times = new TickTimes(WINDOW);
+                    worldTimes.put(world.getFqName(), times);
+                }
+                times.record(worldNanos);
+                if (spike) {
+                    worlds.put(world.getFqName(), worldNanos);
+                }
+            }
+            if (spike) {
+                captureSpike(tick, tickNanos, worlds);
+            }
+        }
+        clearTick();
+    }
+
+    /**
+     * Gets a percentile of the recent tick durations (milliseconds per tick)
+     *
+     * @param percentile
+     *         the percentile (0 - 100)
+     *
+     * @return the duration in nanoseconds
+     */
+    public synchronized long getTickPercentile(double percentile) {
+        return serverTimes.percentile(percentile);
+    }
+
+    /**
+     * Gets the average of the recent tick durations
+     *
+     * @return the duration in nanoseconds
+     */
+    public synchronized long getTickAverage() {
+        return serverTimes.average();
+    }
+
+    /**
+     * Gets a percentile of a World's recent tick durations
+     *
+     * @param world
+     *         the fully qualified name of the World
+     * @param percentile
+     *         the percentile (0 - 100)
+     *
+     * @return the duration in nanoseconds, 0 if the World has not been profiled
+     */
+    public synchronized long getWorldTickPercentile(String world, double percentile) {
+        TickTimes times = worldTimes.get(world);
+        return times == null ? 0 : times.percentile(percentile);
+    }
+
+    /**
+     * Gets the fully qualified names of the profiled Worlds
+     *
+     * @return the World names
+     */
+    public synchronized List<String> getProfiledWorlds() {
+        return new ArrayList<String>(worldTimes.keySet());
+    }
+
+    /**
+     * Gets the number of ticks in the current window
+     *
+     * @return the tick count
+     */
+    public synchronized int getProfiledTicks() {
+        return serverTimes.count();
+    }
+
+    /**
+     * Gets the total number of spikes captured since the last reset
+     *
+     * @return the spike count
+     */
+    public synchronized long getSpikeCount() {
+        return spikeCount;
+    }
+
+    /**
+     * Gets the most recent spike snapshots, oldest first
+     *
+     * @return the {@link TickSnapshot}s
+     */
+    public synchronized List<TickSnapshot> getSpikes() {
+        return new ArrayList<TickSnapshot>(spikes);
+    }
+
+    /**
+     * Writes the current tick statistics and the spike snapshots to a file
+     *
+     * @param file
+     *         the {@link File} to write to
+     *
+     * @throws IOException
+     *         if the file could not be written
+     */
+    public void dump(File file) throws IOException {
+        if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        PrintWriter writer = null;
+        try {
+            writer = new PrintWriter(new FileWriter(file));
+            synchronized (this) {
+                writer.printf("Ticks: %d, Spike threshold: %dms, Spikes: %d%n", serverTimes.count(), getSpikeThreshold(), spikeCount);
+                writer.printf("Server MSPT: avg %.3f, p50 %.3f, p95 %.3f, p99 %.3f, max %.3f%n",
+                        serverTimes.average() / 1000000.0D, serverTimes.percentile(50) / 1000000.0D, serverTimes.percentile(95) / 1000000.0D,
+                        serverTimes.percentile(99) / 1000000.0D, serverTimes.percentile(100) / 1000000.0D
+                             );
+                for (Map.Entry<String, TickTimes> world : worldTimes.entrySet()) {
+                    TickTimes times = world.getValue();
+                    writer.printf("World %s MSPT: avg %.3f, p50 %.3f, p95 %.3f, p99 %.3f, max %.3f%n", world.getKey(),
+                            times.average() / 1000000.0D, times.percentile(50) / 1000000.0D, times.percentile(95) / 1000000.0D,
+                            times.percentile(99) / 1000000.0D, times.percentile(100) / 1000000.0D
+                                 );
+                }
+                for (TickSnapshot snapshot : spikes) {
+                    writer.println(snapshot);
+                }
+            }
+        }
+        finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    private void captureSpike(int tick, long tickNanos, Map<String, Long> worlds) {
+        List<String> slowest = new ArrayList<String>(SLOWEST);
+        for (int index = 0; index < SLOWEST && slowestSections[index] != null; index++) {
+            slowest.add(String.format("%s %.3fms %s %s", slowestSections[index].name(), slowestNanos[index] / 1000000.0D,
+                    describe(slowestSources[index]), describe(slowestDetails[index])
+                                     ));
+        }
+        if (spikes.size() == SPIKES) {
+            spikes.pollFirst();
+        }
+        spikes.addLast(new TickSnapshot(tick, System.currentTimeMillis(), tickNanos, sectionNanos.clone(), worlds, slowest));
+        spikeCount++;
+    }
+
+    private void clearTick() {
+        Arrays.fill(sectionNanos, 0);
+        Arrays.fill(slowestNanos, 0);
+        Arrays.fill(slowestSections, null);
+        Arrays.fill(slowestSources, null);
+        Arrays.fill(slowestDetails, null);
+    }
+
+    private static String describe(Object object) {
+        if (object == null) {
+            return "";
+        }
+        if (object instanceof Class) {
+            return ((Class<?>) object).getSimpleName();
+        }
+        if (object instanceof Plugin) {
+            return ((Plugin) object).getName();
+        }
+        return object.toString();
+    }
+}
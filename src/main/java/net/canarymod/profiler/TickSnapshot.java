@@ -0,0 +1,99 @@
+package net.canarymod.profiler;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact record of a tick that went over the spike threshold of the {@link TickProfiler}
+ */
+public final class TickSnapshot {
+    private final int tick;
+    private final long timestamp;
+    private final long tickNanos;
+    private final long[] sectionNanos;
+    private final Map<String, Long> worldNanos;
+    private final List<String> slowest;
+
+    TickSnapshot(int tick, long timestamp, long tickNanos, long[] sectionNanos, Map<String, Long> worldNanos, List<String> slowest) {
+        this.tick = tick;
+        this.timestamp = timestamp;
+        this.tickNanos = tickNanos;
+        this.sectionNanos = sectionNanos;
+        this.worldNanos = Collections.unmodifiableMap(worldNanos);
+        this.slowest = Collections.unmodifiableList(slowest);
+    }
+
+    /**
+     * Gets the Server tick number
+     *
+     * @return the tick
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the time the tick was captured
+     *
+     * @return the timestamp in milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the total duration of the tick
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Gets the time spent in a {@link ProfilerSection} during the tick
+     *
+     * @param section
+     *         the {@link ProfilerSection}
+     *
+     * @return the time in nanoseconds
+     */
+    public long getSectionNanos(ProfilerSection section) {
+        return sectionNanos[section.ordinal()];
+    }
+
+    /**
+     * Gets the time each World took during the tick, keyed by the World's fully qualified name
+     *
+     * @return the world times in nanoseconds
+     */
+    public Map<String, Long> getWorldNanos() {
+        return worldNanos;
+    }
+
+    /**
+     * Gets descriptions of the slowest hook listeners, tasks, commands and packets of the tick, slowest first
+     *
+     * @return the slowest entries
+     */
+    public List<String> getSlowest() {
+        return slowest;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Tick %d @ %tF %<tT.%<tL: %.3fms", tick, timestamp, tickNanos / 1000000.0D));
+        for (ProfilerSection section : ProfilerSection.values()) {
+            builder.append(String.format(" %s=%.3fms", section.name(), getSectionNanos(section) / 1000000.0D));
+        }
+        for (Map.Entry<String, Long> world : worldNanos.entrySet()) {
+            builder.append(String.format("%n  World %s: %.3fms", world.getKey(), world.getValue() / 1000000.0D));
+        }
+        for (String entry : slowest) {
+            builder.append(String.format("%n  %s", entry));
+        }
+        return builder.toString();
+    }
+}
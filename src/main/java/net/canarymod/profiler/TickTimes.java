@@ -0,0 +1,57 @@
+package net.canarymod.profiler;
+
+import java.util.Arrays;
+
+/**
+ * Rolling window of tick durations
+ * <p/>
+ * Keeps the most recent durations in a ring, percentiles are computed from a sorted copy on request.
+ * This class is not thread-safe, the {@link TickProfiler} guards all access.
+ */
+final class TickTimes {
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    TickTimes(int window) {
+        samples = new long[window];
+    }
+
+    void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    void clear() {
+        next = 0;
+        count = 0;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100.0D) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    long average() {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int index = 0; index < count; index++) {
+            total += samples[index];
+        }
+        return total / count;
+    }
+}
@@ -0,0 +1,139 @@
+package net.canarymod.tasks;
+
+import net.canarymod.plugin.Plugin;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous Server Task
+ * <p/>
+ * Extend this class to run work off of the Server's main thread, on the pool shared by all {@link TaskOwner}s.<br>
+ * Use this for blocking work such as file, database or network I/O that would otherwise stall the tick.<br>
+ * The Server's API is NOT thread-safe, use {@link #continueOnMainThread(Runnable)} to hand results back to the main thread.
+ *
+ * @see ServerTaskManager
+ */
+public abstract class AsyncServerTask {
+    private final TaskOwner owner;
+    private final long delay;
+    private final long period;
+    private final TimeUnit unit;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructs a one-time use AsyncServerTask
+     *
+     * @param owner
+     *         the {@link TaskOwner} of the task, typically a {@link Plugin}
+     * @param delay
+     *         the delay in milliseconds before executing. Set to 0 or less to execute as soon as a thread is available
+     *
+     * @throws IllegalArgumentException
+     *         if owner is null
+     */
+    public AsyncServerTask(TaskOwner owner, long delay) {
+        this(owner, delay, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs either a one-time use or repeating AsyncServerTask
+     *
+     * @param owner
+     *         the {@link TaskOwner} of the task, typically a {@link Plugin}
+     * @param delay
+     *         the delay before the first execution. Set to 0 or less to execute as soon as a thread is available
+     * @param period
+     *         the delay between the end of one execution and the start of the next. Set to 0 or less for one-time use
+     * @param unit
+     *         the {@link TimeUnit} of the delay and period
+     *
+     * @throws IllegalArgumentException
+     *         if owner or unit is null
+     */
+    public AsyncServerTask(TaskOwner owner, long delay, long period, TimeUnit unit) {
+        if (owner == null) {
+            throw new IllegalArgumentException("An AsyncServerTask requires an owner.");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("An AsyncServerTask requires a TimeUnit.");
+        }
+        this.owner = owner;
+        this.delay = Math.max(delay, 0);
+        this.period = Math.max(period, 0);
+        this.unit = unit;
+    }
+
+    /**
+     * Gets whether the AsyncServerTask repeats
+     *
+     * @return {@code true} if repeating; {@code false} if not
+     */
+    public final boolean isRepeating() {
+        return period > 0;
+    }
+
+    /**
+     * Gets whether the AsyncServerTask has been cancelled<br>
+     * Long running work should check this periodically and stop early once cancelled.
+     *
+     * @return {@code true} if cancelled; {@code false} if not
+     */
+    public final boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the {@link TaskOwner} that owns this task
+     *
+     * @return the {@link TaskOwner} owner
+     */
+    public final TaskOwner getOwner() {
+        return owner;
+    }
+
+    /** Execution method. Override and insert your logic here. This is NOT called on the Server's main thread. */
+    public abstract void run();
+
+    /**
+     * Queues a callback to be run on the Server's main thread with the next tick.<br>
+     * The callback is owned by this task's {@link TaskOwner} and is dropped if the task gets cancelled before it runs.
+     *
+     * @param callback
+     *         the {@link Runnable} to run on the main thread
+     *
+     * @return {@code true} if queued; {@code false} if the task has been cancelled
+     */
+    protected final boolean continueOnMainThread(final Runnable callback) {
+        if (cancelled) {
+            return false;
+        }
+        return ServerTaskManager.addTask(new ServerTask(owner, 0) {
+            @Override
+            public void run() {
+                if (!cancelled) {
+                    callback.run();
+                }
+            }
+        });
+    }
+
+    /** Internal use method to get the initial delay */
+    final long getDelay() {
+        return delay;
+    }
+
+    /** Internal use method to get the repeat period */
+    final long getPeriod() {
+        return period;
+    }
+
+    /** Internal use method to get the TimeUnit of delay and period */
+    final TimeUnit getUnit() {
+        return unit;
+    }
+
+    /** Internal use method to flag the task as cancelled */
+    final void cancel() {
+        this.cancelled = true;
+    }
+}
@@ -0,0 +1,126 @@
+package net.canarymod.tasks;
+
+import net.canarymod.plugin.Priority;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+/**
+ * Ready Queue
+ * <p/>
+ * Holds the {@link ServerTask}s that are due but have not been run yet, so that a tick over its time budget can
+ * defer the remainder to the next tick.<br>
+ * Tasks are handed out by {@link Priority} first, then round-robin across {@link TaskOwner}s, then in the order they became due.
+ * <p/>
+ * This class is not thread-safe, the {@link ServerTaskManager} guards all access.
+ */
+final class ReadyQueue {
+    private final Tier[] tiers;
+    private int size;
+
+    ReadyQueue() {
+        tiers = new Tier[Priority.values().length];
+        for (int index = 0; index < tiers.length; index++) {
+            tiers[index] = new Tier();
+        }
+    }
+
+    /**
+     * Gets whether there are no tasks waiting
+     *
+     * @return {@code true} if empty; {@code false} if not
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of tasks waiting
+     *
+     * @return the waiting count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Queues a due {@link TimingWheel.Entry}
+     *
+     * @param entry
+     *         the entry to queue
+     */
+    void add(TimingWheel.Entry entry) {
+        // Priority is declared lowest first, tiers are polled highest first
+        tiers[tiers.length - 1 - entry.task.getPriority().ordinal()].add(entry);
+        size++;
+    }
+
+    /**
+     * Takes the next {@link TimingWheel.Entry} to be run
+     *
+     * @return the next entry or {@code null} if empty
+     */
+    TimingWheel.Entry poll() {
+        if (size == 0) {
+            return null;
+        }
+        for (Tier tier : tiers) {
+            TimingWheel.Entry entry = tier.poll();
+            if (entry != null) {
+                size--;
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /** Drops every waiting {@link TimingWheel.Entry} */
+    void clear() {
+        for (Tier tier : tiers) {
+            tier.clear();
+        }
+        size = 0;
+    }
+
+    /** The owners with waiting tasks of a single priority, in round-robin order */
+    private static final class Tier {
+        private final HashMap<TaskOwner, ArrayDeque<TimingWheel.Entry>> queues = new HashMap<TaskOwner, ArrayDeque<TimingWheel.Entry>>();
+        private final ArrayDeque<ArrayDeque<TimingWheel.Entry>> rotation = new ArrayDeque<ArrayDeque<TimingWheel.Entry>>();
+
+        void add(TimingWheel.Entry entry) {
+            TaskOwner owner = entry.task.getOwner();
+            ArrayDeque<TimingWheel.Entry> queue = queues.get(owner);
+            if (queue == null) {
+                queue = new ArrayDeque<TimingWheel.Entry>();
+                queues.put(owner, queue);
+                rotation.addLast(queue);
+            }
+            queue.addLast(entry);
+        }
+
+        TimingWheel.Entry poll() {
+            ArrayDeque<TimingWheel.Entry> queue = rotation.pollFirst();
+            if (queue == null) {
+                return null;
+            }
+            TimingWheel.Entry entry = queue.pollFirst();
+            if (queue.isEmpty()) {
+                queues.remove(entry.task.getOwner());
+            }
+            else {
+                rotation.addLast(queue);
+            }
+            return entry;
+        }
+
+        void clear() {
+            for (ArrayDeque<TimingWheel.Entry> queue : rotation) {
+                for (TimingWheel.Entry entry : queue) {
+                    entry.ready = false;
+                }
+            }
+            queues.clear();
+            rotation.clear();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package net.canarymod.tasks;
 
 import net.canarymod.plugin.Plugin;
+import net.canarymod.plugin.Priority;
 
 /**
  * Server Task
@@ -16,6 +17,7 @@ public abstract class ServerTask {
     private final long schedule;
     private final boolean continuous;
     private final TaskOwner owner;
+    private final Priority priority;
     private long delay;
 
     /**
@@ -48,13 +50,39 @@ public abstract class ServerTask {
      *         if owner is null
      */
     public ServerTask(TaskOwner owner, long delay, boolean continuous) {
+        this(owner, delay, continuous, Priority.NORMAL);
+    }
+
+    /**
+     * Constructs either a one-time use or continuous ServerTask with a {@link Priority}<br>
+     * When the Server is over its task time budget for a tick, higher priority tasks are run first
+     * and the remaining tasks are deferred to the next tick.
+     *
+     * @param owner
+     *         the {@link TaskOwner} of the task, typically a {@link Plugin}
+     * @param delay
+     *         the delay before executing. Set to 0 or less to run within the next Server tick<br>
+     *         If delay is 0 or less, the task will run with each server tick
+     * @param continuous
+     *         {@code true} for continuous; {@code false} for one-time use
+     * @param priority
+     *         the {@link Priority} of the task
+     *
+     * @throws IllegalArgumentException
+     *         if owner or priority is null
+     */
+    public ServerTask(TaskOwner owner, long delay, boolean continuous, Priority priority) {
         if (owner == null) {
             throw new IllegalArgumentException("A ServerTask requires an owner.");
         }
+        if (priority == null) {
+            throw new IllegalArgumentException("A ServerTask requires a priority.");
+        }
         this.schedule = delay;
         this.delay = delay;
         this.continuous = continuous;
         this.owner = owner;
+        this.priority = priority;
     }
 
     /**
@@ -75,6 +103,15 @@ public abstract class ServerTask {
         return owner;
     }
 
+    /**
+     * Gets the {@link Priority} of this task
+     *
+     * @return the {@link Priority}
+     */
+    public final Priority getPriority() {
+        return priority;
+    }
+
     /** Execution method. Override and insert your logic here. */
     public abstract void run();
 
@@ -85,18 +122,23 @@ public abstract class ServerTask {
     public void onReset() {
     }
 
-    /** Internal use method to decrease the delay */
-    final void decrementDelay() {
-        --delay;
+    /**
+     * Internal use method to get the ticks remaining before the task executes
+     *
+     * @return the remaining delay
+     */
+    final long getDelay() {
+        return delay;
     }
 
     /**
-     * Internal use method to check if it is time to run the task
+     * Internal use method to store the ticks remaining when the task is taken out of the queue
      *
-     * @return {@code true} for execute; {@code false} for not
+     * @param delay
+     *         the remaining delay
      */
-    final boolean shouldExecute() {
-        return delay <= 0;
+    final void setDelay(long delay) {
+        this.delay = delay;
     }
 
     /** Internal use method to reset the delay on continuous tasks */
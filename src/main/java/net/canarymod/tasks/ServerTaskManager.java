@@ -1,31 +1,62 @@
 package net.canarymod.tasks;
 
+import net.canarymod.Canary;
+import net.canarymod.config.Configuration;
+import net.canarymod.metrics.Counter;
+import net.canarymod.metrics.Gauge;
+import net.canarymod.metrics.Histogram;
+import net.canarymod.metrics.MetricsRegistry;
 import net.canarymod.plugin.Plugin;
+import net.canarymod.profiler.ProfilerSection;
+import net.canarymod.profiler.TickProfiler;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static net.canarymod.Canary.log;
 
 /**
  * Server Task Manager
  * <p/>
- * The Manager for {@link ServerTask}<br>
- * If an exception occurs while running a task, it gets removed from the queue, regardless of continuous status
+ * The Manager for {@link ServerTask} and {@link AsyncServerTask}<br>
+ * If an exception occurs while running a task, it gets removed from the queue, regardless of continuous or repeating status<br>
+ * When a tick budget is set, due tasks that do not fit into it are deferred to the next tick,
+ * highest {@link net.canarymod.plugin.Priority} first and round-robin across {@link TaskOwner}s
  *
  * @author Jason (darkdiplomat)
  */
 public final class ServerTaskManager {
     private final static ServerTaskManager $;
-    private final ConcurrentHashMap<ServerTask, TaskOwner> tasks;
+    private final ConcurrentHashMap<ServerTask, TimingWheel.Entry> tasks;
+    private final TimingWheel wheel;
+    private final ReadyQueue ready;
+    private final HashMap<Class<?>, TaskTimings> timings;
+    private long budget = -1;
+    private long budgetOverruns;
+    private long deferredTasks;
+    private final ConcurrentHashMap<AsyncServerTask, Future<?>> asyncTasks;
+    private ScheduledThreadPoolExecutor asyncPool;
+    private Histogram taskTimer;
+    private Counter taskErrors;
 
     static {
         $ = new ServerTaskManager();
     }
 
     private ServerTaskManager() {
-        tasks = new ConcurrentHashMap<ServerTask, TaskOwner>();
+        tasks = new ConcurrentHashMap<ServerTask, TimingWheel.Entry>();
+        wheel = new TimingWheel();
+        ready = new ReadyQueue();
+        timings = new HashMap<Class<?>, TaskTimings>();
+        asyncTasks = new ConcurrentHashMap<AsyncServerTask, Future<?>>();
     }
 
     /**
@@ -38,7 +69,9 @@ public final class ServerTaskManager {
      */
     public static boolean addTask(ServerTask task) {
         synchronized ($.tasks) {
-            $.tasks.put(task, task.getOwner());
+            if (!$.tasks.containsKey(task)) {
+                $.tasks.put(task, $.wheel.schedule(task, task.getDelay()));
+            }
             return true;
         }
     }
@@ -54,55 +87,351 @@ public final class ServerTaskManager {
      */
     public static boolean removeTask(ServerTask task) {
         synchronized ($.tasks) {
-            return $.tasks.remove(task) != null;
+            TimingWheel.Entry entry = $.tasks.remove(task);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.ready || $.wheel.cancel(entry)) {
+                // Keep what is left of the countdown should the task be added again
+                task.setDelay($.wheel.remaining(entry));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Adds an {@link AsyncServerTask} to the shared asynchronous pool<br>
+     * A task that has been removed is cancelled for good and can not be added again
+     *
+     * @param task
+     *         the {@link AsyncServerTask} to be added
+     *
+     * @return {@code true} if successfully added; {@code false} if the task has been cancelled or the pool has been stopped
+     */
+    public static boolean addAsyncTask(AsyncServerTask task) {
+        synchronized ($.asyncTasks) {
+            if (task.isCancelled()) {
+                return false;
+            }
+            if ($.asyncTasks.containsKey(task)) {
+                return true;
+            }
+            ScheduledThreadPoolExecutor pool = $.asyncPool();
+            if (pool.isShutdown()) {
+                return false;
+            }
+            AsyncRunner runner = new AsyncRunner(task);
+            Future<?> future;
+            if (task.isRepeating()) {
+                future = pool.scheduleWithFixedDelay(runner, task.getDelay(), task.getPeriod(), task.getUnit());
+            }
+            else {
+                future = pool.schedule(runner, task.getDelay(), task.getUnit());
+            }
+            $.asyncTasks.put(task, future);
+            return true;
         }
     }
 
     /**
-     * Removes all the tasks for a specified {@link TaskOwner}
+     * Removes and cancels an {@link AsyncServerTask}<br>
+     * An execution already in progress is not interrupted, but any callbacks it queues for the main thread are dropped
+     *
+     * @param task
+     *         the {@link AsyncServerTask} to be removed
+     *
+     * @return {@code true} if removed; {@code false} if not found
+     */
+    public static boolean removeAsyncTask(AsyncServerTask task) {
+        synchronized ($.asyncTasks) {
+            Future<?> future = $.asyncTasks.remove(task);
+            task.cancel();
+            if (future == null) {
+                return false;
+            }
+            future.cancel(false);
+            return true;
+        }
+    }
+
+    /**
+     * Removes all the tasks, both synchronous and asynchronous, for a specified {@link TaskOwner}
      *
      * @param owner
      *         the {@link TaskOwner} to remove tasks for
      */
     public static void removeTasks(TaskOwner owner) {
+        synchronized ($.asyncTasks) {
+            Iterator<Entry<AsyncServerTask, Future<?>>> asyncIter = $.asyncTasks.entrySet().iterator();
+            boolean removed = false;
+            while (asyncIter.hasNext()) {
+                Entry<AsyncServerTask, Future<?>> entry = asyncIter.next();
+                if (entry.getKey().getOwner().equals(owner)) {
+                    entry.getKey().cancel();
+                    entry.getValue().cancel(false);
+                    asyncIter.remove();
+                    removed = true;
+                }
+            }
+            if (removed) {
+                $.asyncPool.purge();
+            }
+        }
         synchronized ($.tasks) {
-            Iterator<Entry<ServerTask, TaskOwner>> taskIter = $.tasks.entrySet().iterator();
+            Iterator<Entry<ServerTask, TimingWheel.Entry>> taskIter = $.tasks.entrySet().iterator();
             while (taskIter.hasNext()) {
-                if (taskIter.next().getValue().equals(owner)) {
+                Entry<ServerTask, TimingWheel.Entry> entry = taskIter.next();
+                if (entry.getKey().getOwner().equals(owner)) {
+                    $.wheel.cancel(entry.getValue());
                     taskIter.remove();
                 }
             }
         }
     }
 
+    /** Internal method called when the Server stops to cancel all asynchronous tasks and stop the pool. */
+    public static void stopAsyncTasks() {
+        synchronized ($.asyncTasks) {
+            for (AsyncServerTask task : $.asyncTasks.keySet()) {
+                task.cancel();
+            }
+            $.asyncTasks.clear();
+            if ($.asyncPool != null) {
+                $.asyncPool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Sets the time budget for running tasks in a single tick<br>
+     * At least one due task is always run per tick, regardless of the budget
+     *
+     * @param nanos
+     *         the budget in nanoseconds; 0 or less for no budget
+     */
+    public static void setTickBudget(long nanos) {
+        synchronized ($.tasks) {
+            $.budget = Math.max(nanos, 0);
+        }
+    }
+
+    /**
+     * Gets the time budget for running tasks in a single tick
+     *
+     * @return the budget in nanoseconds; 0 for no budget
+     */
+    public static long getTickBudget() {
+        synchronized ($.tasks) {
+            return $.loadBudget();
+        }
+    }
+
+    /**
+     * Gets the number of ticks that ran out of budget with due tasks left over
+     *
+     * @return the overrun count
+     */
+    public static long getBudgetOverruns() {
+        synchronized ($.tasks) {
+            return $.budgetOverruns;
+        }
+    }
+
+    /**
+     * Gets the total number of times a due task was deferred to the next tick
+     *
+     * @return the deferred count
+     */
+    public static long getDeferredTasks() {
+        synchronized ($.tasks) {
+            return $.deferredTasks;
+        }
+    }
+
+    /**
+     * Gets the execution timings, one {@link TaskTimings} per {@link ServerTask} class
+     *
+     * @return the {@link TaskTimings}
+     */
+    public static List<TaskTimings> getTaskTimings() {
+        synchronized ($.tasks) {
+            return new ArrayList<TaskTimings>($.timings.values());
+        }
+    }
+
+    /** Clears the execution timings and budget counters */
+    public static void resetTaskTimings() {
+        synchronized ($.tasks) {
+            $.timings.clear();
+            $.budgetOverruns = 0;
+            $.deferredTasks = 0;
+        }
+    }
+
     /** Internal method called to run the tasks or decrease timers. */
     public static void runTasks() {
         if ($.tasks.isEmpty()) {
-            // No tasks? no execution needed
+            // No tasks? no execution needed, but drop anything deferred for tasks that have been removed since
+            if (!$.ready.isEmpty()) {
+                synchronized ($.tasks) {
+                    $.ready.clear();
+                }
+            }
             return;
         }
         synchronized ($.tasks) {
-            Iterator<Entry<ServerTask, TaskOwner>> taskIter = $.tasks.entrySet().iterator();
-            while (taskIter.hasNext()) {
-                ServerTask task = taskIter.next().getKey();
-                task.decrementDelay();
-                if (task.shouldExecute()) {
-                    try {
-                        task.run();
-                    }
-                    catch (Throwable thrown) {
-                        log.error("An Exception occurred while executing ServerTask: " + task.getClass().getSimpleName(), thrown);
-                        taskIter.remove();
-                        continue;
-                    }
+            $.wheel.advance();
+            TimingWheel.Entry entry;
+            while ((entry = $.wheel.pollExpired()) != null) {
+                entry.ready = true;
+                $.ready.add(entry);
+            }
+
+            long budget = $.loadBudget();
+            if ($.taskTimer == null) {
+                $.registerMetrics(Canary.metrics());
+            }
+            TickProfiler profiler = Canary.profiler();
+            long start = System.nanoTime();
+            while (!$.ready.isEmpty()) {
+                // Checked before every task, so tasks that failed or were removed count towards the budget as well
+                if (budget > 0 && System.nanoTime() - start >= budget) {
+                    $.budgetOverruns++;
+                    $.deferredTasks += $.ready.size();
+                    break;
+                }
+                entry = $.ready.poll();
+                entry.ready = false;
+                ServerTask task = entry.task;
+                if ($.tasks.get(task) != entry) {
+                    // Removed while waiting
+                    continue;
+                }
+                long taskStart = System.nanoTime();
+                long profileStart = profiler.begin();
+                try {
+                    task.run();
+                }
+                catch (Throwable thrown) {
+                    log.error("An Exception occurred while executing ServerTask: " + task.getClass().getSimpleName(), thrown);
+                    $.taskErrors.increment();
+                    $.tasks.remove(task, entry);
+                    continue;
+                }
+                finally {
+                    long taskNanos = System.nanoTime() - taskStart;
+                    $.timingsFor(task).record(taskNanos);
+                    $.taskTimer.record(taskNanos);
+                    profiler.end(ProfilerSection.TASKS, profileStart, task.getOwner(), task.getClass());
+                }
+                if ($.tasks.get(task) == entry) {
                     if (!task.isContinuous()) {
-                        taskIter.remove();
+                        $.tasks.remove(task);
                     }
                     else {
                         task.reset();
+                        if ($.tasks.get(task) == entry) {
+                            $.wheel.reschedule(entry, task.getDelay());
+                        }
                     }
                 }
+                // else Removed (or replaced) while running
             }
         }
     }
+
+    private long loadBudget() {
+        if (budget < 0) {
+            budget = Math.max(Configuration.getServerConfig().getTaskTickBudget(), 0);
+        }
+        return budget;
+    }
+
+    /** Registers the task statistics with the {@link MetricsRegistry}, called with the first run */
+    private void registerMetrics(MetricsRegistry metrics) {
+        taskErrors = metrics.counter("canary_task_errors_total", "Server Tasks removed for throwing an Exception");
+        metrics.gauge("canary_tasks_scheduled", "Server Tasks waiting to run", new Gauge() {
+            @Override
+            public double getValue() {
+                return tasks.size();
+            }
+        });
+        metrics.gauge("canary_async_tasks_scheduled", "Asynchronous Server Tasks waiting to run", new Gauge() {
+            @Override
+            public double getValue() {
+                return asyncTasks.size();
+            }
+        });
+        metrics.gauge("canary_task_budget_overruns", "Ticks that ran out of task budget since the last reset", new Gauge() {
+            @Override
+            public double getValue() {
+                return getBudgetOverruns();
+            }
+        });
+        metrics.gauge("canary_task_deferrals", "Due Server Tasks deferred to the next tick since the last reset", new Gauge() {
+            @Override
+            public double getValue() {
+                return getDeferredTasks();
+            }
+        });
+        taskTimer = metrics.timer("canary_task_seconds", "Time taken to run a Server Task");
+    }
+
+    private TaskTimings timingsFor(ServerTask task) {
+        TaskTimings timing = timings.get(task.getClass());
+        if (timing == null) {
+            timing = new TaskTimings(task.getClass().getName());
+            timings.put(task.getClass(), timing);
+        }
+        return timing;
+    }
+
+    /** Lazily creates the shared pool, guarded by the asyncTasks lock */
+    private ScheduledThreadPoolExecutor asyncPool() {
+        if (asyncPool == null) {
+            asyncPool = new ScheduledThreadPoolExecutor(Configuration.getServerConfig().getAsyncTaskThreads(), new AsyncThreadFactory());
+        }
+        return asyncPool;
+    }
+
+    /** Wraps an {@link AsyncServerTask} for the pool, handling exceptions and completion */
+    private static final class AsyncRunner implements Runnable {
+        private final AsyncServerTask task;
+
+        AsyncRunner(AsyncServerTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (task.isCancelled()) {
+                return;
+            }
+            try {
+                task.run();
+            }
+            catch (Throwable thrown) {
+                log.error("An Exception occurred while executing AsyncServerTask: " + task.getClass().getSimpleName(), thrown);
+                removeAsyncTask(task);
+                return;
+            }
+            if (!task.isRepeating()) {
+                synchronized ($.asyncTasks) {
+                    $.asyncTasks.remove(task);
+                }
+            }
+        }
+    }
+
+    /** Creates the daemon threads of the shared pool */
+    private static final class AsyncThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Canary Async Task #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package net.canarymod.tasks;
+
+import net.canarymod.metrics.Histogram;
+
+/**
+ * Task Timings
+ * <p/>
+ * Execution time histogram for a kind of {@link ServerTask}.<br>
+ * Durations are recorded into a {@link Histogram}, so percentiles are accurate to within 12.5%.
+ *
+ * @see ServerTaskManager#getTaskTimings()
+ */
+public final class TaskTimings {
+    private final String name;
+    private final Histogram histogram;
+
+    TaskTimings(String name) {
+        this.name = name;
+        this.histogram = new Histogram("canary_task_timings");
+    }
+
+    /**
+     * Gets the name of the task these timings are for
+     *
+     * @return the task name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of recorded executions
+     *
+     * @return the execution count
+     */
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    /**
+     * Gets the total time spent executing
+     *
+     * @return the total time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return histogram.getSum();
+    }
+
+    /**
+     * Gets the average execution time
+     *
+     * @return the average time in nanoseconds
+     */
+    public long getAverageNanos() {
+        return histogram.getMean();
+    }
+
+    /**
+     * Gets the longest execution time
+     *
+     * @return the longest time in nanoseconds
+     */
+    public long getMaxNanos() {
+        return histogram.getMax();
+    }
+
+    /**
+     * Gets the upper bound of the bucket containing the given percentile
+     *
+     * @param percentile
+     *         the percentile (0 - 100)
+     *
+     * @return the percentile time in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        return histogram.getPercentile(percentile);
+    }
+
+    void record(long nanos) {
+        histogram.record(nanos);
+    }
+}
@@ -0,0 +1,220 @@
+package net.canarymod.tasks;
+
+/**
+ * Hierarchical Timing Wheel
+ * <p/>
+ * Internal scheduling structure backing the {@link ServerTaskManager}.<br>
+ * Tasks are hashed into tick slots by their deadline so that insertion and cancellation are O(1)
+ * and advancing a tick only touches the tasks that are actually due (plus the occasional cascade of a higher level slot).
+ * <p/>
+ * Level 0 holds deadlines within the next 64 ticks, each further level covers 64 times the span of the level below it.
+ * Deadlines beyond the top level are parked in an overflow bucket that gets re-hashed each time the top level wraps.
+ * <p/>
+ * This class is not thread-safe, the {@link ServerTaskManager} guards all access.
+ */
+final class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final Bucket[][] wheels;
+    private final Bucket overflow;
+    private long tick;
+    private int size;
+
+    TimingWheel() {
+        wheels = new Bucket[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new Bucket();
+            }
+        }
+        overflow = new Bucket();
+    }
+
+    /**
+     * Gets the current tick of the wheel
+     *
+     * @return the current tick
+     */
+    long currentTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the number of scheduled entries
+     *
+     * @return the entry count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a {@link ServerTask} to expire after the given number of ticks
+     *
+     * @param task
+     *         the {@link ServerTask} to schedule
+     * @param delay
+     *         the delay in ticks; anything less than 1 expires on the next tick
+     *
+     * @return the {@link Entry} handle, used for cancellation and rescheduling
+     */
+    Entry schedule(ServerTask task, long delay) {
+        Entry entry = new Entry(task);
+        reschedule(entry, delay);
+        return entry;
+    }
+
+    /**
+     * Re-inserts an unlinked {@link Entry} to expire after the given number of ticks
+     *
+     * @param entry
+     *         the {@link Entry} to reschedule
+     * @param delay
+     *         the delay in ticks; anything less than 1 expires on the next tick
+     */
+    void reschedule(Entry entry, long delay) {
+        entry.deadline = tick + Math.max(delay, 1L);
+        insert(entry);
+        size++;
+    }
+
+    /**
+     * Removes an {@link Entry} from the wheel
+     *
+     * @param entry
+     *         the {@link Entry} to cancel
+     *
+     * @return {@code true} if the entry was scheduled; {@code false} if it was not
+     */
+    boolean cancel(Entry entry) {
+        if (entry.bucket == null) {
+            return false;
+        }
+        entry.bucket.unlink(entry);
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the number of ticks remaining until an {@link Entry} expires
+     *
+     * @param entry
+     *         the {@link Entry} to check
+     *
+     * @return the remaining ticks
+     */
+    long remaining(Entry entry) {
+        return entry.deadline - tick;
+    }
+
+    /**
+     * Moves the wheel forward by a single tick, cascading higher level slots as their span is reached.<br>
+     * Expired entries are then retrieved with {@link #pollExpired()}
+     */
+    void advance() {
+        tick++;
+        if ((tick & (SPAN - 1)) == 0) {
+            cascade(overflow);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                cascade(wheels[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK]);
+            }
+        }
+    }
+
+    /**
+     * Unlinks and returns the next {@link Entry} expiring on the current tick
+     *
+     * @return the next expired {@link Entry} or {@code null} if there are no more
+     */
+    Entry pollExpired() {
+        Bucket due = wheels[0][(int) tick & SLOT_MASK];
+        Entry entry = due.head;
+        if (entry != null) {
+            due.unlink(entry);
+            size--;
+        }
+        return entry;
+    }
+
+    private void cascade(Bucket bucket) {
+        // Detach first, the overflow bucket may get entries re-linked into it
+        Entry entry = bucket.head;
+        bucket.head = bucket.tail = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.prev = entry.next = null;
+            insert(entry);
+            entry = next;
+        }
+    }
+
+    private void insert(Entry entry) {
+        long remaining = entry.deadline - tick;
+        if (remaining >= SPAN) {
+            overflow.link(entry);
+            return;
+        }
+        int level = 0;
+        while (remaining >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) (entry.deadline >>> (SLOT_BITS * level)) & SLOT_MASK].link(entry);
+    }
+
+    /** A scheduled {@link ServerTask} linked into a wheel slot */
+    static final class Entry {
+        final ServerTask task;
+        long deadline;
+        Bucket bucket;
+        boolean ready; // Due and waiting in the ReadyQueue
+        Entry prev;
+        Entry next;
+
+        Entry(ServerTask task) {
+            this.task = task;
+        }
+    }
+
+    /** Intrusive doubly linked list of the {@link Entry} objects hashed to a slot */
+    private static final class Bucket {
+        Entry head;
+        Entry tail;
+
+        void link(Entry entry) {
+            entry.bucket = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            }
+            else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        void unlink(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            }
+            else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            }
+            else {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+    }
+}
@@ -102,6 +102,7 @@ public class UserAndGroupsProvider {
             // Now we can safely remove the group
             backboneGroups.removeGroup(g);
             groups.remove(g);
+            invalidateHelp(null);
         }
         catch (Exception e) {
             log.error(e.getMessage(), e);
@@ -266,6 +267,7 @@ public class UserAndGroupsProvider {
         content[1] = player.getGroup().getName();
         content[2] = Boolean.toString(player.isMuted());
         playerData.put(player.getUUIDString(), content);
+        invalidateHelp(player.getUUIDString());
     }
 
     /**
@@ -311,10 +313,12 @@ public class UserAndGroupsProvider {
             data[2] = Boolean.toString(player.isMuted());
             playerData.put(player.getUUIDString(), data);
         }
+        invalidateHelp(player.getUUIDString());
     }
 
     public void updateGroup(Group g, boolean reload) {
         backboneGroups.updateGroup(g);
+        invalidateHelp(null);
         if (reload) {
             reloadGroupsData();
         }
@@ -329,6 +333,7 @@ public class UserAndGroupsProvider {
         backboneUsers.removeUser(uuid);
         playerData.remove(uuid);
         this.refreshPlayerInstance(uuid);
+        invalidateHelp(uuid);
     }
 
     public void reloadUserData() {
@@ -339,6 +344,25 @@ public class UserAndGroupsProvider {
     public void reloadGroupsData() {
         groups.clear();
         initGroups();
+        invalidateHelp(null);
+    }
+
+    /**
+     * Drops cached help that may show different commands now
+     *
+     * @param uuid
+     *         the UUID of the player whose data changed; {@code null} if group data changed
+     */
+    private void invalidateHelp(String uuid) {
+        if (Canary.instance() == null || Canary.help() == null) {
+            return;
+        }
+        if (uuid == null) {
+            Canary.help().invalidate();
+        }
+        else {
+            Canary.help().invalidate(uuid);
+        }
     }
 
     public void reloadAll() {
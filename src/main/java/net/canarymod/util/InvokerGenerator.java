@@ -0,0 +1,265 @@
+package net.canarymod.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the class files of the generated {@link MethodInvoker}s.<br>
+ * Each invoker is a final subclass of {@link MethodInvoker} whose call method casts the arguments and calls the target
+ * method directly, defined by a class loader of its own on top of the loader of the method's class,
+ * so it goes away together with the plugin it was generated for.
+ * <p/>
+ * The code is straight-line, so the classes are written as version 49 (Java 5) which does not need stack map frames.
+ */
+final class InvokerGenerator {
+    private static final String PACKAGE = "net/canarymod/util/generated/";
+    private static final String INVOKER = MethodInvoker.class.getName().replace('.', '/');
+    private static final String INVOKE_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final AtomicInteger count = new AtomicInteger();
+
+    private InvokerGenerator() {
+    }
+
+    /**
+     * Checks whether a generated invoker can call the method, it needs to be public and work on objects only
+     *
+     * @param method
+     *         the {@link Method} to check
+     *
+     * @return {@code true} if an invoker can be generated; {@code false} if not
+     */
+    static boolean canGenerate(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || owner.isInterface() || !MethodInvoker.isAccessible(owner)) {
+            return false;
+        }
+        for (Class<?> parameter : method.getParameterTypes()) {
+            if (parameter.isPrimitive() || !MethodInvoker.isAccessible(parameter)) {
+                return false;
+            }
+        }
+        return method.getReturnType() == void.class || !method.getReturnType().isPrimitive();
+    }
+
+    /**
+     * Generates, loads and instantiates an invoker
+     *
+     * @param method
+     *         the {@link Method} to call, checked with {@link #canGenerate(Method)}
+     *
+     * @return the {@link MethodInvoker}
+     *
+     * @throws Exception
+     *         if the class could not be written, defined or instantiated
+     */
+    static MethodInvoker generate(Method method) throws Exception {
+        String name = PACKAGE + "Invoker" + count.incrementAndGet();
+        byte[] bytes = write(name, method);
+        ClassLoader parent = method.getDeclaringClass().getClassLoader();
+        if (parent == null) {
+            parent = MethodInvoker.class.getClassLoader();
+        }
+        Class<?> invoker = new InvokerLoader(parent).define(name.replace('/', '.'), bytes);
+        if (!MethodInvoker.class.isAssignableFrom(invoker)) {
+            throw new IllegalStateException("The class loader of " + method.getDeclaringClass() + " does not share MethodInvoker");
+        }
+        return (MethodInvoker) invoker.newInstance();
+    }
+
+    private static byte[] write(String name, Method method) throws IOException {
+        ConstantPool pool = new ConstantPool();
+        Class<?> owner = method.getDeclaringClass();
+        Class<?>[] parameters = method.getParameterTypes();
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        int thisClass = pool.classRef(name);
+        int superClass = pool.classRef(INVOKER);
+        int superInit = pool.methodRef(INVOKER, "<init>", "()V");
+        int target = pool.methodRef(internalName(owner), method.getName(), descriptor(method));
+        int code = pool.utf8("Code");
+        int init = pool.utf8("<init>");
+        int initDescriptor = pool.utf8("()V");
+        int invoke = pool.utf8("call");
+        int invokeDescriptor = pool.utf8(INVOKE_DESCRIPTOR);
+
+        ByteArrayOutputStream invokeCode = new ByteArrayOutputStream();
+        if (!isStatic) {
+            invokeCode.write(0x2B); // aload_1
+            writeCast(invokeCode, pool, owner);
+        }
+        for (int index = 0; index < parameters.length; index++) {
+            invokeCode.write(0x2C + index); // aload_2, aload_3
+            writeCast(invokeCode, pool, parameters[index]);
+        }
+        invokeCode.write(isStatic ? 0xB8 : 0xB6); // invokestatic, invokevirtual
+        invokeCode.write(target >> 8);
+        invokeCode.write(target);
+        if (method.getReturnType() == void.class) {
+            invokeCode.write(0x01); // aconst_null
+        }
+        invokeCode.write(0xB0); // areturn
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0); // minor
+        out.writeShort(49); // major
+        pool.write(out);
+        out.writeShort(0x0031); // public final super
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(0); // interfaces
+        out.writeShort(0); // fields
+        out.writeShort(2); // methods
+
+        out.writeShort(0x0001); // public <init>()V
+        out.writeShort(init);
+        out.writeShort(initDescriptor);
+        out.writeShort(1);
+        writeCode(out, code, 1, 1, new byte[]{ 0x2A, (byte) 0xB7, (byte) (superInit >> 8), (byte) superInit, (byte) 0xB1 });
+
+        out.writeShort(0x0001); // public call(Object, Object, Object)Object
+        out.writeShort(invoke);
+        out.writeShort(invokeDescriptor);
+        out.writeShort(1);
+        writeCode(out, code, Math.max(1, parameters.length + (isStatic ? 0 : 1)), 4, invokeCode.toByteArray());
+
+        out.writeShort(0); // class attributes
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeCast(ByteArrayOutputStream code, ConstantPool pool, Class<?> type) {
+        if (type == Object.class) {
+            return;
+        }
+        int index = pool.classRef(internalName(type));
+        code.write(0xC0); // checkcast
+        code.write(index >> 8);
+        code.write(index);
+    }
+
+    private static void writeCode(DataOutputStream out, int codeName, int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+    }
+
+    private static String internalName(Class<?> type) {
+        // Arrays are referenced by their descriptor, which is what getName gives for them
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Method method) {
+        StringBuilder builder = new StringBuilder("(");
+        for (Class<?> parameter : method.getParameterTypes()) {
+            builder.append(descriptor(parameter));
+        }
+        return builder.append(')').append(descriptor(method.getReturnType())).toString();
+    }
+
+    private static String descriptor(Class<?> type) {
+        if (type.isArray()) {
+            return internalName(type);
+        }
+        if (type == void.class) {
+            return "V";
+        }
+        if (type.isPrimitive()) {
+            // Only reached for return types, which are never primitive here except void
+            throw new IllegalArgumentException("Primitive types are not supported: " + type);
+        }
+        return "L" + internalName(type) + ";";
+    }
+
+    /** The constant pool of a class file being written */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final HashMap<String, Integer> entries = new HashMap<String, Integer>();
+        private int next = 1;
+
+        int utf8(String value) {
+            Integer index = entries.get("U" + value);
+            if (index == null) {
+                index = add("U" + value);
+                try {
+                    out.writeByte(1);
+                    out.writeUTF(value);
+                }
+                catch (IOException ioex) {
+                    throw new IllegalStateException(ioex);
+                }
+            }
+            return index;
+        }
+
+        int classRef(String internalName) {
+            Integer index = entries.get("C" + internalName);
+            if (index == null) {
+                int name = utf8(internalName);
+                index = add("C" + internalName);
+                write(7, name);
+            }
+            return index;
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            String key = "M" + owner + '.' + name + descriptor;
+            Integer index = entries.get(key);
+            if (index == null) {
+                int ownerIndex = classRef(owner);
+                int nameIndex = utf8(name);
+                int descriptorIndex = utf8(descriptor);
+                int nameAndType = add("N" + name + descriptor);
+                write(12, nameIndex, descriptorIndex);
+                index = add(key);
+                write(10, ownerIndex, nameAndType);
+            }
+            return index;
+        }
+
+        void write(DataOutputStream to) throws IOException {
+            to.writeShort(next);
+            bytes.writeTo(to);
+        }
+
+        private int add(String key) {
+            entries.put(key, next);
+            return next++;
+        }
+
+        private void write(int tag, int... indexes) {
+            try {
+                out.writeByte(tag);
+                for (int index : indexes) {
+                    out.writeShort(index);
+                }
+            }
+            catch (IOException ioex) {
+                throw new IllegalStateException(ioex);
+            }
+        }
+    }
+
+    /** Defines a single generated invoker on top of the loader of the target class */
+    private static final class InvokerLoader extends ClassLoader {
+        InvokerLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
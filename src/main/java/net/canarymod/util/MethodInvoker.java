@@ -0,0 +1,152 @@
+package net.canarymod.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static net.canarymod.Canary.log;
+
+/**
+ * Method Invoker
+ * <p/>
+ * Calls a method found by reflection, such as a command, tab complete or MOTD method of a listener, without going
+ * through {@link Method#invoke(Object, Object...)} on every call.<br>
+ * Where possible a small class calling the method directly is generated once, otherwise the invoker falls back to
+ * reflection with the access checks suppressed.
+ * <p/>
+ * Methods with up to two parameters are supported. Exceptions thrown by the method are passed on as they are,
+ * while {@link Error}s are wrapped in an {@link InvocationTargetException} as {@link Method#invoke(Object, Object...)} does,
+ * so that a failing plugin can't escape the callers catching {@link Exception}.
+ */
+public abstract class MethodInvoker {
+
+    /** Internal constructor, also used by the generated invokers */
+    protected MethodInvoker() {
+    }
+
+    /**
+     * Calls the method
+     *
+     * @param target
+     *         the object to call the method on; ignored for static methods
+     * @param first
+     *         the first argument; ignored if the method has no parameters
+     * @param second
+     *         the second argument; ignored if the method has less than two parameters
+     *
+     * @return the returned value; {@code null} for void methods
+     *
+     * @throws InvocationTargetException
+     *         if the method threw an {@link Error}
+     * @throws Exception
+     *         whatever the method throws
+     */
+    public final Object invoke(Object target, Object first, Object second) throws Exception {
+        try {
+            return call(target, first, second);
+        }
+        catch (Error error) {
+            throw new InvocationTargetException(error);
+        }
+    }
+
+    /**
+     * Calls the method, implemented by the generated invokers
+     *
+     * @param target
+     *         the object to call the method on; ignored for static methods
+     * @param first
+     *         the first argument; ignored if the method has no parameters
+     * @param second
+     *         the second argument; ignored if the method has less than two parameters
+     *
+     * @return the returned value; {@code null} for void methods
+     *
+     * @throws Exception
+     *         whatever the method throws
+     */
+    protected abstract Object call(Object target, Object first, Object second) throws Exception;
+
+    /**
+     * Gets a {@link MethodInvoker} for a method
+     *
+     * @param method
+     *         the {@link Method} to call
+     *
+     * @return the {@link MethodInvoker}
+     *
+     * @throws IllegalArgumentException
+     *         if the method has more than two parameters
+     */
+    public static MethodInvoker forMethod(Method method) {
+        if (method.getParameterTypes().length > 2) {
+            throw new IllegalArgumentException("MethodInvokers support up to two parameters, " + method.getName() + " has " + method.getParameterTypes().length);
+        }
+        if (InvokerGenerator.canGenerate(method)) {
+            try {
+                return InvokerGenerator.generate(method);
+            }
+            catch (Throwable thrown) {
+                log.debug("Failed to generate an invoker for " + method + ", falling back to reflection", thrown);
+            }
+        }
+        return new ReflectiveInvoker(method);
+    }
+
+    /** Calls the method through reflection, for methods a generated invoker can not reach */
+    private static final class ReflectiveInvoker extends MethodInvoker {
+        private final Method method;
+        private final int parameters;
+
+        ReflectiveInvoker(Method method) {
+            this.method = method;
+            this.parameters = method.getParameterTypes().length;
+            try {
+                method.setAccessible(true);
+            }
+            catch (SecurityException secex) {
+                // Invoke with the access checks then
+            }
+        }
+
+        @Override
+        protected Object call(Object target, Object first, Object second) throws Exception {
+            try {
+                switch (parameters) {
+                    case 0:
+                        return method.invoke(target);
+                    case 1:
+                        return method.invoke(target, first);
+                    default:
+                        return method.invoke(target, first, second);
+                }
+            }
+            catch (InvocationTargetException itex) {
+                Throwable cause = itex.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw itex; // Errors stay wrapped
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ReflectiveInvoker[" + method + "]";
+        }
+    }
+
+    /** Checks that the generated code may use the class, it lives in a package of its own */
+    static boolean isAccessible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        while (type != null) {
+            if (!type.isPrimitive() && !Modifier.isPublic(type.getModifiers())) {
+                return false;
+            }
+            type = type.getDeclaringClass();
+        }
+        return true;
+    }
+}
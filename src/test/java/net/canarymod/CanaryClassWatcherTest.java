@@ -0,0 +1,45 @@
+package net.canarymod;
+
+import org.junit.Assert;
+
+import java.io.File;
+import java.util.Arrays;
+
+public class CanaryClassWatcherTest {
+
+    private static CanaryClassLoader loader() throws Exception {
+        return new CanaryClassLoader(new File(".").toURI().toURL(), CanaryClassWatcherTest.class.getClassLoader());
+    }
+
+    @org.junit.Test
+    public void testProviders() throws Exception {
+        CanaryClassWatcher watcher = new CanaryClassWatcher();
+        CanaryClassLoader first = loader(), second = loader(), third = loader();
+        watcher.addLoader(first, Arrays.asList("a.Shared", "a.First"));
+        watcher.addLoader(second, Arrays.asList("a.Shared", "a.Second"));
+        watcher.addLoader(third, Arrays.asList("a.Shared"));
+        Assert.assertSame(first, watcher.getProvider("a.Shared"));
+        Assert.assertSame(first, watcher.getProvider("a.First"));
+        Assert.assertSame(second, watcher.getProvider("a.Second"));
+        Assert.assertNull(watcher.getProvider("a.Missing"));
+
+        watcher.removeLoader(second);
+        Assert.assertSame(first, watcher.getProvider("a.Shared"));
+        Assert.assertNull(watcher.getProvider("a.Second"));
+
+        watcher.removeLoader(first);
+        Assert.assertSame(third, watcher.getProvider("a.Shared"));
+        Assert.assertNull(watcher.getProvider("a.First"));
+
+        watcher.addLoader(first, Arrays.asList("a.Shared"));
+        Assert.assertSame(third, watcher.getProvider("a.Shared"));
+        watcher.removeLoader(third);
+        Assert.assertSame(first, watcher.getProvider("a.Shared"));
+        watcher.removeLoader(first);
+        Assert.assertNull(watcher.getProvider("a.Shared"));
+
+        first.close();
+        second.close();
+        third.close();
+    }
+}
@@ -0,0 +1,109 @@
+package net.canarymod;
+
+import net.canarymod.api.world.Chunk;
+import net.canarymod.api.world.World;
+import net.canarymod.api.world.blocks.Block;
+import net.canarymod.api.world.position.Location;
+import org.junit.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Set;
+
+public class LineTracerTest {
+    private final Set<String> solid = new HashSet<String>();
+    private int created;
+
+    private Object proxy(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ type }, handler);
+    }
+
+    private Block block(final int x, final int y, final int z) {
+        created++;
+        return (Block) proxy(Block.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("isAir")) {
+                    return !solid.contains(x + "," + y + "," + z);
+                }
+                if (name.equals("getX")) {
+                    return x;
+                }
+                if (name.equals("getY")) {
+                    return y;
+                }
+                if (name.equals("getZ")) {
+                    return z;
+                }
+                if (name.equals("equals")) {
+                    return proxy == args[0];
+                }
+                return name.equals("hashCode") ? System.identityHashCode(proxy) : null;
+            }
+        });
+    }
+
+    private World world() {
+        return (World) proxy(World.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("isChunkLoaded")) {
+                    return true;
+                }
+                if (name.equals("getChunk")) {
+                    final int chunkX = (Integer) args[0], chunkZ = (Integer) args[1];
+                    return proxy(Chunk.class, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            String key = ((chunkX << 4) + (Integer) args[0]) + "," + args[1] + "," + ((chunkZ << 4) + (Integer) args[2]);
+                            return solid.contains(key) ? 1 : 0;
+                        }
+                    });
+                }
+                if (name.equals("getBlockAt")) {
+                    return block((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+                }
+                return null;
+            }
+        });
+    }
+
+    @org.junit.Test
+    public void testTargetBlock() throws Exception {
+        solid.add("10,64,0");
+        // Rotation -90 looks along positive X
+        LineTracer tracer = new LineTracer(new Location(world(), 0.5, 64.5, 0.5, 0, -90), 200, 0.2);
+        Block target = tracer.getTargetBlock();
+        Assert.assertEquals(10, target.getX());
+        Assert.assertEquals(64, target.getY());
+        Assert.assertEquals(0, target.getZ());
+        Assert.assertEquals(1, created); // The air in between was never made into blocks
+
+        Assert.assertNull(tracer.getNextBlock()); // Nothing further within range
+        Assert.assertNull(new LineTracer(new Location(world(), 0.5, 64.5, 0.5, 0, -90), 9, 0.2).getTargetBlock());
+    }
+
+    @org.junit.Test
+    public void testVisitsEveryBlock() throws Exception {
+        // Diagonally up through block corners, which stepping along the line could skip
+        BlockIterator iterator = new BlockIterator(new Location(world(), 0.5, 64.5, 0.5, -35.26439F, -45), 20, 0.2, true);
+        Block previous = iterator.next();
+        Assert.assertEquals(0, previous.getX());
+        Assert.assertEquals(64, previous.getY());
+        Assert.assertEquals(0, previous.getZ());
+        int count = 1;
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            int moved = Math.abs(block.getX() - previous.getX()) + Math.abs(block.getY() - previous.getY()) + Math.abs(block.getZ() - previous.getZ());
+            Assert.assertEquals(1, moved);
+            previous = block;
+            count++;
+        }
+        // About 20 / sqrt(3) blocks along each axis, each entered once
+        Assert.assertTrue(String.valueOf(count), count >= 34 && count <= 37);
+    }
+}
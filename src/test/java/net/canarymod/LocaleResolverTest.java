@@ -0,0 +1,54 @@
+package net.canarymod;
+
+import org.junit.Assert;
+
+import java.io.File;
+import java.io.IOException;
+
+public class LocaleResolverTest {
+
+    private static File languages() throws IOException {
+        File directory = File.createTempFile("lang", "");
+        Assert.assertTrue(directory.delete() && directory.mkdir());
+        directory.deleteOnExit();
+        for (String name : new String[]{ "en_US.lang", "de_DE.lang", "en_PT.lang", "languages.txt" }) {
+            File file = new File(directory, name);
+            Assert.assertTrue(file.createNewFile());
+            file.deleteOnExit();
+        }
+        return directory;
+    }
+
+    @org.junit.Test
+    public void testResolve() throws Exception {
+        LocaleResolver resolver = new LocaleResolver(languages());
+        Assert.assertEquals("en_US", resolver.resolve("en_US", "xx_XX"));
+        Assert.assertEquals("en_US", resolver.resolve("en_us", "xx_XX"));
+        Assert.assertEquals("de_DE", resolver.resolve("DE-de", "xx_XX"));
+        Assert.assertEquals("en_PT", resolver.resolve("en_pt", "xx_XX"));
+    }
+
+    @org.junit.Test
+    public void testFallback() throws Exception {
+        LocaleResolver resolver = new LocaleResolver(languages());
+        Assert.assertEquals("xx_XX", resolver.resolve(null, "xx_XX"));
+        Assert.assertEquals("xx_XX", resolver.resolve("", "xx_XX"));
+        Assert.assertEquals("xx_XX", resolver.resolve("zz_ZZ", "xx_XX"));
+        Assert.assertEquals("xx_XX", resolver.resolve("languages", "xx_XX"));
+        Assert.assertEquals("xx_XX", resolver.resolve("en", "xx_XX"));
+        Assert.assertEquals("xx_XX", new LocaleResolver(new File(languages(), "missing")).resolve("en_us", "xx_XX"));
+    }
+
+    @org.junit.Test
+    public void testReload() throws Exception {
+        File directory = languages();
+        LocaleResolver resolver = new LocaleResolver(directory);
+        Assert.assertEquals("xx_XX", resolver.resolve("fr_fr", "xx_XX"));
+        File added = new File(directory, "fr_FR.lang");
+        Assert.assertTrue(added.createNewFile());
+        added.deleteOnExit();
+        Assert.assertEquals("xx_XX", resolver.resolve("fr_fr", "xx_XX"));
+        resolver.reload();
+        Assert.assertEquals("fr_FR", resolver.resolve("fr_fr", "xx_XX"));
+    }
+}
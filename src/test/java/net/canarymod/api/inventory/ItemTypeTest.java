@@ -0,0 +1,41 @@
+package net.canarymod.api.inventory;
+
+import org.junit.Assert;
+
+public class ItemTypeTest {
+
+    @org.junit.Test
+    public void testLookups() throws Exception {
+        Assert.assertSame(ItemType.WaitRecord, ItemType.fromId(2267));
+        Assert.assertSame(ItemType.WaitRecord, ItemType.fromIdAndData(2267, 4));
+        Assert.assertSame(ItemType.WaitRecord, ItemType.fromString("MINECRAFT:record_wait"));
+        Assert.assertSame(ItemType.WaitRecord, ItemType.getCustomItemType("minecraft:record_wait"));
+        Assert.assertNull(ItemType.fromId(31999));
+        Assert.assertNull(ItemType.fromString(null));
+
+        ItemType custom = new ItemType(31000, 2, "testmod:lookup_item");
+        Assert.assertSame(custom, ItemType.fromIdAndData(31000, 2));
+        Assert.assertSame(custom, ItemType.fromStringAndData("TestMod:Lookup_Item", 2));
+        Assert.assertSame(custom, ItemType.fromStringAndData("testmod:lookup_item", 7));
+        Assert.assertNull(ItemType.getCustomItemType("testmod:lookup_item", 7));
+    }
+
+    @org.junit.Test
+    public void testIrregularTypes() throws Exception {
+        ItemType large = new ItemType(31001, 20, "testmod:large_data");
+        Assert.assertSame(large, ItemType.fromIdAndData(31001, 20));
+        Assert.assertSame(large, ItemType.fromId(31001));
+        Assert.assertSame(large, ItemType.fromStringAndData("TESTMOD:LARGE_DATA", 20));
+        ItemType far = new ItemType(40000, "testmod:far_item");
+        Assert.assertSame(far, ItemType.fromId(40000));
+        Assert.assertSame(far, ItemType.fromIdAndData(40000, 0));
+
+        // Only the clashing name prefers the exact case; the others still come from the tables
+        ItemType upper = new ItemType(31002, "testmod:Clash");
+        ItemType lower = new ItemType(31003, "testmod:clash");
+        Assert.assertSame(upper, ItemType.getCustomItemType("testmod:Clash"));
+        Assert.assertSame(lower, ItemType.getCustomItemType("testmod:clash"));
+        Assert.assertSame(upper, ItemType.getCustomItemType("TESTMOD:CLASH"));
+        Assert.assertSame(ItemType.WaitRecord, ItemType.fromString("minecraft:RECORD_WAIT"));
+    }
+}
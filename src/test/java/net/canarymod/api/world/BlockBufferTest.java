@@ -0,0 +1,79 @@
+package net.canarymod.api.world;
+
+import net.canarymod.api.entity.living.humanoid.Player;
+import net.canarymod.api.world.blocks.BlockType;
+import org.junit.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class BlockBufferTest {
+    private final HashMap<String, Integer> blocks = new HashMap<String, Integer>(); // "chunkX,chunkZ:x,y,z" to id << 4 | data
+    private final List<String> calls = new ArrayList<String>();
+
+    private Chunk chunk(final int chunkX, final int chunkZ) {
+        return (Chunk) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ Chunk.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                calls.add(method.getName());
+                if (method.getName().equals("setBlockTypeAt") || method.getName().equals("setBlockDataAt")) {
+                    String key = chunkX + "," + chunkZ + ":" + args[0] + "," + args[1] + "," + args[2];
+                    Integer state = blocks.containsKey(key) ? blocks.get(key) : 0;
+                    int value = (Integer) args[3];
+                    blocks.put(key, method.getName().equals("setBlockTypeAt") ? value << 4 | state & 15 : state & ~15 | value);
+                }
+                return null;
+            }
+        });
+    }
+
+    private World world() {
+        return (World) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ World.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("isChunkLoaded")) {
+                    return true;
+                }
+                if (method.getName().equals("getChunk")) {
+                    return chunk((Integer) args[0], (Integer) args[1]);
+                }
+                if (method.getName().equals("getPlayerList")) {
+                    return new ArrayList<Player>();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    @org.junit.Test
+    public void testApplyByChunk() throws Exception {
+        BlockBuffer buffer = new BlockBuffer(world());
+        buffer.set(1, 64, 2, BlockType.Stone);
+        buffer.set(-1, 10, -17, BlockType.Granite);
+        buffer.set(15, 255, 15, 35, 14);
+        buffer.set(1, 64, 2, BlockType.Dirt); // Last change wins
+        buffer.set(0, 256, 0, BlockType.Stone); // Ignored, out of the world
+        Assert.assertEquals(4, buffer.size());
+        Assert.assertEquals(2, buffer.getChunkCount());
+
+        Assert.assertEquals(4, buffer.apply());
+        Assert.assertEquals(0, buffer.size());
+        Assert.assertEquals(Integer.valueOf(3 << 4), blocks.get("0,0:1,64,2"));
+        Assert.assertEquals(Integer.valueOf(1 << 4 | 1), blocks.get("-1,-2:15,10,15"));
+        Assert.assertEquals(Integer.valueOf(35 << 4 | 14), blocks.get("0,0:15,255,15"));
+        Assert.assertEquals(3, blocks.size());
+
+        // The light is calculated once per chunk
+        int lighting = 0;
+        for (String call : calls) {
+            if (call.equals("generateSkyLightMap")) {
+                lighting++;
+            }
+        }
+        Assert.assertEquals(2, lighting);
+    }
+}
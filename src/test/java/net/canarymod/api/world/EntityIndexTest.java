@@ -0,0 +1,140 @@
+package net.canarymod.api.world;
+
+import net.canarymod.api.entity.Entity;
+import net.canarymod.api.entity.living.humanoid.Player;
+import net.canarymod.api.world.position.Position;
+import org.junit.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class EntityIndexTest {
+
+    private static Entity entity(Class<? extends Entity> type, final double[] position) {
+        return (Entity) Proxy.newProxyInstance(EntityIndexTest.class.getClassLoader(), new Class<?>[]{ type }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("getX")) {
+                    return position[0];
+                }
+                if (name.equals("getY")) {
+                    return position[1];
+                }
+                if (name.equals("getZ")) {
+                    return position[2];
+                }
+                if (name.equals("equals")) {
+                    return proxy == args[0];
+                }
+                return name.equals("hashCode") ? System.identityHashCode(proxy) : null;
+            }
+        });
+    }
+
+    private static double distanceSq(double[] position, double x, double y, double z) {
+        double dx = position[0] - x, dy = position[1] - y, dz = position[2] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @org.junit.Test
+    public void testQueriesMatchScan() throws Exception {
+        Random random = new Random(7);
+        EntityIndex index = new EntityIndex();
+        List<Entity> entities = new ArrayList<Entity>();
+        List<double[]> positions = new ArrayList<double[]>();
+        for (int count = 0; count < 10000; count++) {
+            double[] position = { random.nextDouble() * 1000 - 500, random.nextDouble() * 256, random.nextDouble() * 1000 - 500 };
+            Entity entity = entity(count % 10 == 0 ? Player.class : Entity.class, position);
+            entities.add(entity);
+            positions.add(position);
+            index.update(entity);
+        }
+        // Move some entities, some within their cell and some across
+        for (int count = 0; count < 2000; count++) {
+            int which = random.nextInt(entities.size());
+            double[] position = positions.get(which);
+            position[0] += random.nextDouble() * 40 - 20;
+            position[2] += random.nextDouble() * 40 - 20;
+            index.update(entities.get(which));
+        }
+        index.remove(entities.remove(0));
+        positions.remove(0);
+        Assert.assertEquals(9999, index.size());
+
+        for (int query = 0; query < 50; query++) {
+            double x = random.nextDouble() * 1000 - 500, y = random.nextDouble() * 256, z = random.nextDouble() * 1000 - 500;
+            double radius = 1 + random.nextDouble() * 60;
+
+            HashSet<Entity> inBox = new HashSet<Entity>();
+            HashSet<Entity> players = new HashSet<Entity>();
+            for (int which = 0; which < entities.size(); which++) {
+                double[] position = positions.get(which);
+                if (Math.abs(position[0] - x) <= radius && Math.abs(position[1] - y) <= radius && Math.abs(position[2] - z) <= radius) {
+                    inBox.add(entities.get(which));
+                }
+                if (entities.get(which) instanceof Player && distanceSq(position, x, y, z) <= radius * radius) {
+                    players.add(entities.get(which));
+                }
+            }
+
+            HashSet<Entity> found = new HashSet<Entity>();
+            index.getEntitiesWithin(new Position(x - radius, y - radius, z - radius), new Position(x + radius, y + radius, z + radius), found);
+            Assert.assertEquals(inBox, found);
+
+            found.clear();
+            index.getNearbyPlayers(new Position(x, y, z), radius, found);
+            Assert.assertEquals(players, found);
+
+            List<Entity> nearest = new ArrayList<Entity>();
+            index.getNearest(new Position(x, y, z), 5, 100, Entity.class, nearest);
+            for (int which = 1; which < nearest.size(); which++) {
+                Assert.assertTrue(distanceSq(positions.get(entities.indexOf(nearest.get(which - 1))), x, y, z) <= distanceSq(positions.get(entities.indexOf(nearest.get(which))), x, y, z));
+            }
+            if (!nearest.isEmpty()) {
+                double furthest = distanceSq(positions.get(entities.indexOf(nearest.get(nearest.size() - 1))), x, y, z);
+                int closer = 0;
+                for (double[] position : positions) {
+                    if (distanceSq(position, x, y, z) < furthest) {
+                        closer++;
+                    }
+                }
+                Assert.assertEquals(nearest.size() - 1, closer);
+            }
+        }
+    }
+
+    @org.junit.Test(timeout = 5000)
+    public void testHugeQueries() throws Exception {
+        EntityIndex index = new EntityIndex();
+        Entity player = entity(Player.class, new double[]{ 100, 64, -100 });
+        Entity far = entity(Entity.class, new double[]{ 29000000, 200, 29000000 });
+        index.update(player);
+        index.update(far);
+        Position origin = new Position(0, 64, 0);
+        for (double radius : new double[]{ 2e7, Integer.MAX_VALUE, Double.MAX_VALUE, Double.POSITIVE_INFINITY }) {
+            HashSet<Entity> found = new HashSet<Entity>();
+            index.getNearbyPlayers(origin, radius, found);
+            Assert.assertEquals(1, found.size());
+            found.clear();
+            index.getNearby(origin, radius, Entity.class, found);
+            Assert.assertEquals(radius > 4.1e7 ? 2 : 1, found.size());
+        }
+        HashSet<Entity> found = new HashSet<Entity>();
+        index.getEntitiesWithin(new Position(-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE), new Position(Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE), found);
+        Assert.assertEquals(2, found.size());
+        // Narrow on one axis only
+        found.clear();
+        index.getEntitiesWithin(90, -Double.MAX_VALUE, -Double.MAX_VALUE, 110, Double.MAX_VALUE, Double.MAX_VALUE, Entity.class, found);
+        Assert.assertEquals(1, found.size());
+        // Turned inside out
+        found.clear();
+        index.getEntitiesWithin(Double.MAX_VALUE, 0, 0, -Double.MAX_VALUE, 0, 0, Entity.class, found);
+        Assert.assertTrue(found.isEmpty());
+    }
+}
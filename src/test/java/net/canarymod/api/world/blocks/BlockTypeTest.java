@@ -0,0 +1,38 @@
+package net.canarymod.api.world.blocks;
+
+import org.junit.Assert;
+
+public class BlockTypeTest {
+
+    @org.junit.Test
+    public void testIdLookups() throws Exception {
+        Assert.assertSame(BlockType.Stone, BlockType.fromId(1));
+        Assert.assertSame(BlockType.Andesite, BlockType.fromIdAndData(1, 5));
+        Assert.assertSame(BlockType.Grass, BlockType.fromIdAndData(2, 9)); // Unknown data falls back to the id
+        Assert.assertNull(BlockType.fromId(4000));
+        Assert.assertNull(BlockType.fromId(-1));
+        Assert.assertNull(BlockType.fromIdAndData(-1, 0));
+
+        BlockType custom = new BlockType(4001, 3, "testmod:lookup_block");
+        Assert.assertSame(custom, BlockType.fromId(4001));
+        Assert.assertSame(custom, BlockType.fromIdAndData(4001, 3));
+        BlockType large = new BlockType(9000, 0, "testmod:large_block");
+        Assert.assertSame(large, BlockType.fromId(9000));
+        BlockType odd = new BlockType(4002, 20, "testmod:odd_block");
+        Assert.assertSame(odd, BlockType.fromIdAndData(4002, 20));
+        Assert.assertSame(odd, BlockType.fromString("testmod:odd_block:20"));
+        Assert.assertSame(BlockType.Grass, BlockType.fromIdAndData(2, 9));
+    }
+
+    @org.junit.Test
+    public void testNameLookups() throws Exception {
+        Assert.assertSame(BlockType.Stone, BlockType.fromString("minecraft:stone"));
+        Assert.assertSame(BlockType.Stone, BlockType.fromString("stone"));
+        Assert.assertSame(BlockType.Diorite, BlockType.fromString("minecraft:stone:3"));
+        Assert.assertSame(BlockType.Diorite, BlockType.fromString("minecraft:stone:03"));
+        Assert.assertNull(BlockType.fromString("minecraft:stone:14"));
+        Assert.assertNull(BlockType.fromString("minecraft:nothing:3"));
+        Assert.assertNull(BlockType.fromString("nothing"));
+        Assert.assertSame(BlockType.CoarseDirt, BlockType.fromStringAndData("minecraft:dirt", 1));
+    }
+}
@@ -0,0 +1,67 @@
+package net.canarymod.api.world.position;
+
+import org.junit.Assert;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+public class BlockPositionTest {
+
+    @org.junit.Test
+    public void testPacking() throws Exception {
+        int[][] positions = { { 0, 0, 0 }, { -1, 0, -1 }, { 29999999, 255, -29999999 }, { -33554432, -2048, 33554431 }, { 12, 64, -7 } };
+        for (int[] position : positions) {
+            long packed = BlockPosition.pack(position[0], position[1], position[2]);
+            Assert.assertEquals(position[0], BlockPosition.unpackX(packed));
+            Assert.assertEquals(position[1], BlockPosition.unpackY(packed));
+            Assert.assertEquals(position[2], BlockPosition.unpackZ(packed));
+            Assert.assertEquals(new BlockPosition(position[0], position[1], position[2]), BlockPosition.fromLong(packed));
+        }
+        Assert.assertEquals(BlockPosition.pack(-1, 64, 3), BlockPosition.pack(new Position(-0.5, 64.9, 3.2)));
+    }
+
+    @org.junit.Test
+    public void testPositionHash() throws Exception {
+        // These used to all hash the same, as the hash was the sum of the coordinates
+        HashSet<Integer> hashes = new HashSet<Integer>();
+        for (int x = 0; x < 32; x++) {
+            for (int y = 0; y < 32; y++) {
+                hashes.add(new Position(x, y, 64 - x - y).hashCode());
+            }
+        }
+        Assert.assertTrue(hashes.size() > 1000);
+        Assert.assertEquals(new Position(0.0, 1, 2).hashCode(), new Position(-0.0, 1, 2).hashCode());
+    }
+
+    @org.junit.Test
+    public void testMap() throws Exception {
+        PackedPositionMap<Integer> map = new PackedPositionMap<Integer>();
+        HashMap<Long, Integer> expected = new HashMap<Long, Integer>();
+        Random random = new Random(42);
+        for (int index = 0; index < 20000; index++) {
+            long key = BlockPosition.pack(random.nextInt(64) - 32, random.nextInt(16), random.nextInt(64) - 32);
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            }
+            else {
+                Assert.assertEquals(expected.put(key, index), map.put(key, index));
+            }
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        for (long key : map.keys()) {
+            Assert.assertEquals(expected.get(key), map.get(key));
+        }
+        Assert.assertNull(map.get(0, 500, 0));
+
+        PackedPositionSet set = new PackedPositionSet();
+        Assert.assertTrue(set.add(0, 0, 0)); // Packs to the same value as an empty slot
+        Assert.assertTrue(set.add(new BlockPosition(5, 6, 7)));
+        Assert.assertFalse(set.add(5, 6, 7));
+        Assert.assertTrue(set.contains(0, 0, 0));
+        Assert.assertEquals(2, set.size());
+        Assert.assertTrue(set.remove(0, 0, 0));
+        Assert.assertFalse(set.contains(0, 0, 0));
+        Assert.assertEquals(1, set.toArray().length);
+    }
+}
@@ -0,0 +1,177 @@
+package net.canarymod.channels;
+
+import net.canarymod.api.NetServerHandler;
+import net.canarymod.api.entity.living.humanoid.Player;
+import org.junit.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ChannelManagerTest {
+
+    /** Sends to a player by finding its handler among the channel's clients, as the implementation does */
+    private static final class TestChannelManager extends ChannelManager {
+        final AtomicInteger sent = new AtomicInteger();
+
+        @Override
+        public boolean sendCustomPayloadToPlayer(String channel, byte[] bytestream, Player player) {
+            for (NetServerHandler handler : getClients(channel)) {
+                if (handler.getUser() == player) {
+                    sent.incrementAndGet();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static NetServerHandler handler(final String name) {
+        final Player player = (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{ Player.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getName")) {
+                    return name;
+                }
+                if (method.getName().equals("hashCode")) {
+                    return System.identityHashCode(proxy);
+                }
+                if (method.getName().equals("equals")) {
+                    return proxy == args[0];
+                }
+                return null;
+            }
+        });
+        return (NetServerHandler) Proxy.newProxyInstance(NetServerHandler.class.getClassLoader(), new Class<?>[]{ NetServerHandler.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getUser")) {
+                    return player;
+                }
+                if (method.getName().equals("hashCode")) {
+                    return System.identityHashCode(proxy);
+                }
+                if (method.getName().equals("equals")) {
+                    return proxy == args[0];
+                }
+                return null;
+            }
+        });
+    }
+
+    @org.junit.Test
+    public void testUnknownChannel() {
+        TestChannelManager manager = new TestChannelManager();
+        Assert.assertTrue(manager.getClients("none").isEmpty());
+        Assert.assertFalse(manager.sendCustomPayloadToAllPlayers("none", new byte[1]));
+        Assert.assertFalse(manager.sendCustomPayloadToPlayer("none", new byte[1], handler("a").getUser()));
+        Assert.assertFalse(manager.unregisterClient("none", handler("a")));
+        Assert.assertTrue(manager.unregisterClientAll(handler("a")));
+    }
+
+    @org.junit.Test
+    public void testRegisterAndUnregister() {
+        TestChannelManager manager = new TestChannelManager();
+        NetServerHandler first = handler("first"), second = handler("second");
+        manager.registerClient("one", first);
+        manager.registerClient("one", first);
+        manager.registerClient("one", second);
+        manager.registerClient("two", first);
+        Assert.assertEquals(2, manager.getClients("one").size());
+        Assert.assertEquals(1, manager.getClients("two").size());
+        Assert.assertEquals(3, manager.getClients().size());
+        Assert.assertEquals(manager.getClients("one"), manager.getClients().get("one"));
+        try {
+            manager.getClients("one").clear();
+            Assert.fail("Clients could be changed from outside");
+        }
+        catch (UnsupportedOperationException expected) {
+        }
+
+        Assert.assertTrue(manager.sendCustomPayloadToPlayer("two", new byte[1], first.getUser()));
+        Assert.assertFalse(manager.sendCustomPayloadToPlayer("two", new byte[1], second.getUser()));
+
+        Assert.assertTrue(manager.unregisterClientAll(first));
+        Assert.assertEquals(1, manager.getClients("one").size());
+        Assert.assertTrue(manager.getClients("two").isEmpty());
+        Assert.assertTrue(manager.unregisterClient("one", second));
+        Assert.assertTrue(manager.getClients("one").isEmpty());
+    }
+
+    @org.junit.Test
+    public void testConcurrentClients() throws Exception {
+        final TestChannelManager manager = new TestChannelManager();
+        final int threads = 4, rounds = 500;
+        final List<NetServerHandler> handlers = new ArrayList<NetServerHandler>();
+        for (int index = 0; index < threads; index++) {
+            handlers.add(handler("player" + index));
+        }
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads * 2);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final AtomicInteger attempts = new AtomicInteger();
+        for (int index = 0; index < threads; index++) {
+            final NetServerHandler handler = handlers.get(index);
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int round = 0; round < rounds; round++) {
+                            manager.registerClient("shared", handler);
+                            manager.registerClient("own" + round % 3, handler);
+                            manager.unregisterClient("shared", handler);
+                            manager.unregisterClientAll(handler);
+                        }
+                        manager.registerClient("shared", handler);
+                    }
+                    catch (Throwable thrown) {
+                        failure.compareAndSet(null, thrown);
+                    }
+                    finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int round = 0; round < rounds; round++) {
+                            manager.sendCustomPayloadToPlayer("shared", new byte[1], handler.getUser());
+                            for (NetServerHandler client : manager.getClients("own" + round % 3)) {
+                                Assert.assertNotNull(client.getUser());
+                            }
+                            attempts.incrementAndGet();
+                        }
+                    }
+                    catch (Throwable thrown) {
+                        failure.compareAndSet(null, thrown);
+                    }
+                    finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        Assert.assertEquals(threads * rounds, attempts.get());
+        Assert.assertEquals(threads, manager.getClients("shared").size());
+        for (int channel = 0; channel < 3; channel++) {
+            Assert.assertTrue(manager.getClients("own" + channel).isEmpty());
+        }
+        for (NetServerHandler handler : handlers) {
+            Assert.assertTrue(manager.sendCustomPayloadToPlayer("shared", new byte[1], handler.getUser()));
+        }
+    }
+}
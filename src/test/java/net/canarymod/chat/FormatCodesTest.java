@@ -0,0 +1,48 @@
+package net.canarymod.chat;
+
+import org.junit.Assert;
+
+public class FormatCodesTest {
+    private static final String[] LINES = {
+            "",
+            "plain chat without any codes",
+            "<\u00A7c[Admin] \u00A7fdarkdiplomat\u00A7f> hello \u00A7lworld\u00A7r!",
+            "&4red &lbold &rnormal &zinvalid & trailing &",
+            "\u00A7\u00A7a doubled marker and one at the end \u00A7",
+            "&&a and &&&b and \u00A7O italic \u00A7o",
+            "mixed \u00A7x junk \u00A7 \u00A79blue\u00A7",
+    };
+
+    @org.junit.Test
+    public void testMatchesRegularExpressions() throws Exception {
+        for (String line : LINES) {
+            Assert.assertEquals(line, line.replaceAll("(?i)\u00A7[0-9a-fk-or]", ""), FormatCodes.strip(line));
+            Assert.assertEquals(line, line.replaceAll("(?i)&([0-9a-fk-or])", "\u00A7$1"), FormatCodes.translate(line, '&', '\u00A7'));
+            Assert.assertEquals(line, line.replaceAll("(?i)\u00A7([0-9a-fk-or])", "&$1"), ChatFormat.consoleFormat(line));
+            String carets = line.replace("&", "^^");
+            Assert.assertEquals(line, carets.replaceAll("\\^\\^([0-9a-fk-orA-FK-OR])", "\u00A7$1"), ChatFormat.formatString(carets, "^^"));
+            String letters = line.replace("&", "xY");
+            Assert.assertEquals(line, letters.replaceAll("(?i)XY([0-9a-fk-or])", "\u00A7$1"), FormatCodes.translate(letters, "Xy"));
+        }
+    }
+
+    @org.junit.Test
+    public void testLastCode() throws Exception {
+        Assert.assertNull(FormatCodes.lastCode("nothing here \u00A7"));
+        Assert.assertEquals("\u00A7b", FormatCodes.lastCode("\u00A7atext\u00A7b more \u00A7"));
+        Assert.assertEquals("\u00A7L", TextFormat.getLastColor("\u00A7L"));
+    }
+
+    @org.junit.Test
+    public void testUnchangedTextIsReturned() throws Exception {
+        String line = "no codes & nothing \u00A7 to do";
+        Assert.assertSame(line, FormatCodes.strip(line));
+        Assert.assertSame(line, ChatFormat.formatString(line, "&"));
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            longLine.append("&").append(i % 10);
+        }
+        Assert.assertEquals(10000, FormatCodes.translate(longLine.toString(), '&', '\u00A7').length());
+        Assert.assertEquals(0, FormatCodes.strip(FormatCodes.translate(longLine.toString(), '&', '\u00A7')).length());
+    }
+}
@@ -0,0 +1,74 @@
+package net.canarymod.commandsys;
+
+import net.canarymod.chat.MessageReceiver;
+import net.canarymod.metrics.MetricsRegistry;
+import org.junit.Assert;
+
+import java.util.List;
+
+public class CommandStatisticsTest {
+    private static final CommandOwner OWNER = new CommandOwner() {
+        @Override
+        public String getName() {
+            return "Tester";
+        }
+    };
+
+    @Command(aliases = { "warp" }, description = "", permissions = { "" }, toolTip = "")
+    public void warp() {
+    }
+
+    @Command(aliases = { "give" }, description = "", permissions = { "" }, toolTip = "", parent = "kit")
+    public void give() {
+    }
+
+    private static CanaryCommand command(String method) throws Exception {
+        return new CanaryCommand(CommandStatisticsTest.class.getMethod(method).getAnnotation(Command.class), OWNER, null) {
+            @Override
+            protected void execute(MessageReceiver caller, String[] parameters) {
+            }
+        };
+    }
+
+    @org.junit.Test
+    public void testRecording() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        CommandStatistics statistics = new CommandStatistics(metrics);
+        statistics.setSlowThreshold(0);
+        CanaryCommand warp = command("warp");
+        CanaryCommand give = command("give");
+
+        statistics.record(warp, null, new String[0], 1000000L, false);
+        statistics.record(warp, null, new String[0], 3000000L, true);
+        // Registered again, as after a plugin reload
+        statistics.record(command("warp"), null, new String[0], 2000000L, false);
+        statistics.record(give, null, new String[0], 8000000L, false);
+
+        List<CommandStatistics.Stats> commands = statistics.getCommandStats();
+        Assert.assertEquals(2, commands.size());
+        Assert.assertEquals("kit give", commands.get(0).getName());
+        Assert.assertEquals("warp", commands.get(1).getName());
+        Assert.assertEquals(3, commands.get(1).getInvocations());
+        Assert.assertEquals(1, commands.get(1).getFailures());
+
+        List<CommandStatistics.Stats> owners = statistics.getOwnerStats();
+        Assert.assertEquals(1, owners.size());
+        Assert.assertEquals(4, owners.get(0).getInvocations());
+        Assert.assertEquals(14000000L, owners.get(0).getTimer().getSum());
+        Assert.assertNotNull(metrics.getMetric("canary_command_seconds", "command", "warp", "owner", "Tester"));
+
+        // A command that caught and logged its own exception
+        statistics.recordFailure(give);
+        statistics.record(give, null, new String[0], 1000000L, false);
+        Assert.assertEquals(1, statistics.getCommandStats().get(0).getFailures());
+        Assert.assertEquals(2, statistics.getOwnerStats().get(0).getFailures());
+
+        statistics.reset();
+        Assert.assertEquals(0, statistics.getCommandStats().get(0).getInvocations());
+        Assert.assertEquals(0, statistics.getCommandStats().get(0).getFailures());
+        Assert.assertEquals(0, statistics.getCommandStats().get(0).getTimer().getSum());
+        // The exported metrics keep counting
+        Assert.assertEquals(1.0D, metrics.getMetric("canary_command_failures_total", "command", "warp", "owner", "Tester").getValue(), 0.0D);
+        Assert.assertEquals(3.0D, metrics.getMetric("canary_command_seconds", "command", "warp", "owner", "Tester").getValue(), 0.0D);
+    }
+}
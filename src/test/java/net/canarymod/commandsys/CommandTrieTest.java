@@ -0,0 +1,72 @@
+package net.canarymod.commandsys;
+
+import net.canarymod.chat.MessageReceiver;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CommandTrieTest {
+
+    private static CanaryCommand command() {
+        return new CanaryCommand(null, null, null) {
+            @Override
+            protected void execute(MessageReceiver caller, String[] parameters) {
+            }
+        };
+    }
+
+    private static List<String> names(CommandTrie trie, String prefix) {
+        final List<String> names = new ArrayList<String>();
+        trie.visit(prefix, new CommandTrie.Visitor() {
+            @Override
+            public boolean visit(String name, CanaryCommand command) {
+                names.add(name);
+                return true;
+            }
+        });
+        return names;
+    }
+
+    @org.junit.Test
+    public void testPrefixMatching() throws Exception {
+        CommandTrie trie = new CommandTrie();
+        CanaryCommand[] commands = new CanaryCommand[5000];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = command();
+            trie.add("Cmd" + i, commands[i]);
+        }
+        Assert.assertEquals(5000, trie.size());
+        Assert.assertSame(commands[1234], trie.get("CMD1234").get(0));
+        Assert.assertTrue(trie.get("cmd5000").isEmpty());
+
+        List<String> matched = names(trie, "CMD12");
+        // cmd12, cmd120 - cmd129 and cmd1200 - cmd1299
+        Assert.assertEquals(111, matched.size());
+        Assert.assertEquals("cmd12", matched.get(0));
+        Assert.assertEquals("cmd120", matched.get(1));
+        Assert.assertEquals("cmd1200", matched.get(2));
+        Assert.assertEquals(5000, names(trie, "").size());
+    }
+
+    @org.junit.Test
+    public void testRemove() throws Exception {
+        CommandTrie trie = new CommandTrie();
+        CanaryCommand first = command();
+        CanaryCommand second = command();
+        trie.add("warp", first);
+        trie.add("warp", second);
+        trie.add("warp", second);
+        trie.add("warps", first);
+        Assert.assertEquals(3, trie.size());
+        Assert.assertEquals(2, trie.get("warp").size());
+
+        Assert.assertTrue(trie.remove("WARP", first));
+        Assert.assertFalse(trie.remove("warp", first));
+        Assert.assertSame(second, trie.get("warp").get(0));
+        Assert.assertTrue(trie.remove("warps", first));
+        Assert.assertTrue(trie.remove("warp", second));
+        Assert.assertEquals(0, trie.size());
+        Assert.assertTrue(names(trie, "w").isEmpty());
+    }
+}
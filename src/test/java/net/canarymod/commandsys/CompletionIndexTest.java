@@ -0,0 +1,40 @@
+package net.canarymod.commandsys;
+
+import org.junit.Assert;
+
+import java.util.List;
+
+public class CompletionIndexTest {
+
+    @org.junit.Test
+    public void testPrefixMatching() throws Exception {
+        CompletionIndex index = new CompletionIndex();
+        String[] names = new String[500000];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = (i % 2 == 0 ? "Player" : "player_") + i;
+        }
+        index.replaceAll(names);
+        Assert.assertEquals(names.length, index.size());
+
+        List<String> matches = index.match("PLAYER_12345");
+        // player_12345 and player_123451 - player_123459 (odd numbers only)
+        Assert.assertEquals(6, matches.size());
+        Assert.assertEquals("player_12345", matches.get(0));
+        Assert.assertEquals(3, index.match("player", 3).size());
+        Assert.assertTrue(index.match("nobody").isEmpty());
+    }
+
+    @org.junit.Test
+    public void testIncrementalUpdates() throws Exception {
+        CompletionIndex index = new CompletionIndex();
+        index.add("darkdiplomat");
+        index.add("damagefilter");
+        index.add("DarkDiplomat");
+        Assert.assertEquals(2, index.size());
+        Assert.assertEquals("damagefilter", index.match("DA").get(0));
+
+        index.remove("DAMAGEFILTER");
+        Assert.assertFalse(index.contains("damagefilter"));
+        Assert.assertEquals(1, index.match("").size());
+    }
+}
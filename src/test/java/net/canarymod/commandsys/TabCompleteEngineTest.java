@@ -0,0 +1,182 @@
+package net.canarymod.commandsys;
+
+import net.canarymod.Canary;
+import net.canarymod.chat.MessageReceiver;
+import net.canarymod.help.HelpManager;
+import org.junit.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TabCompleteEngineTest {
+    private static final CommandOwner OWNER = new CommandOwner() {
+        @Override
+        public String getName() {
+            return "Tester";
+        }
+    };
+
+    /** Just enough of Canary for registering commands */
+    private static final class TestCanary extends Canary {
+        TestCanary() {
+            helpManager = new HelpManager();
+        }
+
+        static void install(Canary canary) {
+            instance = canary;
+        }
+    }
+
+    @Command(aliases = { "warp" }, description = "", permissions = { "" }, toolTip = "")
+    public void warp() {
+    }
+
+    private static MessageReceiver caller() {
+        return (MessageReceiver) Proxy.newProxyInstance(MessageReceiver.class.getClassLoader(), new Class<?>[]{ MessageReceiver.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getName")) {
+                    return "Tester";
+                }
+                return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+            }
+        });
+    }
+
+    private static CanaryCommand warp(final Thread mainThread, final AtomicReference<Throwable> failure) throws Exception {
+        return new CanaryCommand(TabCompleteEngineTest.class.getMethod("warp").getAnnotation(Command.class), OWNER, null, new TabCompleteDispatch() {
+            @Override
+            public List<String> complete(MessageReceiver msgrec, String[] args) {
+                if (Thread.currentThread() != mainThread) {
+                    failure.compareAndSet(null, new AssertionError("Completed off the main thread"));
+                }
+                return Arrays.asList("spawn");
+            }
+        }) {
+            @Override
+            protected void execute(MessageReceiver caller, String[] parameters) {
+            }
+        };
+    }
+
+    @org.junit.Test
+    public void testCachedAnsweredRightAway() throws Exception {
+        TestCanary.install(new TestCanary());
+        try {
+            CommandManager manager = new CommandManager();
+            final List<Runnable> mainQueue = new ArrayList<Runnable>();
+            manager.getTabCompleteEngine().setMainThread(new Executor() {
+                @Override
+                public void execute(Runnable completion) {
+                    mainQueue.add(completion);
+                }
+            });
+            AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+            manager.registerCommand(warp(Thread.currentThread(), failure), OWNER, false);
+            MessageReceiver caller = caller();
+
+            Future<List<String>> first = manager.tabCompleteAsync(caller, "warp", new String[]{ "" });
+            Assert.assertFalse(first.isDone());
+            Assert.assertEquals(1, mainQueue.size());
+            mainQueue.remove(0).run();
+            Assert.assertEquals(Arrays.asList("spawn"), first.get(0, TimeUnit.SECONDS));
+
+            Future<List<String>> second = manager.tabCompleteAsync(caller, "warp", new String[]{ "" });
+            Assert.assertTrue(second.isDone());
+            Assert.assertTrue(mainQueue.isEmpty());
+            Assert.assertEquals(Arrays.asList("spawn"), second.get());
+            Assert.assertNull(failure.get());
+        }
+        finally {
+            TestCanary.install(null);
+        }
+    }
+
+    @org.junit.Test
+    public void testCompletionsWhileRegistering() throws Exception {
+        TestCanary.install(new TestCanary());
+        try {
+            final CommandManager manager = new CommandManager();
+            final LinkedBlockingQueue<Runnable> mainQueue = new LinkedBlockingQueue<Runnable>();
+            manager.getTabCompleteEngine().setMainThread(new Executor() {
+                @Override
+                public void execute(Runnable completion) {
+                    mainQueue.add(completion);
+                }
+            });
+            final Thread mainThread = Thread.currentThread();
+            final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+            CanaryCommand warp = warp(mainThread, failure);
+
+            final int threads = 3, rounds = 200;
+            final AtomicInteger answered = new AtomicInteger(), completed = new AtomicInteger();
+            List<Thread> completers = new ArrayList<Thread>();
+            for (int index = 0; index < threads; index++) {
+                final int thread = index;
+                Thread completer = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        MessageReceiver caller = caller();
+                        try {
+                            for (int round = 0; round < rounds; round++) {
+                                List<String> result = manager.tabCompleteAsync(caller, "warp", new String[]{ "s" + thread + "_" + round }).get(10, TimeUnit.SECONDS);
+                                if (result != null) {
+                                    Assert.assertEquals(Arrays.asList("spawn"), result);
+                                    completed.incrementAndGet();
+                                }
+                                answered.incrementAndGet();
+                            }
+                        }
+                        catch (Throwable thrown) {
+                            failure.compareAndSet(null, thrown);
+                        }
+                    }
+                });
+                completers.add(completer);
+                completer.start();
+            }
+
+            // Stand in for the main thread: register and unregister while running the queued completions
+            boolean registered = false;
+            while (true) {
+                boolean alive = false;
+                for (Thread completer : completers) {
+                    alive |= completer.isAlive();
+                }
+                if (registered) {
+                    manager.unregisterCommand("warp");
+                }
+                else {
+                    manager.registerCommand(warp, OWNER, true);
+                }
+                registered = !registered;
+                Runnable completion = mainQueue.poll(1, TimeUnit.MILLISECONDS);
+                while (completion != null) {
+                    completion.run();
+                    completion = mainQueue.poll();
+                }
+                if (!alive) {
+                    break;
+                }
+            }
+            if (failure.get() != null) {
+                throw new AssertionError(failure.get());
+            }
+            Assert.assertEquals(threads * rounds, answered.get());
+            Assert.assertTrue(completed.get() > 0);
+        }
+        finally {
+            TestCanary.install(null);
+        }
+    }
+}
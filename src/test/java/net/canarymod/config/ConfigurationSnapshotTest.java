@@ -0,0 +1,45 @@
+package net.canarymod.config;
+
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+public class ConfigurationSnapshotTest {
+
+    private static ConfigurationSnapshot snapshot(String... pairs) {
+        HashMap<String, String> values = new HashMap<String, String>();
+        for (int index = 0; index < pairs.length; index += 2) {
+            values.put(pairs[index], pairs[index + 1]);
+        }
+        return new ConfigurationSnapshot(values);
+    }
+
+    @org.junit.Test
+    public void testTypedValues() throws Exception {
+        ConfigurationSnapshot snapshot = snapshot("port", " 25565 ", "timeout", "60", "broken", "12a", "blocks", "2, 3,12", "mobs", "Cow,Pig", "scale", "0.5", "huge", "3000000000");
+        Assert.assertEquals(25565, snapshot.getInt("port", 0));
+        Assert.assertEquals(0.5, snapshot.getDouble("scale", 0), 0);
+        Assert.assertEquals(-1, snapshot.getInt("huge", -1));
+        Assert.assertEquals(3000000000L, snapshot.getLong("huge"));
+        Assert.assertEquals(60L, snapshot.getLong("timeout", 0));
+        Assert.assertEquals(7, snapshot.getInt("broken", 7));
+        Assert.assertEquals(16, snapshot.getInt("missing", 16));
+        Assert.assertEquals("fallback", snapshot.getString("missing", "fallback"));
+        Assert.assertArrayEquals(new int[]{ 2, 3, 12 }, snapshot.getIntArray("blocks", null));
+        Assert.assertArrayEquals(new String[]{ "Cow", "Pig" }, snapshot.getStringArray("mobs"));
+
+        // Arrays are handed out as copies
+        snapshot.getStringArray("mobs")[0] = "Creeper";
+        Assert.assertEquals("Cow", snapshot.getStringArray("mobs")[0]);
+    }
+
+    @org.junit.Test
+    public void testChangedKeys() throws Exception {
+        ConfigurationSnapshot before = snapshot("motd", "Hello", "port", "25565", "removed", "x");
+        ConfigurationSnapshot after = snapshot("motd", "Welcome", "port", "25565", "added", "y");
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("motd", "removed", "added")), after.getChangedKeys(before));
+        Assert.assertTrue(after.getChangedKeys(after).isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package net.canarymod.help;
+
+import net.canarymod.chat.MessageReceiver;
+import net.canarymod.commandsys.CanaryCommand;
+import net.canarymod.commandsys.Command;
+import org.junit.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+public class HelpIndexTest {
+
+    private static HelpNode node(final String[] aliases, final String description, final String[] keywords) {
+        Command meta = (Command) Proxy.newProxyInstance(Command.class.getClassLoader(), new Class<?>[]{ Command.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("aliases")) {
+                    return aliases;
+                }
+                if (method.getName().equals("description")) {
+                    return description;
+                }
+                if (method.getName().equals("searchTerms")) {
+                    return keywords;
+                }
+                return method.getDefaultValue();
+            }
+        });
+        return new HelpNode(null, new CanaryCommand(meta, null, null) {
+            @Override
+            protected void execute(MessageReceiver caller, String[] parameters) {
+            }
+        });
+    }
+
+    @org.junit.Test
+    public void testSearch() throws Exception {
+        HelpIndex index = new HelpIndex();
+        for (int i = 0; i < 5000; i++) {
+            index.add("cmd" + i, node(new String[]{ "cmd" + i, "c" + i }, "Does thing number " + i + ", quickly", new String[]{ " " }));
+        }
+        HelpNode warp = node(new String[]{ "warp", "w" }, "Teleports to a Warp", new String[]{ "travel" });
+        index.add("warp", warp);
+
+        Set<String> found = index.search(new String[]{ "TELEPORT" });
+        Assert.assertEquals(1, found.size());
+        Assert.assertTrue(index.search(new String[]{ "travel" }).contains("warp"));
+        Assert.assertEquals(5001, index.search(new String[]{ "thing", "warp" }).size());
+        // cmd12, cmd120 - cmd129 and cmd1200 - cmd1299 by alias, and the descriptions numbered the same
+        Assert.assertEquals(111, index.search(new String[]{ "cmd12" }).size());
+        Assert.assertEquals(111, index.search(new String[]{ "12" }).size());
+        Assert.assertTrue(index.search(new String[]{ "nothing" }).isEmpty());
+
+        Assert.assertEquals("warp", index.keyOfAlias("w"));
+        Assert.assertNull(index.keyOfAlias("W"));
+
+        index.remove("warp", warp);
+        Assert.assertTrue(index.search(new String[]{ "teleports" }).isEmpty());
+        Assert.assertNull(index.keyOfAlias("w"));
+    }
+}
@@ -0,0 +1,77 @@
+package net.canarymod.logger;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.Message;
+import org.junit.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class LogmanTest {
+
+    /** Records the message and thread of each log call */
+    private static Logger recording(final List<String> messages, final List<String> threads) {
+        return (Logger) Proxy.newProxyInstance(Logger.class.getClassLoader(), new Class<?>[]{ Logger.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().startsWith("is")) {
+                    return true;
+                }
+                if (method.getReturnType() != void.class) {
+                    return null;
+                }
+                Object message = method.getName().equals("log") ? args[2] : args[1];
+                messages.add(message instanceof Message ? ((Message) message).getFormattedMessage() : String.valueOf(message));
+                threads.add(Thread.currentThread().getName());
+                return null;
+            }
+        });
+    }
+
+    @org.junit.Test
+    public void testLogmenAreCached() throws Exception {
+        Logman logman = Logman.getLogman("LogmanTest");
+        Assert.assertSame(logman, Logman.getLogman("LogmanTest"));
+        Assert.assertNotSame(logman, Logman.getLogman("LogmanTest2"));
+    }
+
+    @org.junit.Test
+    public void testAsyncQueueAndFlush() throws Exception {
+        List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+        Logman logman = new Logman(recording(messages, threads));
+        Logman.setAsync(true);
+        try {
+            for (int index = 0; index < 100; index++) {
+                logman.debug(Logman.PLUGINDEBUG, "message {}", index);
+            }
+            logman.info(Logman.MESSAGE, "not deferred");
+            Logman.flush();
+
+            Assert.assertEquals(101, messages.size());
+            List<String> deferred = new ArrayList<String>();
+            for (int index = 0; index < messages.size(); index++) {
+                if (messages.get(index).equals("not deferred")) {
+                    Assert.assertEquals(Thread.currentThread().getName(), threads.get(index));
+                }
+                else {
+                    Assert.assertEquals("Canary Log Writer", threads.get(index));
+                    deferred.add(messages.get(index));
+                }
+            }
+            // Written in order, and formatted by the writer
+            for (int index = 0; index < 100; index++) {
+                Assert.assertEquals("message " + index, deferred.get(index));
+            }
+        }
+        finally {
+            Logman.setAsync(false);
+        }
+        logman.debug(Logman.PLUGINDEBUG, "message {}", 100);
+        Assert.assertEquals(Thread.currentThread().getName(), threads.get(threads.size() - 1));
+    }
+}
@@ -0,0 +1,83 @@
+package net.canarymod.metrics;
+
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class MetricsRegistryTest {
+
+    @org.junit.Test
+    public void testHistogramPercentiles() throws Exception {
+        Histogram histogram = new Histogram("test");
+        Random random = new Random(42);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.abs(random.nextGaussian() * 1000000L);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[]{ 50, 90, 99, 99.9 }) {
+            long exact = values[(int) Math.ceil(values.length * percentile / 100) - 1];
+            long estimate = histogram.getPercentile(percentile);
+            Assert.assertTrue("p" + percentile + " below the exact value", estimate >= exact);
+            Assert.assertTrue("p" + percentile + " off by more than a bucket", estimate <= exact * 1.125D + 1);
+        }
+        Assert.assertEquals(values[values.length - 1], histogram.getPercentile(100));
+        Assert.assertEquals(values.length, histogram.getCount());
+    }
+
+    @org.junit.Test
+    public void testBucketBounds() throws Exception {
+        for (long value : new long[]{ 0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789L, Long.MAX_VALUE }) {
+            int index = Histogram.indexOf(value);
+            Assert.assertTrue("Value above its bucket", value <= Histogram.upperBound(index));
+            Assert.assertTrue("Value below its bucket", index == 0 || value > Histogram.upperBound(index - 1));
+        }
+    }
+
+    @org.junit.Test
+    public void testPrometheusFormat() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("test_total", "A counter", "kind", "a\"b").increment(3);
+        registry.gauge("test_gauge", "A gauge", new Gauge() {
+            @Override
+            public double getValue() {
+                return 1.5;
+            }
+        });
+        registry.timer("test_seconds", "A timer").record(2000000000L);
+        Assert.assertSame(registry.counter("test_total", "A counter", "kind", "a\"b"), registry.counter("test_total", "Ignored", "kind", "a\"b"));
+
+        StringBuilder out = new StringBuilder();
+        registry.writePrometheus(out);
+        String text = out.toString();
+        Assert.assertTrue(text.contains("# TYPE test_total counter\ntest_total{kind=\"a\\\"b\"} 3\n"));
+        Assert.assertTrue(text.contains("# TYPE test_gauge gauge\ntest_gauge 1.5"));
+        Assert.assertTrue(text.contains("test_seconds{quantile=\"0.5\"} 2\n"));
+        Assert.assertTrue(text.contains("test_seconds_sum 2\ntest_seconds_count 1\n"));
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testTypeConflict() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("test_metric", "A counter");
+        registry.histogram("test_metric", "A histogram");
+    }
+
+    @org.junit.Test
+    public void testNames() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Assert.assertNotNull(registry.counter("valid:name_1", "A counter"));
+        for (String name : new String[]{ "1starts_with_digit", "has-dash", "", null }) {
+            try {
+                registry.counter(name, "A counter");
+                Assert.fail("Accepted the name " + name);
+            }
+            catch (IllegalArgumentException expected) {
+            }
+        }
+        Assert.assertNull(registry.getMetric("has-dash"));
+        Assert.assertEquals(1, registry.getMetrics().size());
+    }
+}
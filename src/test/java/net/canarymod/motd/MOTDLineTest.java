@@ -0,0 +1,69 @@
+package net.canarymod.motd;
+
+import net.canarymod.chat.MessageReceiver;
+import org.junit.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+public class MOTDLineTest {
+    private static final MOTDOwner OWNER = new MOTDOwner() {
+        @Override
+        public String getName() {
+            return "Tester";
+        }
+    };
+
+    private static MessageReceiver receiver(final String name, final String... permissions) {
+        return (MessageReceiver) Proxy.newProxyInstance(MessageReceiver.class.getClassLoader(), new Class<?>[]{ MessageReceiver.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getName")) {
+                    return name;
+                }
+                if (method.getName().equals("hasPermission")) {
+                    return Arrays.asList(permissions).contains(args[0]);
+                }
+                return null;
+            }
+        });
+    }
+
+    private static MOTDParser parser(String key, final String value) {
+        return new MOTDParser(key, OWNER) {
+            @Override
+            String parse(MessageReceiver receiver) throws Exception {
+                return value != null ? value : receiver.getName();
+            }
+        };
+    }
+
+    @org.junit.Test
+    public void testRendering() throws Exception {
+        List<MOTDParser> parsers = Arrays.asList(parser("{name}", null), parser("{online}", "&a5"), parser("{unused}", "x"));
+        MOTDLine line = MOTDLine.compile("&6Welcome {name}, {online} online. Bye {name}!", parsers);
+        StringBuilder builder = new StringBuilder();
+        Assert.assertEquals("\u00A76Welcome darkdiplomat, \u00A7a5 online. Bye darkdiplomat!", line.render(receiver("darkdiplomat"), builder));
+        Assert.assertEquals("\u00A76Welcome damagefilter, \u00A7a5 online. Bye damagefilter!", line.render(receiver("damagefilter"), builder));
+
+        MOTDLine constant = MOTDLine.compile("&cNo variables here", parsers);
+        Assert.assertSame(constant.render(receiver("a"), builder), constant.render(receiver("b"), builder));
+    }
+
+    @org.junit.Test
+    public void testPermissionGuard() throws Exception {
+        List<MOTDParser> parsers = Arrays.asList(parser("{name}", null));
+        MOTDLine line = MOTDLine.compile("{permissions:canary.build&!canary.admin}Hello {name}", parsers);
+        Assert.assertTrue(line.canReceive(receiver("builder", "canary.build")));
+        Assert.assertFalse(line.canReceive(receiver("admin", "canary.build", "canary.admin")));
+        Assert.assertFalse(line.canReceive(receiver("guest")));
+        Assert.assertEquals("Hello builder", line.render(receiver("builder"), new StringBuilder()));
+
+        Assert.assertTrue(MOTDLine.compile("{permission:!canary.admin}Hi", parsers).canReceive(receiver("guest")));
+        // A guard without text is sent as it is
+        Assert.assertEquals("{permissions:canary.build}", MOTDLine.compile("{permissions:canary.build}", parsers).render(receiver("guest"), new StringBuilder()));
+    }
+}
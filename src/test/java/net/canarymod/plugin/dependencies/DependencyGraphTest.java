@@ -0,0 +1,36 @@
+package net.canarymod.plugin.dependencies;
+
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class DependencyGraphTest {
+
+    @org.junit.Test
+    public void testSchedule() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addDependencies("Economy", new String[]{ "Library" });
+        graph.addDependencies("Shops", new String[]{ "Economy", "Library", "Missing" });
+        graph.addDependencies("Chat", new String[0]);
+
+        List<List<String>> stages = graph.getSchedule(Arrays.asList("Shops", "Economy", "Library", "Chat"));
+        Assert.assertEquals(3, stages.size());
+        Assert.assertEquals(Arrays.asList("Library", "Chat"), stages.get(0));
+        Assert.assertEquals(Arrays.asList("Economy"), stages.get(1));
+        Assert.assertEquals(Arrays.asList("Shops"), stages.get(2));
+    }
+
+    @org.junit.Test
+    public void testCyclesAreScheduledLast() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "A");
+        graph.addEdge("C", "D");
+
+        List<List<String>> stages = graph.getSchedule(Arrays.asList("A", "B", "C", "D"));
+        Assert.assertEquals(Arrays.asList("D"), stages.get(0));
+        Assert.assertEquals(Arrays.asList("C"), stages.get(1));
+        Assert.assertEquals(Arrays.asList("A", "B"), stages.get(2));
+    }
+}
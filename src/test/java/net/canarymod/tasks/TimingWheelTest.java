@@ -0,0 +1,89 @@
+package net.canarymod.tasks;
+
+import org.junit.Assert;
+
+import java.util.Random;
+
+public class TimingWheelTest {
+
+    private static ServerTask task(long delay) {
+        return new ServerTask(new TaskOwner() {
+        }, delay) {
+            @Override
+            public void run() {
+            }
+        };
+    }
+
+    @org.junit.Test
+    public void testExpiresOnDeadline() throws Exception {
+        TimingWheel wheel = new TimingWheel();
+        Random random = new Random(42);
+        long[] delays = new long[2000];
+        TimingWheel.Entry[] entries = new TimingWheel.Entry[delays.length];
+        for (int i = 0; i < delays.length; i++) {
+            // Spread across the first three levels, including the slot boundaries
+            delays[i] = i < 10 ? i - 5 : 1 + random.nextInt(300000);
+            entries[i] = wheel.schedule(task(delays[i]), delays[i]);
+        }
+
+        int expired = 0;
+        while (wheel.size() > 0) {
+            wheel.advance();
+            TimingWheel.Entry entry;
+            while ((entry = wheel.pollExpired()) != null) {
+                Assert.assertEquals("Entry expired on the wrong tick", entry.deadline, wheel.currentTick());
+                Assert.assertEquals("Entry expired on the wrong tick", Math.max(entry.task.getDelay(), 1L), wheel.currentTick());
+                expired++;
+            }
+        }
+        Assert.assertEquals("Not every entry expired", delays.length, expired);
+    }
+
+    @org.junit.Test
+    public void testOverflow() throws Exception {
+        TimingWheel wheel = new TimingWheel();
+        long delay = (1L << 24) + 4097;
+        wheel.schedule(task(delay), delay);
+        for (long i = 1; i < delay; i++) {
+            wheel.advance();
+            Assert.assertNull("Entry expired early", wheel.pollExpired());
+        }
+        wheel.advance();
+        Assert.assertNotNull("Entry did not expire", wheel.pollExpired());
+    }
+
+    @org.junit.Test
+    public void testCancel() throws Exception {
+        TimingWheel wheel = new TimingWheel();
+        TimingWheel.Entry keep = wheel.schedule(task(100), 100);
+        TimingWheel.Entry drop = wheel.schedule(task(100), 100);
+
+        Assert.assertTrue("Scheduled entry should cancel", wheel.cancel(drop));
+        Assert.assertFalse("Cancelled entry should not cancel twice", wheel.cancel(drop));
+        Assert.assertEquals(1, wheel.size());
+
+        for (int i = 0; i < 100; i++) {
+            wheel.advance();
+        }
+        Assert.assertSame("Remaining entry should expire", keep, wheel.pollExpired());
+        Assert.assertNull("Cancelled entry should never expire", wheel.pollExpired());
+    }
+
+    @org.junit.Test
+    public void testReschedule() throws Exception {
+        TimingWheel wheel = new TimingWheel();
+        TimingWheel.Entry entry = wheel.schedule(task(5), 5);
+        int runs = 0;
+        for (int i = 0; i < 50; i++) {
+            wheel.advance();
+            TimingWheel.Entry expired;
+            while ((expired = wheel.pollExpired()) != null) {
+                Assert.assertSame(entry, expired);
+                wheel.reschedule(expired, 5);
+                runs++;
+            }
+        }
+        Assert.assertEquals("Entry should expire every 5 ticks", 10, runs);
+    }
+}
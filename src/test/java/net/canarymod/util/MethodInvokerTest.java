@@ -0,0 +1,88 @@
+package net.canarymod.util;
+
+import org.junit.Assert;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+public class MethodInvokerTest {
+
+    public static class Target {
+        public String last;
+
+        public String join(String first, String[] rest) {
+            return first + rest.length;
+        }
+
+        public void remember(Object value) {
+            last = String.valueOf(value);
+        }
+
+        public static Integer twice(Integer value) {
+            return value * 2;
+        }
+
+        public void fail() throws IOException {
+            throw new IOException("failed");
+        }
+
+        public void broken() {
+            throw new NoClassDefFoundError("missing");
+        }
+
+        private String hidden(String value) {
+            return value;
+        }
+
+        private void hiddenBroken() {
+            throw new NoClassDefFoundError("missing");
+        }
+    }
+
+    @org.junit.Test
+    public void testGeneratedInvoker() throws Exception {
+        Target target = new Target();
+        MethodInvoker join = MethodInvoker.forMethod(Target.class.getMethod("join", String.class, String[].class));
+        Assert.assertTrue("Expected a generated invoker", join.getClass().getName().startsWith("net.canarymod.util.generated."));
+        Assert.assertEquals("a2", join.invoke(target, "a", new String[2]));
+
+        MethodInvoker remember = MethodInvoker.forMethod(Target.class.getMethod("remember", Object.class));
+        Assert.assertNull(remember.invoke(target, 5, null));
+        Assert.assertEquals("5", target.last);
+
+        MethodInvoker twice = MethodInvoker.forMethod(Target.class.getMethod("twice", Integer.class));
+        Assert.assertEquals(8, twice.invoke(null, 4, null));
+    }
+
+    @org.junit.Test
+    public void testReflectiveFallback() throws Exception {
+        MethodInvoker hidden = MethodInvoker.forMethod(Target.class.getDeclaredMethod("hidden", String.class));
+        Assert.assertFalse(hidden.getClass().getName().startsWith("net.canarymod.util.generated."));
+        Assert.assertEquals("x", hidden.invoke(new Target(), "x", null));
+    }
+
+    @org.junit.Test
+    public void testExceptionsPassThrough() throws Exception {
+        MethodInvoker fail = MethodInvoker.forMethod(Target.class.getMethod("fail"));
+        try {
+            fail.invoke(new Target(), null, null);
+            Assert.fail("Exception was swallowed");
+        }
+        catch (IOException ioex) {
+            Assert.assertEquals("failed", ioex.getMessage());
+        }
+    }
+
+    @org.junit.Test
+    public void testErrorsWrapped() throws Exception {
+        for (MethodInvoker broken : new MethodInvoker[]{ MethodInvoker.forMethod(Target.class.getMethod("broken")), MethodInvoker.forMethod(Target.class.getDeclaredMethod("hiddenBroken")) }) {
+            try {
+                broken.invoke(new Target(), null, null);
+                Assert.fail("Error was swallowed");
+            }
+            catch (InvocationTargetException itex) {
+                Assert.assertTrue(itex.getCause() instanceof NoClassDefFoundError);
+            }
+        }
+    }
+}